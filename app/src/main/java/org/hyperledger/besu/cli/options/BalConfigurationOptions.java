@@ -31,6 +31,13 @@ public class BalConfigurationOptions {
           "Allows disabling BAL-based perfect parallelization even when BALs are present.")
   boolean balPerfectParallelizationEnabled = true;
 
+  @CommandLine.Option(
+      names = {"--Xparallel-tx-dependency-scheduling-enabled"},
+      hidden = true,
+      description =
+          "Re-execute conflicting transactions of blocks without a BAL in parallel along their dependency graph (default: false).")
+  boolean dependencyAwareSchedulingEnabled = false;
+
   @CommandLine.Option(
       names = {"--Xbal-state-root-enabled"},
       hidden = true,
@@ -39,6 +46,14 @@ public class BalConfigurationOptions {
           "Use the BAL-based state root commit path when a BAL is present (default: true).")
   boolean balStateRootEnabled = true;
 
+  @CommandLine.Option(
+      names = {"--Xbal-trie-node-prefetch-enabled"},
+      hidden = true,
+      negatable = true,
+      description =
+          "Prefetch the trie nodes needed by the BAL-based state root while transactions execute (default: true).")
+  boolean balTrieNodePrefetchEnabled = true;
+
   @CommandLine.Option(
       names = {"--Xbal-log-bals-on-mismatch"},
       hidden = true,
@@ -53,8 +68,10 @@ public class BalConfigurationOptions {
   public BalConfiguration toDomainObject() {
     return ImmutableBalConfiguration.builder()
         .isPerfectParallelizationEnabled(balPerfectParallelizationEnabled)
+        .isDependencyAwareSchedulingEnabled(dependencyAwareSchedulingEnabled)
         .shouldLogBalsOnMismatch(balLogBalsOnMismatch)
         .isBalStateRootEnabled(balStateRootEnabled)
+        .isBalTrieNodePrefetchEnabled(balTrieNodePrefetchEnabled)
         .build();
   }
 }
@@ -22,8 +22,10 @@ import static org.hyperledger.besu.ethereum.core.MiningConfiguration.DEFAULT_POS
 import static org.hyperledger.besu.ethereum.core.MiningConfiguration.MutableInitValues.DEFAULT_EXTRA_DATA;
 import static org.hyperledger.besu.ethereum.core.MiningConfiguration.MutableInitValues.DEFAULT_MIN_PRIORITY_FEE_PER_GAS;
 import static org.hyperledger.besu.ethereum.core.MiningConfiguration.MutableInitValues.DEFAULT_MIN_TRANSACTION_GAS_PRICE;
+import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DEFAULT_BLOCK_TXS_SELECTION_SPECULATIVE_WINDOW;
 import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DEFAULT_POS_BLOCK_CREATION_MAX_TIME;
 import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DEFAULT_POS_BLOCK_CREATION_REPETITION_MIN_DURATION;
+import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DEFAULT_POS_BLOCK_CREATION_REPETITION_ON_NEW_TRANSACTIONS_ONLY;
 import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DEFAULT_POS_BLOCK_FINALIZATION_TIMEOUT_MS;
 import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DEFAULT_POS_SLOT_DURATION_SECS;
 
@@ -154,6 +156,16 @@ public class MiningOptions implements CLIOptions<MiningConfiguration> {
     private Long posBlockCreationRepetitionMinDuration =
         DEFAULT_POS_BLOCK_CREATION_REPETITION_MIN_DURATION;
 
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xpos-block-creation-repetition-on-new-transactions-only"},
+        description =
+            "Repeat a PoS block creation only when transactions that could improve the block have been added to the txpool since the previous repetition."
+                + " Repetitions that could improve a block cut short by the time limit are skipped too (default: ${DEFAULT-VALUE})",
+        arity = "0..1")
+    private Boolean posBlockCreationRepetitionOnNewTransactionsOnly =
+        DEFAULT_POS_BLOCK_CREATION_REPETITION_ON_NEW_TRANSACTIONS_ONLY;
+
     @CommandLine.Option(
         hidden = true,
         names = {"--Xpos-slot-duration"},
@@ -167,6 +179,14 @@ public class MiningOptions implements CLIOptions<MiningConfiguration> {
         description =
             "Specifies the maximum time, in milliseconds, to wait for block building to complete when only an empty block is available (default: ${DEFAULT-VALUE} milliseconds)")
     private Long posBlockFinalizationTimeoutMs = DEFAULT_POS_BLOCK_FINALIZATION_TIMEOUT_MS;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xblock-txs-selection-speculative-window"},
+        description =
+            "Number of candidate transactions executed in parallel ahead of the block transaction selection, 0 to disable (default: ${DEFAULT-VALUE})")
+    private Integer blockTxsSelectionSpeculativeWindow =
+        DEFAULT_BLOCK_TXS_SELECTION_SPECULATIVE_WINDOW;
   }
 
   private TransactionSelectionService transactionSelectionService;
@@ -224,6 +244,11 @@ public class MiningOptions implements CLIOptions<MiningConfiguration> {
           commandLine, "--Xpos-block-creation-repetition-min-duration must be positive and ≤ 2000");
     }
 
+    if (unstableOptions.blockTxsSelectionSpeculativeWindow < 0) {
+      throw new ParameterException(
+          commandLine, "--Xblock-txs-selection-speculative-window must not be negative");
+    }
+
     if (unstableOptions.posBlockFinalizationTimeoutMs <= 0
         || unstableOptions.posBlockFinalizationTimeoutMs > 12000) {
       throw new ParameterException(
@@ -298,10 +323,14 @@ public class MiningOptions implements CLIOptions<MiningConfiguration> {
         miningConfiguration.getUnstable().getPosBlockCreationMaxTime();
     miningOptions.unstableOptions.posBlockCreationRepetitionMinDuration =
         miningConfiguration.getUnstable().getPosBlockCreationRepetitionMinDuration();
+    miningOptions.unstableOptions.posBlockCreationRepetitionOnNewTransactionsOnly =
+        miningConfiguration.getUnstable().getPosBlockCreationRepetitionOnNewTransactionsOnly();
     miningOptions.unstableOptions.posSlotDuration =
         miningConfiguration.getUnstable().getPosSlotDuration();
     miningOptions.unstableOptions.posBlockFinalizationTimeoutMs =
         miningConfiguration.getUnstable().getPosBlockFinalizationTimeoutMs();
+    miningOptions.unstableOptions.blockTxsSelectionSpeculativeWindow =
+        miningConfiguration.getUnstable().getBlockTxsSelectionSpeculativeWindow();
 
     miningConfiguration.getTargetGasLimit().ifPresent(tgl -> miningOptions.targetGasLimit = tgl);
     return miningOptions;
@@ -340,8 +369,12 @@ public class MiningOptions implements CLIOptions<MiningConfiguration> {
                 .posBlockCreationMaxTime(unstableOptions.posBlockCreationMaxTime)
                 .posBlockCreationRepetitionMinDuration(
                     unstableOptions.posBlockCreationRepetitionMinDuration)
+                .posBlockCreationRepetitionOnNewTransactionsOnly(
+                    unstableOptions.posBlockCreationRepetitionOnNewTransactionsOnly)
                 .posSlotDuration(unstableOptions.posSlotDuration)
                 .posBlockFinalizationTimeoutMs(unstableOptions.posBlockFinalizationTimeoutMs)
+                .blockTxsSelectionSpeculativeWindow(
+                    unstableOptions.blockTxsSelectionSpeculativeWindow)
                 .build())
         .build();
   }
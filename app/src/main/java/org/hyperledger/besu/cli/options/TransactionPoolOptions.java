@@ -257,6 +257,10 @@ public class TransactionPoolOptions implements CLIOptions<TransactionPoolConfigu
         "--Xpeer-tracker-forget-evicted-txs";
     private static final String TX_POOL_SAVE_RESTORE_TIMEOUT_FLAG =
         "--Xtx-pool-save-restore-timeout";
+    private static final String TX_POOL_SAVE_RESTORE_JOURNAL_ENABLED_FLAG =
+        "--Xtx-pool-save-restore-journal-enabled";
+    private static final String TX_POOL_SAVE_RESTORE_JOURNAL_FLUSH_INTERVAL_FLAG =
+        "--Xtx-pool-save-restore-journal-flush-interval";
 
     @CommandLine.Option(
         names = {TX_MESSAGE_KEEP_ALIVE_SEC_FLAG},
@@ -314,6 +318,27 @@ public class TransactionPoolOptions implements CLIOptions<TransactionPoolConfigu
             "Timeout in milliseconds for acquiring the disk access lock during txpool save/restore operations (default: ${DEFAULT-VALUE})")
     private Duration saveRestoreTimeout =
         TransactionPoolConfiguration.Unstable.DEFAULT_SAVE_RESTORE_TIMEOUT;
+
+    @CommandLine.Option(
+        names = {TX_POOL_SAVE_RESTORE_JOURNAL_ENABLED_FLAG},
+        paramLabel = "<BOOLEAN>",
+        hidden = true,
+        description =
+            "When save/restore is enabled, keep the txpool content in an append-only journal updated while the node runs, instead of dumping it on shutdown (default: ${DEFAULT-VALUE})",
+        arity = "0..1",
+        fallbackValue = "true")
+    private Boolean saveRestoreJournalEnabled =
+        TransactionPoolConfiguration.Unstable.DEFAULT_SAVE_RESTORE_JOURNAL_ENABLED;
+
+    @CommandLine.Option(
+        names = {TX_POOL_SAVE_RESTORE_JOURNAL_FLUSH_INTERVAL_FLAG},
+        paramLabel = "<LONG>",
+        converter = DurationMillisConverter.class,
+        hidden = true,
+        description =
+            "Interval in milliseconds between writes of the txpool journal, the most content lost on a crash (default: ${DEFAULT-VALUE})")
+    private Duration saveRestoreJournalFlushInterval =
+        TransactionPoolConfiguration.Unstable.DEFAULT_SAVE_RESTORE_JOURNAL_FLUSH_INTERVAL;
   }
 
   private TransactionPoolOptions() {}
@@ -381,6 +406,10 @@ public class TransactionPoolOptions implements CLIOptions<TransactionPoolConfigu
     options.unstableOptions.peerTrackerForgetEvictedTxs =
         config.getUnstable().getPeerTrackerForgetEvictedTxs();
     options.unstableOptions.saveRestoreTimeout = config.getUnstable().getSaveRestoreTimeout();
+    options.unstableOptions.saveRestoreJournalEnabled =
+        config.getUnstable().getSaveRestoreJournalEnabled();
+    options.unstableOptions.saveRestoreJournalFlushInterval =
+        config.getUnstable().getSaveRestoreJournalFlushInterval();
     return options;
   }
 
@@ -445,6 +474,8 @@ public class TransactionPoolOptions implements CLIOptions<TransactionPoolConfigu
                     Optional.ofNullable(unstableOptions.peerTrackerForgetEvictedTxs)
                         .orElse(deriveDefaultPeersTrackerForgetEvictedTxs(txPoolImplementation)))
                 .saveRestoreTimeout(unstableOptions.saveRestoreTimeout)
+                .saveRestoreJournalEnabled(unstableOptions.saveRestoreJournalEnabled)
+                .saveRestoreJournalFlushInterval(unstableOptions.saveRestoreJournalFlushInterval)
                 .build())
         .build();
   }
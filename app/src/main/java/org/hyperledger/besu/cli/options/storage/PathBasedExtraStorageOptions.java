@@ -22,9 +22,15 @@ import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConf
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.MINIMUM_TRIE_LOG_RETENTION_LIMIT;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_BONSAI_CROSS_BLOCK_CACHE_ACCOUNT_SIZE;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_BONSAI_CROSS_BLOCK_CACHE_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_BONSAI_CROSS_BLOCK_CACHE_OFF_HEAP_BYTES;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_BONSAI_CROSS_BLOCK_CACHE_STORAGE_SIZE;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_BONSAI_TRIE_NODE_CACHE_BYTES;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_BONSAI_TRIE_NODE_CACHE_PINNED_DEPTH;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_CODE_USING_CODE_HASH_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_COMPACT_TRIE_LOG_ENCODING_ENABLED;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_FULL_FLAT_DB_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_INCREMENTAL_STATE_ROOT_COMPUTATION_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_TRIE_LOG_COMPACTION_ENABLED;
 
 import org.hyperledger.besu.cli.options.CLIOptions;
 import org.hyperledger.besu.cli.util.CommandLineUtils;
@@ -143,6 +149,56 @@ public class PathBasedExtraStorageOptions
             "Maximum storage-segment entries when the cross-block cache is enabled (default: ${DEFAULT-VALUE}).")
     private Long bonsaiCrossBlockCacheStorageSize = DEFAULT_BONSAI_CROSS_BLOCK_CACHE_STORAGE_SIZE;
 
+    @Option(
+        hidden = true,
+        names = "--Xbonsai-cross-block-cache-off-heap-bytes",
+        paramLabel = "<LONG>",
+        description =
+            "Off-heap memory budget of the cross-block cache in bytes, 0 keeps the cache on the heap (default: ${DEFAULT-VALUE}).")
+    private Long bonsaiCrossBlockCacheOffHeapBytes =
+        DEFAULT_BONSAI_CROSS_BLOCK_CACHE_OFF_HEAP_BYTES;
+
+    @Option(
+        hidden = true,
+        names = {"--Xbonsai-incremental-state-root-computation-enabled"},
+        arity = "1",
+        description =
+            "Enables updating storage tries in the background while transactions execute. (default: ${DEFAULT-VALUE})")
+    private Boolean incrementalStateRootComputationEnabled =
+        DEFAULT_INCREMENTAL_STATE_ROOT_COMPUTATION_ENABLED;
+
+    @Option(
+        hidden = true,
+        names = {"--Xbonsai-trie-log-compaction-enabled"},
+        arity = "1",
+        description =
+            "Enables merging trie logs into range trie logs to speed up rolling the world state across many blocks. (default: ${DEFAULT-VALUE})")
+    private Boolean trieLogCompactionEnabled = DEFAULT_TRIE_LOG_COMPACTION_ENABLED;
+
+    @Option(
+        hidden = true,
+        names = {"--Xbonsai-compact-trie-log-encoding-enabled"},
+        arity = "1",
+        description =
+            "Enables writing new trie logs in a compact binary format instead of RLP. Trie logs in either format remain readable. Plugins reading raw trie logs must support the compact format. (default: ${DEFAULT-VALUE})")
+    private Boolean compactTrieLogEncodingEnabled = DEFAULT_COMPACT_TRIE_LOG_ENCODING_ENABLED;
+
+    @Option(
+        hidden = true,
+        names = "--Xbonsai-trie-node-cache-bytes",
+        paramLabel = "<LONG>",
+        description =
+            "Memory budget in bytes of the trie nodes cached while preloading accounts and storage slots (default: ${DEFAULT-VALUE}).")
+    private Long bonsaiTrieNodeCacheBytes = DEFAULT_BONSAI_TRIE_NODE_CACHE_BYTES;
+
+    @Option(
+        hidden = true,
+        names = "--Xbonsai-trie-node-cache-pinned-depth",
+        paramLabel = "<INTEGER>",
+        description =
+            "Depth above which cached trie nodes are not evicted by the churn of lower nodes (default: ${DEFAULT-VALUE}).")
+    private Integer bonsaiTrieNodeCachePinnedDepth = DEFAULT_BONSAI_TRIE_NODE_CACHE_PINNED_DEPTH;
+
     /** Default Constructor. */
     Unstable() {}
   }
@@ -216,6 +272,18 @@ public class PathBasedExtraStorageOptions
         domainObject.getUnstable().getBonsaiCrossBlockCacheAccountSize();
     dataStorageOptions.unstableOptions.bonsaiCrossBlockCacheStorageSize =
         domainObject.getUnstable().getBonsaiCrossBlockCacheStorageSize();
+    dataStorageOptions.unstableOptions.bonsaiCrossBlockCacheOffHeapBytes =
+        domainObject.getUnstable().getBonsaiCrossBlockCacheOffHeapBytes();
+    dataStorageOptions.unstableOptions.incrementalStateRootComputationEnabled =
+        domainObject.getUnstable().getIncrementalStateRootComputationEnabled();
+    dataStorageOptions.unstableOptions.trieLogCompactionEnabled =
+        domainObject.getUnstable().getTrieLogCompactionEnabled();
+    dataStorageOptions.unstableOptions.compactTrieLogEncodingEnabled =
+        domainObject.getUnstable().getCompactTrieLogEncodingEnabled();
+    dataStorageOptions.unstableOptions.bonsaiTrieNodeCacheBytes =
+        domainObject.getUnstable().getBonsaiTrieNodeCacheBytes();
+    dataStorageOptions.unstableOptions.bonsaiTrieNodeCachePinnedDepth =
+        domainObject.getUnstable().getBonsaiTrieNodeCachePinnedDepth();
     dataStorageOptions.isParallelTxProcessingEnabled =
         domainObject.getParallelTxProcessingEnabled();
     dataStorageOptions.isParallelStateRootComputationEnabled =
@@ -239,6 +307,14 @@ public class PathBasedExtraStorageOptions
                 .bonsaiCrossBlockCacheEnabled(unstableOptions.bonsaiCrossBlockCacheEnabled)
                 .bonsaiCrossBlockCacheAccountSize(unstableOptions.bonsaiCrossBlockCacheAccountSize)
                 .bonsaiCrossBlockCacheStorageSize(unstableOptions.bonsaiCrossBlockCacheStorageSize)
+                .bonsaiCrossBlockCacheOffHeapBytes(
+                    unstableOptions.bonsaiCrossBlockCacheOffHeapBytes)
+                .incrementalStateRootComputationEnabled(
+                    unstableOptions.incrementalStateRootComputationEnabled)
+                .trieLogCompactionEnabled(unstableOptions.trieLogCompactionEnabled)
+                .compactTrieLogEncodingEnabled(unstableOptions.compactTrieLogEncodingEnabled)
+                .bonsaiTrieNodeCacheBytes(unstableOptions.bonsaiTrieNodeCacheBytes)
+                .bonsaiTrieNodeCachePinnedDepth(unstableOptions.bonsaiTrieNodeCachePinnedDepth)
                 .build())
         .build();
   }
@@ -27,8 +27,8 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.BonsaiTrieLogFactory;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLog;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
-import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogLayer;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration;
 
@@ -315,7 +315,15 @@ public class TrieLogHelper {
         RLP.encode(
             o ->
                 o.writeList(
-                    trieLogs.entrySet(), (val, out) -> out.writeRaw(Bytes.wrap(val.getValue()))));
+                    trieLogs.entrySet(),
+                    (val, out) -> {
+                      // compact trie logs are not RLP lists, store them as RLP byte strings
+                      if (CompactTrieLog.isCompact(val.getValue())) {
+                        out.writeBytes(Bytes.wrap(val.getValue()));
+                      } else {
+                        out.writeRaw(Bytes.wrap(val.getValue()));
+                      }
+                    }));
     try {
       Files.write(file.toPath(), rlp.toArrayUnsafe());
     } catch (IOException e) {
@@ -332,11 +340,18 @@ public class TrieLogHelper {
       input.enterList();
       final IdentityHashMap<byte[], byte[]> trieLogs = new IdentityHashMap<>();
       while (!input.isEndOfCurrentList()) {
-        final Bytes trieLogBytes = input.currentListAsBytes();
-        TrieLogLayer trieLogLayer =
-            BonsaiTrieLogFactory.readFrom(new BytesValueRLPInput(Bytes.wrap(trieLogBytes), false));
-        trieLogs.put(
-            trieLogLayer.getBlockHash().getBytes().toArrayUnsafe(), trieLogBytes.toArrayUnsafe());
+        final Bytes trieLogBytes;
+        final Hash blockHash;
+        if (input.nextIsList()) {
+          trieLogBytes = input.currentListAsBytes();
+          blockHash =
+              BonsaiTrieLogFactory.readFrom(new BytesValueRLPInput(trieLogBytes, false))
+                  .getBlockHash();
+        } else {
+          trieLogBytes = input.readBytes();
+          blockHash = CompactTrieLog.wrap(trieLogBytes).getBlockHash();
+        }
+        trieLogs.put(blockHash.getBytes().toArrayUnsafe(), trieLogBytes.toArrayUnsafe());
       }
       input.leaveList();
 
@@ -91,8 +91,10 @@ import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.archive.BonsaiFlatDbT
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.provider.BonsaiWorldStateProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.accumulator.preload.BonsaiCachedMerkleTrieLoader;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.code.CodeAnalysisStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.code.PathBasedCodeCache;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.flat.CodeHashCodeStorageStrategy;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogCompactor;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogPruner;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
@@ -120,6 +122,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -648,6 +651,12 @@ public abstract class BesuControllerBuilder implements MiningConfigurationOverri
     this.codeCache =
         besuComponent.map(BesuComponent::getCodeCache).orElse(new PathBasedCodeCache());
     this.codeCache.setupMetricsSystem(metricsSystem);
+    if (dataStorageConfiguration.getDataStorageFormat().isBonsaiFormat()) {
+      this.codeCache.setAnalysisStorage(
+          new CodeAnalysisStorage(
+              storageProvider.getStorageBySegmentIdentifier(
+                  KeyValueSegmentIdentifier.CODE_ANALYSIS)));
+    }
 
     prepForBuild();
 
@@ -698,6 +707,11 @@ public abstract class BesuControllerBuilder implements MiningConfigurationOverri
         besuComponent
             .map(BesuComponent::getCachedMerkleTrieLoader)
             .orElseGet(() -> new BonsaiCachedMerkleTrieLoader(metricsSystem));
+    final PathBasedExtraStorageConfiguration.PathBasedUnstable pathBasedUnstable =
+        dataStorageConfiguration.getPathBasedExtraStorageConfiguration().getUnstable();
+    bonsaiCachedMerkleTrieLoader.configureNodeCache(
+        pathBasedUnstable.getBonsaiTrieNodeCacheBytes(),
+        pathBasedUnstable.getBonsaiTrieNodeCachePinnedDepth());
 
     final var worldStateHealerSupplier = new AtomicReference<WorldStateHealer>();
 
@@ -926,11 +940,23 @@ public abstract class BesuControllerBuilder implements MiningConfigurationOverri
             createTrieLogPruner(worldStateKeyValueStorage, blockchain, scheduler);
         trieLogManager.subscribe(trieLogPruner);
       }
+      if (subStorageConfiguration.getUnstable().getTrieLogCompactionEnabled()) {
+        final TrieLogManager trieLogManager =
+            ((BonsaiWorldStateProvider) worldStateArchive).getTrieLogManager();
+        trieLogManager.subscribe(
+            new TrieLogCompactor(
+                worldStateStorageCoordinator.getStrategy(BonsaiWorldStateKeyValueStorage.class),
+                blockchain,
+                trieLogManager.getTrieLogFactory(),
+                scheduler::executeServiceTask));
+      }
     }
 
     final List<Closeable> closeables = new ArrayList<>();
     closeables.add(protocolContext.getWorldStateArchive());
     closeables.add(storageProvider);
+    // Write the pending code analysis before storageProvider closes the database
+    closeables.addFirst(codeCache::close);
 
     if (DataStorageFormat.X_BONSAI_ARCHIVE.equals(
         dataStorageConfiguration.getDataStorageFormat())) {
@@ -1075,11 +1101,18 @@ public abstract class BesuControllerBuilder implements MiningConfigurationOverri
         MonitoredExecutors.newScheduledThreadPool("archive-migrator", 1, metricsSystem);
     final BonsaiArchiveFlatDbStrategy archiveStrategy =
         new BonsaiArchiveFlatDbStrategy(metricsSystem, new CodeHashCodeStorageStrategy());
+    final int partitionCount = BonsaiFlatDbToArchiveMigrator.DEFAULT_PARTITION_COUNT;
+    final ExecutorService partitionExecutor =
+        MonitoredExecutors.newFixedThreadPool(
+            "archive-migrator-partition", partitionCount, metricsSystem);
     return new BonsaiFlatDbToArchiveMigrator(
         worldStateKeyValueStorage,
         trieLogManager,
         blockchain,
         migrationExecutor,
+        partitionExecutor,
+        partitionCount,
+        BonsaiFlatDbToArchiveMigrator.DEFAULT_BLOCKS_PER_BATCH,
         metricsSystem,
         archiveStrategy);
   }
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.consensus.merge.blockcreation;
 
+import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.blockcreation.AbstractBlockCreator;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
@@ -30,11 +31,16 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.tuweni.bytes.Bytes32;
 
 /** The Merge block creator. */
 class MergeBlockCreator extends AbstractBlockCreator {
+  private final TransactionPool transactionPool;
+  private final AtomicReference<Wei> newTransactionsMaxGasPrice = new AtomicReference<>();
+  private volatile Optional<Wei> blockBaseFee = Optional.empty();
+  private Long newTransactionsListenerId;
 
   /**
    * Instantiates a new Merge block creator.
@@ -62,6 +68,7 @@ class MergeBlockCreator extends AbstractBlockCreator {
         protocolContext,
         protocolSchedule,
         ethScheduler);
+    this.transactionPool = transactionPool;
   }
 
   /**
@@ -86,17 +93,61 @@ class MergeBlockCreator extends AbstractBlockCreator {
       final Optional<Long> targetGasLimit,
       final BlockHeader parentHeader) {
 
-    return createBlock(
-        maybeTransactions,
-        Optional.of(Collections.emptyList()),
-        withdrawals,
-        Optional.of(random),
-        parentBeaconBlockRoot,
-        slotNumber,
-        targetGasLimit,
-        timestamp,
-        false,
-        parentHeader);
+    final BlockCreationResult result =
+        createBlock(
+            maybeTransactions,
+            Optional.of(Collections.emptyList()),
+            withdrawals,
+            Optional.of(random),
+            parentBeaconBlockRoot,
+            slotNumber,
+            targetGasLimit,
+            timestamp,
+            false,
+            parentHeader);
+    blockBaseFee = result.getBlock().getHeader().getBaseFee();
+    return result;
+  }
+
+  /**
+   * Start recording the transactions added to the txpool, to be able to tell if a new block
+   * creation could include something that the previous one did not see.
+   */
+  synchronized void trackNewTransactions() {
+    if (newTransactionsListenerId == null) {
+      newTransactionsListenerId =
+          transactionPool.subscribePendingTransactions(this::onNewTransaction);
+    }
+  }
+
+  /**
+   * Return true if, since the previous call, a transaction has been added to the txpool that is
+   * able to pay the base fee of the block being created. Only the transactions added after {@link
+   * #trackNewTransactions()} are considered.
+   *
+   * @return true if there are new transactions that could improve the block
+   */
+  boolean hasNewTransactions() {
+    final Wei maxGasPrice = newTransactionsMaxGasPrice.getAndSet(null);
+    return maxGasPrice != null
+        && blockBaseFee.map(baseFee -> maxGasPrice.greaterOrEqualThan(baseFee)).orElse(true);
+  }
+
+  private void onNewTransaction(final Transaction transaction) {
+    final Wei maxGasPrice = transaction.getMaxGasPrice();
+    newTransactionsMaxGasPrice.accumulateAndGet(
+        maxGasPrice, (curr, next) -> curr == null || next.greaterThan(curr) ? next : curr);
+  }
+
+  @Override
+  public void cancel() {
+    synchronized (this) {
+      if (newTransactionsListenerId != null) {
+        transactionPool.unsubscribePendingTransactions(newTransactionsListenerId);
+        newTransactionsListenerId = null;
+      }
+    }
+    super.cancel();
   }
 
   @Override
@@ -66,6 +66,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -438,6 +439,19 @@ public class MergeCoordinator implements MergeMiningCoordinator, BadChainListene
         payloadIdentifier,
         miningConfiguration.getUnstable().getPosBlockCreationMaxTime());
 
+    // When enabled, repetitions are skipped unless new transactions arrived since the previous
+    // one, since the parent, and so the state against which they are executed, does not change.
+    // A repetition that does run still selects and executes every transaction again from the
+    // parent state. Off by default: a block cut short by the time limit, or shaped by time
+    // dependent selectors, could still be improved by a repetition without new transactions
+    final BooleanSupplier hasNewTransactions;
+    if (miningConfiguration.getUnstable().getPosBlockCreationRepetitionOnNewTransactionsOnly()) {
+      mergeBlockCreator.trackNewTransactions();
+      hasNewTransactions = mergeBlockCreator::hasNewTransactions;
+    } else {
+      hasNewTransactions = () -> true;
+    }
+
     // Create a future that we control
     final CompletableFuture<Void> blockCreationFuture = new CompletableFuture<>();
 
@@ -451,7 +465,9 @@ public class MergeCoordinator implements MergeMiningCoordinator, BadChainListene
     ethScheduler
         .scheduleBlockCreationTask(
             parentHeader.getNumber() + 1,
-            () -> retryBlockCreationUntilUseful(payloadIdentifier, blockCreator))
+            () ->
+                retryBlockCreationUntilUseful(
+                    payloadIdentifier, blockCreator, hasNewTransactions))
         .orTimeout(
             miningConfiguration.getUnstable().getPosBlockCreationMaxTime(), TimeUnit.MILLISECONDS)
         .whenComplete(
@@ -478,15 +494,32 @@ public class MergeCoordinator implements MergeMiningCoordinator, BadChainListene
             });
   }
 
+  /**
+   * Build the block for the payload again and again until the block creation is cancelled. Every
+   * build starts from the parent state and selects the transactions from scratch; nothing of the
+   * previous build is reused. A build may only be skipped when {@code hasNewTransactions} reports
+   * that the txpool did not get anything that could improve the current block.
+   */
   private Void retryBlockCreationUntilUseful(
-      final PayloadIdentifier payloadIdentifier, final Supplier<BlockCreationResult> blockCreator) {
+      final PayloadIdentifier payloadIdentifier,
+      final Supplier<BlockCreationResult> blockCreator,
+      final BooleanSupplier hasNewTransactions) {
 
     long lastStartAt;
+    boolean isFirstRepetition = true;
 
     while (!isBlockCreationCancelled(payloadIdentifier)) {
       try {
         lastStartAt = System.currentTimeMillis();
-        recoverableBlockCreation(payloadIdentifier, blockCreator, lastStartAt);
+        // always check, to not count again the transactions seen by this repetition
+        if (hasNewTransactions.getAsBoolean() || isFirstRepetition) {
+          recoverableBlockCreation(payloadIdentifier, blockCreator, lastStartAt);
+          isFirstRepetition = false;
+        } else {
+          LOG.trace(
+              "No new transactions for payload id {}, keeping the current block",
+              payloadIdentifier);
+        }
         final long lastDuration = System.currentTimeMillis() - lastStartAt;
         final long waitBeforeRepetition =
             Math.max(
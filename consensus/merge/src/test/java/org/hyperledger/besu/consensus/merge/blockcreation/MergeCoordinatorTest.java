@@ -584,6 +584,60 @@ public class MergeCoordinatorTest implements MergeGenesisConfigHelper {
         .allSatisfy(d -> assertThat(d).isGreaterThanOrEqualTo(REPETITION_MIN_DURATION - 10));
   }
 
+  @Test
+  public void shouldNotRepeatBlockCreationWithoutNewTransactions()
+      throws InterruptedException, ExecutionException {
+    miningConfiguration =
+        ImmutableMiningConfiguration.builder()
+            .from(miningConfiguration)
+            .unstable(
+                Unstable.builder()
+                    .posBlockCreationRepetitionMinDuration(REPETITION_MIN_DURATION)
+                    .posBlockCreationRepetitionOnNewTransactionsOnly(true)
+                    .build())
+            .build();
+
+    this.coordinator =
+        new MergeCoordinator(
+            protocolContext,
+            protocolSchedule,
+            ethScheduler,
+            transactionPool,
+            miningConfiguration,
+            backwardSyncContext);
+
+    transactions.addTransaction(createLocalTransaction(0), Optional.empty());
+
+    var payloadId =
+        coordinator.preparePayload(
+            new PreparePayloadArgsBuilder()
+                .parentHeader(genesisState.getBlock().getHeader())
+                .timestamp(System.currentTimeMillis() / 1000)
+                .prevRandao(Bytes32.ZERO)
+                .feeRecipient(suggestedFeeRecipient)
+                .build());
+
+    // leave time for several repetitions
+    Thread.sleep(REPETITION_MIN_DURATION * 5);
+    coordinator.finalizeProposalById(payloadId);
+
+    blockCreationTask.get();
+
+    ArgumentCaptor<PayloadWrapper> payloadWrapper = ArgumentCaptor.forClass(PayloadWrapper.class);
+
+    // the empty block and the one with the only transaction in the pool
+    verify(mergeContext, times(2)).putPayloadById(payloadWrapper.capture());
+    assertThat(
+            payloadWrapper
+                .getAllValues()
+                .get(1)
+                .blockWithReceipts()
+                .getBlock()
+                .getBody()
+                .getTransactions())
+        .hasSize(1);
+  }
+
   @Test
   public void shouldRetryBlockCreationOnRecoverableError()
       throws InterruptedException, ExecutionException {
@@ -25,6 +25,7 @@ import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.blockcreation.txselection.BlockTransactionSelector;
+import org.hyperledger.besu.ethereum.blockcreation.txselection.SpeculativeTransactionProcessor;
 import org.hyperledger.besu.ethereum.blockcreation.txselection.TransactionSelectionResults;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockBody;
@@ -51,13 +52,16 @@ import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList;
 import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.BlockAccessListBuilder;
 import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessListFactory;
 import org.hyperledger.besu.ethereum.mainnet.feemarket.ExcessBlobGasCalculator;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.BlockProcessingExecutors;
 import org.hyperledger.besu.ethereum.mainnet.requests.RequestProcessingContext;
 import org.hyperledger.besu.ethereum.mainnet.requests.RequestProcessorCoordinator;
 import org.hyperledger.besu.ethereum.mainnet.systemcall.BlockProcessingContext;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
 import org.hyperledger.besu.evm.account.MutableAccount;
 import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.securitymodule.SecurityModuleException;
+import org.hyperledger.besu.plugin.services.tracer.BlockAwareOperationTracer;
 import org.hyperledger.besu.plugin.services.txselection.PluginTransactionSelector;
 import org.hyperledger.besu.plugin.services.txselection.SelectorsStateManager;
 import org.hyperledger.besu.plugin.services.worldstate.MutableWorldState;
@@ -436,7 +440,17 @@ public abstract class AbstractBlockCreator implements AsyncBlockCreator {
             pluginTransactionSelector,
             ethScheduler,
             selectorsStateManager,
-            blockAccessListBuilder);
+            blockAccessListBuilder,
+            createSpeculativeProcessor(
+                processableBlockHeader,
+                disposableWorldState,
+                transactions,
+                miningBeneficiary,
+                protocolSpec,
+                pluginTransactionSelector,
+                parentHeader,
+                blockAccessListBuilder,
+                blobGasPrice));
 
     if (transactions.isPresent()) {
       return selector.evaluateTransactions(transactions.get());
@@ -445,6 +459,44 @@ public abstract class AbstractBlockCreator implements AsyncBlockCreator {
     }
   }
 
+  private Optional<SpeculativeTransactionProcessor> createSpeculativeProcessor(
+      final ProcessableBlockHeader processableBlockHeader,
+      final MutableWorldState disposableWorldState,
+      final Optional<List<Transaction>> transactions,
+      final Address miningBeneficiary,
+      final ProtocolSpec protocolSpec,
+      final PluginTransactionSelector pluginTransactionSelector,
+      final BlockHeader parentHeader,
+      final Optional<BlockAccessListBuilder> blockAccessListBuilder,
+      final Wei blobGasPrice) {
+    final int window = miningConfiguration.getUnstable().getBlockTxsSelectionSpeculativeWindow();
+    // executions ahead are not visible to plugin tracers, and do not know the final location of
+    // the transaction in the block access list, so they are only used when none of them is needed
+    if (window <= 0
+        || transactions.isPresent()
+        || !(disposableWorldState instanceof BonsaiWorldState)
+        || pluginTransactionSelector.getOperationTracer() != BlockAwareOperationTracer.NO_TRACING
+        || blockAccessListBuilder.isPresent()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new SpeculativeTransactionProcessor(
+            protocolSpec.getTransactionProcessor(),
+            () ->
+                protocolContext
+                    .getWorldStateArchive()
+                    .getWorldState(withBlockHeaderAndNoUpdateNodeHead(parentHeader))
+                    .map(BonsaiWorldState.class::cast),
+            processableBlockHeader,
+            miningBeneficiary,
+            protocolSpec
+                .getPreExecutionProcessor()
+                .createBlockHashLookup(protocolContext.getBlockchain(), processableBlockHeader),
+            blobGasPrice,
+            window,
+            BlockProcessingExecutors.cpuExecutor()));
+  }
+
   private MutableWorldState duplicateWorldStateAtParent(final BlockHeader parentHeader) {
     final Hash parentStateRoot = parentHeader.getStateRoot();
     return protocolContext
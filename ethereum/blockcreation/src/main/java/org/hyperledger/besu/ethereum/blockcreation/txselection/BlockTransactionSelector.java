@@ -53,7 +53,9 @@ import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
 import org.hyperledger.besu.ethereum.mainnet.block.access.list.AccessLocationTracker;
 import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList;
 import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.BlockAccessListBuilder;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.ParallelizedTransactionContext;
 import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
 import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
 import org.hyperledger.besu.evm.tracing.OperationTracer;
 import org.hyperledger.besu.evm.worldstate.WorldUpdater;
@@ -126,8 +128,10 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
   private final long blockTxsSelectionMaxTimeNanos;
   private final long pluginTxsSelectionMaxTimeNanos;
   private final Optional<BlockAccessList.BlockAccessListBuilder> maybeBlockAccessListBuilder;
+  private final Optional<SpeculativeTransactionProcessor> maybeSpeculativeProcessor;
 
   private WorldUpdater blockWorldStateUpdater;
+  private ParallelizedTransactionContext currTxSpeculativeContext;
   private WorldUpdater txWorldStateUpdater;
   private volatile TransactionEvaluationContext currTxEvaluationContext;
   private final List<PendingAction> selectionPendingActions = new ArrayList<>(1);
@@ -151,6 +155,40 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
       final EthScheduler ethScheduler,
       final SelectorsStateManager selectorsStateManager,
       final Optional<BlockAccessList.BlockAccessListBuilder> maybeBlockAccessListBuilder) {
+    this(
+        miningConfiguration,
+        transactionProcessor,
+        blockchain,
+        worldState,
+        transactionPool,
+        processableBlockHeader,
+        transactionReceiptFactory,
+        miningBeneficiary,
+        blobGasPrice,
+        protocolSpec,
+        pluginTransactionSelector,
+        ethScheduler,
+        selectorsStateManager,
+        maybeBlockAccessListBuilder,
+        Optional.empty());
+  }
+
+  public BlockTransactionSelector(
+      final MiningConfiguration miningConfiguration,
+      final MainnetTransactionProcessor transactionProcessor,
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final TransactionPool transactionPool,
+      final ProcessableBlockHeader processableBlockHeader,
+      final AbstractBlockProcessor.TransactionReceiptFactory transactionReceiptFactory,
+      final Address miningBeneficiary,
+      final Wei blobGasPrice,
+      final ProtocolSpec protocolSpec,
+      final PluginTransactionSelector pluginTransactionSelector,
+      final EthScheduler ethScheduler,
+      final SelectorsStateManager selectorsStateManager,
+      final Optional<BlockAccessList.BlockAccessListBuilder> maybeBlockAccessListBuilder,
+      final Optional<SpeculativeTransactionProcessor> maybeSpeculativeProcessor) {
     this.transactionProcessor = transactionProcessor;
     this.blockchain = blockchain;
     this.worldState = worldState;
@@ -180,6 +218,7 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
     this.pluginTxsSelectionMaxTimeNanos =
         miningConfiguration.getPluginTxsSelectionMaxTime(blockTxsSelectionMaxTime).toNanos();
     this.maybeBlockAccessListBuilder = maybeBlockAccessListBuilder;
+    this.maybeSpeculativeProcessor = maybeSpeculativeProcessor;
   }
 
   private List<AbstractTransactionSelector> createTransactionSelectors(
@@ -274,7 +313,11 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
                     .addArgument(blockSelectionContext.transactionPool()::logStats)
                     .log();
 
-                for (PendingTransaction candidateTx : candidateTransactions) {
+                for (int i = 0; i < candidateTransactions.size(); i++) {
+                  final PendingTransaction candidateTx = candidateTransactions.get(i);
+                  final int candidateIndex = i;
+                  maybeSpeculativeProcessor.ifPresent(
+                      processor -> processor.runAhead(candidateTransactions, candidateIndex));
                   final var selectionResult = evaluateTransaction(candidateTx);
                   selectionResults.put(candidateTx, selectionResult);
                   if (selectionResult.stop()) {
@@ -282,6 +325,7 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
                   }
                 }
               } finally {
+                maybeSpeculativeProcessor.ifPresent(SpeculativeTransactionProcessor::cancel);
                 internalSelectionDone.countDown();
               }
             },
@@ -598,6 +642,11 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
         for (final var pendingAction : selectionPendingActions) {
           pendingAction.runOnCommit();
         }
+        if (currTxSpeculativeContext != null) {
+          maybeSpeculativeProcessor
+              .orElseThrow()
+              .apply(currTxSpeculativeContext, blockAccumulator());
+        }
         txWorldStateUpdater.commit();
         blockWorldStateUpdater.commit();
         blockWorldStateUpdater.markTransactionBoundary();
@@ -605,6 +654,7 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
     }
 
     selectionPendingActions.clear();
+    currTxSpeculativeContext = null;
     blockWorldStateUpdater = worldState.updater();
     txWorldStateUpdater = blockWorldStateUpdater.updater();
 
@@ -617,6 +667,7 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
       pendingAction.runOnRollback();
     }
     selectionPendingActions.clear();
+    currTxSpeculativeContext = null;
     selectorsStateManager.rollback();
     txWorldStateUpdater = blockWorldStateUpdater.updater();
   }
@@ -688,12 +739,22 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
   }
 
   /**
-   * Processes a transaction
+   * Processes a transaction, unless it was already executed ahead and the result is still valid,
+   * in which case the result is applied to the world state on commit.
    *
    * @param transaction The transaction to be processed.
    * @return The result of the transaction processing.
    */
   private TransactionProcessingResult processTransaction(final Transaction transaction) {
+    if (maybeSpeculativeProcessor.isPresent()) {
+      final var maybeSpeculativeContext =
+          maybeSpeculativeProcessor.get().getResult(transaction, blockAccumulator());
+      if (maybeSpeculativeContext.isPresent()) {
+        currTxSpeculativeContext = maybeSpeculativeContext.get();
+        return currTxSpeculativeContext.transactionProcessingResult();
+      }
+    }
+
     final BlockHashLookup blockHashLookup =
         blockSelectionContext
             .preExecutionProcessor()
@@ -894,6 +955,10 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
     pluginTransactionSelector.onTransactionNotSelected(evaluationContext, selectionResult);
   }
 
+  private PathBasedWorldStateUpdateAccumulator<?> blockAccumulator() {
+    return (PathBasedWorldStateUpdateAccumulator<?>) blockWorldStateUpdater;
+  }
+
   private long nanosToMillis(final long nanos) {
     return TimeUnit.NANOSECONDS.toMillis(nanos);
   }
@@ -0,0 +1,219 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.blockcreation.txselection;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.ParallelTransactionExecution;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.ParallelizedTransactionContext;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.TransactionCollisionDetector;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the next candidate transactions of the block selection ahead of time, in parallel, each
+ * one against its own copy of the parent world state.
+ *
+ * <p>When the selection reaches a candidate that was executed ahead, and none of the transactions
+ * committed to the block in the meantime touched the accounts or the storage it used, its result
+ * is applied to the block state instead of executing it again. Otherwise the values it read are
+ * imported in the block state, to save the storage reads, and the candidate is executed as usual.
+ *
+ * <p>Only the selection thread calls the methods of this class.
+ */
+public class SpeculativeTransactionProcessor {
+  private static final Logger LOG = LoggerFactory.getLogger(SpeculativeTransactionProcessor.class);
+
+  private final MainnetTransactionProcessor transactionProcessor;
+  private final Supplier<Optional<BonsaiWorldState>> parentWorldStateSupplier;
+  private final ProcessableBlockHeader pendingBlockHeader;
+  private final Address miningBeneficiary;
+  private final BlockHashLookup blockHashLookup;
+  private final Wei blobGasPrice;
+  private final int window;
+  private final Executor executor;
+  private final TransactionCollisionDetector collisionDetector = new TransactionCollisionDetector();
+  private final Map<Hash, CompletableFuture<ParallelizedTransactionContext>> inFlight =
+      new HashMap<>();
+  private final AtomicInteger generation = new AtomicInteger();
+  private int nextToSubmit;
+
+  /**
+   * Create a speculative processor for the block being built.
+   *
+   * @param transactionProcessor the transaction processor
+   * @param parentWorldStateSupplier supplies a new copy of the parent world state on each call
+   * @param pendingBlockHeader the header of the block being built
+   * @param miningBeneficiary the mining beneficiary
+   * @param blockHashLookup the block hash lookup, forked for each execution
+   * @param blobGasPrice the blob gas price
+   * @param window how many candidates, after the one being evaluated, to execute ahead
+   * @param executor the executor for the executions ahead
+   */
+  public SpeculativeTransactionProcessor(
+      final MainnetTransactionProcessor transactionProcessor,
+      final Supplier<Optional<BonsaiWorldState>> parentWorldStateSupplier,
+      final ProcessableBlockHeader pendingBlockHeader,
+      final Address miningBeneficiary,
+      final BlockHashLookup blockHashLookup,
+      final Wei blobGasPrice,
+      final int window,
+      final Executor executor) {
+    this.transactionProcessor = transactionProcessor;
+    this.parentWorldStateSupplier = parentWorldStateSupplier;
+    this.pendingBlockHeader = pendingBlockHeader;
+    this.miningBeneficiary = miningBeneficiary;
+    this.blockHashLookup = blockHashLookup;
+    this.blobGasPrice = blobGasPrice;
+    this.window = window;
+    this.executor = executor;
+  }
+
+  /**
+   * Start the execution of the candidates that follow the current one, up to the window size, that
+   * are not already running.
+   *
+   * @param candidates the candidates of the selection, in priority order
+   * @param currentIndex the index of the candidate about to be evaluated
+   */
+  void runAhead(final List<PendingTransaction> candidates, final int currentIndex) {
+    final int end = Math.min(candidates.size(), currentIndex + window + 1);
+    final int currGeneration = generation.get();
+    for (nextToSubmit = Math.max(nextToSubmit, currentIndex + 1);
+        nextToSubmit < end;
+        nextToSubmit++) {
+      final Transaction transaction = candidates.get(nextToSubmit).getTransaction();
+      inFlight.put(
+          transaction.getHash(),
+          CompletableFuture.supplyAsync(
+              () -> generation.get() == currGeneration ? execute(transaction) : null, executor));
+    }
+  }
+
+  /**
+   * Get the result of the execution ahead of the transaction, if it is completed, successful, and
+   * still valid for the current block state. The result is not applied until {@link
+   * #apply(ParallelizedTransactionContext, PathBasedWorldStateUpdateAccumulator)} is called.
+   *
+   * @param transaction the transaction being evaluated
+   * @param blockAccumulator the block state with all the transactions committed so far
+   * @return the result of the execution ahead, or empty if the transaction needs to be executed
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  Optional<ParallelizedTransactionContext> getResult(
+      final Transaction transaction, final PathBasedWorldStateUpdateAccumulator blockAccumulator) {
+    final CompletableFuture<ParallelizedTransactionContext> future =
+        inFlight.remove(transaction.getHash());
+    if (future == null) {
+      return Optional.empty();
+    }
+    if (!future.isDone()) {
+      future.cancel(false);
+      return Optional.empty();
+    }
+
+    final ParallelizedTransactionContext context = future.resultNow();
+    if (context == null) {
+      return Optional.empty();
+    }
+
+    if (context.transactionProcessingResult().isSuccessful()
+        && !collisionDetector.hasCollision(
+            transaction, miningBeneficiary, context, blockAccumulator)) {
+      LOG.atTrace()
+          .setMessage("Using the result of the execution ahead of {}")
+          .addArgument(transaction::toTraceLog)
+          .log();
+      return Optional.of(context);
+    }
+
+    // not usable, but what it read is still valid where the block did not change it
+    blockAccumulator.importPriorStateFromSource(context.transactionAccumulator());
+    return Optional.empty();
+  }
+
+  /**
+   * Apply the result of the execution ahead of a transaction to the block state, including the
+   * reward of the mining beneficiary, that is not part of the speculative state changes.
+   *
+   * @param context the result returned by {@link #getResult(Transaction,
+   *     PathBasedWorldStateUpdateAccumulator)}
+   * @param blockAccumulator the block state
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void apply(
+      final ParallelizedTransactionContext context,
+      final PathBasedWorldStateUpdateAccumulator blockAccumulator) {
+    ParallelTransactionExecution.applyToBlockState(
+        context, blockAccumulator, miningBeneficiary, transactionProcessor.getClearEmptyAccounts());
+  }
+
+  /** Discard all the executions ahead, and skip the ones that did not start yet. */
+  void cancel() {
+    generation.incrementAndGet();
+    inFlight.values().forEach(future -> future.cancel(false));
+    inFlight.clear();
+    nextToSubmit = 0;
+  }
+
+  private ParallelizedTransactionContext execute(final Transaction transaction) {
+    final BonsaiWorldState ws = parentWorldStateSupplier.get().orElse(null);
+    if (ws == null) {
+      return null;
+    }
+
+    try {
+      return ParallelTransactionExecution.execute(
+          ws,
+          transactionProcessor,
+          collisionDetector,
+          pendingBlockHeader,
+          transaction,
+          miningBeneficiary,
+          blockHashLookup,
+          TransactionValidationParams.mining(),
+          blobGasPrice,
+          Optional.empty());
+    } catch (final Exception e) {
+      LOG.atTrace()
+          .setMessage("Execution ahead of {} failed, it will be executed as usual")
+          .addArgument(transaction::toTraceLog)
+          .setCause(e)
+          .log();
+      return null;
+    } finally {
+      ws.close();
+    }
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.blockcreation.txselection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class SpeculativeTransactionProcessorTest {
+  private static final Address MINING_BENEFICIARY = Address.fromHexString("0xbe");
+  private static final int WINDOW = 2;
+
+  private final MainnetTransactionProcessor transactionProcessor =
+      mock(MainnetTransactionProcessor.class);
+  private final PathBasedWorldStateUpdateAccumulator speculativeAccumulator =
+      mock(PathBasedWorldStateUpdateAccumulator.class);
+  private final PathBasedWorldStateUpdateAccumulator blockAccumulator =
+      mock(PathBasedWorldStateUpdateAccumulator.class);
+  private final TransactionProcessingResult processingResult =
+      mock(TransactionProcessingResult.class);
+  private final List<PendingTransaction> candidates =
+      IntStream.range(0, 4).mapToObj(this::createPendingTransaction).toList();
+
+  @BeforeEach
+  public void setUp() {
+    when(speculativeAccumulator.updater()).thenReturn(mock(WorldUpdater.class));
+    when(processingResult.isSuccessful()).thenReturn(true);
+    when(transactionProcessor.processTransaction(
+            any(WorldUpdater.class),
+            any(ProcessableBlockHeader.class),
+            any(Transaction.class),
+            any(Address.class),
+            any(OperationTracer.class),
+            any(),
+            any(TransactionValidationParams.class),
+            any(Wei.class),
+            any(Optional.class)))
+        .thenReturn(processingResult);
+  }
+
+  @Test
+  public void runsAheadOnlyTheCandidatesInTheWindow() {
+    final SpeculativeTransactionProcessor processor = createProcessor(Runnable::run);
+
+    processor.runAhead(candidates, 0);
+    // already running, nothing new to run ahead
+    processor.runAhead(candidates, 0);
+
+    verifyExecutions(WINDOW);
+    assertThat(processor.getResult(transaction(0), blockAccumulator)).isEmpty();
+    assertThat(processor.getResult(transaction(1), blockAccumulator)).isPresent();
+    assertThat(processor.getResult(transaction(2), blockAccumulator)).isPresent();
+    assertThat(processor.getResult(transaction(3), blockAccumulator)).isEmpty();
+
+    processor.runAhead(candidates, 1);
+    verifyExecutions(WINDOW + 1);
+    assertThat(processor.getResult(transaction(3), blockAccumulator)).isPresent();
+  }
+
+  @Test
+  public void unsuccessfulResultIsNotUsedButItsReadsAreImported() {
+    when(processingResult.isSuccessful()).thenReturn(false);
+    final SpeculativeTransactionProcessor processor = createProcessor(Runnable::run);
+
+    processor.runAhead(candidates, 0);
+
+    assertThat(processor.getResult(transaction(1), blockAccumulator)).isEmpty();
+    verify(blockAccumulator).importPriorStateFromSource(speculativeAccumulator);
+  }
+
+  @Test
+  public void resultIsAppliedWithTheMiningBeneficiaryReward() {
+    final SpeculativeTransactionProcessor processor = createProcessor(Runnable::run);
+    final MutableAccount miningBeneficiaryAccount = mock(MutableAccount.class);
+    when(blockAccumulator.getOrCreate(MINING_BENEFICIARY)).thenReturn(miningBeneficiaryAccount);
+
+    processor.runAhead(candidates, 0);
+    final var context = processor.getResult(transaction(1), blockAccumulator).orElseThrow();
+    processor.apply(context, blockAccumulator);
+
+    verify(blockAccumulator).importStateChangesFromSource(speculativeAccumulator);
+    verify(blockAccumulator, never()).importPriorStateFromSource(any());
+  }
+
+  @Test
+  public void notCompletedExecutionIsNotUsed() {
+    // executions never run
+    final SpeculativeTransactionProcessor processor = createProcessor(runnable -> {});
+
+    processor.runAhead(candidates, 0);
+
+    assertThat(processor.getResult(transaction(1), blockAccumulator)).isEmpty();
+    verifyExecutions(0);
+  }
+
+  @Test
+  public void cancelDiscardsExecutionsAhead() {
+    final SpeculativeTransactionProcessor processor = createProcessor(Runnable::run);
+
+    processor.runAhead(candidates, 0);
+    processor.cancel();
+
+    assertThat(processor.getResult(transaction(1), blockAccumulator)).isEmpty();
+
+    // after a cancel candidates can be run ahead again
+    processor.runAhead(candidates, 0);
+    assertThat(processor.getResult(transaction(1), blockAccumulator)).isPresent();
+  }
+
+  private SpeculativeTransactionProcessor createProcessor(final Executor executor) {
+    final BlockHashLookup blockHashLookup = mock(BlockHashLookup.class);
+    when(blockHashLookup.forkForParallelWorker()).thenReturn(blockHashLookup);
+    return new SpeculativeTransactionProcessor(
+        transactionProcessor,
+        () -> Optional.of(createWorldState()),
+        mock(ProcessableBlockHeader.class),
+        MINING_BENEFICIARY,
+        blockHashLookup,
+        Wei.ZERO,
+        WINDOW,
+        executor);
+  }
+
+  private BonsaiWorldState createWorldState() {
+    final BonsaiWorldState worldState = mock(BonsaiWorldState.class);
+    doReturn(speculativeAccumulator).when(worldState).updater();
+    doReturn(speculativeAccumulator).when(worldState).getAccumulator();
+    return worldState;
+  }
+
+  private void verifyExecutions(final int count) {
+    verify(transactionProcessor, times(count))
+        .processTransaction(
+            any(WorldUpdater.class),
+            any(ProcessableBlockHeader.class),
+            any(Transaction.class),
+            any(Address.class),
+            any(OperationTracer.class),
+            any(),
+            any(TransactionValidationParams.class),
+            any(Wei.class),
+            any(Optional.class));
+  }
+
+  private Transaction transaction(final int index) {
+    return candidates.get(index).getTransaction();
+  }
+
+  private PendingTransaction createPendingTransaction(final int index) {
+    final Transaction transaction = mock(Transaction.class);
+    when(transaction.getHash()).thenReturn(Hash.hash(Bytes.of(index)));
+    when(transaction.getSender()).thenReturn(Address.fromHexString("0x0" + (index + 1)));
+    when(transaction.detachedCopy()).thenReturn(transaction);
+    final PendingTransaction pendingTransaction = mock(PendingTransaction.class);
+    when(pendingTransaction.getTransaction()).thenReturn(transaction);
+    return pendingTransaction;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import org.hyperledger.besu.crypto.Hash;
+import org.hyperledger.besu.ethereum.trie.patricia.ParallelStoredMerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads from and updates a storage trie of a million slots held in memory. Run with {@code -prof
+ * gc} to compare the allocation rate of the trie node representation.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageTrieBenchmark {
+
+  private static final int OPERATIONS = 10_000;
+
+  @Param({"1000000"})
+  public int size;
+
+  @Param({"sequential", "parallel"})
+  public String trieType;
+
+  private final Map<Bytes32, Bytes> nodes = new HashMap<>();
+  private Bytes32 rootHash;
+  private Bytes32[] keys;
+  private Bytes32[] operationKeys;
+  private Random random;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    random = new Random(42);
+    keys = new Bytes32[size];
+    final MerkleTrie<Bytes, Bytes> trie = createTrie(MerkleTrie.EMPTY_TRIE_NODE_HASH);
+    for (int i = 0; i < size; i++) {
+      keys[i] = Hash.keccak256(Bytes.ofUnsignedInt(i));
+      trie.put(keys[i], Bytes.ofUnsignedInt(i + 1L).trimLeadingZeros());
+    }
+    trie.commit(this::store);
+    rootHash = trie.getRootHash();
+  }
+
+  @Setup(Level.Invocation)
+  public void pickKeys() {
+    operationKeys = new Bytes32[OPERATIONS];
+    for (int i = 0; i < OPERATIONS; i++) {
+      operationKeys[i] = keys[random.nextInt(size)];
+    }
+  }
+
+  @Benchmark
+  public void get(final Blackhole blackhole) {
+    final MerkleTrie<Bytes, Bytes> trie = createTrie(rootHash);
+    for (final Bytes32 key : operationKeys) {
+      blackhole.consume(trie.get(key));
+    }
+  }
+
+  @Benchmark
+  public Bytes32 updateAndCommit() {
+    final MerkleTrie<Bytes, Bytes> trie = createTrie(rootHash);
+    for (final Bytes32 key : operationKeys) {
+      trie.put(key, Bytes.of(1));
+    }
+    trie.commit((location, hash, value) -> {});
+    return trie.getRootHash();
+  }
+
+  private MerkleTrie<Bytes, Bytes> createTrie(final Bytes32 root) {
+    final NodeLoader nodeLoader = (location, hash) -> Optional.ofNullable(nodes.get(hash));
+    return "parallel".equals(trieType)
+        ? new ParallelStoredMerklePatriciaTrie<>(
+            nodeLoader, root, Function.identity(), Function.identity())
+        : new StoredMerklePatriciaTrie<>(
+            nodeLoader, root, Function.identity(), Function.identity());
+  }
+
+  private void store(final Bytes location, final Bytes32 hash, final Bytes value) {
+    nodes.put(hash, value);
+  }
+}
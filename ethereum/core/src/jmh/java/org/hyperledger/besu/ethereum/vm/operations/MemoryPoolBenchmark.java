@@ -0,0 +1,129 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.MainnetEVMs;
+import org.hyperledger.besu.evm.frame.BlockValues;
+import org.hyperledger.besu.evm.frame.MemoryPool;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Runs a memory heavy frame over and over, the way a block runs many calls. With {@code
+ * releaseMemory=false} each frame's memory is left to the garbage collector, which is the unpooled
+ * baseline; with {@code true} it goes back to the pool on completion, as the message processors do.
+ * The allocation and reuse counters are reported per operation.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(value = TimeUnit.MICROSECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class MemoryPoolBenchmark {
+
+  /**
+   * MSTOREs every word of the first 8 KiB, MCOPYs them to the next 8 KiB and MLOADs the last word,
+   * growing the frame's memory through three pool tiers.
+   */
+  private static final Bytes CODE =
+      Bytes.fromHexString("0x60005b80805260200180612000116002575061200060006120005e613fe0515000");
+
+  /** Pool activity of the measured frames. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class PoolCounters {
+    /** Buffers allocated. */
+    public long allocations;
+
+    /** Buffers taken from the pool. */
+    public long reuses;
+  }
+
+  @Param({"false", "true"})
+  private boolean releaseMemory;
+
+  private EVM evm;
+  private Code code;
+
+  @Setup
+  public void setUp() {
+    evm = MainnetEVMs.osaka(MainnetEVMs.DEV_NET_CHAIN_ID, EvmConfiguration.DEFAULT);
+    code = new Code(CODE);
+  }
+
+  @Benchmark
+  public void runFrame(final PoolCounters counters, final Blackhole blackhole) {
+    final long allocations = MemoryPool.allocations();
+    final long reuses = MemoryPool.reuses();
+    final MessageFrame frame = createFrame();
+    evm.runToHalt(frame, OperationTracer.NO_TRACING);
+    blackhole.consume(frame.memoryWordSize());
+    if (releaseMemory) {
+      frame.releaseMemory();
+    }
+    counters.allocations += MemoryPool.allocations() - allocations;
+    counters.reuses += MemoryPool.reuses() - reuses;
+  }
+
+  private MessageFrame createFrame() {
+    final MessageFrame frame =
+        MessageFrame.builder()
+            .worldUpdater(mock(WorldUpdater.class))
+            .originator(Address.ZERO)
+            .gasPrice(Wei.ONE)
+            .blobGasPrice(Wei.ONE)
+            .blockValues(mock(BlockValues.class))
+            .miningBeneficiary(Address.ZERO)
+            .blockHashLookup((__, ___) -> Hash.ZERO)
+            .type(MessageFrame.Type.MESSAGE_CALL)
+            .initialGas(Long.MAX_VALUE)
+            .address(Address.ZERO)
+            .contract(Address.ZERO)
+            .inputData(Bytes.EMPTY)
+            .sender(Address.ZERO)
+            .value(Wei.ZERO)
+            .apparentValue(Wei.ZERO)
+            .code(code)
+            .completer(__ -> {})
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    return frame;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.MainnetEVMs;
+import org.hyperledger.besu.evm.frame.BlockValues;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Runs contract-shaped bytecode through the legacy interpreter with and without fused opcode
+ * sequences. Fusion is tied to the optimized opcode setting, so {@code optimizedOpcodes=false} is
+ * the unfused baseline.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(value = TimeUnit.MICROSECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class SuperinstructionBenchmark {
+
+  /** Programs laid out the way solc emits them. */
+  public enum Program {
+    /**
+     * Free memory pointer prologue, then {@code for (i = 0; i < 1024; ++i) s += i} with the
+     * ISZERO/PUSH1/JUMPI loop guard, DUP/ADD/SWAP2/POP accumulation, a PUSH1/ADD increment and a
+     * scratch DUP1/MSTORE, ending in RETURN of the sum.
+     */
+    SUM_LOOP(
+        "0x6080604052600060005b610400811015602357808201915060010160808052506009565b50600052"
+            + "60206000f3",
+        "0x"),
+    /**
+     * The {@code msg.value == 0} check and selector dispatch solc puts in front of a non-payable
+     * {@code transfer(address,uint256)}, called with that selector so it reaches the function body.
+     */
+    DISPATCH_PROLOGUE(
+        "0x6080604052348015600f57600080fd5b506004361060285760003560e01c8063a9059cbb14602d575b"
+            + "600080fd5b00",
+        "0xa9059cbb" + "00".repeat(64));
+
+    private final Bytes code;
+    private final Bytes inputData;
+
+    Program(final String hex, final String inputData) {
+      this.code = Bytes.fromHexString(hex);
+      this.inputData = Bytes.fromHexString(inputData);
+    }
+  }
+
+  @Param({"false", "true"})
+  private boolean optimizedOpcodes;
+
+  @Param private Program program;
+
+  private EVM evm;
+  private Code code;
+
+  @Setup
+  public void setUp() {
+    evm =
+        MainnetEVMs.osaka(
+            MainnetEVMs.DEV_NET_CHAIN_ID,
+            new EvmConfiguration(
+                32_000L, EvmConfiguration.WorldUpdaterMode.STACKED, optimizedOpcodes));
+    code = new Code(program.code);
+  }
+
+  @Benchmark
+  public void runToHalt(final Blackhole blackhole) {
+    final MessageFrame frame = createFrame();
+    evm.runToHalt(frame, OperationTracer.NO_TRACING);
+    blackhole.consume(frame.getRemainingGas());
+  }
+
+  private MessageFrame createFrame() {
+    final MessageFrame frame =
+        MessageFrame.builder()
+            .worldUpdater(mock(WorldUpdater.class))
+            .originator(Address.ZERO)
+            .gasPrice(Wei.ONE)
+            .blobGasPrice(Wei.ONE)
+            .blockValues(mock(BlockValues.class))
+            .miningBeneficiary(Address.ZERO)
+            .blockHashLookup((__, ___) -> Hash.ZERO)
+            .type(MessageFrame.Type.MESSAGE_CALL)
+            .initialGas(Long.MAX_VALUE)
+            .address(Address.ZERO)
+            .contract(Address.ZERO)
+            .inputData(program.inputData)
+            .sender(Address.ZERO)
+            .value(Wei.ZERO)
+            .apparentValue(Wei.ZERO)
+            .code(code)
+            .completer(__ -> {})
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    return frame;
+  }
+}
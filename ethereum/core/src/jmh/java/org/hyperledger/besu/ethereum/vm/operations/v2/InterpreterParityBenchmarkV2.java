@@ -0,0 +1,119 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations.v2;
+
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.MainnetEVMs;
+import org.hyperledger.besu.evm.frame.BlockValues;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Runs the same bytecode through the v1 (Bytes stack) and v2 (long[] stack) interpreter loops so
+ * the two can be compared for whole programs rather than single opcodes.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(value = TimeUnit.MICROSECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class InterpreterParityBenchmarkV2 {
+
+  /** Programs exercising the opcode families that run natively on the v2 stack. */
+  public enum Program {
+    /**
+     * 1024 iterations of PUSH/SWAP/SUB/DUP/MUL/POP/ISZERO/JUMPI/JUMP: stack and control flow only.
+     */
+    ARITHMETIC_LOOP("0x6104005b600190038080025080156014576003565b00"),
+    /** 1024 iterations of MSTORE/MLOAD at a moving offset plus the same loop control. */
+    MEMORY_LOOP("0x6104005b6001900380805280515080156016576003565b00");
+
+    private final Bytes code;
+
+    Program(final String hex) {
+      this.code = Bytes.fromHexString(hex);
+    }
+  }
+
+  @Param({"false", "true"})
+  private boolean evmV2;
+
+  @Param private Program program;
+
+  private EVM evm;
+  private Code code;
+
+  @Setup
+  public void setUp() {
+    evm =
+        MainnetEVMs.osaka(
+            MainnetEVMs.DEV_NET_CHAIN_ID,
+            new EvmConfiguration(32_000L, EvmConfiguration.WorldUpdaterMode.STACKED, true, evmV2));
+    code = new Code(program.code);
+  }
+
+  @Benchmark
+  public void runToHalt(final Blackhole blackhole) {
+    final MessageFrame frame = createFrame();
+    evm.runToHalt(frame, OperationTracer.NO_TRACING);
+    blackhole.consume(frame.getRemainingGas());
+  }
+
+  private MessageFrame createFrame() {
+    return MessageFrame.builder()
+        .enableEvmV2(evmV2)
+        .worldUpdater(mock(WorldUpdater.class))
+        .originator(Address.ZERO)
+        .gasPrice(Wei.ONE)
+        .blobGasPrice(Wei.ONE)
+        .blockValues(mock(BlockValues.class))
+        .miningBeneficiary(Address.ZERO)
+        .blockHashLookup((__, ___) -> Hash.ZERO)
+        .type(MessageFrame.Type.MESSAGE_CALL)
+        .initialGas(Long.MAX_VALUE)
+        .address(Address.ZERO)
+        .contract(Address.ZERO)
+        .inputData(Bytes.EMPTY)
+        .sender(Address.ZERO)
+        .value(Wei.ZERO)
+        .apparentValue(Wei.ZERO)
+        .code(code)
+        .completer(__ -> {})
+        .build();
+  }
+}
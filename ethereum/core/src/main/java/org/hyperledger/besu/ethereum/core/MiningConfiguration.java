@@ -340,8 +340,10 @@ public abstract class MiningConfiguration {
     int DEFAULT_MAX_OMMERS_DEPTH = 8;
     long DEFAULT_POS_BLOCK_CREATION_MAX_TIME = Duration.ofSeconds(12).toMillis();
     long DEFAULT_POS_BLOCK_CREATION_REPETITION_MIN_DURATION = Duration.ofMillis(500).toMillis();
+    boolean DEFAULT_POS_BLOCK_CREATION_REPETITION_ON_NEW_TRANSACTIONS_ONLY = false;
     long DEFAULT_POS_BLOCK_FINALIZATION_TIMEOUT_MS = 800L;
     Integer DEFAULT_POS_SLOT_DURATION_SECS = 12;
+    int DEFAULT_BLOCK_TXS_SELECTION_SPECULATIVE_WINDOW = 0;
 
     MiningConfiguration.Unstable DEFAULT = ImmutableMiningConfiguration.Unstable.builder().build();
 
@@ -360,6 +362,11 @@ public abstract class MiningConfiguration {
       return DEFAULT_POS_BLOCK_CREATION_REPETITION_MIN_DURATION;
     }
 
+    @Value.Default
+    default boolean getPosBlockCreationRepetitionOnNewTransactionsOnly() {
+      return DEFAULT_POS_BLOCK_CREATION_REPETITION_ON_NEW_TRANSACTIONS_ONLY;
+    }
+
     @Value.Default
     default Integer getPosSlotDuration() {
       return DEFAULT_POS_SLOT_DURATION_SECS;
@@ -369,5 +376,10 @@ public abstract class MiningConfiguration {
     default long getPosBlockFinalizationTimeoutMs() {
       return DEFAULT_POS_BLOCK_FINALIZATION_TIMEOUT_MS;
     }
+
+    @Value.Default
+    default int getBlockTxsSelectionSpeculativeWindow() {
+      return DEFAULT_BLOCK_TXS_SELECTION_SPECULATIVE_WINDOW;
+    }
   }
 }
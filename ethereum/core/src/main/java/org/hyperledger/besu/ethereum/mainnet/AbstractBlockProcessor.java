@@ -347,6 +347,7 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
           transactionUpdater.commit();
         }
         blockUpdater.commit();
+        stateRootCommitter.onTransactionCommitted(worldState);
         blockUpdater.markTransactionBoundary();
 
         // EIP-7778: Update both cumulative gas values
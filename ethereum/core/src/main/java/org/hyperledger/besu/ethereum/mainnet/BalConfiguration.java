@@ -41,12 +41,30 @@ public interface BalConfiguration {
     return true;
   }
 
+  /**
+   * Returns whether blocks without a BAL are executed in parallel along the dependency graph of
+   * their transactions rather than retrying every conflicting transaction sequentially.
+   */
+  @Value.Default
+  default boolean isDependencyAwareSchedulingEnabled() {
+    return false;
+  }
+
   /** Returns whether prefetching of state data based on BAL read operations is enabled. */
   @Value.Default
   default boolean isBalPreFetchReadingEnabled() {
     return true;
   }
 
+  /**
+   * Returns whether the trie nodes along the paths of changed accounts and slots are prefetched for
+   * the BAL-based state root computation while transactions execute.
+   */
+  @Value.Default
+  default boolean isBalTrieNodePrefetchEnabled() {
+    return true;
+  }
+
   /** Returns whether BAL sorting optimization should be enabled during prefetch. */
   @Value.Default
   default boolean isBalPreFetchSortingEnabled() {
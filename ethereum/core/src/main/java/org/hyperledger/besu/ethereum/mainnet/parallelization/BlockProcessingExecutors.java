@@ -72,7 +72,7 @@ public final class BlockProcessingExecutors {
   }
 
   /**
-   * Pool for BAL state-root computation.
+   * Pool for state-root computation: BAL roots and incremental storage trie updates.
    *
    * @return the state-root executor
    */
@@ -0,0 +1,442 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.AccessLocationTracker;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.BlockAccessListBuilder;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.worldstate.MutableWorldState;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Executes the transactions of a block in parallel along a dependency graph instead of retrying
+ * every conflicting transaction sequentially.
+ *
+ * <p>Every transaction is first executed optimistically against the parent world state, which
+ * tells which accounts and slots it reads and writes. In block order, each transaction then gets
+ * an edge to the last earlier transaction that wrote something it read. A transaction without
+ * edges keeps its optimistic result; the others are executed again once all the transactions they
+ * transitively depend on are done, reading the writes of those transactions on top of the parent
+ * world state. Independent chains of the graph therefore run concurrently.
+ *
+ * <p>Before a result is applied, every value the transaction read is compared with the block
+ * state. A transaction whose execution diverged from the predicted graph, or that deleted an
+ * account or cleared storage, is re-executed sequentially by the block processor.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class DependencyAwareConcurrentTransactionProcessor
+    extends ParallelBlockTransactionProcessor {
+
+  private final MainnetTransactionProcessor transactionProcessor;
+
+  private final TransactionCollisionDetector transactionCollisionDetector;
+
+  private CompletableFuture<ParallelizedTransactionContext>[] scheduled;
+
+  /**
+   * Creates a processor executing transactions with the given transaction processor.
+   *
+   * @param transactionProcessor the transaction processor for processing individual transactions
+   */
+  public DependencyAwareConcurrentTransactionProcessor(
+      final MainnetTransactionProcessor transactionProcessor) {
+    this.transactionProcessor = transactionProcessor;
+    this.transactionCollisionDetector = new TransactionCollisionDetector();
+  }
+
+  @Override
+  public void runAsyncBlock(
+      final ProtocolContext protocolContext,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary,
+      final BlockHashLookup blockHashLookup,
+      final Wei blobGasPrice,
+      final Executor executor,
+      final Optional<BlockAccessListBuilder> blockAccessListBuilder,
+      final Optional<BlockHeader> maybeParentHeader) {
+    super.runAsyncBlock(
+        protocolContext,
+        blockHeader,
+        transactions,
+        miningBeneficiary,
+        blockHashLookup,
+        blobGasPrice,
+        executor,
+        blockAccessListBuilder,
+        maybeParentHeader);
+
+    final DependencyGraph graph = new DependencyGraph(transactions.size());
+    scheduled = new CompletableFuture[transactions.size()];
+    CompletableFuture<Void> previous = CompletableFuture.completedFuture(null);
+    for (int i = 0; i < transactions.size(); i++) {
+      final int txIndex = i;
+      final Transaction transaction = transactions.get(i);
+      scheduled[i] = new CompletableFuture<>();
+      previous =
+          previous.thenCombine(
+              futures[i].exceptionally(__ -> null),
+              (__, optimisticContext) -> {
+                try {
+                  schedule(
+                      txIndex,
+                      optimisticContext,
+                      graph,
+                      dependencies ->
+                          execute(
+                              protocolContext,
+                              blockHeader,
+                              txIndex,
+                              transaction,
+                              miningBeneficiary,
+                              blockHashLookup,
+                              blobGasPrice,
+                              blockAccessListBuilder,
+                              maybeParentHeader,
+                              dependencies),
+                      executor);
+                } catch (final RuntimeException e) {
+                  // the transaction will be executed sequentially
+                  scheduled[txIndex].complete(null);
+                }
+                return null;
+              });
+    }
+  }
+
+  private void schedule(
+      final int txIndex,
+      final ParallelizedTransactionContext optimisticContext,
+      final DependencyGraph graph,
+      final ReExecution reExecution,
+      final Executor executor) {
+    if (!(optimisticContext != null
+        && optimisticContext.transactionAccumulator()
+            instanceof SpeculativeWorldStateUpdateAccumulator accumulator)) {
+      scheduled[txIndex].complete(null);
+      return;
+    }
+    final BitSet closure = graph.add(txIndex, accumulator);
+    if (closure.isEmpty()) {
+      scheduled[txIndex].complete(optimisticContext);
+      return;
+    }
+    CompletableFuture.allOf(
+            closure.stream().mapToObj(i -> scheduled[i]).toArray(CompletableFuture[]::new))
+        .thenApplyAsync(
+            __ -> {
+              for (int i = closure.nextSetBit(0); i >= 0; i = closure.nextSetBit(i + 1)) {
+                final ParallelizedTransactionContext dependency = scheduled[i].join();
+                if (dependency == null
+                    || ((SpeculativeWorldStateUpdateAccumulator)
+                            dependency.transactionAccumulator())
+                        .hasClearedStorage()) {
+                  return null;
+                }
+              }
+              return reExecution.execute(dependenciesOf(closure));
+            },
+            executor)
+        .whenComplete(
+            (context, error) -> scheduled[txIndex].complete(error == null ? context : null));
+  }
+
+  private List<SpeculativeWorldStateUpdateAccumulator> dependenciesOf(final BitSet closure) {
+    final List<SpeculativeWorldStateUpdateAccumulator> dependencies = new ArrayList<>();
+    for (int i = closure.nextSetBit(0); i >= 0; i = closure.nextSetBit(i + 1)) {
+      dependencies.add(
+          (SpeculativeWorldStateUpdateAccumulator) scheduled[i].join().transactionAccumulator());
+    }
+    return dependencies;
+  }
+
+  @Override
+  @VisibleForTesting
+  protected ParallelizedTransactionContext runTransaction(
+      final ProtocolContext protocolContext,
+      final BlockHeader blockHeader,
+      final int transactionLocation,
+      final Transaction transaction,
+      final Address miningBeneficiary,
+      final BlockHashLookup blockHashLookup,
+      final Wei blobGasPrice,
+      final Optional<BlockAccessListBuilder> blockAccessListBuilder,
+      final Optional<BlockHeader> maybeParentHeader) {
+    return execute(
+        protocolContext,
+        blockHeader,
+        transactionLocation,
+        transaction,
+        miningBeneficiary,
+        blockHashLookup,
+        blobGasPrice,
+        blockAccessListBuilder,
+        maybeParentHeader,
+        List.of());
+  }
+
+  private ParallelizedTransactionContext execute(
+      final ProtocolContext protocolContext,
+      final BlockHeader blockHeader,
+      final int transactionLocation,
+      final Transaction transaction,
+      final Address miningBeneficiary,
+      final BlockHashLookup blockHashLookup,
+      final Wei blobGasPrice,
+      final Optional<BlockAccessListBuilder> blockAccessListBuilder,
+      final Optional<BlockHeader> maybeParentHeader,
+      final List<SpeculativeWorldStateUpdateAccumulator> dependencies) {
+
+    if (maybeParentHeader.isEmpty()) {
+      return null;
+    }
+    final BonsaiWorldState ws =
+        getWorldState(protocolContext, maybeParentHeader.get()).orElse(null);
+    if (ws == null) {
+      return null;
+    }
+
+    try {
+      ws.disableCacheMerkleTrieLoader();
+      final SpeculativeWorldStateUpdateAccumulator transactionAccumulator =
+          new SpeculativeWorldStateUpdateAccumulator(
+              ws, ws.getAccumulator().getEvmConfiguration(), ws.codeCache(), dependencies);
+      ws.setAccumulator(transactionAccumulator);
+      final ParallelizedTransactionContext.Builder contextBuilder =
+          new ParallelizedTransactionContext.Builder();
+      final WorldUpdater transactionUpdater = transactionAccumulator.updater();
+      final Optional<AccessLocationTracker> transactionLocationTracker =
+          blockAccessListBuilder.map(
+              b ->
+                  BlockAccessListBuilder.createTransactionAccessLocationTracker(
+                      transactionLocation));
+      final TransactionProcessingResult result =
+          transactionProcessor.processTransaction(
+              transactionUpdater,
+              blockHeader,
+              transaction.detachedCopy(),
+              miningBeneficiary,
+              new OperationTracer() {
+                @Override
+                public void traceBeforeRewardTransaction(
+                    final WorldView worldView,
+                    final org.hyperledger.besu.datatypes.Transaction tx,
+                    final Wei miningReward) {
+                  // as in the optimistic processor, the reward alone does not make the
+                  // transaction depend on the mining beneficiary
+                  if (transactionCollisionDetector
+                      .getAddressesTouchedByTransaction(
+                          transaction, Optional.of(transactionAccumulator))
+                      .contains(miningBeneficiary)) {
+                    contextBuilder.isMiningBeneficiaryTouchedPreRewardByTransaction(true);
+                  }
+                  contextBuilder.miningBeneficiaryReward(miningReward);
+                }
+              },
+              blockHashLookup.forkForParallelWorker(),
+              TransactionValidationParams.processingBlock(),
+              blobGasPrice,
+              transactionLocationTracker);
+
+      transactionUpdater.commit();
+      transactionAccumulator.commit();
+
+      contextBuilder
+          .transactionAccumulator(transactionAccumulator)
+          .transactionProcessingResult(result);
+
+      final ParallelizedTransactionContext parallelizedTransactionContext = contextBuilder.build();
+      if (!parallelizedTransactionContext.isMiningBeneficiaryTouchedPreRewardByTransaction()) {
+        transactionAccumulator.forgetAccount(miningBeneficiary);
+      }
+      return parallelizedTransactionContext;
+    } catch (Exception ex) {
+      // no op as the transaction will be executed sequentially
+      return null;
+    } finally {
+      ws.close();
+    }
+  }
+
+  /**
+   * Applies the result of a transaction once it and the transactions it depends on are executed,
+   * provided every value it read matches the block state. Otherwise the data read during execution
+   * is kept in the block accumulator to speed up the sequential replay.
+   *
+   * @param worldState Mutable world state intended for applying transaction results.
+   * @param miningBeneficiary Address of the beneficiary for mining rewards.
+   * @param transaction Transaction for which the result is to be applied.
+   * @param transactionLocation Index of the transaction within the block.
+   * @param confirmedParallelizedTransactionCounter Metric counter for confirmed parallelized
+   *     transactions
+   * @param conflictingButCachedTransactionCounter Metric counter for conflicting but cached
+   *     transactions
+   * @return Optional containing the transaction processing result if applied, or empty if the
+   *     transaction needs to be replayed sequentially.
+   */
+  @Override
+  public Optional<TransactionProcessingResult> getProcessingResult(
+      final MutableWorldState worldState,
+      final Address miningBeneficiary,
+      final Transaction transaction,
+      final int transactionLocation,
+      final Optional<Counter> confirmedParallelizedTransactionCounter,
+      final Optional<Counter> conflictingButCachedTransactionCounter) {
+
+    removeFuture(transactionLocation);
+    final ParallelizedTransactionContext parallelizedTransactionContext =
+        scheduled[transactionLocation].join();
+    if (parallelizedTransactionContext == null) {
+      return Optional.empty();
+    }
+
+    final PathBasedWorldState pathBasedWorldState = (PathBasedWorldState) worldState;
+    final PathBasedWorldStateUpdateAccumulator blockAccumulator =
+        (PathBasedWorldStateUpdateAccumulator) pathBasedWorldState.updater();
+    final SpeculativeWorldStateUpdateAccumulator transactionAccumulator =
+        (SpeculativeWorldStateUpdateAccumulator)
+            parallelizedTransactionContext.transactionAccumulator();
+    final TransactionProcessingResult transactionProcessingResult =
+        parallelizedTransactionContext.transactionProcessingResult();
+    final boolean isValid =
+        !transactionAccumulator.hasClearedStorage()
+            && transactionAccumulator.isConsistentWith(blockAccumulator);
+    if (transactionProcessingResult.isSuccessful() && isValid) {
+      final MutableAccount miningBeneficiaryAccount =
+          blockAccumulator.getOrCreate(miningBeneficiary);
+      final Wei reward = parallelizedTransactionContext.miningBeneficiaryReward();
+      if (!reward.isZero() || !transactionProcessor.getClearEmptyAccounts()) {
+        miningBeneficiaryAccount.incrementBalance(reward);
+      }
+
+      if (!reward.isZero()) {
+        final Wei miningBeneficiaryPostBalance = miningBeneficiaryAccount.getBalance();
+        transactionProcessingResult
+            .getPartialBlockAccessView()
+            .ifPresent(
+                partialBlockAccessView ->
+                    partialBlockAccessView.accountChanges().stream()
+                        .filter(
+                            accountChanges -> accountChanges.getAddress().equals(miningBeneficiary))
+                        .findFirst()
+                        .ifPresent(
+                            accountChanges ->
+                                accountChanges.setPostBalance(miningBeneficiaryPostBalance)));
+      }
+
+      blockAccumulator.importStateChangesFromSource(transactionAccumulator);
+
+      if (confirmedParallelizedTransactionCounter.isPresent()) {
+        confirmedParallelizedTransactionCounter.get().inc();
+        transactionProcessingResult.setIsProcessedInParallel(Optional.of(Boolean.TRUE));
+        transactionProcessingResult.accumulator = transactionAccumulator;
+      }
+      return Optional.of(transactionProcessingResult);
+    } else {
+      blockAccumulator.importPriorStateFromSource(transactionAccumulator);
+      conflictingButCachedTransactionCounter.ifPresent(Counter::inc);
+      return Optional.empty();
+    }
+  }
+
+  @FunctionalInterface
+  private interface ReExecution {
+    ParallelizedTransactionContext execute(
+        List<SpeculativeWorldStateUpdateAccumulator> dependencies);
+  }
+
+  /**
+   * Dependency edges of the transactions scheduled so far, built in block order from the last
+   * writer of every account and slot.
+   */
+  @VisibleForTesting
+  static final class DependencyGraph {
+
+    private final Map<Address, Integer> lastAccountWriter = new HashMap<>();
+    private final Map<Address, Map<StorageSlotKey, Integer>> lastSlotWriter = new HashMap<>();
+    private final BitSet[] closures;
+
+    DependencyGraph(final int transactionCount) {
+      this.closures = new BitSet[transactionCount];
+    }
+
+    /**
+     * Adds the next transaction of the block.
+     *
+     * @param txIndex the index of the transaction, which must follow the previous one added
+     * @param accumulator the accumulator of the optimistic execution of the transaction
+     * @return the transactions the transaction transitively depends on
+     */
+    BitSet add(final int txIndex, final SpeculativeWorldStateUpdateAccumulator accumulator) {
+      final BitSet closure = new BitSet();
+      for (final Address address : accumulator.getAccountsRead()) {
+        addEdge(closure, lastAccountWriter.get(address));
+      }
+      for (final Map.Entry<Address, Set<StorageSlotKey>> slotsRead :
+          accumulator.getSlotsRead().entrySet()) {
+        final Map<StorageSlotKey, Integer> writers = lastSlotWriter.get(slotsRead.getKey());
+        if (writers != null) {
+          slotsRead.getValue().forEach(slot -> addEdge(closure, writers.get(slot)));
+        }
+      }
+      accumulator.getAccountsWritten().forEach(address -> lastAccountWriter.put(address, txIndex));
+      accumulator
+          .getSlotsWritten()
+          .forEach(
+              (address, slots) -> {
+                final Map<StorageSlotKey, Integer> writers =
+                    lastSlotWriter.computeIfAbsent(address, __ -> new HashMap<>());
+                slots.forEach(slot -> writers.put(slot, txIndex));
+              });
+      closures[txIndex] = closure;
+      return closure;
+    }
+
+    private void addEdge(final BitSet closure, final Integer writer) {
+      if (writer != null && !closure.get(writer)) {
+        closure.set(writer);
+        closure.or(closures[writer]);
+      }
+    }
+  }
+}
@@ -27,11 +27,7 @@ import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
-import org.hyperledger.besu.evm.account.MutableAccount;
 import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
-import org.hyperledger.besu.evm.tracing.OperationTracer;
-import org.hyperledger.besu.evm.worldstate.WorldUpdater;
-import org.hyperledger.besu.evm.worldstate.WorldView;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.worldstate.MutableWorldState;
 
@@ -96,67 +92,22 @@ public class OptimisticConcurrentTransactionProcessor extends ParallelBlockTrans
     }
 
     try {
-      ws.disableCacheMerkleTrieLoader();
-      final ParallelizedTransactionContext.Builder contextBuilder =
-          new ParallelizedTransactionContext.Builder();
-      final PathBasedWorldStateUpdateAccumulator<?> roundWorldStateUpdater =
-          (PathBasedWorldStateUpdateAccumulator<?>) ws.updater();
-      final WorldUpdater transactionUpdater = roundWorldStateUpdater.updater();
       final Optional<AccessLocationTracker> transactionLocationTracker =
           blockAccessListBuilder.map(
               b ->
                   BlockAccessListBuilder.createTransactionAccessLocationTracker(
                       transactionLocation));
-      final TransactionProcessingResult result =
-          transactionProcessor.processTransaction(
-              transactionUpdater,
-              blockHeader,
-              transaction.detachedCopy(),
-              miningBeneficiary,
-              new OperationTracer() {
-                @Override
-                public void traceBeforeRewardTransaction(
-                    final WorldView worldView,
-                    final org.hyperledger.besu.datatypes.Transaction tx,
-                    final Wei miningReward) {
-                  /*
-                   * This part checks if the mining beneficiary's account was accessed before increasing its balance for rewards.
-                   * Indeed, if the transaction has interacted with the address to read or modify it,
-                   * it means that the value is necessary for the proper execution of the transaction and will therefore be considered in collision detection.
-                   * If this is not the case, we can ignore this address during conflict detection.
-                   */
-                  if (transactionCollisionDetector
-                      .getAddressesTouchedByTransaction(
-                          transaction, Optional.of(roundWorldStateUpdater))
-                      .contains(miningBeneficiary)) {
-                    contextBuilder.isMiningBeneficiaryTouchedPreRewardByTransaction(true);
-                  }
-                  contextBuilder.miningBeneficiaryReward(miningReward);
-                }
-              },
-              blockHashLookup.forkForParallelWorker(),
-              TransactionValidationParams.processingBlock(),
-              blobGasPrice,
-              transactionLocationTracker);
-
-      // commit the accumulator in order to apply all the modifications
-      transactionUpdater.commit();
-      roundWorldStateUpdater.commit();
-
-      contextBuilder
-          .transactionAccumulator(ws.getAccumulator())
-          .transactionProcessingResult(result);
-
-      final ParallelizedTransactionContext parallelizedTransactionContext = contextBuilder.build();
-      if (!parallelizedTransactionContext.isMiningBeneficiaryTouchedPreRewardByTransaction()) {
-        /*
-         * If the address of the mining beneficiary has been touched only for adding rewards,
-         * we remove it from the accumulator to avoid a false positive collision.
-         * The balance will be increased during the sequential processing.
-         */
-        roundWorldStateUpdater.getAccountsToUpdate().remove(miningBeneficiary);
-      }
-      return parallelizedTransactionContext;
+      return ParallelTransactionExecution.execute(
+          ws,
+          transactionProcessor,
+          transactionCollisionDetector,
+          blockHeader,
+          transaction,
+          miningBeneficiary,
+          blockHashLookup,
+          TransactionValidationParams.processingBlock(),
+          blobGasPrice,
+          transactionLocationTracker);
     } catch (Exception ex) {
       // no op as failing to get worldstate
       return null;
@@ -217,30 +168,11 @@ public class OptimisticConcurrentTransactionProcessor extends ParallelBlockTrans
           transactionCollisionDetector.hasCollision(
               transaction, miningBeneficiary, parallelizedTransactionContext, blockAccumulator);
       if (transactionProcessingResult.isSuccessful() && !hasCollision) {
-        final MutableAccount miningBeneficiaryAccount =
-            blockAccumulator.getOrCreate(miningBeneficiary);
-        Wei reward = parallelizedTransactionContext.miningBeneficiaryReward();
-        if (!reward.isZero() || !transactionProcessor.getClearEmptyAccounts()) {
-          miningBeneficiaryAccount.incrementBalance(reward);
-        }
-
-        if (!reward.isZero()) {
-          final Wei miningBeneficiaryPostBalance = miningBeneficiaryAccount.getBalance();
-          transactionProcessingResult
-              .getPartialBlockAccessView()
-              .ifPresent(
-                  partialBlockAccessView ->
-                      partialBlockAccessView.accountChanges().stream()
-                          .filter(
-                              accountChanges ->
-                                  accountChanges.getAddress().equals(miningBeneficiary))
-                          .findFirst()
-                          .ifPresent(
-                              accountChanges ->
-                                  accountChanges.setPostBalance(miningBeneficiaryPostBalance)));
-        }
-
-        blockAccumulator.importStateChangesFromSource(transactionAccumulator);
+        ParallelTransactionExecution.applyToBlockState(
+            parallelizedTransactionContext,
+            blockAccumulator,
+            miningBeneficiary,
+            transactionProcessor.getClearEmptyAccounts());
 
         if (confirmedParallelizedTransactionCounter.isPresent()) {
           confirmedParallelizedTransactionCounter.get().inc();
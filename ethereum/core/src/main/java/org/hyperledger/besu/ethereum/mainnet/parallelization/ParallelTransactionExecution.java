@@ -0,0 +1,168 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.AccessLocationTracker;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+
+import java.util.Optional;
+
+/**
+ * Executes a transaction against its own copy of the world state, and applies the result to the
+ * block state once it is known not to collide with the transactions before it. Shared by the
+ * parallel block processing and the speculative execution of the block creation.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public final class ParallelTransactionExecution {
+
+  private ParallelTransactionExecution() {}
+
+  /**
+   * Execute the transaction against a world state of its own. The reward of the mining beneficiary
+   * is not part of the resulting state changes, unless the transaction itself touched the mining
+   * beneficiary; it is applied by {@link #applyToBlockState(ParallelizedTransactionContext,
+   * PathBasedWorldStateUpdateAccumulator, Address, boolean)}.
+   *
+   * @param ws the world state to execute the transaction against, not closed by this method
+   * @param transactionProcessor the transaction processor
+   * @param collisionDetector the collision detector used to find the touched accounts
+   * @param blockHeader the header of the block the transaction is part of
+   * @param transaction the transaction to execute
+   * @param miningBeneficiary the mining beneficiary
+   * @param blockHashLookup the block hash lookup, forked for the execution
+   * @param validationParams the transaction validation parameters
+   * @param blobGasPrice the blob gas price
+   * @param accessLocationTracker the block access list tracker of the transaction, if any
+   * @return the result of the execution and the state changes it made
+   */
+  public static ParallelizedTransactionContext execute(
+      final BonsaiWorldState ws,
+      final MainnetTransactionProcessor transactionProcessor,
+      final TransactionCollisionDetector collisionDetector,
+      final ProcessableBlockHeader blockHeader,
+      final Transaction transaction,
+      final Address miningBeneficiary,
+      final BlockHashLookup blockHashLookup,
+      final TransactionValidationParams validationParams,
+      final Wei blobGasPrice,
+      final Optional<AccessLocationTracker> accessLocationTracker) {
+    ws.disableCacheMerkleTrieLoader();
+    final ParallelizedTransactionContext.Builder contextBuilder =
+        new ParallelizedTransactionContext.Builder();
+    final PathBasedWorldStateUpdateAccumulator<?> roundWorldStateUpdater = ws.updater();
+    final WorldUpdater transactionUpdater = roundWorldStateUpdater.updater();
+    final TransactionProcessingResult result =
+        transactionProcessor.processTransaction(
+            transactionUpdater,
+            blockHeader,
+            transaction.detachedCopy(),
+            miningBeneficiary,
+            new OperationTracer() {
+              @Override
+              public void traceBeforeRewardTransaction(
+                  final WorldView worldView,
+                  final org.hyperledger.besu.datatypes.Transaction tx,
+                  final Wei miningReward) {
+                /*
+                 * This part checks if the mining beneficiary's account was accessed before increasing its balance for rewards.
+                 * Indeed, if the transaction has interacted with the address to read or modify it,
+                 * it means that the value is necessary for the proper execution of the transaction and will therefore be considered in collision detection.
+                 * If this is not the case, we can ignore this address during conflict detection.
+                 */
+                if (collisionDetector
+                    .getAddressesTouchedByTransaction(
+                        transaction, Optional.of(roundWorldStateUpdater))
+                    .contains(miningBeneficiary)) {
+                  contextBuilder.isMiningBeneficiaryTouchedPreRewardByTransaction(true);
+                }
+                contextBuilder.miningBeneficiaryReward(miningReward);
+              }
+            },
+            blockHashLookup.forkForParallelWorker(),
+            validationParams,
+            blobGasPrice,
+            accessLocationTracker);
+
+    // commit the accumulator in order to apply all the modifications
+    transactionUpdater.commit();
+    roundWorldStateUpdater.commit();
+
+    contextBuilder.transactionAccumulator(ws.getAccumulator()).transactionProcessingResult(result);
+
+    final ParallelizedTransactionContext context = contextBuilder.build();
+    if (!context.isMiningBeneficiaryTouchedPreRewardByTransaction()) {
+      /*
+       * If the address of the mining beneficiary has been touched only for adding rewards,
+       * we remove it from the accumulator to avoid a false positive collision.
+       * The balance will be increased when the result is applied to the block state.
+       */
+      roundWorldStateUpdater.getAccountsToUpdate().remove(miningBeneficiary);
+    }
+    return context;
+  }
+
+  /**
+   * Apply the result of a transaction executed by {@link #execute} to the block state: the reward
+   * of the mining beneficiary, then the state changes of the transaction.
+   *
+   * @param context the result of the execution, checked for collisions by the caller
+   * @param blockAccumulator the block state with all the transactions before this one
+   * @param miningBeneficiary the mining beneficiary
+   * @param clearEmptyAccounts whether the fork clears empty accounts, in which case a zero reward
+   *     does not create the mining beneficiary account
+   */
+  public static void applyToBlockState(
+      final ParallelizedTransactionContext context,
+      final PathBasedWorldStateUpdateAccumulator blockAccumulator,
+      final Address miningBeneficiary,
+      final boolean clearEmptyAccounts) {
+    final Wei reward = context.miningBeneficiaryReward();
+    final MutableAccount miningBeneficiaryAccount = blockAccumulator.getOrCreate(miningBeneficiary);
+    if (!reward.isZero() || !clearEmptyAccounts) {
+      miningBeneficiaryAccount.incrementBalance(reward);
+    }
+
+    if (!reward.isZero()) {
+      final Wei miningBeneficiaryPostBalance = miningBeneficiaryAccount.getBalance();
+      context
+          .transactionProcessingResult()
+          .getPartialBlockAccessView()
+          .ifPresent(
+              partialBlockAccessView ->
+                  partialBlockAccessView.accountChanges().stream()
+                      .filter(
+                          accountChanges -> accountChanges.getAddress().equals(miningBeneficiary))
+                      .findFirst()
+                      .ifPresent(
+                          accountChanges ->
+                              accountChanges.setPostBalance(miningBeneficiaryPostBalance)));
+    }
+
+    blockAccumulator.importStateChangesFromSource(context.transactionAccumulator());
+  }
+}
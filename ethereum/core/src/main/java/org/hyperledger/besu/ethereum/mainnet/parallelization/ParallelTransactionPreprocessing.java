@@ -67,6 +67,8 @@ public class ParallelTransactionPreprocessing implements PreprocessingFunction {
       parallelProcessor =
           new BalConcurrentTransactionProcessor(
               transactionProcessor, maybeBlockBal.get(), balConfiguration);
+    } else if (balConfiguration.isDependencyAwareSchedulingEnabled()) {
+      parallelProcessor = new DependencyAwareConcurrentTransactionProcessor(transactionProcessor);
     } else {
       parallelProcessor = new OptimisticConcurrentTransactionProcessor(transactionProcessor);
     }
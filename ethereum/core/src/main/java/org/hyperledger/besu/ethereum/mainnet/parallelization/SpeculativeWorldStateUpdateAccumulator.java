@@ -0,0 +1,331 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.account.BonsaiAccount;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.accumulator.BonsaiWorldStateUpdateAccumulator;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.account.PathBasedAccount;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.code.PathBasedCodeCache;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldView;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Accumulator of one speculatively executed transaction. It runs on top of the parent world state
+ * with the writes of the transactions it depends on layered over it, and records every account and
+ * slot value the transaction saw so that the result can be validated against the block state
+ * before it is applied.
+ *
+ * <p>Dependencies are resolved on first read via {@link #onAccountValueLoaded}, {@link
+ * #onCodeValueLoaded} and {@link #onStorageValueLoaded}, from the latest dependency that wrote the
+ * value. Prior values stay those of the parent world state, so the accumulator can be imported
+ * into the block accumulator like any optimistic result.
+ */
+final class SpeculativeWorldStateUpdateAccumulator extends BonsaiWorldStateUpdateAccumulator {
+
+  private final List<SpeculativeWorldStateUpdateAccumulator> dependencies;
+  private final Map<Address, Optional<AccountDetails>> seenAccounts = new ConcurrentHashMap<>();
+  private final Map<Address, Map<StorageSlotKey, UInt256>> seenStorage = new ConcurrentHashMap<>();
+
+  /**
+   * Creates an accumulator reading through the given dependencies.
+   *
+   * @param world the parent world state
+   * @param evmConfiguration the EVM configuration
+   * @param codeCache the code cache
+   * @param dependencies the accumulators of the transactions this one depends on, in block order
+   */
+  SpeculativeWorldStateUpdateAccumulator(
+      final PathBasedWorldView world,
+      final EvmConfiguration evmConfiguration,
+      final PathBasedCodeCache codeCache,
+      final List<SpeculativeWorldStateUpdateAccumulator> dependencies) {
+    super(world, (address, value) -> {}, (address, slot) -> {}, evmConfiguration, codeCache);
+    this.dependencies = dependencies;
+  }
+
+  @Override
+  public PathBasedWorldStateUpdateAccumulator<BonsaiAccount> copy() {
+    final SpeculativeWorldStateUpdateAccumulator copy =
+        new SpeculativeWorldStateUpdateAccumulator(
+            wrappedWorldView(), getEvmConfiguration(), codeCache(), dependencies);
+    copy.cloneFromUpdater(this);
+    copy.seenAccounts.putAll(seenAccounts);
+    seenStorage.forEach(
+        (address, slots) -> copy.seenStorage.put(address, new ConcurrentHashMap<>(slots)));
+    return copy;
+  }
+
+  @Override
+  protected void onAccountValueLoaded(
+      final Address address, final PathBasedValue<BonsaiAccount> accountValue) {
+    for (int i = dependencies.size() - 1; i >= 0; i--) {
+      final Optional<PathBasedValue<BonsaiAccount>> written =
+          dependencies.get(i).getWrittenAccount(address);
+      if (written.isPresent()) {
+        final BonsaiAccount updated = written.get().getUpdated();
+        accountValue.setUpdated(updated == null ? null : copyAccount(updated, this, true));
+        break;
+      }
+    }
+    seenAccounts.put(address, AccountDetails.of(accountValue.getUpdated()));
+  }
+
+  @Override
+  protected void onCodeValueLoaded(final Address address, final PathBasedValue<Bytes> codeValue) {
+    for (int i = dependencies.size() - 1; i >= 0; i--) {
+      final Optional<Bytes> written = dependencies.get(i).getWrittenCode(address);
+      if (written.isPresent()) {
+        codeValue.setUpdated(written.get());
+        return;
+      }
+    }
+  }
+
+  @Override
+  protected void onStorageValueLoaded(
+      final Address address,
+      final StorageSlotKey storageSlotKey,
+      final PathBasedValue<UInt256> storageValue) {
+    for (int i = dependencies.size() - 1; i >= 0; i--) {
+      final Optional<UInt256> written =
+          dependencies.get(i).getWrittenStorageValue(address, storageSlotKey);
+      if (written.isPresent()) {
+        storageValue.setUpdated(written.get());
+        break;
+      }
+    }
+    seenStorage
+        .computeIfAbsent(address, __ -> new ConcurrentHashMap<>())
+        .put(storageSlotKey, orZero(storageValue.getUpdated()));
+  }
+
+  /**
+   * Returns the account entry if this transaction changed the balance, nonce, code or existence of
+   * the account.
+   *
+   * @param address the account address
+   * @return the account entry, or empty if the account was only read or not touched
+   */
+  Optional<PathBasedValue<BonsaiAccount>> getWrittenAccount(final Address address) {
+    final PathBasedValue<BonsaiAccount> accountValue = getAccountsToUpdate().get(address);
+    if (accountValue == null) {
+      return Optional.empty();
+    }
+    final Optional<AccountDetails> seen =
+        seenAccounts.getOrDefault(address, AccountDetails.of(accountValue.getPrior()));
+    return seen.equals(AccountDetails.of(accountValue.getUpdated()))
+        ? Optional.empty()
+        : Optional.of(accountValue);
+  }
+
+  /**
+   * Returns the code this transaction deployed to an account.
+   *
+   * @param address the account address
+   * @return the deployed code, or empty if the code hash of the account did not change
+   */
+  Optional<Bytes> getWrittenCode(final Address address) {
+    return getWrittenAccount(address)
+        .map(PathBasedValue::getUpdated)
+        .filter(
+            updated ->
+                !seenAccounts
+                    .getOrDefault(address, Optional.empty())
+                    .map(seen -> seen.codeHash().equals(updated.getCodeHash()))
+                    .orElse(false))
+        .flatMap(updated -> Optional.ofNullable(getCodeToUpdate().get(address)))
+        .map(PathBasedValue::getUpdated);
+  }
+
+  /**
+   * Returns the value this transaction wrote to a slot.
+   *
+   * @param address the account address
+   * @param storageSlotKey the slot
+   * @return the written value, or empty if the slot was only read or not touched
+   */
+  Optional<UInt256> getWrittenStorageValue(
+      final Address address, final StorageSlotKey storageSlotKey) {
+    final Map<StorageSlotKey, PathBasedValue<UInt256>> slots = getStorageToUpdate().get(address);
+    final PathBasedValue<UInt256> slotValue = slots == null ? null : slots.get(storageSlotKey);
+    if (slotValue == null) {
+      return Optional.empty();
+    }
+    final UInt256 seen =
+        Optional.ofNullable(seenStorage.get(address))
+            .map(seenSlots -> seenSlots.get(storageSlotKey))
+            .orElseGet(() -> orZero(slotValue.getPrior()));
+    final UInt256 updated = orZero(slotValue.getUpdated());
+    return seen.equals(updated) ? Optional.empty() : Optional.of(updated);
+  }
+
+  /**
+   * Returns the accounts whose state this transaction read.
+   *
+   * @return the addresses of the accounts read
+   */
+  Set<Address> getAccountsRead() {
+    return seenAccounts.keySet();
+  }
+
+  /**
+   * Returns the slots whose value this transaction read, by account.
+   *
+   * @return the slots read
+   */
+  Map<Address, Set<StorageSlotKey>> getSlotsRead() {
+    final Map<Address, Set<StorageSlotKey>> slotsRead = new HashMap<>();
+    seenStorage.forEach((address, slots) -> slotsRead.put(address, slots.keySet()));
+    return slotsRead;
+  }
+
+  /**
+   * Returns the accounts this transaction changed.
+   *
+   * @return the addresses of the accounts written
+   */
+  Set<Address> getAccountsWritten() {
+    final Set<Address> accountsWritten = new HashSet<>();
+    for (final Address address : getAccountsToUpdate().keySet()) {
+      if (getWrittenAccount(address).isPresent()) {
+        accountsWritten.add(address);
+      }
+    }
+    return accountsWritten;
+  }
+
+  /**
+   * Returns the slots this transaction changed, by account.
+   *
+   * @return the slots written
+   */
+  Map<Address, Set<StorageSlotKey>> getSlotsWritten() {
+    final Map<Address, Set<StorageSlotKey>> slotsWritten = new HashMap<>();
+    getStorageToUpdate()
+        .forEach(
+            (address, slots) -> {
+              for (final StorageSlotKey storageSlotKey : slots.keySet()) {
+                if (getWrittenStorageValue(address, storageSlotKey).isPresent()) {
+                  slotsWritten.computeIfAbsent(address, __ -> new HashSet<>()).add(storageSlotKey);
+                }
+              }
+            });
+    return slotsWritten;
+  }
+
+  /**
+   * Tells whether this transaction deleted an account or cleared its storage. Such transactions
+   * enumerate the parent storage, which dependencies do not overlay, so they are not speculated on.
+   *
+   * @return true if storage was cleared or an account deleted
+   */
+  boolean hasClearedStorage() {
+    return !getStorageToClear().isEmpty() || !getDeletedAccountAddresses().isEmpty();
+  }
+
+  /**
+   * Forgets that an account was read, for accounts whose only access is a deferred update such as
+   * the mining reward.
+   *
+   * @param address the account address
+   */
+  void forgetAccount(final Address address) {
+    getAccountsToUpdate().remove(address);
+    seenAccounts.remove(address);
+  }
+
+  /**
+   * Checks that every account and slot this transaction read still holds the value it saw in the
+   * block state the transaction is about to be applied to.
+   *
+   * @param blockAccumulator the block accumulator, holding all earlier transactions of the block
+   * @return true if the transaction saw the same state as a sequential execution would
+   */
+  boolean isConsistentWith(final PathBasedWorldStateUpdateAccumulator<?> blockAccumulator) {
+    for (final Map.Entry<Address, Optional<AccountDetails>> seen : seenAccounts.entrySet()) {
+      final Address address = seen.getKey();
+      final PathBasedValue<? extends PathBasedAccount> blockValue =
+          blockAccumulator.getAccountsToUpdate().get(address);
+      final PathBasedAccount current;
+      if (blockValue != null) {
+        current = blockValue.getUpdated();
+      } else {
+        final PathBasedValue<BonsaiAccount> ownValue = getAccountsToUpdate().get(address);
+        current = ownValue == null ? null : ownValue.getPrior();
+      }
+      if (!seen.getValue().equals(AccountDetails.of(current))) {
+        return false;
+      }
+    }
+    for (final Map.Entry<Address, Map<StorageSlotKey, UInt256>> seenSlots :
+        seenStorage.entrySet()) {
+      final Address address = seenSlots.getKey();
+      final Map<StorageSlotKey, PathBasedValue<UInt256>> blockSlots =
+          blockAccumulator.getStorageToUpdate().get(address);
+      final Map<StorageSlotKey, PathBasedValue<UInt256>> ownSlots =
+          getStorageToUpdate().get(address);
+      final boolean isClearedInBlock = blockAccumulator.getStorageToClear().contains(address);
+      for (final Map.Entry<StorageSlotKey, UInt256> seen : seenSlots.getValue().entrySet()) {
+        final PathBasedValue<UInt256> blockSlot =
+            blockSlots == null ? null : blockSlots.get(seen.getKey());
+        final UInt256 current;
+        if (blockSlot != null) {
+          current = orZero(blockSlot.getUpdated());
+        } else if (isClearedInBlock) {
+          current = UInt256.ZERO;
+        } else {
+          final PathBasedValue<UInt256> ownSlot =
+              ownSlots == null ? null : ownSlots.get(seen.getKey());
+          current = ownSlot == null ? UInt256.ZERO : orZero(ownSlot.getPrior());
+        }
+        if (!seen.getValue().equals(current)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static UInt256 orZero(final UInt256 value) {
+    return value == null ? UInt256.ZERO : value;
+  }
+
+  private record AccountDetails(long nonce, Wei balance, Hash codeHash) {
+
+    static Optional<AccountDetails> of(final PathBasedAccount account) {
+      return account == null
+          ? Optional.empty()
+          : Optional.of(
+              new AccountDetails(account.getNonce(), account.getBalance(), account.getCodeHash()));
+    }
+  }
+}
@@ -245,7 +245,8 @@ public class BalPrefetcher {
       final BonsaiWorldState worldState, final SegmentIdentifier segment, final List<byte[]> keys) {
     final SegmentedKeyValueStorage storage =
         worldState.getWorldStateStorage().getComposedWorldStateStorage();
-    keys.forEach(key -> storage.get(segment, key));
+    // one batched read lets the storage fetch the keys in parallel and in key order
+    storage.multiGet(segment, keys);
   }
 
   private boolean shouldBatch() {
@@ -0,0 +1,106 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization.prefetch;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.accumulator.preload.BonsaiCachedMerkleTrieLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads the trie nodes that the BAL state root computation will need into a {@link
+ * BonsaiCachedMerkleTrieLoader}.
+ *
+ * <p>{@link BalPrefetcher} warms flat account and storage values for execution, but the root
+ * computation walks the account trie and the storage tries of every changed account, and would
+ * otherwise read their nodes one at a time as it goes. This prefetcher walks the path to every
+ * changed account and every changed slot ahead of it, one task per account, so that the walks run
+ * concurrently with each other and with transaction execution.
+ *
+ * <p>Only changed keys are loaded: accounts and slots that are only read do not alter the tries,
+ * so the root computation never visits their nodes.
+ */
+public class BalTrieNodePrefetcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BalTrieNodePrefetcher.class);
+
+  private final BonsaiCachedMerkleTrieLoader merkleTrieLoader;
+
+  /**
+   * Creates a trie node prefetcher.
+   *
+   * @param merkleTrieLoader the loader whose node caches are filled
+   */
+  public BalTrieNodePrefetcher(final BonsaiCachedMerkleTrieLoader merkleTrieLoader) {
+    this.merkleTrieLoader = merkleTrieLoader;
+  }
+
+  /**
+   * Loads the account and storage trie paths of every key changed by the block access list.
+   *
+   * @param worldStateStorage the storage of the parent world state
+   * @param parentStateRoot the state root of the parent world state
+   * @param blockAccessList the block access list
+   * @param executor the executor running one load task per changed account
+   * @return a future that completes when all paths are loaded; it never completes exceptionally
+   */
+  public CompletableFuture<Void> prefetch(
+      final BonsaiWorldStateKeyValueStorage worldStateStorage,
+      final Hash parentStateRoot,
+      final BlockAccessList blockAccessList,
+      final Executor executor) {
+    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (final BlockAccessList.AccountChanges accountChanges : blockAccessList.accountChanges()) {
+      if (!accountChanges.hasAnyChange()) {
+        continue;
+      }
+      futures.add(
+          CompletableFuture.runAsync(
+              () -> loadAccountPaths(worldStateStorage, parentStateRoot, accountChanges),
+              executor));
+    }
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+        .handle(
+            (result, ex) -> {
+              if (ex != null) {
+                // the root computation reads whatever is missing from storage
+                LOG.debug("Trie node prefetch failed", ex);
+              } else {
+                LOG.trace("Trie node prefetch completed for {} accounts", futures.size());
+              }
+              return null;
+            });
+  }
+
+  private void loadAccountPaths(
+      final BonsaiWorldStateKeyValueStorage worldStateStorage,
+      final Hash parentStateRoot,
+      final BlockAccessList.AccountChanges accountChanges) {
+    merkleTrieLoader.cacheAccountNodes(
+        worldStateStorage, parentStateRoot, accountChanges.address());
+    for (final BlockAccessList.SlotChanges slotChanges : accountChanges.storageChanges()) {
+      merkleTrieLoader.cacheStorageNodes(
+          worldStateStorage, accountChanges.address(), slotChanges.slot());
+    }
+  }
+}
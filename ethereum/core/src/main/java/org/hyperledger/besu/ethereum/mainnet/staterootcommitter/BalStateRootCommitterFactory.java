@@ -69,7 +69,13 @@ public final class BalStateRootCommitterFactory implements StateRootCommitterFac
 
     final CompletableFuture<BalRootComputation> balFuture =
         BlockAccessListStateRootCalculator.computeAsync(
-            protocolContext, blockHeader, maybeBal.get(), balAsyncExecutor);
+            protocolContext,
+            blockHeader,
+            maybeBal.get(),
+            balAsyncExecutor,
+            balConfiguration.isBalTrieNodePrefetchEnabled()
+                ? Optional.of(BlockProcessingExecutors.ioExecutor())
+                : Optional.empty());
     return new BalCommitter(balFuture);
   }
 
@@ -16,17 +16,41 @@ package org.hyperledger.besu.ethereum.mainnet.staterootcommitter;
 
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.BlockProcessingExecutors;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.provider.BonsaiWorldStateProvider;
 import org.hyperledger.besu.plugin.data.BlockHeader;
 import org.hyperledger.besu.plugin.services.worldstate.StateRootCommitter;
 
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 public final class DefaultStateRootCommitterFactory implements StateRootCommitterFactory {
+
+  private final Supplier<Executor> incrementalExecutor;
+
+  public DefaultStateRootCommitterFactory() {
+    this(BlockProcessingExecutors::stateRootExecutor);
+  }
+
+  public DefaultStateRootCommitterFactory(final Supplier<Executor> incrementalExecutor) {
+    this.incrementalExecutor = incrementalExecutor;
+  }
+
   @Override
   public StateRootCommitter forBlock(
       final ProtocolContext protocolContext,
       final BlockHeader blockHeader,
       final Optional<BlockAccessList> maybeBal) {
+    if (isIncrementalComputationEnabled(protocolContext)) {
+      return new IncrementalStateRootCommitter(incrementalExecutor.get());
+    }
     return StateRootCommitter.SYNCHRONOUS;
   }
+
+  private static boolean isIncrementalComputationEnabled(final ProtocolContext protocolContext) {
+    return protocolContext.getWorldStateArchive() instanceof BonsaiWorldStateProvider provider
+        && provider.getWorldStateSharedSpec().isIncrementalStateRootComputationEnabled()
+        && !provider.getWorldStateSharedSpec().isTrieDisabled();
+  }
 }
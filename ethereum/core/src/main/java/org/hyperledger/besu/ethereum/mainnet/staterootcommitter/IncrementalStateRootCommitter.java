@@ -0,0 +1,174 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.staterootcommitter;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.IncrementalStorageTrie;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.account.PathBasedAccount;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.evm.worldstate.UpdateTrackingAccount;
+import org.hyperledger.besu.plugin.data.BlockHeader;
+import org.hyperledger.besu.plugin.services.storage.WorldStateKeyValueStorage;
+import org.hyperledger.besu.plugin.services.worldstate.MutableWorldState;
+import org.hyperledger.besu.plugin.services.worldstate.StateRootCommitter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Folds the storage writes of every transaction into per-account storage tries on a background
+ * executor while the block executes, so that trie nodes are already loaded and hashed when the
+ * block is persisted.
+ *
+ * <p>Updates of one account are applied in transaction order, one at a time; different accounts
+ * are updated concurrently. The standard root computation still runs at the end, but reuses these
+ * tries and only replays the slots whose final value they do not hold yet. An account whose storage
+ * is cleared during the block, or whose background update failed, falls back to a fresh trie.
+ */
+final class IncrementalStateRootCommitter implements StateRootCommitter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(IncrementalStateRootCommitter.class);
+
+  private final Executor executor;
+  // only accessed from the block processing thread
+  private BonsaiWorldState worldState;
+  private final Map<Address, PendingStorageTrie> storageTries = new HashMap<>();
+  private final Set<Address> clearedAccounts = new HashSet<>();
+  private volatile boolean cancelled = false;
+
+  IncrementalStateRootCommitter(final Executor executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public void onTransactionCommitted(final MutableWorldState committedWorldState) {
+    if (cancelled || !bindTo(committedWorldState)) {
+      return;
+    }
+    final PathBasedWorldStateUpdateAccumulator<?> accumulator = worldState.updater();
+    for (final UpdateTrackingAccount<?> tracked : accumulator.getUpdatedAccounts()) {
+      final Map<UInt256, UInt256> updatedStorage = tracked.getUpdatedStorage();
+      final Address address = tracked.getAddress();
+      if (updatedStorage.isEmpty() || clearedAccounts.contains(address)) {
+        continue;
+      }
+      if (accumulator.getStorageToClear().contains(address)) {
+        // the trie no longer starts from the prior storage root
+        clearedAccounts.add(address);
+        storageTries.remove(address);
+        continue;
+      }
+      storageTries
+          .computeIfAbsent(
+              address,
+              __ ->
+                  new PendingStorageTrie(
+                      worldState.createIncrementalStorageTrie(
+                          address, priorStorageRoot(accumulator, address))))
+          .submit(Map.copyOf(updatedStorage));
+    }
+  }
+
+  @Override
+  public Hash computeRoot(
+      final Supplier<Hash> stateRootSupplier,
+      final MutableWorldState committedWorldState,
+      final WorldStateKeyValueStorage.Updater stateUpdater,
+      final BlockHeader blockHeader) {
+    if (worldState == null || committedWorldState != worldState || storageTries.isEmpty()) {
+      return stateRootSupplier.get();
+    }
+    final Set<Address> storageToClear = worldState.updater().getStorageToClear();
+    final Map<Address, IncrementalStorageTrie> readyTries = new HashMap<>();
+    storageTries.forEach(
+        (address, pending) -> {
+          if (!storageToClear.contains(address)) {
+            pending.await().ifPresent(trie -> readyTries.put(address, trie));
+          }
+        });
+    storageTries.clear();
+    worldState.setIncrementalStorageTries(readyTries);
+    try {
+      return stateRootSupplier.get();
+    } finally {
+      worldState.setIncrementalStorageTries(Map.of());
+    }
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+  }
+
+  private boolean bindTo(final MutableWorldState committedWorldState) {
+    if (worldState == null && committedWorldState instanceof BonsaiWorldState bonsaiWorldState) {
+      worldState = bonsaiWorldState;
+    }
+    return worldState != null && committedWorldState == worldState;
+  }
+
+  private static Hash priorStorageRoot(
+      final PathBasedWorldStateUpdateAccumulator<?> accumulator, final Address address) {
+    return Optional.ofNullable(accumulator.getAccountsToUpdate().get(address))
+        .map(PathBasedValue::getPrior)
+        .map(PathBasedAccount::getStorageRoot)
+        .orElse(Hash.EMPTY_TRIE_HASH);
+  }
+
+  private final class PendingStorageTrie {
+
+    private final IncrementalStorageTrie trie;
+    private CompletableFuture<Void> pendingUpdates = CompletableFuture.completedFuture(null);
+
+    PendingStorageTrie(final IncrementalStorageTrie trie) {
+      this.trie = trie;
+    }
+
+    void submit(final Map<UInt256, UInt256> slotUpdates) {
+      pendingUpdates =
+          pendingUpdates.thenRunAsync(
+              () -> {
+                if (!cancelled) {
+                  trie.apply(slotUpdates);
+                }
+              },
+              executor);
+    }
+
+    Optional<IncrementalStorageTrie> await() {
+      try {
+        pendingUpdates.join();
+        return Optional.of(trie);
+      } catch (final RuntimeException e) {
+        // the root computation opens a fresh trie and reads whatever is missing from storage
+        LOG.debug("Incremental storage trie update failed, falling back to a fresh trie", e);
+        return Optional.empty();
+      }
+    }
+  }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.archive;
+
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ARCHIVE_CHANGE_INDEX;
+
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Secondary index over the Bonsai archive segments that resolves "block of the last change of key
+ * K at or before block B" with point lookups, so that historical reads avoid a seek over the
+ * block-suffixed archive keys.
+ *
+ * <p>For every natural key (an account hash, or an account hash followed by a slot hash) the index
+ * holds, under keys prefixed with the natural key length so account and storage entries never
+ * interleave:
+ *
+ * <ul>
+ *   <li>a <em>latest</em> entry, {@code K ++ 0xFFFFFFFF}, with the most recent block K changed in;
+ *   <li>one <em>bucket</em> entry per {@value #BUCKET_BITS}-bit block bucket K changed in, {@code K
+ *       ++ bucket}, holding the last change before the bucket followed by the sorted 16-bit
+ *       offsets of every change inside the bucket.
+ * </ul>
+ *
+ * <p>A lookup reads the latest entry and, when the key changed after the requested block, the
+ * bucket entry of the requested block. When neither answers the question (the key did not change
+ * in the requested bucket, or the index does not cover the key's history) the lookup reports
+ * {@link #UNRESOLVED} and callers fall back to seeking the archive segment.
+ *
+ * <p>When the index was built from genesis, as marked by {@link #markCompleteFromGenesis}, a key
+ * without a latest entry has never been written and lookups report {@link #NOT_CHANGED} without
+ * touching the archive segment.
+ */
+public final class BonsaiArchiveChangeIndex {
+
+  /** Lookup result for a key that has no value at or before the requested block. */
+  public static final long NOT_CHANGED = -1L;
+
+  /** Lookup result for a key the index cannot resolve; callers must seek the archive segment. */
+  public static final long UNRESOLVED = -2L;
+
+  static final int BUCKET_BITS = 12;
+  private static final long LATEST_BUCKET = 0xFFFFFFFFL;
+  private static final long NO_PREVIOUS_CHANGE = -1L;
+  // the bucket was created out of order and the change before it is not known to the index
+  private static final long UNKNOWN_PREVIOUS_CHANGE = -2L;
+  private static final int PREVIOUS_CHANGE_SIZE = Long.BYTES;
+  private static final int OFFSET_SIZE = Short.BYTES;
+
+  private static final byte[] COMPLETE_FROM_GENESIS_KEY =
+      "ARCHIVE_CHANGE_INDEX_FROM_GENESIS".getBytes(StandardCharsets.UTF_8);
+
+  private BonsaiArchiveChangeIndex() {}
+
+  /**
+   * Returns whether the index has been maintained for every archived block since genesis.
+   *
+   * @param storage the storage to read from
+   * @return true if a missing index entry means the key has never been written
+   */
+  public static boolean isCompleteFromGenesis(final SegmentedKeyValueStorage storage) {
+    return storage.containsKey(ARCHIVE_CHANGE_INDEX, COMPLETE_FROM_GENESIS_KEY);
+  }
+
+  /**
+   * Records that the index is maintained from genesis. Must only be called before any block has
+   * been archived.
+   *
+   * @param transaction the transaction to write into
+   */
+  public static void markCompleteFromGenesis(
+      final SegmentedKeyValueStorageTransaction transaction) {
+    transaction.put(ARCHIVE_CHANGE_INDEX, COMPLETE_FROM_GENESIS_KEY, new byte[] {1});
+  }
+
+  /**
+   * Resolves the block of the last change of a key at or before the given block.
+   *
+   * @param storage the storage to read from
+   * @param naturalKey the natural archive key (without block suffix)
+   * @param blockNumber the block to resolve the key at
+   * @param completeFromGenesis whether the index covers the full archive history
+   * @return the block number of the last change, {@link #NOT_CHANGED} or {@link #UNRESOLVED}
+   */
+  public static long lookup(
+      final SegmentedKeyValueStorage storage,
+      final byte[] naturalKey,
+      final long blockNumber,
+      final boolean completeFromGenesis) {
+    final Optional<byte[]> latest = storage.get(ARCHIVE_CHANGE_INDEX, latestKey(naturalKey));
+    return resolve(
+        latest,
+        () -> storage.get(ARCHIVE_CHANGE_INDEX, bucketKey(naturalKey, bucketOf(blockNumber))),
+        blockNumber,
+        completeFromGenesis);
+  }
+
+  /**
+   * Resolves several keys at the same block with batched reads.
+   *
+   * @param storage the storage to read from
+   * @param naturalKeys the natural archive keys (without block suffix)
+   * @param blockNumber the block to resolve the keys at
+   * @param completeFromGenesis whether the index covers the full archive history
+   * @return for each key, the block of its last change, {@link #NOT_CHANGED} or {@link
+   *     #UNRESOLVED}
+   */
+  public static long[] lookupAll(
+      final SegmentedKeyValueStorage storage,
+      final List<byte[]> naturalKeys,
+      final long blockNumber,
+      final boolean completeFromGenesis) {
+    final List<Optional<byte[]>> latest =
+        storage.multiGet(
+            ARCHIVE_CHANGE_INDEX,
+            naturalKeys.stream().map(BonsaiArchiveChangeIndex::latestKey).toList());
+    final long[] result = new long[naturalKeys.size()];
+    final List<Integer> needBucket = new ArrayList<>();
+    for (int i = 0; i < result.length; i++) {
+      final Optional<byte[]> latestEntry = latest.get(i);
+      result[i] = resolve(latestEntry, Optional::empty, blockNumber, completeFromGenesis);
+      if (result[i] == UNRESOLVED && latestEntry.isPresent()) {
+        needBucket.add(i);
+      }
+    }
+    if (!needBucket.isEmpty()) {
+      final long bucket = bucketOf(blockNumber);
+      final List<Optional<byte[]>> buckets =
+          storage.multiGet(
+              ARCHIVE_CHANGE_INDEX,
+              needBucket.stream().map(i -> bucketKey(naturalKeys.get(i), bucket)).toList());
+      for (int j = 0; j < needBucket.size(); j++) {
+        final int i = needBucket.get(j);
+        final Optional<byte[]> bucketEntry = buckets.get(j);
+        result[i] = resolve(latest.get(i), () -> bucketEntry, blockNumber, completeFromGenesis);
+      }
+    }
+    return result;
+  }
+
+  private static long resolve(
+      final Optional<byte[]> latest,
+      final Supplier<Optional<byte[]>> bucketSupplier,
+      final long blockNumber,
+      final boolean completeFromGenesis) {
+    if (latest.isEmpty()) {
+      return completeFromGenesis ? NOT_CHANGED : UNRESOLVED;
+    }
+    final long latestChange = Bytes.wrap(latest.get()).toLong();
+    if (latestChange <= blockNumber) {
+      return latestChange;
+    }
+    final Optional<byte[]> bucketEntry = bucketSupplier.get();
+    if (bucketEntry.isEmpty()) {
+      // the key last changed in an earlier bucket that the index cannot locate without a seek
+      return UNRESOLVED;
+    }
+    final byte[] entry = bucketEntry.get();
+    final long bucketStart = bucketOf(blockNumber) << BUCKET_BITS;
+    final int requestedOffset = (int) (blockNumber - bucketStart);
+    for (int pos = entry.length - OFFSET_SIZE; pos >= PREVIOUS_CHANGE_SIZE; pos -= OFFSET_SIZE) {
+      final int offset = readOffset(entry, pos);
+      if (offset <= requestedOffset) {
+        return bucketStart + offset;
+      }
+    }
+    final long previousChange = Bytes.wrap(entry, 0, PREVIOUS_CHANGE_SIZE).toLong();
+    if (previousChange == UNKNOWN_PREVIOUS_CHANGE) {
+      return UNRESOLVED;
+    }
+    if (previousChange != NO_PREVIOUS_CHANGE) {
+      return previousChange;
+    }
+    return completeFromGenesis ? NOT_CHANGED : UNRESOLVED;
+  }
+
+  /**
+   * Creates an updater that maintains the index within a single transaction.
+   *
+   * @param storage the committed storage to read existing index entries from
+   * @param transaction the transaction index updates are written into
+   * @return the updater
+   */
+  public static Updater updater(
+      final SegmentedKeyValueStorage storage,
+      final SegmentedKeyValueStorageTransaction transaction) {
+    return new Updater(storage, transaction);
+  }
+
+  /**
+   * Maintains the index for changes written in one transaction. Entries written earlier in the same
+   * transaction are kept in memory, so several blocks can be indexed before the transaction is
+   * committed. Changes are expected in ascending block order per key; a change that arrives out of
+   * order in a bucket of its own leaves lookups before it in that bucket unresolved.
+   */
+  public static final class Updater {
+    private final SegmentedKeyValueStorage storage;
+    private final SegmentedKeyValueStorageTransaction transaction;
+    private final Map<Bytes, byte[]> pending = new HashMap<>();
+
+    private Updater(
+        final SegmentedKeyValueStorage storage,
+        final SegmentedKeyValueStorageTransaction transaction) {
+      this.storage = storage;
+      this.transaction = transaction;
+    }
+
+    /**
+     * Records that the given natural key was written at the given block.
+     *
+     * @param naturalKey the natural archive key (without block suffix)
+     * @param blockNumber the block the key was written at
+     */
+    public void recordChange(final byte[] naturalKey, final long blockNumber) {
+      final byte[] latestKey = latestKey(naturalKey);
+      final long latestChange = read(latestKey).map(v -> Bytes.wrap(v).toLong()).orElse(-1L);
+      final long bucket = bucketOf(blockNumber);
+      final long bucketStart = bucket << BUCKET_BITS;
+      final byte[] bucketKey = bucketKey(naturalKey, bucket);
+      // the latest change is the highest one recorded, so the bucket can only exist if it is not
+      // earlier than the bucket
+      final Optional<byte[]> bucketEntry =
+          latestChange >= bucketStart ? read(bucketKey) : Optional.empty();
+
+      final byte[] updatedBucket;
+      if (bucketEntry.isPresent()) {
+        updatedBucket = insertOffset(bucketEntry.get(), (int) (blockNumber - bucketStart));
+      } else {
+        final long previousChange;
+        if (latestChange < 0) {
+          previousChange = NO_PREVIOUS_CHANGE;
+        } else if (latestChange < bucketStart) {
+          previousChange = latestChange;
+        } else {
+          // out of order: the key changed later, and finding its change before this bucket would
+          // need a seek
+          previousChange = UNKNOWN_PREVIOUS_CHANGE;
+        }
+        updatedBucket =
+            Bytes.concatenate(
+                    Bytes.ofUnsignedLong(previousChange),
+                    Bytes.ofUnsignedShort((int) (blockNumber - bucketStart)))
+                .toArrayUnsafe();
+      }
+      write(bucketKey, updatedBucket);
+
+      if (blockNumber < latestChange) {
+        // out of order: the next bucket that already has changes now has a later previous change
+        repairFollowingBucket(naturalKey, bucket, blockNumber);
+      } else {
+        write(latestKey, Bytes.ofUnsignedLong(blockNumber).toArrayUnsafe());
+      }
+    }
+
+    private void repairFollowingBucket(
+        final byte[] naturalKey, final long bucket, final long blockNumber) {
+      try (Stream<Pair<byte[], byte[]>> following =
+          storage.streamFromKey(
+              ARCHIVE_CHANGE_INDEX,
+              bucketKey(naturalKey, bucket + 1),
+              bucketKey(naturalKey, LATEST_BUCKET - 1))) {
+        following
+            .findFirst()
+            .ifPresent(
+                next -> {
+                  final byte[] entry = read(next.getKey()).orElse(next.getValue()).clone();
+                  final long previousChange = Bytes.wrap(entry, 0, PREVIOUS_CHANGE_SIZE).toLong();
+                  if (previousChange != UNKNOWN_PREVIOUS_CHANGE
+                      && (previousChange == NO_PREVIOUS_CHANGE || previousChange < blockNumber)) {
+                    System.arraycopy(
+                        Bytes.ofUnsignedLong(blockNumber).toArrayUnsafe(),
+                        0,
+                        entry,
+                        0,
+                        PREVIOUS_CHANGE_SIZE);
+                    write(next.getKey(), entry);
+                  }
+                });
+      }
+    }
+
+    private Optional<byte[]> read(final byte[] key) {
+      final byte[] value = pending.get(Bytes.wrap(key));
+      return value != null ? Optional.of(value) : storage.get(ARCHIVE_CHANGE_INDEX, key);
+    }
+
+    private void write(final byte[] key, final byte[] value) {
+      pending.put(Bytes.wrap(key), value);
+      transaction.put(ARCHIVE_CHANGE_INDEX, key, value);
+    }
+  }
+
+  private static byte[] insertOffset(final byte[] entry, final int offset) {
+    int insertAt = entry.length;
+    for (int pos = PREVIOUS_CHANGE_SIZE; pos < entry.length; pos += OFFSET_SIZE) {
+      final int existing = readOffset(entry, pos);
+      if (existing == offset) {
+        return entry;
+      }
+      if (existing > offset) {
+        insertAt = pos;
+        break;
+      }
+    }
+    final byte[] updated = new byte[entry.length + OFFSET_SIZE];
+    System.arraycopy(entry, 0, updated, 0, insertAt);
+    updated[insertAt] = (byte) (offset >>> 8);
+    updated[insertAt + 1] = (byte) offset;
+    System.arraycopy(entry, insertAt, updated, insertAt + OFFSET_SIZE, entry.length - insertAt);
+    return updated;
+  }
+
+  private static int readOffset(final byte[] entry, final int pos) {
+    return ((entry[pos] & 0xff) << 8) | (entry[pos + 1] & 0xff);
+  }
+
+  private static long bucketOf(final long blockNumber) {
+    return Math.min(blockNumber >>> BUCKET_BITS, LATEST_BUCKET - 1);
+  }
+
+  static byte[] latestKey(final byte[] naturalKey) {
+    return bucketKey(naturalKey, LATEST_BUCKET);
+  }
+
+  static byte[] bucketKey(final byte[] naturalKey, final long bucket) {
+    final int length = naturalKey.length;
+    final byte[] key = new byte[1 + length + Integer.BYTES];
+    key[0] = (byte) length;
+    System.arraycopy(naturalKey, 0, key, 1, length);
+    final int b = (int) bucket;
+    key[length + 1] = (byte) (b >>> 24);
+    key[length + 2] = (byte) (b >>> 16);
+    key[length + 3] = (byte) (b >>> 8);
+    key[length + 4] = (byte) b;
+    return key;
+  }
+}
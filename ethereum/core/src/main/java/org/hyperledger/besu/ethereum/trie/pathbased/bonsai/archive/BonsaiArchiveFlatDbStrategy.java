@@ -16,7 +16,10 @@ package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.archive;
 
 import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE_ARCHIVE;
 import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_ARCHIVE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ARCHIVE_CHANGE_INDEX;
 import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRIE_BRANCH_STORAGE;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.archive.BonsaiArchiveChangeIndex.NOT_CHANGED;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.archive.BonsaiArchiveChangeIndex.UNRESOLVED;
 import static org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage.WORLD_BLOCK_NUMBER_KEY;
 
 import org.hyperledger.besu.datatypes.Hash;
@@ -29,6 +32,8 @@ import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -54,6 +59,16 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
   public static final byte[] DELETED_ACCOUNT_VALUE = new byte[0];
   public static final byte[] DELETED_STORAGE_VALUE = new byte[0];
 
+  // the change index only ever becomes complete, so a positive answer is cached
+  private volatile boolean changeIndexCompleteFromGenesis = false;
+
+  // one change index updater per block transaction, so keys written several times in a block are
+  // read from the index only once
+  private volatile ChangeIndexBatch changeIndexBatch;
+
+  private record ChangeIndexBatch(
+      SegmentedKeyValueStorageTransaction transaction, BonsaiArchiveChangeIndex.Updater updater) {}
+
   private Optional<BonsaiArchiveContext> getStateArchiveContextForWrite(
       final SegmentedKeyValueStorage storage) {
     // For Bonsai archive get the flat DB context to use for writing archive entries.
@@ -105,19 +120,77 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
 
     getAccountCounter.inc();
 
+    final Optional<BonsaiArchiveContext> context = getStateArchiveContextForRead(storage);
+    final byte[] naturalKey = accountHash.getBytes().toArrayUnsafe();
+    final long changeBlock =
+        BonsaiArchiveChangeIndex.lookup(
+            storage, naturalKey, readBlockNumber(context), isChangeIndexComplete(storage));
+    return resolveAccount(storage, context, naturalKey, changeBlock);
+  }
+
+  /**
+   * Retrieves the flat account data of several accounts at the block context of the storage,
+   * resolving them through the archive change index with batched reads.
+   *
+   * @param accountHashes the hashes of the account addresses
+   * @param storage the storage to read from
+   * @return the account values, in the order of the given hashes
+   */
+  public List<Optional<Bytes>> getFlatAccounts(
+      final List<Hash> accountHashes, final SegmentedKeyValueStorage storage) {
+    final Optional<BonsaiArchiveContext> context = getStateArchiveContextForRead(storage);
+    final List<byte[]> naturalKeys =
+        accountHashes.stream().map(hash -> hash.getBytes().toArrayUnsafe()).toList();
+    final long[] changeBlocks =
+        BonsaiArchiveChangeIndex.lookupAll(
+            storage, naturalKeys, readBlockNumber(context), isChangeIndexComplete(storage));
+    final List<Optional<byte[]>> values =
+        storage.multiGet(ACCOUNT_INFO_STATE_ARCHIVE, archiveKeys(naturalKeys, changeBlocks));
+    final List<Optional<Bytes>> result = new ArrayList<>(naturalKeys.size());
+    int resolved = 0;
+    for (int i = 0; i < naturalKeys.size(); i++) {
+      getAccountCounter.inc();
+      final Optional<byte[]> value =
+          changeBlocks[i] >= 0 ? values.get(resolved++) : Optional.empty();
+      if (value.isPresent()) {
+        getAccountFoundInFlatDatabaseCounter.inc();
+        result.add(wrapUnlessDeleted(value.get(), DELETED_ACCOUNT_VALUE));
+      } else {
+        result.add(
+            resolveAccount(
+                storage, context, naturalKeys.get(i), unresolvedUnless(changeBlocks[i])));
+      }
+    }
+    return result;
+  }
+
+  private Optional<Bytes> resolveAccount(
+      final SegmentedKeyValueStorage storage,
+      final Optional<BonsaiArchiveContext> context,
+      final byte[] naturalKey,
+      final long changeBlock) {
+    if (changeBlock == NOT_CHANGED) {
+      getAccountNotFoundInFlatDatabaseCounter.inc();
+      return Optional.empty();
+    }
+    if (changeBlock >= 0) {
+      final Optional<byte[]> value =
+          storage.get(ACCOUNT_INFO_STATE_ARCHIVE, archiveKey(naturalKey, changeBlock));
+      if (value.isPresent()) {
+        getAccountFoundInFlatDatabaseCounter.inc();
+        return wrapUnlessDeleted(value.get(), DELETED_ACCOUNT_VALUE);
+      }
+    }
+
     // keyNearest, use MAX_BLOCK_SUFFIX in the absence of a block context:
-    Bytes keyNearest =
-        calculateArchiveKeyWithMaxSuffix(
-            getStateArchiveContextForRead(storage), accountHash.getBytes().toArrayUnsafe());
+    Bytes keyNearest = calculateArchiveKeyWithMaxSuffix(context, naturalKey);
 
     // Find the nearest account state for this address and block context
     Optional<SegmentedKeyValueStorage.NearestKeyValue> accountFound =
         storage
             .getNearestBefore(ACCOUNT_INFO_STATE_ARCHIVE, keyNearest)
             .filter(
-                found ->
-                    accountHash.getBytes().commonPrefixLength(found.key())
-                        >= accountHash.getBytes().size());
+                found -> Bytes.of(naturalKey).commonPrefixLength(found.key()) >= naturalKey.length);
 
     if (accountFound.isPresent()) {
       getAccountFoundInFlatDatabaseCounter.inc();
@@ -250,8 +323,9 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
       final SegmentedKeyValueStorageTransaction transaction,
       final Hash accountHash,
       final Bytes accountValue) {
-    putFlatAccount(
-        getStateArchiveContextForWrite(storage).get(), transaction, accountHash, accountValue);
+    final BonsaiArchiveContext context = getStateArchiveContextForWrite(storage).get();
+    putFlatAccount(context, transaction, accountHash, accountValue);
+    recordChange(storage, transaction, accountHash.getBytes().toArrayUnsafe(), context);
   }
 
   /**
@@ -277,7 +351,9 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
       final SegmentedKeyValueStorage storage,
       final SegmentedKeyValueStorageTransaction transaction,
       final Hash accountHash) {
-    removeFlatAccount(getStateArchiveContextForWrite(storage).get(), transaction, accountHash);
+    final BonsaiArchiveContext context = getStateArchiveContextForWrite(storage).get();
+    removeFlatAccount(context, transaction, accountHash);
+    recordChange(storage, transaction, accountHash.getBytes().toArrayUnsafe(), context);
   }
 
   /**
@@ -314,11 +390,76 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
 
     getStorageValueCounter.inc();
 
+    final Optional<BonsaiArchiveContext> context = getStateArchiveContextForRead(storage);
     // get natural key from account hash and slot key
-    byte[] naturalKey = calculateNaturalSlotKey(accountHash, storageSlotKey.getSlotHash());
+    final byte[] naturalKey = calculateNaturalSlotKey(accountHash, storageSlotKey.getSlotHash());
+    final long changeBlock =
+        BonsaiArchiveChangeIndex.lookup(
+            storage, naturalKey, readBlockNumber(context), isChangeIndexComplete(storage));
+    return resolveStorageValue(storage, context, naturalKey, changeBlock);
+  }
+
+  /**
+   * Retrieves several storage values of one account at the block context of the storage,
+   * resolving them through the archive change index with batched reads.
+   *
+   * @param accountHash the hash of the account address
+   * @param storageSlotKeys the storage slot keys
+   * @param storage the storage to read from
+   * @return the storage values, in the order of the given slot keys
+   */
+  public List<Optional<Bytes>> getFlatStorageValuesByStorageSlotKeys(
+      final Hash accountHash,
+      final List<StorageSlotKey> storageSlotKeys,
+      final SegmentedKeyValueStorage storage) {
+    final Optional<BonsaiArchiveContext> context = getStateArchiveContextForRead(storage);
+    final List<byte[]> naturalKeys =
+        storageSlotKeys.stream()
+            .map(slotKey -> calculateNaturalSlotKey(accountHash, slotKey.getSlotHash()))
+            .toList();
+    final long[] changeBlocks =
+        BonsaiArchiveChangeIndex.lookupAll(
+            storage, naturalKeys, readBlockNumber(context), isChangeIndexComplete(storage));
+    final List<Optional<byte[]>> values =
+        storage.multiGet(ACCOUNT_STORAGE_ARCHIVE, archiveKeys(naturalKeys, changeBlocks));
+    final List<Optional<Bytes>> result = new ArrayList<>(naturalKeys.size());
+    int resolved = 0;
+    for (int i = 0; i < naturalKeys.size(); i++) {
+      getStorageValueCounter.inc();
+      final Optional<byte[]> value =
+          changeBlocks[i] >= 0 ? values.get(resolved++) : Optional.empty();
+      if (value.isPresent()) {
+        getStorageValueFlatDatabaseCounter.inc();
+        result.add(wrapUnlessDeleted(value.get(), DELETED_STORAGE_VALUE));
+      } else {
+        result.add(
+            resolveStorageValue(
+                storage, context, naturalKeys.get(i), unresolvedUnless(changeBlocks[i])));
+      }
+    }
+    return result;
+  }
+
+  private Optional<Bytes> resolveStorageValue(
+      final SegmentedKeyValueStorage storage,
+      final Optional<BonsaiArchiveContext> context,
+      final byte[] naturalKey,
+      final long changeBlock) {
+    if (changeBlock == NOT_CHANGED) {
+      getStorageValueNotFoundInFlatDatabaseCounter.inc();
+      return Optional.empty();
+    }
+    if (changeBlock >= 0) {
+      final Optional<byte[]> value =
+          storage.get(ACCOUNT_STORAGE_ARCHIVE, archiveKey(naturalKey, changeBlock));
+      if (value.isPresent()) {
+        getStorageValueFlatDatabaseCounter.inc();
+        return wrapUnlessDeleted(value.get(), DELETED_STORAGE_VALUE);
+      }
+    }
+
     // keyNearest, use MAX_BLOCK_SUFFIX in the absence of a block context:
-    Bytes keyNearest =
-        calculateArchiveKeyWithMaxSuffix(getStateArchiveContextForRead(storage), naturalKey);
+    Bytes keyNearest = calculateArchiveKeyWithMaxSuffix(context, naturalKey);
 
     // Find the nearest storage for this address, slot key hash, and block context
     Optional<SegmentedKeyValueStorage.NearestKeyValue> storageFound =
@@ -344,6 +485,40 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
     return Optional.empty();
   }
 
+  private boolean isChangeIndexComplete(final SegmentedKeyValueStorage storage) {
+    if (!changeIndexCompleteFromGenesis) {
+      changeIndexCompleteFromGenesis = BonsaiArchiveChangeIndex.isCompleteFromGenesis(storage);
+    }
+    return changeIndexCompleteFromGenesis;
+  }
+
+  private static long readBlockNumber(final Optional<BonsaiArchiveContext> context) {
+    return context.flatMap(BonsaiArchiveContext::getBlockNumber).orElse(Long.MAX_VALUE);
+  }
+
+  private static long unresolvedUnless(final long changeBlock) {
+    return changeBlock == NOT_CHANGED ? NOT_CHANGED : UNRESOLVED;
+  }
+
+  private static byte[] archiveKey(final byte[] naturalKey, final long blockNumber) {
+    return Arrays.concatenate(naturalKey, Bytes.ofUnsignedLong(blockNumber).toArrayUnsafe());
+  }
+
+  private static List<byte[]> archiveKeys(
+      final List<byte[]> naturalKeys, final long[] changeBlocks) {
+    final List<byte[]> keys = new ArrayList<>();
+    for (int i = 0; i < changeBlocks.length; i++) {
+      if (changeBlocks[i] >= 0) {
+        keys.add(archiveKey(naturalKeys.get(i), changeBlocks[i]));
+      }
+    }
+    return keys;
+  }
+
+  private static Optional<Bytes> wrapUnlessDeleted(final byte[] value, final byte[] deleted) {
+    return Arrays.areEqual(deleted, value) ? Optional.empty() : Optional.of(Bytes.wrap(value));
+  }
+
   /*
    * Puts the storage value for the given account hash and storage slot key, using the world state root hash supplier, storage root supplier, and node loader.
    */
@@ -354,12 +529,10 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
       final Hash accountHash,
       final Hash slotHash,
       final Bytes storageValue) {
+    final BonsaiArchiveContext context = getStateArchiveContextForWrite(storage).get();
     putFlatAccountStorageValueByStorageSlotHash(
-        getStateArchiveContextForWrite(storage).get(),
-        transaction,
-        accountHash,
-        slotHash,
-        storageValue);
+        context, transaction, accountHash, slotHash, storageValue);
+    recordChange(storage, transaction, calculateNaturalSlotKey(accountHash, slotHash), context);
   }
 
   /**
@@ -393,8 +566,23 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
       final SegmentedKeyValueStorageTransaction transaction,
       final Hash accountHash,
       final Hash slotHash) {
-    removeFlatAccountStorageValueByStorageSlotHash(
-        getStateArchiveContextForWrite(storage).get(), transaction, accountHash, slotHash);
+    final BonsaiArchiveContext context = getStateArchiveContextForWrite(storage).get();
+    removeFlatAccountStorageValueByStorageSlotHash(context, transaction, accountHash, slotHash);
+    recordChange(storage, transaction, calculateNaturalSlotKey(accountHash, slotHash), context);
+  }
+
+  private void recordChange(
+      final SegmentedKeyValueStorage storage,
+      final SegmentedKeyValueStorageTransaction transaction,
+      final byte[] naturalKey,
+      final BonsaiArchiveContext context) {
+    ChangeIndexBatch batch = changeIndexBatch;
+    if (batch == null || batch.transaction() != transaction) {
+      batch =
+          new ChangeIndexBatch(transaction, BonsaiArchiveChangeIndex.updater(storage, transaction));
+      changeIndexBatch = batch;
+    }
+    batch.updater().recordChange(naturalKey, context.getBlockNumber().orElseThrow());
   }
 
   /**
@@ -441,6 +629,7 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
 
   @Override
   public void clearAll(final SegmentedKeyValueStorage storage) {
+    changeIndexCompleteFromGenesis = false;
     clearArchiveSegments(storage);
     // Then call parent to clear other segments
     super.clearAll(storage);
@@ -448,6 +637,7 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
 
   @Override
   public void resetOnResync(final SegmentedKeyValueStorage storage) {
+    changeIndexCompleteFromGenesis = false;
     clearArchiveSegments(storage);
     // Then call parent to reset other segments
     super.resetOnResync(storage);
@@ -456,6 +646,7 @@ public class BonsaiArchiveFlatDbStrategy extends BonsaiFullFlatDbStrategy {
   private static void clearArchiveSegments(final SegmentedKeyValueStorage storage) {
     storage.clear(ACCOUNT_INFO_STATE_ARCHIVE);
     storage.clear(ACCOUNT_STORAGE_ARCHIVE);
+    storage.clear(ARCHIVE_CHANGE_INDEX);
   }
 
   // TODO JF: move this out of this class so can be used with ArchiveCodeStorageStrategy without
@@ -45,6 +45,7 @@ public class BonsaiArchiveWorldState extends BonsaiWorldState {
     this.isStorageFrozen = true;
     this.worldStateKeyValueStorage =
         new BonsaiArchiveWorldStateLayerStorage(getWorldStateStorage());
+    this.isParentStorageShared = false;
     return this;
   }
 }
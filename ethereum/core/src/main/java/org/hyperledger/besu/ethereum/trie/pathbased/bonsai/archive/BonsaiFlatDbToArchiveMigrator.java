@@ -15,13 +15,17 @@
 package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.archive;
 
 import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE_ARCHIVE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_ARCHIVE;
 
+import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogManager;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
 import org.hyperledger.besu.util.log.LogUtil;
@@ -30,16 +34,23 @@ import java.io.Closeable;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.apache.tuweni.bytes.Bytes;
 import org.slf4j.Logger;
@@ -48,9 +59,19 @@ import org.slf4j.LoggerFactory;
 /**
  * Migrates a Bonsai flat DB node to Bonsai archive format without requiring a full resync.
  *
- * <p>Migration replays trie logs sequentially from block 0 (or the last saved checkpoint) to the
- * current chain head, writing archive-keyed entries into the archive column families. Progress is
- * persisted atomically with each block's data so the migration can safely resume after a restart.
+ * <p>Migration replays trie logs from block 0 (or the last saved checkpoint) to the current chain
+ * head, writing archive-keyed entries into the archive column families. Blocks are migrated in
+ * batches: the changes of a batch are split into account-hash partitions, and each partition is
+ * written by its own worker in a single low-priority transaction. Archive keys are suffixed with
+ * the block number, so partitions never write the same key and can be committed independently.
+ *
+ * <p>Each partition persists its own checkpoint atomically with its data, and the overall
+ * checkpoint is advanced once every partition has committed the batch. An interrupted migration
+ * resumes from the overall checkpoint, and partitions that had already committed the interrupted
+ * batch skip it.
+ *
+ * <p>Every archived change is also recorded in the {@link BonsaiArchiveChangeIndex}, so that
+ * historical reads can locate the block of a key's last change with point lookups.
  *
  * <p>The chain head target is updated in real time as new blocks arrive, so the migrator chases the
  * head until it converges. Once all blocks are processed, the flat DB mode is atomically switched
@@ -62,6 +83,13 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
   private static final int LOG_INTERVAL_SECONDS = 60;
   private static final long CATCHUP_LOG_THRESHOLD = 32;
 
+  /** Default number of account-hash partitions migrated in parallel. */
+  public static final int DEFAULT_PARTITION_COUNT =
+      Math.clamp(Runtime.getRuntime().availableProcessors() / 2, 1, 8);
+
+  /** Default number of blocks written per batch of low-priority transactions. */
+  public static final int DEFAULT_BLOCKS_PER_BATCH = 64;
+
   private static final byte[] MIGRATION_PROGRESS_KEY =
       "ARCHIVE_MIGRATION_PROGRESS".getBytes(StandardCharsets.UTF_8);
 
@@ -70,6 +98,9 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
   private final Blockchain blockchain;
   private final ScheduledExecutorService executorService;
   private final BonsaiArchiveFlatDbStrategy archiveStrategy;
+  private final ExecutorService partitionExecutor;
+  private final int partitionCount;
+  private final int blocksPerBatch;
   private final AtomicBoolean shouldLogProgress = new AtomicBoolean(true);
   protected final AtomicLong migratedBlockNumber = new AtomicLong(0);
   protected final AtomicBoolean migrationRunning = new AtomicBoolean(false);
@@ -78,6 +109,36 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
   protected volatile OptionalLong blockObserverId = OptionalLong.empty();
   private boolean closed = false;
 
+  /**
+   * Creates a new BonsaiFlatDbToArchiveMigrator that writes every batch from the migration thread
+   * as a single partition.
+   *
+   * @param worldStateStorage the Bonsai world state storage
+   * @param trieLogManager the trie log manager for reading trie logs
+   * @param blockchain the blockchain for reading block headers
+   * @param executorService the executor service for running migration on a separate thread
+   * @param metricsSystem the metrics system for tracking migration progress
+   * @param archiveStrategy the archive flat DB strategy for writing archive keys
+   */
+  public BonsaiFlatDbToArchiveMigrator(
+      final BonsaiWorldStateKeyValueStorage worldStateStorage,
+      final TrieLogManager trieLogManager,
+      final Blockchain blockchain,
+      final ScheduledExecutorService executorService,
+      final MetricsSystem metricsSystem,
+      final BonsaiArchiveFlatDbStrategy archiveStrategy) {
+    this(
+        worldStateStorage,
+        trieLogManager,
+        blockchain,
+        executorService,
+        MoreExecutors.newDirectExecutorService(),
+        1,
+        DEFAULT_BLOCKS_PER_BATCH,
+        metricsSystem,
+        archiveStrategy);
+  }
+
   /**
    * Creates a new BonsaiFlatDbToArchiveMigrator.
    *
@@ -85,6 +146,9 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
    * @param trieLogManager the trie log manager for reading trie logs
    * @param blockchain the blockchain for reading block headers
    * @param executorService the executor service for running migration on a separate thread
+   * @param partitionExecutor the executor service running the per-partition writers
+   * @param partitionCount the number of account-hash partitions written in parallel
+   * @param blocksPerBatch the maximum number of blocks written per batch
    * @param metricsSystem the metrics system for tracking migration progress
    * @param archiveStrategy the archive flat DB strategy for writing archive keys
    */
@@ -93,12 +157,24 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
       final TrieLogManager trieLogManager,
       final Blockchain blockchain,
       final ScheduledExecutorService executorService,
+      final ExecutorService partitionExecutor,
+      final int partitionCount,
+      final int blocksPerBatch,
       final MetricsSystem metricsSystem,
       final BonsaiArchiveFlatDbStrategy archiveStrategy) {
+    if (partitionCount < 1 || partitionCount > 256) {
+      throw new IllegalArgumentException("partitionCount must be between 1 and 256");
+    }
+    if (blocksPerBatch < 1) {
+      throw new IllegalArgumentException("blocksPerBatch must be positive");
+    }
     this.worldStateStorage = worldStateStorage;
     this.trieLogManager = trieLogManager;
     this.blockchain = blockchain;
     this.executorService = executorService;
+    this.partitionExecutor = partitionExecutor;
+    this.partitionCount = partitionCount;
+    this.blocksPerBatch = blocksPerBatch;
     this.archiveStrategy = archiveStrategy;
     metricsSystem.createLongGauge(
         BesuMetricCategory.BLOCKCHAIN,
@@ -123,7 +199,8 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
     }
 
     final Instant migrationStartTime = Instant.now();
-    final long lastProcessedBlock = getMigrationProgress().orElse(-1L);
+    final Optional<Long> savedProgress = getMigrationProgress();
+    final long lastProcessedBlock = savedProgress.orElse(-1L);
     final long startBlock = lastProcessedBlock + 1;
     migratedBlockNumber.set(Math.max(0, lastProcessedBlock));
 
@@ -143,6 +220,9 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
       return CompletableFuture.runAsync(
           () -> {
             try {
+              if (savedProgress.isEmpty()) {
+                markChangeIndexCompleteIfEmpty();
+              }
               migrateBlocks(startBlock, target, true);
               worldStateStorage.upgradeToArchiveFlatDbMode();
               logCompletion(startBlock, target.get(), migrationStartTime);
@@ -174,25 +254,142 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
 
   private void migrateBlocks(
       final long startBlock, final AtomicLong target, final boolean shouldLog) {
-    for (long blockNumber = startBlock; blockNumber <= target.get(); blockNumber++) {
+    final long[] partitionProgress = loadPartitionProgress();
+    long batchStart = startBlock;
+    while (batchStart <= target.get()) {
+      final long batchEnd = Math.min(target.get(), batchStart + blocksPerBatch - 1);
+      final List<BlockTrieLog> batch = loadBatch(batchStart, batchEnd);
+      if (!batch.isEmpty()) {
+        writeBatch(batch, batchEnd, partitionProgress);
+        migratedBlockNumber.set(batchEnd);
+        if (shouldLog) {
+          logProgress(batchEnd, target.get());
+        }
+      }
+      batchStart = batchEnd + 1;
+    }
+  }
+
+  private void markChangeIndexCompleteIfEmpty() {
+    final SegmentedKeyValueStorage storage = worldStateStorage.getComposedWorldStateStorage();
+    if (isEmpty(storage, ACCOUNT_INFO_STATE_ARCHIVE) && isEmpty(storage, ACCOUNT_STORAGE_ARCHIVE)) {
+      final SegmentedKeyValueStorageTransaction tx = storage.startLowPriorityTransaction();
+      BonsaiArchiveChangeIndex.markCompleteFromGenesis(tx);
+      tx.commit();
+    }
+  }
+
+  private static boolean isEmpty(
+      final SegmentedKeyValueStorage storage, final SegmentIdentifier segment) {
+    try (Stream<byte[]> keys = storage.streamKeys(segment)) {
+      return keys.findAny().isEmpty();
+    }
+  }
+
+  private List<BlockTrieLog> loadBatch(final long fromBlock, final long toBlock) {
+    final List<BlockTrieLog> batch = new ArrayList<>((int) (toBlock - fromBlock + 1));
+    for (long blockNumber = fromBlock; blockNumber <= toBlock; blockNumber++) {
       final Optional<TrieLog> maybeTrieLog =
           blockchain
               .getBlockHeader(blockNumber)
               .flatMap(header -> trieLogManager.getTrieLogLayer(header.getHash()));
       if (maybeTrieLog.isPresent()) {
-        final SegmentedKeyValueStorageTransaction tx =
-            worldStateStorage.getComposedWorldStateStorage().startLowPriorityTransaction();
-        processBlock(maybeTrieLog.get(), blockNumber, tx);
-        saveProgress(blockNumber, tx);
-        tx.commit();
-        migratedBlockNumber.set(blockNumber);
-        if (shouldLog) {
-          logProgress(blockNumber, target.get());
-        }
+        batch.add(new BlockTrieLog(blockNumber, maybeTrieLog.get()));
       } else if (blockNumber > 0) {
         throw new IllegalStateException("No trie log found for block " + blockNumber);
       }
     }
+    return batch;
+  }
+
+  private void writeBatch(
+      final List<BlockTrieLog> batch, final long batchEnd, final long[] partitionProgress) {
+    if (partitionCount == 1) {
+      final SegmentedKeyValueStorage storage = worldStateStorage.getComposedWorldStateStorage();
+      final SegmentedKeyValueStorageTransaction tx = storage.startLowPriorityTransaction();
+      final BonsaiArchiveChangeIndex.Updater index = BonsaiArchiveChangeIndex.updater(storage, tx);
+      batch.forEach(block -> processBlock(block.trieLog(), block.blockNumber(), tx, index));
+      saveProgress(batchEnd, tx);
+      tx.commit();
+      return;
+    }
+    final CompletableFuture<?>[] partitions = new CompletableFuture<?>[partitionCount];
+    for (int partition = 0; partition < partitionCount; partition++) {
+      final int p = partition;
+      partitions[p] =
+          CompletableFuture.runAsync(
+              () -> writePartition(batch, batchEnd, p, partitionProgress), partitionExecutor);
+    }
+    try {
+      CompletableFuture.allOf(partitions).join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+    final SegmentedKeyValueStorageTransaction tx =
+        worldStateStorage.getComposedWorldStateStorage().startLowPriorityTransaction();
+    saveProgress(batchEnd, tx);
+    tx.commit();
+  }
+
+  private void writePartition(
+      final List<BlockTrieLog> batch,
+      final long batchEnd,
+      final int partition,
+      final long[] partitionProgress) {
+    final long alreadyMigrated = partitionProgress[partition];
+    if (alreadyMigrated >= batchEnd) {
+      return;
+    }
+    final SegmentedKeyValueStorage storage = worldStateStorage.getComposedWorldStateStorage();
+    final SegmentedKeyValueStorageTransaction tx = storage.startLowPriorityTransaction();
+    final BonsaiArchiveChangeIndex.Updater index = BonsaiArchiveChangeIndex.updater(storage, tx);
+    for (final BlockTrieLog block : batch) {
+      if (block.blockNumber() > alreadyMigrated) {
+        final BonsaiArchiveContext context = new BonsaiArchiveContext(block.blockNumber());
+        processAccountChanges(block.trieLog(), context, tx, index, partition);
+        processStorageChanges(block.trieLog(), context, tx, index, partition);
+      }
+    }
+    tx.put(
+        ACCOUNT_INFO_STATE_ARCHIVE,
+        partitionProgressKey(partition),
+        Bytes.ofUnsignedLong(batchEnd).toArrayUnsafe());
+    tx.commit();
+    partitionProgress[partition] = batchEnd;
+  }
+
+  private long[] loadPartitionProgress() {
+    final long[] progress = new long[partitionCount];
+    Arrays.fill(progress, -1L);
+    if (partitionCount == 1) {
+      return progress;
+    }
+    for (int partition = 0; partition < partitionCount; partition++) {
+      progress[partition] =
+          worldStateStorage
+              .getComposedWorldStateStorage()
+              .get(ACCOUNT_INFO_STATE_ARCHIVE, partitionProgressKey(partition))
+              .map(Bytes::wrap)
+              .map(Bytes::toLong)
+              .orElse(-1L);
+    }
+    return progress;
+  }
+
+  private byte[] partitionProgressKey(final int partition) {
+    // the partition count is part of the key so that checkpoints written with a different
+    // partition layout are never mistaken for the current one
+    return Bytes.concatenate(
+            Bytes.wrap(MIGRATION_PROGRESS_KEY), Bytes.of(partitionCount - 1, partition))
+        .toArrayUnsafe();
+  }
+
+  private boolean inPartition(final Hash addressHash, final int partition) {
+    return partitionCount == 1
+        || ((addressHash.getBytes().get(0) & 0xff) * partitionCount) >>> 8 == partition;
   }
 
   /**
@@ -291,6 +488,7 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
     blockObserverId.ifPresent(blockchain::removeObserver);
     blockObserverId = OptionalLong.empty();
     executorService.shutdownNow();
+    partitionExecutor.shutdownNow();
     try {
       if (!executorService.awaitTermination(10, TimeUnit.SECONDS)) {
         LOG.warn("Migration executor did not terminate within 10 seconds");
@@ -324,20 +522,28 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
   }
 
   private void processBlock(
-      final TrieLog trieLog, final long blockNumber, final SegmentedKeyValueStorageTransaction tx) {
+      final TrieLog trieLog,
+      final long blockNumber,
+      final SegmentedKeyValueStorageTransaction tx,
+      final BonsaiArchiveChangeIndex.Updater index) {
     final BonsaiArchiveContext context = new BonsaiArchiveContext(blockNumber);
-    processAccountChanges(trieLog, context, tx);
-    processStorageChanges(trieLog, context, tx);
+    processAccountChanges(trieLog, context, tx, index, 0);
+    processStorageChanges(trieLog, context, tx, index, 0);
   }
 
   private void processAccountChanges(
       final TrieLog trieLog,
       final BonsaiArchiveContext context,
-      final SegmentedKeyValueStorageTransaction tx) {
+      final SegmentedKeyValueStorageTransaction tx,
+      final BonsaiArchiveChangeIndex.Updater index,
+      final int partition) {
     trieLog
         .getAccountChanges()
         .forEach(
             (address, accountChange) -> {
+              if (!inPartition(address.addressHash(), partition)) {
+                return;
+              }
               if (accountChange.getUpdated() != null) {
                 final BytesValueRLPOutput out = new BytesValueRLPOutput();
                 accountChange.getUpdated().writeTo(out);
@@ -345,17 +551,23 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
               } else {
                 archiveStrategy.removeFlatAccount(context, tx, address.addressHash());
               }
+              index.recordChange(
+                  address.addressHash().getBytes().toArrayUnsafe(),
+                  context.getBlockNumber().orElseThrow());
             });
   }
 
   private void processStorageChanges(
       final TrieLog trieLog,
       final BonsaiArchiveContext context,
-      final SegmentedKeyValueStorageTransaction tx) {
+      final SegmentedKeyValueStorageTransaction tx,
+      final BonsaiArchiveChangeIndex.Updater index,
+      final int partition) {
     trieLog
         .getStorageChanges()
         .forEach(
-            (address, storageMap) ->
+            (address, storageMap) -> {
+              if (inPartition(address.addressHash(), partition)) {
                 storageMap.forEach(
                     (slotKey, storageChange) -> {
                       if (storageChange.getUpdated() != null) {
@@ -369,7 +581,13 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
                         archiveStrategy.removeFlatAccountStorageValueByStorageSlotHash(
                             context, tx, address.addressHash(), slotKey.getSlotHash());
                       }
-                    }));
+                      index.recordChange(
+                          BonsaiArchiveFlatDbStrategy.calculateNaturalSlotKey(
+                              address.addressHash(), slotKey.getSlotHash()),
+                          context.getBlockNumber().orElseThrow());
+                    });
+              }
+            });
   }
 
   @VisibleForTesting
@@ -387,4 +605,6 @@ public class BonsaiFlatDbToArchiveMigrator implements Closeable {
         MIGRATION_PROGRESS_KEY,
         Bytes.ofUnsignedLong(blockNumber).toArrayUnsafe());
   }
+
+  private record BlockTrieLog(long blockNumber, TrieLog trieLog) {}
 }
@@ -23,6 +23,8 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SnappableKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -102,6 +104,13 @@ public class BonsaiSnapshotWorldStateKeyValueStorage extends BonsaiWorldStateKey
     return isClosedGet() ? Optional.empty() : super.getTrieNodeUnsafe(key);
   }
 
+  @Override
+  public List<Optional<Bytes>> getTrieNodesUnsafe(final List<Bytes> locations) {
+    return isClosedGet()
+        ? Collections.nCopies(locations.size(), Optional.empty())
+        : super.getTrieNodesUnsafe(locations);
+  }
+
   @Override
   public Optional<Bytes> getAccountStorageTrieNode(
       final Hash accountHash, final Bytes location, final Bytes32 nodeHash) {
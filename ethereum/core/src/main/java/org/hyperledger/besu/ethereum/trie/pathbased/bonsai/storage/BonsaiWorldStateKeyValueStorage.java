@@ -29,10 +29,12 @@ import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.flat.BonsaiFl
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.flat.BonsaiFlatDbStrategyProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.cache.FlatDbCacheManager;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.cache.OffHeapFlatDbCacheManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.cache.VersionedFlatDbCacheManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.flat.FlatDbStrategy;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.FlatDbMode;
+import org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration;
 import org.hyperledger.besu.evm.account.AccountStorageEntry;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
@@ -43,6 +45,8 @@ import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.WorldStateKeyValueStorage;
 
+import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -61,6 +65,8 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
 
   protected final BonsaiFlatDbStrategyProvider flatDbStrategyProvider;
   protected final FlatDbCacheManager cacheManager;
+  // only the storage that created the cache manager releases it, snapshots and views share it
+  private final boolean ownsCacheManager;
   private volatile long cacheVersion;
 
   public BonsaiWorldStateKeyValueStorage(
@@ -71,7 +77,8 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
         provider,
         metricsSystem,
         dataStorageConfiguration,
-        createCacheManager(dataStorageConfiguration, metricsSystem));
+        createCacheManager(dataStorageConfiguration, metricsSystem),
+        true);
   }
 
   public BonsaiWorldStateKeyValueStorage(
@@ -79,6 +86,15 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
       final MetricsSystem metricsSystem,
       final DataStorageConfiguration dataStorageConfiguration,
       final FlatDbCacheManager cacheManager) {
+    this(provider, metricsSystem, dataStorageConfiguration, cacheManager, false);
+  }
+
+  private BonsaiWorldStateKeyValueStorage(
+      final StorageProvider provider,
+      final MetricsSystem metricsSystem,
+      final DataStorageConfiguration dataStorageConfiguration,
+      final FlatDbCacheManager cacheManager,
+      final boolean ownsCacheManager) {
     super(
         provider.getStorageBySegmentIdentifiers(
             List.of(
@@ -89,6 +105,7 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
     flatDbStrategyProvider.loadFlatDbStrategy(composedWorldStateStorage);
 
     this.cacheManager = cacheManager;
+    this.ownsCacheManager = ownsCacheManager;
     this.cacheVersion = cacheManager.getCurrentVersion();
   }
 
@@ -101,28 +118,38 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
     super(composedWorldStateStorage, trieLogStorage);
     this.flatDbStrategyProvider = flatDbStrategyProvider;
     this.cacheManager = cacheManager;
+    this.ownsCacheManager = false;
     this.cacheVersion = cacheVersion;
   }
 
   private static FlatDbCacheManager createCacheManager(
       final DataStorageConfiguration dataStorageConfiguration, final MetricsSystem metricsSystem) {
-    if (dataStorageConfiguration
-        .getPathBasedExtraStorageConfiguration()
-        .getUnstable()
-        .getBonsaiCrossBlockCacheEnabled()) {
-      return new VersionedFlatDbCacheManager(
-          dataStorageConfiguration
-              .getPathBasedExtraStorageConfiguration()
-              .getUnstable()
-              .getBonsaiCrossBlockCacheAccountSize(),
-          dataStorageConfiguration
-              .getPathBasedExtraStorageConfiguration()
-              .getUnstable()
-              .getBonsaiCrossBlockCacheStorageSize(),
-          metricsSystem);
-    } else {
+    final PathBasedExtraStorageConfiguration.PathBasedUnstable unstable =
+        dataStorageConfiguration.getPathBasedExtraStorageConfiguration().getUnstable();
+    if (!unstable.getBonsaiCrossBlockCacheEnabled()) {
       return FlatDbCacheManager.NO_OP_CACHE;
     }
+    if (unstable.getBonsaiCrossBlockCacheOffHeapBytes() > 0) {
+      return new OffHeapFlatDbCacheManager(
+          unstable.getBonsaiCrossBlockCacheOffHeapBytes(),
+          unstable.getBonsaiCrossBlockCacheAccountSize(),
+          unstable.getBonsaiCrossBlockCacheStorageSize(),
+          metricsSystem);
+    }
+    return new VersionedFlatDbCacheManager(
+        unstable.getBonsaiCrossBlockCacheAccountSize(),
+        unstable.getBonsaiCrossBlockCacheStorageSize(),
+        metricsSystem);
+  }
+
+  @Override
+  protected synchronized void doClose() throws Exception {
+    final boolean wasClosed = isClosed.get();
+    super.doClose();
+    if (!wasClosed && ownsCacheManager && cacheManager instanceof Closeable closeable) {
+      // releases the off-heap memory and the maintenance worker of the cross-block cache
+      closeable.close();
+    }
   }
 
   @Override
@@ -218,6 +245,26 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
     return composedWorldStateStorage.get(TRIE_BRANCH_STORAGE, key.toArrayUnsafe()).map(Bytes::wrap);
   }
 
+  /**
+   * Reads the trie nodes stored at several locations in one batch, without checking their hashes.
+   * Storage trie locations are prefixed with the account hash, as in {@link
+   * #getAccountStorageTrieNode}.
+   *
+   * @param locations the node locations
+   * @return the stored nodes, in the same order as the locations
+   */
+  public List<Optional<Bytes>> getTrieNodesUnsafe(final List<Bytes> locations) {
+    final List<byte[]> keys = new ArrayList<>(locations.size());
+    for (final Bytes location : locations) {
+      keys.add(location.toArrayUnsafe());
+    }
+    final List<Optional<Bytes>> nodes = new ArrayList<>(locations.size());
+    composedWorldStateStorage
+        .multiGet(TRIE_BRANCH_STORAGE, keys)
+        .forEach(node -> nodes.add(node.map(Bytes::wrap)));
+    return nodes;
+  }
+
   public NavigableMap<Bytes32, AccountStorageEntry> storageEntriesFrom(
       final Hash addressHash, final Bytes32 startKeyHash, final int limit) {
     throw new RuntimeException("Bonsai Tries does not currently support enumerating storage");
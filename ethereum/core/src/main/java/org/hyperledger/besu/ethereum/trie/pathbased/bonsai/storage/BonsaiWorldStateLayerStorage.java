@@ -39,6 +39,8 @@ import org.apache.tuweni.bytes.Bytes;
 public class BonsaiWorldStateLayerStorage extends BonsaiSnapshotWorldStateKeyValueStorage
     implements PathBasedLayeredWorldStateKeyValueStorage, StorageSubscriber {
 
+  private volatile boolean sealed = false;
+
   public BonsaiWorldStateLayerStorage(final BonsaiWorldStateKeyValueStorage parent) {
     this(
         new LayeredKeyValueStorage(parent.getComposedWorldStateStorage()),
@@ -124,6 +126,24 @@ public class BonsaiWorldStateLayerStorage extends BonsaiSnapshotWorldStateKeyVal
                             persistentStorage)));
   }
 
+  @Override
+  public Updater updater() {
+    if (sealed) {
+      throw new IllegalStateException("Cannot update a sealed world state layer");
+    }
+    return super.updater();
+  }
+
+  @Override
+  public void seal() {
+    sealed = true;
+  }
+
+  @Override
+  public boolean isSealed() {
+    return sealed;
+  }
+
   @Override
   public FlatDbMode getFlatDbMode() {
     return parentWorldStateStorage.getFlatDbMode();
@@ -43,6 +43,23 @@ import org.apache.tuweni.units.bigints.UInt256;
 
 public class BonsaiTrieLogFactory implements TrieLogFactory {
 
+  private final boolean compactEncodingEnabled;
+
+  public BonsaiTrieLogFactory() {
+    this(false);
+  }
+
+  /**
+   * Creates a trie log factory. Both encodings are always readable; the flag only selects the
+   * encoding of newly serialized trie logs.
+   *
+   * @param compactEncodingEnabled whether to serialize trie logs with {@link CompactTrieLog}
+   *     instead of RLP
+   */
+  public BonsaiTrieLogFactory(final boolean compactEncodingEnabled) {
+    this.compactEncodingEnabled = compactEncodingEnabled;
+  }
+
   @Override
   public TrieLogLayer create(final TrieLogAccumulator accumulator, final BlockHeader blockHeader) {
     TrieLogLayer layer = new TrieLogLayer();
@@ -85,6 +102,10 @@ public class BonsaiTrieLogFactory implements TrieLogFactory {
 
   @Override
   public byte[] serialize(final TrieLog layer) {
+    if (compactEncodingEnabled) {
+      layer.freeze();
+      return CompactTrieLog.encode(layer).toArrayUnsafe();
+    }
     final BytesValueRLPOutput rlpLog = new BytesValueRLPOutput();
     writeTo(layer, rlpLog);
     return rlpLog.encoded().toArrayUnsafe();
@@ -142,7 +163,10 @@ public class BonsaiTrieLogFactory implements TrieLogFactory {
   }
 
   @Override
-  public TrieLogLayer deserialize(final byte[] bytes) {
+  public TrieLog deserialize(final byte[] bytes) {
+    if (CompactTrieLog.isCompact(bytes)) {
+      return CompactTrieLog.wrap(Bytes.wrap(bytes));
+    }
     return readFrom(new BytesValueRLPInput(Bytes.wrap(bytes), false));
   }
 
@@ -0,0 +1,505 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog;
+
+import org.hyperledger.besu.datatypes.AccountValue;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedValue;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * A trie log backed by its compact binary encoding. Entries are decoded on demand, so looking up a
+ * single account or slot only reads that address' entry, and the full change maps are only built
+ * when they are requested.
+ *
+ * <p>Layout, all integers big-endian:
+ *
+ * <pre>
+ *   version (1) | block hash (32) | address count n (4)
+ *   n sorted addresses (20 each) | n entry offsets (4 each, relative to the first entry)
+ *   entries
+ * </pre>
+ *
+ * Each entry starts with a flag byte telling which of the account, code and storage changes
+ * follow. Every change starts with a flag byte for the presence of the prior and updated values
+ * and the cleared marker. An updated account that has a prior only stores the fields that
+ * differ. Storage values and balances are stored without leading zeros, nonces and lengths as
+ * variable-length integers, and storage slots are stored by slot hash like the RLP format.
+ */
+@SuppressWarnings("unchecked")
+public final class CompactTrieLog implements TrieLog {
+
+  /** First byte of the encoding. RLP encoded trie logs always start with a list prefix. */
+  public static final byte FORMAT_VERSION = 0x01;
+
+  private static final int BLOCK_HASH_OFFSET = 1;
+  private static final int ADDRESS_COUNT_OFFSET = BLOCK_HASH_OFFSET + Bytes32.SIZE;
+  private static final int ADDRESSES_OFFSET = ADDRESS_COUNT_OFFSET + Integer.BYTES;
+
+  private static final int HAS_ACCOUNT = 1;
+  private static final int HAS_CODE = 2;
+  private static final int HAS_STORAGE = 4;
+
+  private static final int HAS_PRIOR = 1;
+  private static final int HAS_UPDATED = 2;
+  private static final int IS_CLEARED = 4;
+
+  private static final int NONCE_CHANGED = 1;
+  private static final int BALANCE_CHANGED = 2;
+  private static final int STORAGE_ROOT_CHANGED = 4;
+  private static final int CODE_HASH_CHANGED = 8;
+
+  private static final Comparator<Address> ADDRESS_ORDER = Comparator.comparing(Address::getBytes);
+
+  private final Bytes data;
+  private final Hash blockHash;
+  private final int addressCount;
+  private final int offsetsOffset;
+  private final int entriesOffset;
+  private Optional<Long> blockNumber = Optional.empty();
+  private volatile DecodedChanges decodedChanges;
+
+  private CompactTrieLog(final Bytes data) {
+    if (data.size() < ADDRESSES_OFFSET || data.get(0) != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Not a compact trie log");
+    }
+    this.data = data;
+    this.blockHash = Hash.wrap(Bytes32.wrap(data.slice(BLOCK_HASH_OFFSET, Bytes32.SIZE)));
+    this.addressCount = data.getInt(ADDRESS_COUNT_OFFSET);
+    this.offsetsOffset = ADDRESSES_OFFSET + addressCount * Address.SIZE;
+    this.entriesOffset = offsetsOffset + addressCount * Integer.BYTES;
+  }
+
+  /**
+   * Wraps an encoded trie log without copying or decoding its entries.
+   *
+   * @param data the compact encoding
+   * @return the trie log
+   */
+  public static CompactTrieLog wrap(final Bytes data) {
+    return new CompactTrieLog(data);
+  }
+
+  public static boolean isCompact(final byte[] encoded) {
+    return encoded.length > 0 && encoded[0] == FORMAT_VERSION;
+  }
+
+  /**
+   * Encodes a trie log in the compact format.
+   *
+   * @param trieLog the trie log to encode
+   * @return the encoding
+   */
+  public static Bytes encode(final TrieLog trieLog) {
+    final Map<Address, LogTuple<AccountValue>> accounts = trieLog.getAccountChanges();
+    final Map<Address, LogTuple<Bytes>> code = trieLog.getCodeChanges();
+    final Map<Address, Map<StorageSlotKey, LogTuple<UInt256>>> storage =
+        trieLog.getStorageChanges();
+
+    final TreeSet<Address> addresses = new TreeSet<>(ADDRESS_ORDER);
+    addresses.addAll(accounts.keySet());
+    addresses.addAll(code.keySet());
+    addresses.addAll(storage.keySet());
+
+    final Output entries = new Output();
+    final List<Integer> offsets = new ArrayList<>(addresses.size());
+    for (final Address address : addresses) {
+      offsets.add(entries.size());
+      final LogTuple<AccountValue> accountChange = accounts.get(address);
+      final LogTuple<Bytes> codeChange = code.get(address);
+      final Map<StorageSlotKey, LogTuple<UInt256>> storageChanges = storage.get(address);
+      final boolean writeAccount = accountChange != null && !accountChange.isUnchanged();
+      final boolean writeCode = codeChange != null && !codeChange.isUnchanged();
+      entries.write(
+          (writeAccount ? HAS_ACCOUNT : 0)
+              | (writeCode ? HAS_CODE : 0)
+              | (storageChanges != null ? HAS_STORAGE : 0));
+      if (writeAccount) {
+        writeAccountChange(accountChange, entries);
+      }
+      if (writeCode) {
+        entries.write(tupleFlags(codeChange));
+        if (codeChange.getPrior() != null) {
+          entries.writeSized(codeChange.getPrior());
+        }
+        if (codeChange.getUpdated() != null) {
+          entries.writeSized(codeChange.getUpdated());
+        }
+      }
+      if (storageChanges != null) {
+        final TreeMap<Bytes, LogTuple<UInt256>> slots = new TreeMap<>();
+        storageChanges.forEach(
+            (slotKey, change) -> slots.put(slotKey.getSlotHash().getBytes(), change));
+        entries.writeVarLong(slots.size());
+        slots.forEach(
+            (slotHash, change) -> {
+              entries.writeBytes(slotHash);
+              entries.write(tupleFlags(change));
+              if (change.getPrior() != null) {
+                entries.writeSized(change.getPrior().toMinimalBytes());
+              }
+              if (change.getUpdated() != null) {
+                entries.writeSized(change.getUpdated().toMinimalBytes());
+              }
+            });
+      }
+    }
+
+    final Output output = new Output();
+    output.write(FORMAT_VERSION);
+    output.writeBytes(trieLog.getBlockHash().getBytes());
+    output.writeInt(addresses.size());
+    addresses.forEach(address -> output.writeBytes(address.getBytes()));
+    offsets.forEach(output::writeInt);
+    output.writeBytes(Bytes.wrap(entries.toByteArray()));
+    return Bytes.wrap(output.toByteArray());
+  }
+
+  private static void writeAccountChange(final LogTuple<AccountValue> change, final Output out) {
+    final AccountValue prior = change.getPrior();
+    final AccountValue updated = change.getUpdated();
+    out.write(tupleFlags(change));
+    if (prior != null) {
+      writeAccountFields(prior, 0xff, out);
+    }
+    if (updated != null) {
+      if (prior == null) {
+        writeAccountFields(updated, 0xff, out);
+      } else {
+        final int changed =
+            (prior.getNonce() != updated.getNonce() ? NONCE_CHANGED : 0)
+                | (!prior.getBalance().equals(updated.getBalance()) ? BALANCE_CHANGED : 0)
+                | (!prior.getStorageRoot().equals(updated.getStorageRoot())
+                    ? STORAGE_ROOT_CHANGED
+                    : 0)
+                | (!prior.getCodeHash().equals(updated.getCodeHash()) ? CODE_HASH_CHANGED : 0);
+        out.write(changed);
+        writeAccountFields(updated, changed, out);
+      }
+    }
+  }
+
+  private static void writeAccountFields(
+      final AccountValue account, final int fields, final Output out) {
+    if ((fields & NONCE_CHANGED) != 0) {
+      out.writeVarLong(account.getNonce());
+    }
+    if ((fields & BALANCE_CHANGED) != 0) {
+      out.writeSized(account.getBalance().toMinimalBytes());
+    }
+    if ((fields & STORAGE_ROOT_CHANGED) != 0) {
+      out.writeBytes(account.getStorageRoot().getBytes());
+    }
+    if ((fields & CODE_HASH_CHANGED) != 0) {
+      out.writeBytes(account.getCodeHash().getBytes());
+    }
+  }
+
+  private static int tupleFlags(final LogTuple<?> change) {
+    return (change.getPrior() != null ? HAS_PRIOR : 0)
+        | (change.getUpdated() != null ? HAS_UPDATED : 0)
+        | (change.isLastStepCleared() ? IS_CLEARED : 0);
+  }
+
+  /** The encoding this trie log reads from. */
+  public Bytes getEncoded() {
+    return data;
+  }
+
+  @Override
+  public Hash getBlockHash() {
+    return blockHash;
+  }
+
+  @Override
+  public Optional<Long> getBlockNumber() {
+    return blockNumber;
+  }
+
+  public CompactTrieLog setBlockNumber(final long blockNumber) {
+    this.blockNumber = Optional.of(blockNumber);
+    return this;
+  }
+
+  @Override
+  public void freeze() {
+    // the encoding is immutable
+  }
+
+  @Override
+  public Map<Address, PathBasedValue<AccountValue>> getAccountChanges() {
+    return decodeAll().accounts;
+  }
+
+  @Override
+  public Map<Address, PathBasedValue<Bytes>> getCodeChanges() {
+    return decodeAll().code;
+  }
+
+  @Override
+  public Map<Address, Map<StorageSlotKey, PathBasedValue<UInt256>>> getStorageChanges() {
+    return decodeAll().storage;
+  }
+
+  @Override
+  public Map<StorageSlotKey, PathBasedValue<UInt256>> getStorageChanges(final Address address) {
+    final Entry entry = findEntry(address);
+    return entry == null || entry.storage == null ? Map.of() : entry.storage;
+  }
+
+  @Override
+  public Optional<Bytes> getPriorCode(final Address address) {
+    return Optional.ofNullable(findEntry(address))
+        .map(entry -> entry.code)
+        .map(PathBasedValue::getPrior);
+  }
+
+  @Override
+  public Optional<Bytes> getCode(final Address address) {
+    return Optional.ofNullable(findEntry(address))
+        .map(entry -> entry.code)
+        .map(PathBasedValue::getUpdated);
+  }
+
+  @Override
+  public Optional<UInt256> getPriorStorageByStorageSlotKey(
+      final Address address, final StorageSlotKey storageSlotKey) {
+    return Optional.ofNullable(getStorageChanges(address).get(storageSlotKey))
+        .map(PathBasedValue::getPrior);
+  }
+
+  @Override
+  public Optional<UInt256> getStorageByStorageSlotKey(
+      final Address address, final StorageSlotKey storageSlotKey) {
+    return Optional.ofNullable(getStorageChanges(address).get(storageSlotKey))
+        .map(PathBasedValue::getUpdated);
+  }
+
+  @Override
+  public Optional<AccountValue> getPriorAccount(final Address address) {
+    return Optional.ofNullable(findEntry(address))
+        .map(entry -> entry.account)
+        .map(PathBasedValue::getPrior);
+  }
+
+  @Override
+  public Optional<AccountValue> getAccount(final Address address) {
+    return Optional.ofNullable(findEntry(address))
+        .map(entry -> entry.account)
+        .map(PathBasedValue::getUpdated);
+  }
+
+  private Entry findEntry(final Address address) {
+    final DecodedChanges decoded = decodedChanges;
+    if (decoded != null) {
+      return new Entry(
+          decoded.accounts.get(address), decoded.code.get(address), decoded.storage.get(address));
+    }
+    int low = 0;
+    int high = addressCount - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int comparison = addressAt(mid).getBytes().compareTo(address.getBytes());
+      if (comparison < 0) {
+        low = mid + 1;
+      } else if (comparison > 0) {
+        high = mid - 1;
+      } else {
+        return decodeEntry(mid);
+      }
+    }
+    return null;
+  }
+
+  private Address addressAt(final int index) {
+    return Address.wrap(data.slice(ADDRESSES_OFFSET + index * Address.SIZE, Address.SIZE));
+  }
+
+  private DecodedChanges decodeAll() {
+    DecodedChanges decoded = decodedChanges;
+    if (decoded == null) {
+      synchronized (this) {
+        decoded = decodedChanges;
+        if (decoded == null) {
+          decoded = new DecodedChanges();
+          for (int i = 0; i < addressCount; i++) {
+            final Address address = addressAt(i);
+            final Entry entry = decodeEntry(i);
+            if (entry.account != null) {
+              decoded.accounts.put(address, entry.account);
+            }
+            if (entry.code != null) {
+              decoded.code.put(address, entry.code);
+            }
+            if (entry.storage != null) {
+              decoded.storage.put(address, entry.storage);
+            }
+          }
+          decodedChanges = decoded;
+        }
+      }
+    }
+    return decoded;
+  }
+
+  private Entry decodeEntry(final int index) {
+    final Input in = new Input(data, entriesOffset + data.getInt(offsetsOffset + index * 4));
+    final int flags = in.read();
+    PathBasedValue<AccountValue> account = null;
+    PathBasedValue<Bytes> code = null;
+    Map<StorageSlotKey, PathBasedValue<UInt256>> storage = null;
+    if ((flags & HAS_ACCOUNT) != 0) {
+      final int tuple = in.read();
+      final AccountValue prior = (tuple & HAS_PRIOR) != 0 ? readAccount(in, null, 0xff) : null;
+      AccountValue updated = null;
+      if ((tuple & HAS_UPDATED) != 0) {
+        updated = prior == null ? readAccount(in, null, 0xff) : readAccount(in, prior, in.read());
+      }
+      account = new PathBasedValue<>(prior, updated, (tuple & IS_CLEARED) != 0);
+    }
+    if ((flags & HAS_CODE) != 0) {
+      final int tuple = in.read();
+      final Bytes prior = (tuple & HAS_PRIOR) != 0 ? in.readSized() : null;
+      final Bytes updated = (tuple & HAS_UPDATED) != 0 ? in.readSized() : null;
+      code = new PathBasedValue<>(prior, updated, (tuple & IS_CLEARED) != 0);
+    }
+    if ((flags & HAS_STORAGE) != 0) {
+      storage = new TreeMap<>();
+      final long slotCount = in.readVarLong();
+      for (long i = 0; i < slotCount; i++) {
+        final Hash slotHash = Hash.wrap(Bytes32.wrap(in.readBytes(Bytes32.SIZE)));
+        final int tuple = in.read();
+        final UInt256 prior = (tuple & HAS_PRIOR) != 0 ? UInt256.fromBytes(in.readSized()) : null;
+        final UInt256 updated =
+            (tuple & HAS_UPDATED) != 0 ? UInt256.fromBytes(in.readSized()) : null;
+        storage.put(
+            new StorageSlotKey(slotHash, Optional.empty()),
+            new PathBasedValue<>(prior, updated, (tuple & IS_CLEARED) != 0));
+      }
+    }
+    return new Entry(account, code, storage);
+  }
+
+  private static AccountValue readAccount(
+      final Input in, final AccountValue base, final int fields) {
+    final long nonce = (fields & NONCE_CHANGED) != 0 ? in.readVarLong() : base.getNonce();
+    final Wei balance =
+        (fields & BALANCE_CHANGED) != 0 ? Wei.wrap(in.readSized()) : base.getBalance();
+    final Hash storageRoot =
+        (fields & STORAGE_ROOT_CHANGED) != 0
+            ? Hash.wrap(Bytes32.wrap(in.readBytes(Bytes32.SIZE)))
+            : base.getStorageRoot();
+    final Hash codeHash =
+        (fields & CODE_HASH_CHANGED) != 0
+            ? Hash.wrap(Bytes32.wrap(in.readBytes(Bytes32.SIZE)))
+            : base.getCodeHash();
+    return new PmtStateTrieAccountValue(nonce, balance, storageRoot, codeHash);
+  }
+
+  private record Entry(
+      PathBasedValue<AccountValue> account,
+      PathBasedValue<Bytes> code,
+      Map<StorageSlotKey, PathBasedValue<UInt256>> storage) {}
+
+  private static final class DecodedChanges {
+    private final Map<Address, PathBasedValue<AccountValue>> accounts = new HashMap<>();
+    private final Map<Address, PathBasedValue<Bytes>> code = new HashMap<>();
+    private final Map<Address, Map<StorageSlotKey, PathBasedValue<UInt256>>> storage =
+        new HashMap<>();
+  }
+
+  private static final class Output extends ByteArrayOutputStream {
+
+    void writeInt(final int value) {
+      write(value >>> 24);
+      write(value >>> 16);
+      write(value >>> 8);
+      write(value);
+    }
+
+    void writeVarLong(final long value) {
+      long remaining = value;
+      while ((remaining & ~0x7FL) != 0) {
+        write((int) ((remaining & 0x7F) | 0x80));
+        remaining >>>= 7;
+      }
+      write((int) remaining);
+    }
+
+    void writeBytes(final Bytes bytes) {
+      final byte[] array = bytes.toArrayUnsafe();
+      write(array, 0, array.length);
+    }
+
+    void writeSized(final Bytes bytes) {
+      writeVarLong(bytes.size());
+      writeBytes(bytes);
+    }
+  }
+
+  private static final class Input {
+    private final Bytes data;
+    private int position;
+
+    Input(final Bytes data, final int position) {
+      this.data = data;
+      this.position = position;
+    }
+
+    int read() {
+      return data.get(position++) & 0xff;
+    }
+
+    long readVarLong() {
+      long value = 0;
+      int shift = 0;
+      int next;
+      do {
+        next = read();
+        value |= (long) (next & 0x7F) << shift;
+        shift += 7;
+      } while ((next & 0x80) != 0);
+      return value;
+    }
+
+    Bytes readBytes(final int length) {
+      final Bytes bytes = data.slice(position, length);
+      position += length;
+      return bytes;
+    }
+
+    Bytes readSized() {
+      return readBytes((int) readVarLong());
+    }
+  }
+}
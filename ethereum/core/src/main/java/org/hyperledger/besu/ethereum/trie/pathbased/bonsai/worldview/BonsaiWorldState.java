@@ -68,6 +68,7 @@ public class BonsaiWorldState extends PathBasedWorldState {
   protected BonsaiCachedMerkleTrieLoader bonsaiCachedMerkleTrieLoader;
   private final PathBasedCodeCache codeCache;
   private final EvmConfiguration evmConfiguration;
+  private Map<Address, IncrementalStorageTrie> incrementalStorageTries = Map.of();
 
   public BonsaiWorldState(
       final BonsaiWorldStateProvider archive,
@@ -271,12 +272,19 @@ public class BonsaiWorldState extends PathBasedWorldState {
                   || worldStateUpdater.getStorageToClear().contains(updatedAddress))
               ? Hash.EMPTY_TRIE_HASH
               : accountOriginal.getStorageRoot();
+      // reuse the trie updated while the block executed, if it was opened at the same root
+      final IncrementalStorageTrie incrementalStorageTrie =
+          Optional.ofNullable(incrementalStorageTries.get(updatedAddress))
+              .filter(incremental -> incremental.getStorageRoot().equals(storageRoot))
+              .orElse(null);
       final MerkleTrie<Bytes, Bytes> storageTrie =
-          createTrie(
-              (location, key) ->
-                  bonsaiCachedMerkleTrieLoader.getAccountStorageTrieNode(
-                      getWorldStateStorage(), updatedAddressHash, location, key),
-              Bytes32.wrap(storageRoot.getBytes()));
+          incrementalStorageTrie != null
+              ? incrementalStorageTrie.getTrie()
+              : createTrie(
+                  (location, key) ->
+                      bonsaiCachedMerkleTrieLoader.getAccountStorageTrieNode(
+                          getWorldStateStorage(), updatedAddressHash, location, key),
+                  Bytes32.wrap(storageRoot.getBytes()));
 
       // for manicured tries and composting, collect branches here (not implemented)
       for (final Map.Entry<StorageSlotKey, PathBasedValue<UInt256>> storageUpdate :
@@ -284,18 +292,28 @@ public class BonsaiWorldState extends PathBasedWorldState {
         final Hash slotHash = storageUpdate.getKey().getSlotHash();
         final UInt256 updatedStorage = storageUpdate.getValue().getUpdated();
         try {
-
-          if (!storageUpdate.getValue().isUnchanged()) {
-            if (updatedStorage == null || updatedStorage.equals(UInt256.ZERO)) {
+          final boolean isChanged = !storageUpdate.getValue().isUnchanged();
+          final boolean isTrieUpdateRequired =
+              incrementalStorageTrie == null
+                  ? isChanged
+                  : incrementalStorageTrie.requiresUpdate(slotHash, updatedStorage, isChanged);
+          if (updatedStorage == null || updatedStorage.equals(UInt256.ZERO)) {
+            if (isChanged) {
               maybeStateUpdater.ifPresent(
                   bonsaiUpdater ->
                       bonsaiUpdater.removeStorageValueBySlotHash(updatedAddressHash, slotHash));
+            }
+            if (isTrieUpdateRequired) {
               storageTrie.remove(slotHash.getBytes());
-            } else {
+            }
+          } else {
+            if (isChanged) {
               maybeStateUpdater.ifPresent(
                   bonsaiUpdater ->
                       bonsaiUpdater.putStorageValueBySlotHash(
                           updatedAddressHash, slotHash, updatedStorage));
+            }
+            if (isTrieUpdateRequired) {
               storageTrie.put(slotHash.getBytes(), encodeTrieValue(updatedStorage));
             }
           }
@@ -481,10 +499,43 @@ public class BonsaiWorldState extends PathBasedWorldState {
     return storageTrie.entriesFrom(Bytes32.ZERO, Integer.MAX_VALUE);
   }
 
+  /**
+   * Opens a storage trie that can be updated while the block executes and later reused by the root
+   * computation through {@link #setIncrementalStorageTries(Map)}.
+   *
+   * @param address the account owning the storage
+   * @param storageRoot the storage root of the account before the block
+   * @return the storage trie
+   */
+  public IncrementalStorageTrie createIncrementalStorageTrie(
+      final Address address, final Hash storageRoot) {
+    final Hash addressHash = address.addressHash();
+    return new IncrementalStorageTrie(
+        storageRoot,
+        createTrie(
+            (location, key) ->
+                bonsaiCachedMerkleTrieLoader.getAccountStorageTrieNode(
+                    getWorldStateStorage(), addressHash, location, key),
+            Bytes32.wrap(storageRoot.getBytes())));
+  }
+
+  /**
+   * Sets the storage tries that the next root computation reuses instead of opening fresh ones.
+   * Tries opened at a root other than the account's storage root before the block are ignored.
+   *
+   * @param incrementalStorageTries the storage tries by account
+   */
+  public void setIncrementalStorageTries(
+      final Map<Address, IncrementalStorageTrie> incrementalStorageTries) {
+    this.incrementalStorageTries = incrementalStorageTries;
+  }
+
   @Override
   public MutableWorldState freezeStorage() {
     this.isStorageFrozen = true;
     this.worldStateKeyValueStorage = new BonsaiWorldStateLayerStorage(getWorldStateStorage());
+    // the frozen layer sits on this world state's own storage, which it closes again
+    this.isParentStorageShared = false;
     return this;
   }
 
@@ -492,6 +543,15 @@ public class BonsaiWorldState extends PathBasedWorldState {
     this.bonsaiCachedMerkleTrieLoader = new NoOpBonsaiCachedMerkleTrieLoader();
   }
 
+  /**
+   * Stops preloading trie nodes as accounts and slots are touched, while still reading nodes that
+   * are already in the cached merkle trie loader, for example because they were prefetched.
+   */
+  public void disableCacheMerkleTrieLoaderPreload() {
+    this.bonsaiCachedMerkleTrieLoader =
+        new NoOpBonsaiCachedMerkleTrieLoader(bonsaiCachedMerkleTrieLoader);
+  }
+
   private MerkleTrie<Bytes, Bytes> createTrie(final NodeLoader nodeLoader, final Bytes32 rootHash) {
     if (worldStateConfig.isTrieDisabled()) {
       return new NoOpMerkleTrie<>();
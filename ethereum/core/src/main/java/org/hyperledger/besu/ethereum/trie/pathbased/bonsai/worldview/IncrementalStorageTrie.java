@@ -0,0 +1,99 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview;
+
+import static org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldView.encodeTrieValue;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.trie.MerkleTrie;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * A storage trie of one account that is kept up to date transaction by transaction while a block
+ * executes, so that its nodes are loaded and hashed before the block is persisted.
+ *
+ * <p>The trie remembers the value it last applied to every slot. When the block is persisted,
+ * {@link BonsaiWorldState} only replays the slots whose final value differs from the applied one,
+ * which covers writes made after the last transaction (withdrawals, system calls) as well as slots
+ * written and then restored within the block.
+ *
+ * <p>Instances are not thread safe: updates must be applied by one thread at a time, and must have
+ * completed before the trie is handed to the world state.
+ */
+public class IncrementalStorageTrie {
+
+  private final Hash storageRoot;
+  private final MerkleTrie<Bytes, Bytes> trie;
+  private final Map<Hash, UInt256> appliedValues = new HashMap<>();
+
+  IncrementalStorageTrie(final Hash storageRoot, final MerkleTrie<Bytes, Bytes> trie) {
+    this.storageRoot = storageRoot;
+    this.trie = trie;
+  }
+
+  /**
+   * Applies the storage writes of one transaction and hashes the updated nodes.
+   *
+   * @param slotUpdates the slots written by the transaction and their new values
+   */
+  public void apply(final Map<UInt256, UInt256> slotUpdates) {
+    for (final Map.Entry<UInt256, UInt256> slotUpdate : slotUpdates.entrySet()) {
+      final Hash slotHash = Hash.hash(slotUpdate.getKey());
+      final UInt256 value = slotUpdate.getValue();
+      if (value == null || value.isZero()) {
+        trie.remove(slotHash.getBytes());
+        appliedValues.put(slotHash, UInt256.ZERO);
+      } else {
+        trie.put(slotHash.getBytes(), encodeTrieValue(value));
+        appliedValues.put(slotHash, value);
+      }
+    }
+    trie.getRootHash();
+  }
+
+  /**
+   * Returns the storage root the trie was opened at.
+   *
+   * @return the storage root of the account before the block
+   */
+  public Hash getStorageRoot() {
+    return storageRoot;
+  }
+
+  MerkleTrie<Bytes, Bytes> getTrie() {
+    return trie;
+  }
+
+  /**
+   * Tells whether a slot still has to be written to the trie to reach its final value.
+   *
+   * @param slotHash the hash of the slot
+   * @param value the final value of the slot, null if deleted
+   * @param changedFromPrior whether the final value differs from the value before the block
+   * @return true if the trie does not hold the final value yet
+   */
+  boolean requiresUpdate(final Hash slotHash, final UInt256 value, final boolean changedFromPrior) {
+    final UInt256 applied = appliedValues.get(slotHash);
+    if (applied == null) {
+      return changedFromPrior;
+    }
+    return !applied.equals(value == null ? UInt256.ZERO : value);
+  }
+}
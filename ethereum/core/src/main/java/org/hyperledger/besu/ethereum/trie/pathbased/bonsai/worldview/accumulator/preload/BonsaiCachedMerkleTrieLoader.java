@@ -14,18 +14,27 @@
  */
 package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.accumulator.preload;
 
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_BONSAI_TRIE_NODE_CACHE_BYTES;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_BONSAI_TRIE_NODE_CACHE_PINNED_DEPTH;
 import static org.hyperledger.besu.metrics.BesuMetricCategory.BLOCKCHAIN;
 
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.ethereum.trie.CompactEncoding;
 import org.hyperledger.besu.ethereum.trie.MerkleTrie;
 import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.StorageSubscriber;
 import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -33,8 +42,6 @@ import java.util.concurrent.Executors;
 import java.util.function.Function;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
@@ -42,16 +49,66 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
 
   private static final ExecutorService VIRTUAL_POOL = Executors.newVirtualThreadPerTaskExecutor();
 
-  private static final int ACCOUNT_CACHE_SIZE = 100_000;
-  private static final int STORAGE_CACHE_SIZE = 200_000;
-  private final Cache<Bytes, Bytes> accountNodes =
-      CacheBuilder.newBuilder().recordStats().maximumSize(ACCOUNT_CACHE_SIZE).build();
-  private final Cache<Bytes, Bytes> storageNodes =
-      CacheBuilder.newBuilder().recordStats().maximumSize(STORAGE_CACHE_SIZE).build();
+  // locations read in one batch along a key's path, a little deeper than mainnet tries go
+  private static final int PRELOAD_PATH_DEPTH = 10;
+
+  // storage tries hold about twice the nodes of the account trie, as the former entry caps did
+  private static final int ACCOUNT_SHARE_DIVISOR = 3;
+
+  private final TrieNodeCache accountNodes;
+  private final TrieNodeCache storageNodes;
 
   public BonsaiCachedMerkleTrieLoader(final ObservableMetricsSystem metricsSystem) {
-    metricsSystem.createGuavaCacheCollector(BLOCKCHAIN, "accountsNodes", accountNodes);
-    metricsSystem.createGuavaCacheCollector(BLOCKCHAIN, "storageNodes", storageNodes);
+    this(
+        metricsSystem,
+        DEFAULT_BONSAI_TRIE_NODE_CACHE_BYTES,
+        DEFAULT_BONSAI_TRIE_NODE_CACHE_PINNED_DEPTH);
+  }
+
+  public BonsaiCachedMerkleTrieLoader(
+      final ObservableMetricsSystem metricsSystem,
+      final long nodeCacheBytes,
+      final int pinnedDepth) {
+    final LabelledMetric<Counter> hits =
+        metricsSystem.createLabelledCounter(
+            BLOCKCHAIN,
+            "bonsai_trie_node_cache_hits",
+            "Trie node cache hits by trie and node depth",
+            "trie",
+            "depth");
+    final LabelledMetric<Counter> misses =
+        metricsSystem.createLabelledCounter(
+            BLOCKCHAIN,
+            "bonsai_trie_node_cache_misses",
+            "Trie node cache misses by trie and node depth",
+            "trie",
+            "depth");
+    this.accountNodes =
+        new TrieNodeCache(accountBytes(nodeCacheBytes), pinnedDepth, hits, misses, "account");
+    this.storageNodes =
+        new TrieNodeCache(
+            nodeCacheBytes - accountBytes(nodeCacheBytes), pinnedDepth, hits, misses, "storage");
+    metricsSystem.createLongGauge(
+        BLOCKCHAIN,
+        "bonsai_trie_node_cache_bytes",
+        "Bytes held by the trie node cache",
+        () -> accountNodes.weightedSize() + storageNodes.weightedSize());
+  }
+
+  /**
+   * Changes the byte budget and pinned depth of the node caches, for a loader created before the
+   * storage configuration was known.
+   *
+   * @param nodeCacheBytes the byte budget shared by the account and storage node caches
+   * @param pinnedDepth the depth above which nodes are not evicted by the churn of lower nodes
+   */
+  public void configureNodeCache(final long nodeCacheBytes, final int pinnedDepth) {
+    accountNodes.resize(accountBytes(nodeCacheBytes), pinnedDepth);
+    storageNodes.resize(nodeCacheBytes - accountBytes(nodeCacheBytes), pinnedDepth);
+  }
+
+  private static long accountBytes(final long nodeCacheBytes) {
+    return nodeCacheBytes / ACCOUNT_SHARE_DIVISOR;
   }
 
   public void preLoadAccount(
@@ -70,18 +127,33 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
       final Address account) {
     final long storageSubscriberId = worldStateKeyValueStorage.subscribe(this);
     try {
+      final Bytes accountHash = account.addressHash().getBytes();
+      final PathNodes pathNodes =
+          new PathNodes(worldStateKeyValueStorage, Bytes.EMPTY, accountHash);
       final StoredMerklePatriciaTrie<Bytes, Bytes> accountTrie =
           new StoredMerklePatriciaTrie<>(
               (location, hash) -> {
-                Optional<Bytes> node =
-                    getAccountStateTrieNode(worldStateKeyValueStorage, location, hash);
-                node.ifPresent(bytes -> accountNodes.put(Hash.hash(bytes).getBytes(), bytes));
+                if (hash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
+                  return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
+                }
+                final Optional<Bytes> cached = accountNodes.get(location, hash);
+                if (cached.isPresent()) {
+                  return cached;
+                }
+                final Optional<Bytes> node =
+                    pathNodes
+                        .get(location, hash)
+                        .or(
+                            () ->
+                                worldStateKeyValueStorage.getAccountStateTrieNode(
+                                    location, hash));
+                node.ifPresent(bytes -> accountNodes.put(location, hash, bytes));
                 return node;
               },
               Bytes32.wrap(worldStateRootHash.getBytes()),
               Function.identity(),
               Function.identity());
-      accountTrie.get(account.addressHash().getBytes());
+      accountTrie.get(accountHash);
     } catch (MerkleTrieException e) {
       // ignore exception for the cache
     } finally {
@@ -110,14 +182,29 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
           .ifPresent(
               storageRoot -> {
                 try {
+                  final PathNodes pathNodes =
+                      new PathNodes(
+                          worldStateKeyValueStorage,
+                          accountHash.getBytes(),
+                          slotKey.getSlotHash().getBytes());
                   final StoredMerklePatriciaTrie<Bytes, Bytes> storageTrie =
                       new StoredMerklePatriciaTrie<Bytes, Bytes>(
                           (location, hash) -> {
-                            Optional<Bytes> node =
-                                getAccountStorageTrieNode(
-                                    worldStateKeyValueStorage, accountHash, location, hash);
-                            node.ifPresent(
-                                bytes -> storageNodes.put(Hash.hash(bytes).getBytes(), bytes));
+                            if (hash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
+                              return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
+                            }
+                            final Optional<Bytes> cached = storageNodes.get(location, hash);
+                            if (cached.isPresent()) {
+                              return cached;
+                            }
+                            final Optional<Bytes> node =
+                                pathNodes
+                                    .get(location, hash)
+                                    .or(
+                                        () ->
+                                            worldStateKeyValueStorage.getAccountStorageTrieNode(
+                                                accountHash, location, hash));
+                            node.ifPresent(bytes -> storageNodes.put(location, hash, bytes));
                             return node;
                           },
                           Bytes32.wrap(Hash.hash(storageRoot).getBytes()),
@@ -133,6 +220,59 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
     }
   }
 
+  /**
+   * The nodes stored at the first locations along the path to a key. Nothing is read until the walk
+   * down the trie misses the node cache; the nodes from that level down to {@link
+   * #PRELOAD_PATH_DEPTH} are then read in one batch, instead of one level at a time.
+   */
+  private static final class PathNodes {
+    private final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage;
+    private final Bytes prefix;
+    private final Bytes path;
+    private final int depth;
+    private Map<Bytes, Bytes> nodes;
+
+    PathNodes(
+        final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
+        final Bytes prefix,
+        final Bytes key) {
+      this.worldStateKeyValueStorage = worldStateKeyValueStorage;
+      this.prefix = prefix;
+      this.path = CompactEncoding.bytesToPath(key);
+      this.depth = Math.min(PRELOAD_PATH_DEPTH, path.size() - 1);
+    }
+
+    /**
+     * Returns the node at a location relative to the trie root, if it is on the batched part of the
+     * path and matches the expected hash.
+     */
+    Optional<Bytes> get(final Bytes location, final Bytes32 nodeHash) {
+      final int level = location.size();
+      if (level > depth || !location.equals(path.slice(0, level))) {
+        return Optional.empty();
+      }
+      if (nodes == null) {
+        nodes = read(level);
+      }
+      return Optional.ofNullable(nodes.get(location))
+          .filter(node -> Hash.hash(node).getBytes().equals(nodeHash));
+    }
+
+    private Map<Bytes, Bytes> read(final int fromLevel) {
+      final List<Bytes> locations = new ArrayList<>(depth - fromLevel + 1);
+      for (int i = fromLevel; i <= depth; i++) {
+        locations.add(Bytes.concatenate(prefix, path.slice(0, i)));
+      }
+      final List<Optional<Bytes>> found = worldStateKeyValueStorage.getTrieNodesUnsafe(locations);
+      final Map<Bytes, Bytes> byLocation = new HashMap<>();
+      for (int i = fromLevel; i <= depth; i++) {
+        final int level = i;
+        found.get(i - fromLevel).ifPresent(node -> byLocation.put(path.slice(0, level), node));
+      }
+      return byLocation;
+    }
+  }
+
   public Optional<Bytes> getAccountStateTrieNode(
       final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
       final Bytes location,
@@ -140,7 +280,8 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
     if (nodeHash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
       return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
     } else {
-      return Optional.ofNullable(accountNodes.getIfPresent(nodeHash))
+      return accountNodes
+          .get(location, nodeHash)
           .or(() -> worldStateKeyValueStorage.getAccountStateTrieNode(location, nodeHash));
     }
   }
@@ -153,7 +294,8 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
     if (nodeHash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
       return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
     } else {
-      return Optional.ofNullable(storageNodes.getIfPresent(nodeHash))
+      return storageNodes
+          .get(location, nodeHash)
           .or(
               () ->
                   worldStateKeyValueStorage.getAccountStorageTrieNode(
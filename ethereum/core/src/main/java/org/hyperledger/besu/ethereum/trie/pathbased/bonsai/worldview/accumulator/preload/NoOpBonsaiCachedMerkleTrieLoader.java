@@ -20,10 +20,28 @@ import org.hyperledger.besu.datatypes.StorageSlotKey;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
 public class NoOpBonsaiCachedMerkleTrieLoader extends BonsaiCachedMerkleTrieLoader {
 
+  private final Optional<BonsaiCachedMerkleTrieLoader> readThrough;
+
   public NoOpBonsaiCachedMerkleTrieLoader() {
     super(new NoOpMetricsSystem());
+    this.readThrough = Optional.empty();
+  }
+
+  /**
+   * A loader that does not preload, but still finds nodes that another loader has already cached.
+   *
+   * @param readThrough the loader whose node caches are read
+   */
+  public NoOpBonsaiCachedMerkleTrieLoader(final BonsaiCachedMerkleTrieLoader readThrough) {
+    super(new NoOpMetricsSystem());
+    this.readThrough = Optional.of(readThrough);
   }
 
   @Override
@@ -41,4 +59,28 @@ public class NoOpBonsaiCachedMerkleTrieLoader extends BonsaiCachedMerkleTrieLoad
       final StorageSlotKey slotKey) {
     // noop
   }
+
+  @Override
+  public Optional<Bytes> getAccountStateTrieNode(
+      final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
+      final Bytes location,
+      final Bytes32 nodeHash) {
+    return readThrough.isPresent()
+        ? readThrough.get().getAccountStateTrieNode(worldStateKeyValueStorage, location, nodeHash)
+        : super.getAccountStateTrieNode(worldStateKeyValueStorage, location, nodeHash);
+  }
+
+  @Override
+  public Optional<Bytes> getAccountStorageTrieNode(
+      final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
+      final Hash accountHash,
+      final Bytes location,
+      final Bytes32 nodeHash) {
+    return readThrough.isPresent()
+        ? readThrough
+            .get()
+            .getAccountStorageTrieNode(worldStateKeyValueStorage, accountHash, location, nodeHash)
+        : super.getAccountStorageTrieNode(
+            worldStateKeyValueStorage, accountHash, location, nodeHash);
+  }
 }
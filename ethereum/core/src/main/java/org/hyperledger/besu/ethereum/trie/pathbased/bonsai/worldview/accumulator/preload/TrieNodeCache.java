@@ -0,0 +1,150 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.accumulator.preload;
+
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.Optional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Trie node cache bounded by the bytes it holds rather than by its number of entries.
+ *
+ * <p>Nodes near the root are read by almost every lookup, so nodes above the pinned depth live in
+ * their own tier and are not evicted by the churn of the many leaves and lower branches below
+ * them. Hits and misses are counted per node depth.
+ */
+public class TrieNodeCache {
+
+  /** Depth label of every node at or below this depth, a little deeper than mainnet tries go. */
+  static final int MAX_DEPTH_LABEL = 10;
+
+  // hash key, cache entry and Bytes wrappers around the node value
+  private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+  // share of the byte budget given to the nodes above the pinned depth
+  private static final int PINNED_SHARE_DIVISOR = 4;
+
+  private final Cache<Bytes, Bytes> pinnedNodes;
+  private final Cache<Bytes, Bytes> nodes;
+  private final Counter[] hitsByDepth;
+  private final Counter[] missesByDepth;
+  private volatile int pinnedDepth;
+
+  /**
+   * Creates a trie node cache.
+   *
+   * @param maxBytes the byte budget shared by both tiers
+   * @param pinnedDepth the depth above which nodes are held in the pinned tier
+   * @param hits hit counter, labelled by trie and depth
+   * @param misses miss counter, labelled by trie and depth
+   * @param trie the trie label of the counters
+   */
+  public TrieNodeCache(
+      final long maxBytes,
+      final int pinnedDepth,
+      final LabelledMetric<Counter> hits,
+      final LabelledMetric<Counter> misses,
+      final String trie) {
+    this.pinnedNodes = newTier(pinnedBytes(maxBytes));
+    this.nodes = newTier(maxBytes - pinnedBytes(maxBytes));
+    this.pinnedDepth = pinnedDepth;
+    this.hitsByDepth = new Counter[MAX_DEPTH_LABEL + 1];
+    this.missesByDepth = new Counter[MAX_DEPTH_LABEL + 1];
+    for (int depth = 0; depth <= MAX_DEPTH_LABEL; depth++) {
+      hitsByDepth[depth] = hits.labels(trie, Integer.toString(depth));
+      missesByDepth[depth] = misses.labels(trie, Integer.toString(depth));
+    }
+  }
+
+  /**
+   * Looks up a node and records a hit or a miss for its depth.
+   *
+   * @param location the location of the node in its trie
+   * @param nodeHash the hash of the node
+   * @return the cached node, if present
+   */
+  public Optional<Bytes> get(final Bytes location, final Bytes32 nodeHash) {
+    final Bytes node = tierFor(location).getIfPresent(nodeHash);
+    final int depth = Math.min(location.size(), MAX_DEPTH_LABEL);
+    if (node == null) {
+      missesByDepth[depth].inc();
+      return Optional.empty();
+    }
+    hitsByDepth[depth].inc();
+    return Optional.of(node);
+  }
+
+  /**
+   * Caches a node.
+   *
+   * @param location the location of the node in its trie
+   * @param nodeHash the hash of the node
+   * @param node the encoded node
+   */
+  public void put(final Bytes location, final Bytes nodeHash, final Bytes node) {
+    tierFor(location).put(nodeHash, node);
+  }
+
+  /**
+   * Changes the byte budget and the pinned depth. Meant to be called at startup, before the cache
+   * fills; nodes already cached stay in the tier they were put in.
+   *
+   * @param maxBytes the byte budget shared by both tiers
+   * @param pinnedDepth the depth above which nodes are held in the pinned tier
+   */
+  public void resize(final long maxBytes, final int pinnedDepth) {
+    this.pinnedDepth = pinnedDepth;
+    setMaximum(pinnedNodes, pinnedBytes(maxBytes));
+    setMaximum(nodes, maxBytes - pinnedBytes(maxBytes));
+  }
+
+  /**
+   * Returns the bytes held by both tiers, as counted against the budget.
+   *
+   * @return the weighted size of the cache
+   */
+  public long weightedSize() {
+    return weightedSize(pinnedNodes) + weightedSize(nodes);
+  }
+
+  private Cache<Bytes, Bytes> tierFor(final Bytes location) {
+    return location.size() < pinnedDepth ? pinnedNodes : nodes;
+  }
+
+  private static long pinnedBytes(final long maxBytes) {
+    return maxBytes / PINNED_SHARE_DIVISOR;
+  }
+
+  private static Cache<Bytes, Bytes> newTier(final long maxBytes) {
+    return Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((Bytes hash, Bytes node) -> hash.size() + node.size() + ENTRY_OVERHEAD_BYTES)
+        .build();
+  }
+
+  private static void setMaximum(final Cache<Bytes, Bytes> tier, final long maxBytes) {
+    tier.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maxBytes));
+  }
+
+  private static long weightedSize(final Cache<Bytes, Bytes> tier) {
+    return tier.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+  }
+}
@@ -19,7 +19,9 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList;
 import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessListChanges;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.prefetch.BalTrieNodePrefetcher;
 import org.hyperledger.besu.ethereum.mainnet.staterootcommitter.BalRootComputation;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.provider.BonsaiWorldStateProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.WorldStateQueryParams;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
@@ -50,18 +52,63 @@ public class BlockAccessListStateRootCalculator {
       final BlockHeader blockHeader,
       final BlockAccessList bal,
       final Executor executor) {
+    return computeAsync(protocolContext, blockHeader, bal, executor, Optional.empty());
+  }
+
+  /**
+   * Computes the state root of a block from its access list on {@code executor}. When a trie node
+   * prefetch executor is given and the archive caches trie nodes, the account and storage trie
+   * paths of every changed key are loaded on it while the changes are applied, and the root is
+   * computed once they are in memory.
+   *
+   * @param protocolContext the protocol context
+   * @param blockHeader the header of the block
+   * @param bal the block access list
+   * @param executor the executor computing the root
+   * @param trieNodePrefetchExecutor the executor loading trie nodes, if they should be prefetched
+   * @return the future root computation
+   */
+  public static CompletableFuture<BalRootComputation> computeAsync(
+      final ProtocolContext protocolContext,
+      final BlockHeader blockHeader,
+      final BlockAccessList bal,
+      final Executor executor,
+      final Optional<Executor> trieNodePrefetchExecutor) {
+    final Optional<BalTrieNodePrefetcher> maybePrefetcher =
+        trieNodePrefetchExecutor.flatMap(__ -> trieNodePrefetcher(protocolContext));
     return CompletableFuture.supplyAsync(
         () -> {
-          try (BonsaiWorldState ws = openParentWorldState(protocolContext, blockHeader)) {
+          try (BonsaiWorldState ws =
+              openParentWorldState(protocolContext, blockHeader, maybePrefetcher.isPresent())) {
+            final CompletableFuture<Void> trieNodesLoaded =
+                maybePrefetcher
+                    .map(
+                        prefetcher ->
+                            prefetcher.prefetch(
+                                ws.getWorldStateStorage(),
+                                ws.getWorldStateRootHash(),
+                                bal,
+                                trieNodePrefetchExecutor.get()))
+                    .orElse(CompletableFuture.completedFuture(null));
             applyBalChanges(ws.getAccumulator(), bal);
+            trieNodesLoaded.join();
             return computeRoot(ws);
           }
         },
         executor);
   }
 
+  private static Optional<BalTrieNodePrefetcher> trieNodePrefetcher(
+      final ProtocolContext protocolContext) {
+    return protocolContext.getWorldStateArchive() instanceof BonsaiWorldStateProvider provider
+        ? Optional.of(new BalTrieNodePrefetcher(provider.getCachedMerkleTrieLoader()))
+        : Optional.empty();
+  }
+
   private static BonsaiWorldState openParentWorldState(
-      final ProtocolContext protocolContext, final BlockHeader blockHeader) {
+      final ProtocolContext protocolContext,
+      final BlockHeader blockHeader,
+      final boolean readPrefetchedTrieNodes) {
     final Hash parentHash = blockHeader.getParentHash();
     final BlockHeader parentHeader =
         protocolContext
@@ -80,7 +127,11 @@ public class BlockAccessListStateRootCalculator {
                 .getWorldState(
                     WorldStateQueryParams.withBlockHeaderAndNoUpdateNodeHead(parentHeader))
                 .orElseThrow();
-    ws.disableCacheMerkleTrieLoader();
+    if (readPrefetchedTrieNodes) {
+      ws.disableCacheMerkleTrieLoaderPreload();
+    } else {
+      ws.disableCacheMerkleTrieLoader();
+    }
     return ws;
   }
 
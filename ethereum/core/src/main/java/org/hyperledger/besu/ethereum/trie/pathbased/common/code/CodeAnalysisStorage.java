@@ -0,0 +1,148 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.code;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPException;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the jump destination analysis of contract code keyed by code hash, so that it survives
+ * restarts instead of being recomputed for every hot contract.
+ *
+ * <p>Values are a format version byte followed by an RLP list of the code size and the raw bitmask.
+ * Jump destinations are consensus critical, so a persisted bitmask is only applied when it is
+ * identical to a linear scan of the code; the scan runs on the loading thread, keeping it off the
+ * threads that run the code. Entries with an unknown version or that differ from the scan are
+ * ignored and written again. Basic blocks are not persisted: their gas depends on the fork, so they
+ * are recomputed on first use.
+ */
+public class CodeAnalysisStorage {
+  private static final Logger LOG = LoggerFactory.getLogger(CodeAnalysisStorage.class);
+
+  static final byte FORMAT_VERSION = 2;
+
+  private final KeyValueStorage storage;
+
+  /**
+   * Instantiates a new code analysis storage.
+   *
+   * @param storage the key value storage of the code analysis segment
+   */
+  public CodeAnalysisStorage(final KeyValueStorage storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Apply a persisted analysis to the code, if there is one and the code has not been analysed in
+   * the meantime.
+   *
+   * @param codeHash the hash of the code
+   * @param code the code to apply the analysis to
+   * @return true if a matching analysis was found
+   */
+  public boolean loadInto(final Hash codeHash, final Code code) {
+    try {
+      final Optional<byte[]> value = storage.get(codeHash.getBytes().toArrayUnsafe());
+      return value.isPresent() && decodeInto(Bytes.wrap(value.get()), code);
+    } catch (final RLPException | StorageException e) {
+      // the analysis is only a cache, the code is analysed again when needed
+      LOG.debug("Ignoring unreadable code analysis for {}", codeHash, e);
+      return false;
+    }
+  }
+
+  /**
+   * Persist the analysis of every code, in a single transaction. Codes whose jump destinations were
+   * never computed are analysed here.
+   *
+   * @param codes the codes to persist, by code hash
+   * @return the number of entries written
+   */
+  public int store(final Collection<Map.Entry<Hash, Code>> codes) {
+    if (codes.isEmpty()) {
+      return 0;
+    }
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    for (final Map.Entry<Hash, Code> entry : codes) {
+      transaction.put(
+          entry.getKey().getBytes().toArrayUnsafe(), encode(entry.getValue()).toArrayUnsafe());
+    }
+    try {
+      transaction.commit();
+      return codes.size();
+    } catch (final StorageException e) {
+      LOG.debug("Failed to persist code analysis", e);
+      return 0;
+    }
+  }
+
+  static Bytes encode(final Code code) {
+    final long[] bitMask = code.getOrCalculateJumpDestBitMask();
+    final MutableBytes rawBitMask = MutableBytes.create(bitMask.length * Long.BYTES);
+    for (int i = 0; i < bitMask.length; i++) {
+      rawBitMask.setLong(i * Long.BYTES, bitMask[i]);
+    }
+    final Bytes rlp =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeIntScalar(code.getSize());
+              out.writeBytes(rawBitMask);
+              out.endList();
+            });
+    return Bytes.concatenate(Bytes.of(FORMAT_VERSION), rlp);
+  }
+
+  static boolean decodeInto(final Bytes value, final Code code) {
+    if (value.isEmpty() || value.get(0) != FORMAT_VERSION) {
+      return false;
+    }
+    final RLPInput in = RLP.input(value.slice(1));
+    in.enterList();
+    final int codeSize = in.readIntScalar();
+    final Bytes rawBitMask = in.readBytes();
+    in.leaveList();
+    if (codeSize != code.getSize()
+        || rawBitMask.size() != ((codeSize >> 6) + 1) * Long.BYTES) {
+      return false;
+    }
+    // a JUMPDEST byte inside PUSH data or a missing bit would change which jumps are valid
+    final long[] bitMask = code.getOrCalculateJumpDestBitMask();
+    for (int i = 0; i < bitMask.length; i++) {
+      if (bitMask[i] != rawBitMask.getLong(i * Long.BYTES)) {
+        return false;
+      }
+    }
+    if (code.getJumpDestBitMask() == null) {
+      code.setJumpDestBitMask(bitMask);
+    }
+    return true;
+  }
+}
@@ -21,11 +21,35 @@ import org.hyperledger.besu.evm.Code;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.util.cache.MemoryBoundCache;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
 /** The path-based bytecode cache. */
 public class PathBasedCodeCache implements org.hyperledger.besu.evm.internal.CodeCache {
 
+  /** Number of newly cached codes after which their analysis is written to storage. */
+  static final int ANALYSIS_FLUSH_THRESHOLD = 64;
+
   private final MemoryBoundCache<Hash, Code> cache;
 
+  // persisted code analysis, absent for storage formats without the code analysis segment
+  private volatile CodeAnalysisStorage analysisStorage;
+  // loads and writes the persisted analysis away from the threads that run the code
+  private volatile ExecutorService analysisExecutor;
+  private final Queue<Map.Entry<Hash, Code>> pendingAnalysis = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingAnalysisCount = new AtomicInteger();
+  private final LongAdder analysisLoaded = new LongAdder();
+  private final LongAdder analysisStored = new LongAdder();
+
   // metrics
   private long lastRequestCount = 0;
   private long lastRequestTimestamp = System.nanoTime();
@@ -36,6 +60,30 @@ public class PathBasedCodeCache implements org.hyperledger.besu.evm.internal.Cod
     this.cache = new MemoryBoundCache<>(256 * 1024 * 1024, CodeMemoryFootprint::estimate);
   }
 
+  /**
+   * Back the cache with persisted code analysis. Code entering the cache gets its jump destination
+   * analysis from storage in the background when available, and the analysis of other cached code
+   * is written back in batches, so a restarted node does not analyse its hot contracts again.
+   *
+   * @param analysisStorage the code analysis storage
+   */
+  public void setAnalysisStorage(final CodeAnalysisStorage analysisStorage) {
+    setAnalysisStorage(
+        analysisStorage,
+        Executors.newSingleThreadExecutor(
+            r -> {
+              final Thread t = new Thread(r, "code-analysis");
+              t.setDaemon(true);
+              return t;
+            }));
+  }
+
+  void setAnalysisStorage(
+      final CodeAnalysisStorage analysisStorage, final ExecutorService analysisExecutor) {
+    this.analysisExecutor = analysisExecutor;
+    this.analysisStorage = analysisStorage;
+  }
+
   /**
    * Sets up the metrics system for the code cache.
    *
@@ -63,6 +111,18 @@ public class PathBasedCodeCache implements org.hyperledger.besu.evm.internal.Cod
         "Total weight of evictions from the code cache",
         cache::evictionWeight);
 
+    metricsSystem.createLongGauge(
+        BONSAI_CACHE,
+        "code_analysis_loaded",
+        "Total number of code analyses loaded from storage",
+        analysisLoaded::sum);
+
+    metricsSystem.createLongGauge(
+        BONSAI_CACHE,
+        "code_analysis_stored",
+        "Total number of code analyses written to storage",
+        analysisStored::sum);
+
     metricsSystem.createGauge(
         BONSAI_CACHE,
         "code_cache_lookups_per_second",
@@ -104,5 +164,70 @@ public class PathBasedCodeCache implements org.hyperledger.besu.evm.internal.Cod
   @Override
   public void put(final Hash codeHash, final Code code) {
     cache.put(codeHash, code);
+    final CodeAnalysisStorage storage = analysisStorage;
+    if (storage != null) {
+      // the code analyses itself as usual if it runs before the persisted analysis is applied
+      try {
+        analysisExecutor.execute(() -> loadAnalysis(storage, codeHash, code));
+      } catch (final RejectedExecutionException e) {
+        // shutting down: the analysis is only a cache
+      }
+    }
+  }
+
+  private void loadAnalysis(
+      final CodeAnalysisStorage storage, final Hash codeHash, final Code code) {
+    if (storage.loadInto(codeHash, code)) {
+      analysisLoaded.increment();
+    } else {
+      pendingAnalysis.add(Map.entry(codeHash, code));
+      if (pendingAnalysisCount.incrementAndGet() >= ANALYSIS_FLUSH_THRESHOLD) {
+        flushAnalysis(storage);
+      }
+    }
+  }
+
+  /**
+   * Write the analysis of pending codes to storage. Codes that have not been run yet are analysed
+   * for the purpose.
+   */
+  public void flushAnalysis() {
+    final CodeAnalysisStorage storage = analysisStorage;
+    if (storage != null) {
+      flushAnalysis(storage);
+    }
+  }
+
+  /**
+   * Stop loading persisted analysis and write the analysis of pending codes, so that it is not
+   * lost on shutdown. Must be called before the underlying storage is closed.
+   */
+  public void close() {
+    final CodeAnalysisStorage storage = analysisStorage;
+    final ExecutorService executor = analysisExecutor;
+    if (storage == null) {
+      return;
+    }
+    analysisStorage = null;
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (final InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    flushAnalysis(storage);
+  }
+
+  private synchronized void flushAnalysis(final CodeAnalysisStorage storage) {
+    final List<Map.Entry<Hash, Code>> batch = new ArrayList<>(ANALYSIS_FLUSH_THRESHOLD);
+    Map.Entry<Hash, Code> entry;
+    while ((entry = pendingAnalysis.poll()) != null) {
+      pendingAnalysisCount.decrementAndGet();
+      batch.add(entry);
+    }
+    analysisStored.add(storage.store(batch));
   }
 }
@@ -24,6 +24,7 @@ import org.hyperledger.besu.ethereum.proof.WorldStateProof;
 import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
 import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogCompactor;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig;
@@ -77,7 +78,8 @@ public abstract class PathBasedWorldStateProvider implements WorldStateArchive {
             blockchain,
             worldStateKeyValueStorage,
             pathBasedExtraStorageConfiguration.getMaxLayersToLoad(),
-            pluginContext));
+            pluginContext,
+            pathBasedExtraStorageConfiguration.getUnstable().getCompactTrieLogEncodingEnabled()));
   }
 
   public PathBasedWorldStateProvider(
@@ -92,6 +94,10 @@ public abstract class PathBasedWorldStateProvider implements WorldStateArchive {
         WorldStateConfig.newBuilder()
             .parallelStateRootComputationEnabled(
                 pathBasedExtraStorageConfiguration.getParallelStateRootComputationEnabled())
+            .incrementalStateRootComputationEnabled(
+                pathBasedExtraStorageConfiguration
+                    .getUnstable()
+                    .getIncrementalStateRootComputationEnabled())
             .build();
   }
 
@@ -280,16 +286,16 @@ public abstract class PathBasedWorldStateProvider implements WorldStateArchive {
           Hash persistedBlockHash = persistedHeader.getBlockHash();
           while (persistedHeader.getNumber() > targetHeader.getNumber()) {
             LOG.debug("Rollback {}", persistedBlockHash);
-            rollBacks.add(trieLogManager.getTrieLogLayer(persistedBlockHash).get());
-            persistedHeader = blockchain.getBlockHeader(persistedHeader.getParentHash()).get();
+            persistedHeader =
+                addTrieLogOrRange(persistedHeader, targetHeader.getNumber(), rollBacks);
             persistedBlockHash = persistedHeader.getBlockHash();
           }
           // roll forward to target
           Hash targetBlockHash = targetHeader.getBlockHash();
           while (persistedHeader.getNumber() < targetHeader.getNumber()) {
             LOG.debug("Rollforward {}", targetBlockHash);
-            rollForwards.add(trieLogManager.getTrieLogLayer(targetBlockHash).get());
-            targetHeader = blockchain.getBlockHeader(targetHeader.getParentHash()).get();
+            targetHeader =
+                addTrieLogOrRange(targetHeader, persistedHeader.getNumber(), rollForwards);
             targetBlockHash = targetHeader.getBlockHash();
           }
 
@@ -357,6 +363,33 @@ public abstract class PathBasedWorldStateProvider implements WorldStateArchive {
     }
   }
 
+  /**
+   * Adds the largest compacted range trie log ending at the given block that stays above the lower
+   * bound, or the block's own trie log when there is none.
+   *
+   * @return the header of the block the added trie log starts from
+   */
+  private BlockHeader addTrieLogOrRange(
+      final BlockHeader header, final long lowerBound, final List<TrieLog> trieLogs) {
+    for (int i = TrieLogCompactor.RANGE_SPANS.length - 1; i >= 0; i--) {
+      final int span = TrieLogCompactor.RANGE_SPANS[i];
+      if (header.getNumber() % span == 0 && header.getNumber() - span >= lowerBound) {
+        final Optional<TrieLog> range =
+            trieLogManager.getTrieLogRange(header.getBlockHash(), span);
+        if (range.isPresent()) {
+          trieLogs.add(range.get());
+          BlockHeader start = header;
+          for (int j = 0; j < span; j++) {
+            start = blockchain.getBlockHeader(start.getParentHash()).get();
+          }
+          return start;
+        }
+      }
+    }
+    trieLogs.add(trieLogManager.getTrieLogLayer(header.getBlockHash()).get());
+    return blockchain.getBlockHeader(header.getParentHash()).get();
+  }
+
   public WorldStateConfig getWorldStateSharedSpec() {
     return worldStateConfig;
   }
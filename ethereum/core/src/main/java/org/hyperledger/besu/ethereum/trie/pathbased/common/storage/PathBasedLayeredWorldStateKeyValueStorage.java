@@ -22,4 +22,12 @@ public interface PathBasedLayeredWorldStateKeyValueStorage
   PathBasedWorldStateKeyValueStorage clone();
 
   void mergeTo(final SegmentedKeyValueStorageTransaction transaction);
+
+  /**
+   * Makes this layer immutable so that it can be shared as the base of any number of child layers.
+   * Once sealed, {@code updater()} is rejected; children still read through it without copying.
+   */
+  void seal();
+
+  boolean isSealed();
 }
@@ -103,8 +103,28 @@ public abstract class PathBasedWorldStateKeyValueStorage
     return trieLogStorage.get(blockHash.getBytes().toArrayUnsafe());
   }
 
+  /**
+   * Returns the merged trie log covering the {@code span} blocks that end at the given block.
+   *
+   * @param endBlockHash hash of the last block of the range
+   * @param span number of blocks in the range
+   * @return the serialized range trie log, if it was compacted
+   */
+  public Optional<byte[]> getTrieLogRange(final Hash endBlockHash, final int span) {
+    return trieLogStorage.get(trieLogRangeKey(endBlockHash, span));
+  }
+
+  /**
+   * Range trie logs share the trie log segment with per-block trie logs. Their key is the hash of
+   * the last block of the range followed by the span, so it never collides with a block hash.
+   */
+  public static byte[] trieLogRangeKey(final Hash endBlockHash, final int span) {
+    return Bytes.concatenate(endBlockHash.getBytes(), Bytes.ofUnsignedInt(span)).toArrayUnsafe();
+  }
+
+  /** Streams the block hashes of per-block trie logs, skipping range trie logs. */
   public Stream<byte[]> streamTrieLogKeys(final long limit) {
-    return trieLogStorage.streamKeys().limit(limit);
+    return trieLogStorage.streamKeys().filter(key -> key.length == Bytes32.SIZE).limit(limit);
   }
 
   public Optional<Bytes> getStateTrieNode(final Bytes location) {
@@ -203,6 +223,15 @@ public abstract class PathBasedWorldStateKeyValueStorage
     }
   }
 
+  public boolean pruneTrieLogRange(final Hash endBlockHash, final int span) {
+    try {
+      return trieLogStorage.tryDelete(trieLogRangeKey(endBlockHash, span));
+    } catch (Exception e) {
+      LOG.error("Error pruning range trie log for block hash {}", endBlockHash, e);
+      return false;
+    }
+  }
+
   @Override
   public synchronized void close() throws Exception {
     // when the storage clears, close
@@ -0,0 +1,573 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.storage.cache;
+
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_STORAGE;
+
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+
+import java.io.Closeable;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Versioned cache implementation that keeps accounts and storage slots outside of the Java heap.
+ *
+ * <p>Each segment is a fixed-size, set-associative table allocated once from a shared {@link
+ * Arena}: a key hashes to a bucket of {@value #WAYS} fixed-size slots, and a full bucket evicts
+ * with a CLOCK sweep over the slots' reference bits. The memory footprint is therefore bounded by
+ * the configured byte budget rather than by an entry count, and cached entries add no work for the
+ * garbage collector. Versioning follows {@link VersionedFlatDbCacheManager}: a read hits only if
+ * the cached entry is not newer than the reader's version, and a write only replaces an older
+ * entry.
+ *
+ * <p>Entries whose key or value do not fit in a slot are not cached; writing such a value drops
+ * any older cached entry for the key so that readers fall back to storage.
+ */
+public class OffHeapFlatDbCacheManager implements FlatDbCacheManager, Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OffHeapFlatDbCacheManager.class);
+
+  /** Number of slots per bucket. */
+  static final int WAYS = 8;
+
+  /** Account keys are account hashes. RLP encoded accounts are about 110 bytes. */
+  static final int ACCOUNT_KEY_CAPACITY = 32;
+
+  static final int ACCOUNT_VALUE_CAPACITY = 128;
+
+  /** Storage keys are the account hash followed by the slot hash. Values are RLP UInt256. */
+  static final int STORAGE_KEY_CAPACITY = 64;
+
+  static final int STORAGE_VALUE_CAPACITY = 48;
+
+  private final AtomicLong globalVersion = new AtomicLong(0);
+  private final Arena arena;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final OffHeapTable accountCache;
+  private final OffHeapTable storageCache;
+
+  private final Counter cacheRequestCounter;
+  private final Counter cacheHitCounter;
+  private final Counter cacheMissCounter;
+  private final Counter cacheInsertCounter;
+  private final Counter cacheRemovalCounter;
+
+  /**
+   * Creates a new OffHeapFlatDbCacheManager. The byte budget is split between the account and
+   * storage segments in proportion to the memory needed by the given entry counts.
+   *
+   * @param maxBytes total off-heap memory used by both segments
+   * @param accountCacheSize relative weight of the account segment, in entries
+   * @param storageCacheSize relative weight of the storage segment, in entries
+   * @param metricsSystem the metrics system for instrumentation
+   */
+  public OffHeapFlatDbCacheManager(
+      final long maxBytes,
+      final long accountCacheSize,
+      final long storageCacheSize,
+      final MetricsSystem metricsSystem) {
+    if (accountCacheSize <= 0 || storageCacheSize <= 0) {
+      throw new IllegalArgumentException(
+          "Cache sizes must be positive, got " + accountCacheSize + " and " + storageCacheSize);
+    }
+    final long accountWeight =
+        accountCacheSize * OffHeapTable.slotSize(ACCOUNT_KEY_CAPACITY, ACCOUNT_VALUE_CAPACITY);
+    final long storageWeight =
+        storageCacheSize * OffHeapTable.slotSize(STORAGE_KEY_CAPACITY, STORAGE_VALUE_CAPACITY);
+    final long accountBytes =
+        (long) ((double) maxBytes * accountWeight / (accountWeight + storageWeight));
+
+    this.arena = Arena.ofShared();
+    this.accountCache =
+        new OffHeapTable(arena, accountBytes, ACCOUNT_KEY_CAPACITY, ACCOUNT_VALUE_CAPACITY);
+    this.storageCache =
+        new OffHeapTable(
+            arena, maxBytes - accountBytes, STORAGE_KEY_CAPACITY, STORAGE_VALUE_CAPACITY);
+
+    this.cacheRequestCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "bonsai_cache_requests_total",
+            "Total number of cache requests");
+
+    this.cacheHitCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN, "bonsai_cache_hits_total", "Total number of cache hits");
+
+    this.cacheMissCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "bonsai_cache_misses_total",
+            "Total number of cache misses");
+
+    this.cacheInsertCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "bonsai_cache_inserts_total",
+            "Total number of cache insertions");
+
+    this.cacheRemovalCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "bonsai_cache_removals_total",
+            "Total number of cache removals");
+
+    LOG.info(
+        "Off-heap cross-block cache allocated {} account slots and {} storage slots",
+        accountCache.capacity(),
+        storageCache.capacity());
+  }
+
+  private OffHeapTable cacheForSegment(final SegmentIdentifier segment) {
+    if (segment == ACCOUNT_INFO_STATE) {
+      return accountCache;
+    }
+    if (segment == ACCOUNT_STORAGE_STORAGE) {
+      return storageCache;
+    }
+    return null;
+  }
+
+  /** Releases the off-heap memory. The cache behaves as empty afterwards. */
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    LOG.info("Releasing off-heap cross-block cache");
+    accountCache.close();
+    storageCache.close();
+    arena.close();
+  }
+
+  @Override
+  public long getCurrentVersion() {
+    return globalVersion.get();
+  }
+
+  @Override
+  public long incrementAndGetVersion() {
+    return globalVersion.incrementAndGet();
+  }
+
+  @Override
+  public void clear(final SegmentIdentifier segment) {
+    final OffHeapTable cache = cacheForSegment(segment);
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  @Override
+  public Optional<Bytes> getFromCacheOrStorage(
+      final SegmentIdentifier segment,
+      final Bytes key,
+      final long version,
+      final Supplier<Optional<Bytes>> storageGetter) {
+
+    final OffHeapTable cache = cacheForSegment(segment);
+
+    cacheRequestCounter.inc();
+
+    if (cache == null) {
+      cacheMissCounter.inc();
+      return storageGetter.get();
+    }
+
+    final VersionedValue versionedValue = cache.get(key, version);
+    if (versionedValue != null) {
+      cacheHitCounter.inc();
+      return versionedValue.isRemoval ? Optional.empty() : Optional.of(versionedValue.getValue());
+    }
+
+    cacheMissCounter.inc();
+    final Optional<Bytes> result = storageGetter.get();
+
+    if (version == globalVersion.get()) {
+      cacheInsertCounter.inc();
+      cache.putIfNewer(key, result.orElse(null), version);
+    }
+
+    return result;
+  }
+
+  @Override
+  public List<Optional<Bytes>> getMultipleFromCacheOrStorage(
+      final SegmentIdentifier segment,
+      final List<Bytes> keys,
+      final long version,
+      final Function<List<Bytes>, List<Optional<Bytes>>> batchFetcher) {
+
+    final OffHeapTable cache = cacheForSegment(segment);
+
+    if (cache == null) {
+      keys.forEach(k -> cacheMissCounter.inc());
+      return batchFetcher.apply(keys);
+    }
+
+    final List<Optional<Bytes>> results = new ArrayList<>(keys.size());
+    final List<Bytes> keysToFetch = new ArrayList<>();
+    final List<Integer> indicesToFetch = new ArrayList<>();
+
+    for (int i = 0; i < keys.size(); i++) {
+      final Bytes key = keys.get(i);
+      cacheRequestCounter.inc();
+
+      final VersionedValue versionedValue = cache.get(key, version);
+      if (versionedValue != null) {
+        cacheHitCounter.inc();
+        results.add(
+            versionedValue.isRemoval ? Optional.empty() : Optional.of(versionedValue.getValue()));
+      } else {
+        cacheMissCounter.inc();
+        results.add(null);
+        keysToFetch.add(key);
+        indicesToFetch.add(i);
+      }
+    }
+
+    if (!keysToFetch.isEmpty()) {
+      final List<Optional<Bytes>> fetchedValues = batchFetcher.apply(keysToFetch);
+      final boolean shouldUpdateCache = version == globalVersion.get();
+
+      for (int i = 0; i < fetchedValues.size(); i++) {
+        final Optional<Bytes> fetchedValue = fetchedValues.get(i);
+        results.set(indicesToFetch.get(i), fetchedValue);
+
+        if (shouldUpdateCache) {
+          cacheInsertCounter.inc();
+          cache.putIfNewer(keysToFetch.get(i), fetchedValue.orElse(null), version);
+        }
+      }
+    }
+
+    return results;
+  }
+
+  @Override
+  public void putInCache(
+      final SegmentIdentifier segment, final Bytes key, final Bytes value, final long version) {
+    final OffHeapTable cache = cacheForSegment(segment);
+    if (cache != null && cache.putIfNewer(key, value, version)) {
+      cacheInsertCounter.inc();
+    }
+  }
+
+  @Override
+  public void removeFromCache(
+      final SegmentIdentifier segment, final Bytes key, final long version) {
+    final OffHeapTable cache = cacheForSegment(segment);
+    if (cache != null && cache.putIfNewer(key, null, version)) {
+      cacheRemovalCounter.inc();
+    }
+  }
+
+  @Override
+  public long getCacheSize(final SegmentIdentifier segment) {
+    final OffHeapTable cache = cacheForSegment(segment);
+    return cache != null ? cache.size() : 0;
+  }
+
+  @Override
+  public boolean isCached(final SegmentIdentifier segment, final Bytes key) {
+    return getCachedValue(segment, key).isPresent();
+  }
+
+  @Override
+  public Optional<VersionedValue> getCachedValue(final SegmentIdentifier segment, final Bytes key) {
+    final OffHeapTable cache = cacheForSegment(segment);
+    return cache != null ? Optional.ofNullable(cache.get(key, Long.MAX_VALUE)) : Optional.empty();
+  }
+
+  /**
+   * A set-associative table of fixed-size slots in a single memory segment. Buckets are guarded by
+   * a fixed set of striped locks.
+   *
+   * <p>Slot layout: version (8 bytes), key hash (4), state (1), reference bit (1), key length (1),
+   * value length (1), key bytes, value bytes.
+   */
+  static final class OffHeapTable {
+    private static final int VERSION_OFFSET = 0;
+    private static final int HASH_OFFSET = 8;
+    private static final int STATE_OFFSET = 12;
+    private static final int REFERENCED_OFFSET = 13;
+    private static final int KEY_LENGTH_OFFSET = 14;
+    private static final int VALUE_LENGTH_OFFSET = 15;
+    private static final int HEADER_SIZE = 16;
+
+    private static final byte EMPTY = 0;
+    private static final byte PRESENT = 1;
+    private static final byte REMOVED = 2;
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final MemorySegment memory;
+    private final int keyCapacity;
+    private final int valueCapacity;
+    private final int slotSize;
+    private final long bucketCount;
+    private final byte[] clockHands;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicLong size = new AtomicLong();
+    private boolean closed;
+
+    OffHeapTable(
+        final Arena arena, final long maxBytes, final int keyCapacity, final int valueCapacity) {
+      this.keyCapacity = keyCapacity;
+      this.valueCapacity = valueCapacity;
+      this.slotSize = slotSize(keyCapacity, valueCapacity);
+      final long buckets = maxBytes / ((long) slotSize * WAYS);
+      if (buckets <= 0 || buckets > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException(
+            "Off-heap cache budget of " + maxBytes + " bytes is out of range");
+      }
+      this.bucketCount = buckets;
+      this.memory = arena.allocate(buckets * slotSize * WAYS, Long.BYTES);
+      this.clockHands = new byte[(int) buckets];
+      for (int i = 0; i < LOCK_STRIPES; i++) {
+        locks[i] = new ReentrantLock();
+      }
+    }
+
+    static int slotSize(final int keyCapacity, final int valueCapacity) {
+      return HEADER_SIZE + keyCapacity + valueCapacity;
+    }
+
+    long capacity() {
+      return bucketCount * WAYS;
+    }
+
+    long size() {
+      return size.get();
+    }
+
+    /**
+     * Returns the cached entry for the key if it was written at or before the given version, and
+     * marks it as recently used.
+     */
+    VersionedValue get(final Bytes key, final long version) {
+      final byte[] keyBytes = key.toArrayUnsafe();
+      final int hash = hash(keyBytes);
+      final long bucket = Integer.toUnsignedLong(hash) % bucketCount;
+      final ReentrantLock lock = lockFor(bucket);
+      lock.lock();
+      try {
+        if (closed) {
+          return null;
+        }
+        final long slot = find(bucket, hash, keyBytes);
+        if (slot < 0 || memory.get(ValueLayout.JAVA_LONG, slot + VERSION_OFFSET) > version) {
+          return null;
+        }
+        memory.set(ValueLayout.JAVA_BYTE, slot + REFERENCED_OFFSET, (byte) 1);
+        final long slotVersion = memory.get(ValueLayout.JAVA_LONG, slot + VERSION_OFFSET);
+        if (memory.get(ValueLayout.JAVA_BYTE, slot + STATE_OFFSET) == REMOVED) {
+          return new VersionedValue(null, slotVersion, true);
+        }
+        final int valueLength =
+            Byte.toUnsignedInt(memory.get(ValueLayout.JAVA_BYTE, slot + VALUE_LENGTH_OFFSET));
+        final byte[] value = new byte[valueLength];
+        MemorySegment.copy(
+            memory,
+            ValueLayout.JAVA_BYTE,
+            slot + HEADER_SIZE + keyCapacity,
+            value,
+            0,
+            valueLength);
+        return new VersionedValue(Bytes.wrap(value), slotVersion, false);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Stores the value, or a removal marker when the value is null, unless the key is already
+     * cached at the same or a newer version.
+     *
+     * @return true if the entry was written
+     */
+    boolean putIfNewer(final Bytes key, final Bytes value, final long version) {
+      final byte[] keyBytes = key.toArrayUnsafe();
+      final int hash = hash(keyBytes);
+      final long bucket = Integer.toUnsignedLong(hash) % bucketCount;
+      final boolean fits =
+          keyBytes.length <= keyCapacity && (value == null || value.size() <= valueCapacity);
+      final ReentrantLock lock = lockFor(bucket);
+      lock.lock();
+      try {
+        if (closed) {
+          return false;
+        }
+        long slot = find(bucket, hash, keyBytes);
+        if (slot >= 0) {
+          if (memory.get(ValueLayout.JAVA_LONG, slot + VERSION_OFFSET) >= version) {
+            return false;
+          }
+          if (!fits) {
+            memory.set(ValueLayout.JAVA_BYTE, slot + STATE_OFFSET, EMPTY);
+            size.decrementAndGet();
+            return false;
+          }
+        } else {
+          if (!fits) {
+            return false;
+          }
+          slot = evict(bucket);
+        }
+        write(slot, hash, keyBytes, value, version);
+        return true;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void clear() {
+      for (final ReentrantLock lock : locks) {
+        lock.lock();
+      }
+      try {
+        if (!closed) {
+          memory.fill(EMPTY);
+          size.set(0);
+        }
+      } finally {
+        for (final ReentrantLock lock : locks) {
+          lock.unlock();
+        }
+      }
+    }
+
+    /** Marks the table as closed so that no thread touches the memory once it is released. */
+    void close() {
+      for (final ReentrantLock lock : locks) {
+        lock.lock();
+      }
+      closed = true;
+      size.set(0);
+      for (final ReentrantLock lock : locks) {
+        lock.unlock();
+      }
+    }
+
+    private ReentrantLock lockFor(final long bucket) {
+      return locks[(int) (bucket % LOCK_STRIPES)];
+    }
+
+    private long find(final long bucket, final int hash, final byte[] keyBytes) {
+      if (keyBytes.length > keyCapacity) {
+        return -1;
+      }
+      final MemorySegment keySegment = MemorySegment.ofArray(keyBytes);
+      final long bucketOffset = bucket * WAYS * slotSize;
+      for (int way = 0; way < WAYS; way++) {
+        final long slot = bucketOffset + (long) way * slotSize;
+        if (memory.get(ValueLayout.JAVA_BYTE, slot + STATE_OFFSET) != EMPTY
+            && memory.get(ValueLayout.JAVA_INT, slot + HASH_OFFSET) == hash
+            && Byte.toUnsignedInt(memory.get(ValueLayout.JAVA_BYTE, slot + KEY_LENGTH_OFFSET))
+                == keyBytes.length
+            && MemorySegment.mismatch(
+                    memory,
+                    slot + HEADER_SIZE,
+                    slot + HEADER_SIZE + keyBytes.length,
+                    keySegment,
+                    0,
+                    keyBytes.length)
+                == -1) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Returns a free slot in the bucket, or runs the CLOCK hand over the bucket and returns the
+     * first slot that was not used since the last sweep.
+     */
+    private long evict(final long bucket) {
+      final long bucketOffset = bucket * WAYS * slotSize;
+      for (int way = 0; way < WAYS; way++) {
+        final long slot = bucketOffset + (long) way * slotSize;
+        if (memory.get(ValueLayout.JAVA_BYTE, slot + STATE_OFFSET) == EMPTY) {
+          size.incrementAndGet();
+          return slot;
+        }
+      }
+      int hand = clockHands[(int) bucket];
+      while (true) {
+        final long slot = bucketOffset + (long) hand * slotSize;
+        hand = (hand + 1) % WAYS;
+        if (memory.get(ValueLayout.JAVA_BYTE, slot + REFERENCED_OFFSET) == 0) {
+          clockHands[(int) bucket] = (byte) hand;
+          return slot;
+        }
+        memory.set(ValueLayout.JAVA_BYTE, slot + REFERENCED_OFFSET, (byte) 0);
+      }
+    }
+
+    private void write(
+        final long slot,
+        final int hash,
+        final byte[] keyBytes,
+        final Bytes value,
+        final long version) {
+      memory.set(ValueLayout.JAVA_LONG, slot + VERSION_OFFSET, version);
+      memory.set(ValueLayout.JAVA_INT, slot + HASH_OFFSET, hash);
+      memory.set(ValueLayout.JAVA_BYTE, slot + STATE_OFFSET, value == null ? REMOVED : PRESENT);
+      memory.set(ValueLayout.JAVA_BYTE, slot + REFERENCED_OFFSET, (byte) 0);
+      memory.set(ValueLayout.JAVA_BYTE, slot + KEY_LENGTH_OFFSET, (byte) keyBytes.length);
+      MemorySegment.copy(
+          keyBytes, 0, memory, ValueLayout.JAVA_BYTE, slot + HEADER_SIZE, keyBytes.length);
+      if (value == null) {
+        memory.set(ValueLayout.JAVA_BYTE, slot + VALUE_LENGTH_OFFSET, (byte) 0);
+      } else {
+        final byte[] valueBytes = value.toArrayUnsafe();
+        memory.set(ValueLayout.JAVA_BYTE, slot + VALUE_LENGTH_OFFSET, (byte) valueBytes.length);
+        MemorySegment.copy(
+            valueBytes,
+            0,
+            memory,
+            ValueLayout.JAVA_BYTE,
+            slot + HEADER_SIZE + keyCapacity,
+            valueBytes.length);
+      }
+    }
+
+    private static int hash(final byte[] keyBytes) {
+      int h = 1;
+      for (final byte b : keyBytes) {
+        h = 31 * h + b;
+      }
+      return h ^ (h >>> 16);
+    }
+  }
+}
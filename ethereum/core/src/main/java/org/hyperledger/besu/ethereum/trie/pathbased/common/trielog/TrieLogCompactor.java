@@ -0,0 +1,200 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.trielog;
+
+import org.hyperledger.besu.datatypes.AccountValue;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedValue;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLogEvent;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLogFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges runs of per-block trie logs into range trie logs so that rolling a world state across
+ * many blocks applies a handful of merged layers instead of one layer per block.
+ *
+ * <p>A range trie log of span {@code s} ending at block {@code n} (with {@code n} a multiple of
+ * {@code s}) holds, for every touched key, the value before block {@code n - s + 1} and the value
+ * after block {@code n}. Ranges of the smallest span are merged from per-block trie logs and each
+ * larger span is merged from ranges of the previous span. Compaction only runs on canonical blocks
+ * that are at least one small span behind the block that triggered it, so the range is settled
+ * and its headers have been imported.
+ */
+public class TrieLogCompactor implements TrieLogEvent.TrieLogObserver {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TrieLogCompactor.class);
+
+  /** Range spans, in increasing order. Each span is a multiple of the previous one. */
+  public static final int[] RANGE_SPANS = {64, 512};
+
+  private final PathBasedWorldStateKeyValueStorage rootWorldStateStorage;
+  private final Blockchain blockchain;
+  private final TrieLogFactory trieLogFactory;
+  private final Consumer<Runnable> executeAsync;
+
+  public TrieLogCompactor(
+      final PathBasedWorldStateKeyValueStorage rootWorldStateStorage,
+      final Blockchain blockchain,
+      final TrieLogFactory trieLogFactory,
+      final Consumer<Runnable> executeAsync) {
+    this.rootWorldStateStorage = rootWorldStateStorage;
+    this.blockchain = blockchain;
+    this.trieLogFactory = trieLogFactory;
+    this.executeAsync = executeAsync;
+  }
+
+  @Override
+  public void onTrieLogAdded(final TrieLogEvent event) {
+    if (TrieLogEvent.Type.ADDED.equals(event.getType())) {
+      event
+          .layer()
+          .getBlockNumber()
+          .filter(blockNumber -> blockNumber % RANGE_SPANS[0] == 0)
+          .map(blockNumber -> blockNumber - RANGE_SPANS[0])
+          .filter(rangeEnd -> rangeEnd > 0)
+          .ifPresent(rangeEnd -> executeAsync.accept(() -> compact(rangeEnd)));
+    }
+  }
+
+  /**
+   * Builds the missing range trie logs that end at the given canonical block.
+   *
+   * @param rangeEnd number of the last block of the ranges
+   */
+  synchronized void compact(final long rangeEnd) {
+    final Optional<BlockHeader> maybeEndHeader = blockchain.getBlockHeader(rangeEnd);
+    if (maybeEndHeader.isEmpty()) {
+      return;
+    }
+    final BlockHeader endHeader = maybeEndHeader.get();
+    int pieceSpan = 1;
+    for (final int span : RANGE_SPANS) {
+      if (rangeEnd % span != 0 || rangeEnd < span) {
+        break;
+      }
+      if (rootWorldStateStorage.getTrieLogRange(endHeader.getBlockHash(), span).isEmpty()) {
+        final Optional<List<TrieLog>> pieces = loadPieces(endHeader, span, pieceSpan);
+        if (pieces.isEmpty()) {
+          LOG.debug("Missing trie logs to compact {} blocks up to {}", span, rangeEnd);
+          return;
+        }
+        final TrieLogLayer merged = merge(pieces.get());
+        merged.setBlockHash(endHeader.getBlockHash()).setBlockNumber(rangeEnd).freeze();
+        final PathBasedWorldStateKeyValueStorage.Updater updater = rootWorldStateStorage.updater();
+        updater
+            .getTrieLogStorageTransaction()
+            .put(
+                PathBasedWorldStateKeyValueStorage.trieLogRangeKey(endHeader.getBlockHash(), span),
+                trieLogFactory.serialize(merged));
+        updater.commitTrieLogOnly();
+        LOG.debug("Compacted trie logs of {} blocks up to {}", span, rangeEnd);
+      }
+      pieceSpan = span;
+    }
+  }
+
+  /**
+   * Loads the trie logs or ranges covering the range, oldest first. Pieces are found by following
+   * parent hashes so that they always belong to the chain of the last block.
+   */
+  private Optional<List<TrieLog>> loadPieces(
+      final BlockHeader endHeader, final int span, final int pieceSpan) {
+    final List<TrieLog> pieces = new ArrayList<>(span / pieceSpan);
+    Optional<BlockHeader> header = Optional.of(endHeader);
+    for (int covered = 0; covered < span; covered += pieceSpan) {
+      if (header.isEmpty()) {
+        return Optional.empty();
+      }
+      final Hash pieceEnd = header.get().getBlockHash();
+      final Optional<byte[]> piece =
+          pieceSpan == 1
+              ? rootWorldStateStorage.getTrieLog(pieceEnd)
+              : rootWorldStateStorage.getTrieLogRange(pieceEnd, pieceSpan);
+      if (piece.isEmpty()) {
+        return Optional.empty();
+      }
+      pieces.addFirst(trieLogFactory.deserialize(piece.get()));
+      for (int i = 0; i < pieceSpan && header.isPresent(); i++) {
+        header = blockchain.getBlockHeader(header.get().getParentHash());
+      }
+    }
+    return Optional.of(pieces);
+  }
+
+  /**
+   * Merges consecutive trie logs, oldest first, into a single layer that keeps the earliest prior
+   * value and the latest updated value of every key.
+   *
+   * @param trieLogs consecutive trie logs in block order
+   * @return the merged, unfrozen layer without block hash or number
+   */
+  public static TrieLogLayer merge(final List<TrieLog> trieLogs) {
+    final TrieLogLayer merged = new TrieLogLayer();
+    for (final TrieLog trieLog : trieLogs) {
+      final Map<Address, TrieLog.LogTuple<AccountValue>> accounts = trieLog.getAccountChanges();
+      accounts.forEach(
+          (address, change) -> {
+            final PathBasedValue<AccountValue> previous = merged.getAccounts().get(address);
+            merged.addAccountChange(
+                address,
+                previous == null ? change.getPrior() : previous.getPrior(),
+                change.getUpdated());
+          });
+
+      final Map<Address, TrieLog.LogTuple<Bytes>> code = trieLog.getCodeChanges();
+      code.forEach(
+          (address, change) -> {
+            final PathBasedValue<Bytes> previous = merged.getCode().get(address);
+            merged.addCodeChange(
+                address,
+                previous == null ? change.getPrior() : previous.getPrior(),
+                change.getUpdated(),
+                trieLog.getBlockHash());
+          });
+
+      final Map<Address, Map<StorageSlotKey, TrieLog.LogTuple<UInt256>>> storage =
+          trieLog.getStorageChanges();
+      storage.forEach(
+          (address, slots) ->
+              slots.forEach(
+                  (slotKey, change) -> {
+                    final PathBasedValue<UInt256> previous =
+                        merged.getStorage().getOrDefault(address, Map.of()).get(slotKey);
+                    merged.addStorageChange(
+                        address,
+                        slotKey,
+                        previous == null ? change.getPrior() : previous.getPrior(),
+                        change.getUpdated());
+                  }));
+    }
+    return merged;
+  }
+}
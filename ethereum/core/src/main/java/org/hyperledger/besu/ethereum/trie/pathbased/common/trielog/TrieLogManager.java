@@ -54,10 +54,19 @@ public class TrieLogManager {
       final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage,
       final long maxLayersToLoad,
       final ServiceManager pluginContext) {
+    this(blockchain, worldStateKeyValueStorage, maxLayersToLoad, pluginContext, false);
+  }
+
+  public TrieLogManager(
+      final Blockchain blockchain,
+      final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage,
+      final long maxLayersToLoad,
+      final ServiceManager pluginContext,
+      final boolean compactTrieLogEncodingEnabled) {
     this.blockchain = blockchain;
     this.rootWorldStateStorage = worldStateKeyValueStorage;
     this.maxLayersToLoad = maxLayersToLoad;
-    this.trieLogFactory = setupTrieLogFactory(pluginContext);
+    this.trieLogFactory = setupTrieLogFactory(pluginContext, compactTrieLogEncodingEnabled);
   }
 
   public synchronized void saveTrieLog(
@@ -131,6 +140,16 @@ public class TrieLogManager {
     return rootWorldStateStorage.getTrieLog(blockHash).map(trieLogFactory::deserialize);
   }
 
+  /**
+   * Returns the merged trie log of the {@code span} blocks ending at the given block, if it was
+   * compacted by a {@link TrieLogCompactor}.
+   */
+  public Optional<TrieLog> getTrieLogRange(final Hash endBlockHash, final int span) {
+    return rootWorldStateStorage
+        .getTrieLogRange(endBlockHash, span)
+        .map(trieLogFactory::deserialize);
+  }
+
   public synchronized long subscribe(final TrieLogEvent.TrieLogObserver sub) {
     return trieLogObservers.subscribe(sub);
   }
@@ -139,7 +158,8 @@ public class TrieLogManager {
     trieLogObservers.unsubscribe(id);
   }
 
-  private TrieLogFactory setupTrieLogFactory(final ServiceManager pluginContext) {
+  private TrieLogFactory setupTrieLogFactory(
+      final ServiceManager pluginContext, final boolean compactTrieLogEncodingEnabled) {
     // if we have a TrieLogService from pluginContext, use it.
     var trieLogServicez =
         Optional.ofNullable(pluginContext)
@@ -159,7 +179,7 @@ public class TrieLogManager {
       }
     }
     // Otherwise default to BonsaiTrieLogFactory
-    return new BonsaiTrieLogFactory();
+    return new BonsaiTrieLogFactory(compactTrieLogEncodingEnabled);
   }
 
   private TrieLogProvider getTrieLogProvider() {
@@ -227,6 +227,7 @@ public class TrieLogPruner implements TrieLogEvent.TrieLogObserver {
           for (Hash blockHash : e.getValue()) {
             if (rootWorldStateStorage.pruneTrieLog(blockHash)) {
               wasPruned.put(e.getKey(), blockHash);
+              pruneTrieLogRanges(e.getKey(), blockHash);
             }
           }
         });
@@ -248,6 +249,14 @@ public class TrieLogPruner implements TrieLogEvent.TrieLogObserver {
     return wasPruned.size();
   }
 
+  private void pruneTrieLogRanges(final long blockNumber, final Hash blockHash) {
+    for (final int span : TrieLogCompactor.RANGE_SPANS) {
+      if (blockNumber % span == 0) {
+        rootWorldStateStorage.pruneTrieLogRange(blockHash, span);
+      }
+    }
+  }
+
   @Override
   public void onTrieLogAdded(final TrieLogEvent event) {
     if (TrieLogEvent.Type.ADDED.equals(event.getType())) {
@@ -77,6 +77,12 @@ public abstract class PathBasedWorldState
    */
   protected boolean isStorageFrozen;
 
+  /**
+   * True when the parent of the world state storage is a sealed layer owned by the world state
+   * cache, in which case closing this world state must only close its own overlay.
+   */
+  protected boolean isParentStorageShared;
+
   protected PathBasedWorldState(
       final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage,
       final PathBasedWorldStateCacheManager worldStateCacheManager,
@@ -94,6 +100,7 @@ public abstract class PathBasedWorldState
     this.trieLogManager = trieLogManager;
     this.worldStateConfig = worldStateConfig;
     this.isStorageFrozen = false;
+    this.isParentStorageShared = false;
   }
 
   /**
@@ -146,6 +153,21 @@ public abstract class PathBasedWorldState
     return isStorageFrozen;
   }
 
+  /**
+   * Moves this world state onto a fresh overlay whose parent now belongs to the world state cache.
+   * That parent must no longer be written or closed by this world state.
+   *
+   * @param overlay the new, exclusively owned storage of this world state
+   */
+  public void rebaseOnSharedLayer(final PathBasedWorldStateKeyValueStorage overlay) {
+    if (isStorageFrozen && !isParentStorageShared) {
+      // the storage below the shared frozen layer only closes once that layer is closed too
+      closeFrozenStorage();
+    }
+    this.worldStateKeyValueStorage = overlay;
+    this.isParentStorageShared = true;
+  }
+
   /**
    * Reset the worldState to this block header
    *
@@ -367,7 +389,7 @@ public abstract class PathBasedWorldState
     try {
       if (!isModifyingHeadWorldState()) {
         this.worldStateKeyValueStorage.close();
-        if (isStorageFrozen) {
+        if (isStorageFrozen && !isParentStorageShared) {
           closeFrozenStorage();
         }
       }
@@ -33,10 +33,18 @@ public class WorldStateConfig {
    */
   private boolean isParallelStateRootComputationEnabled;
 
+  /**
+   * Indicates whether storage tries are updated in the background while transactions execute, so
+   * that most of the state root work is done by the time the block is persisted. Default is false
+   */
+  private boolean isIncrementalStateRootComputationEnabled;
+
   private WorldStateConfig(final Builder builder) {
     this.isTrieDisabled = builder.isTrieDisabled;
     this.isStateful = builder.isStateful;
     this.isParallelStateRootComputationEnabled = builder.isParallelStateRootComputationEnabled;
+    this.isIncrementalStateRootComputationEnabled =
+        builder.isIncrementalStateRootComputationEnabled;
   }
 
   public boolean isTrieDisabled() {
@@ -51,6 +59,10 @@ public class WorldStateConfig {
     return isParallelStateRootComputationEnabled;
   }
 
+  public boolean isIncrementalStateRootComputationEnabled() {
+    return isIncrementalStateRootComputationEnabled;
+  }
+
   public void setTrieDisabled(final boolean trieDisabled) {
     isTrieDisabled = trieDisabled;
   }
@@ -64,6 +76,11 @@ public class WorldStateConfig {
     isParallelStateRootComputationEnabled = parallelStateRootComputationEnabled;
   }
 
+  public void setIncrementalStateRootComputationEnabled(
+      final boolean incrementalStateRootComputationEnabled) {
+    isIncrementalStateRootComputationEnabled = incrementalStateRootComputationEnabled;
+  }
+
   /**
    * Merges this WorldStateConfig with another WorldStateConfig and returns a new instance.
    *
@@ -75,6 +92,7 @@ public class WorldStateConfig {
         .trieDisabled(other.isTrieDisabled)
         .stateful(other.isStateful)
         .parallelStateRootComputationEnabled(other.isParallelStateRootComputationEnabled)
+        .incrementalStateRootComputationEnabled(other.isIncrementalStateRootComputationEnabled)
         .build();
   }
 
@@ -98,6 +116,7 @@ public class WorldStateConfig {
     private boolean isStateful = true;
     private boolean isTrieDisabled = false;
     private boolean isParallelStateRootComputationEnabled = true;
+    private boolean isIncrementalStateRootComputationEnabled = false;
 
     public Builder() {}
 
@@ -105,6 +124,8 @@ public class WorldStateConfig {
       this.isTrieDisabled = spec.isTrieDisabled();
       this.isStateful = spec.isStateful();
       this.isParallelStateRootComputationEnabled = spec.isParallelStateRootComputationEnabled();
+      this.isIncrementalStateRootComputationEnabled =
+          spec.isIncrementalStateRootComputationEnabled();
     }
 
     public Builder trieDisabled(final boolean trieDisabled) {
@@ -123,6 +144,12 @@ public class WorldStateConfig {
       return this;
     }
 
+    public Builder incrementalStateRootComputationEnabled(
+        final boolean incrementalStateRootComputationEnabled) {
+      this.isIncrementalStateRootComputationEnabled = incrementalStateRootComputationEnabled;
+      return this;
+    }
+
     public WorldStateConfig build() {
       return new WorldStateConfig(this);
     }
@@ -97,13 +97,15 @@ public abstract class PathBasedWorldStateCacheManager implements StorageSubscrib
             new PathBasedCachedWorldStateView(
                 blockHeader, createSnapshotKeyValueStorage(forWorldState.getWorldStateStorage())));
       } else {
-        // otherwise, add the layer to the cache
+        // otherwise, seal the layer and share it with the cache rather than copying it: the world
+        // state keeps going on a fresh overlay, and every later request for this block reads
+        // through the same immutable base. Each overlay subscribes to the layer, so evicting it
+        // only closes the layer once the last overlay reading through it has been closed
+        final PathBasedWorldStateKeyValueStorage layer = forWorldState.getWorldStateStorage();
+        ((PathBasedLayeredWorldStateKeyValueStorage) layer).seal();
         cachedWorldStatesByHash.put(
-            blockHeader.getBlockHash(),
-            new PathBasedCachedWorldStateView(
-                blockHeader,
-                ((PathBasedLayeredWorldStateKeyValueStorage) forWorldState.getWorldStateStorage())
-                    .clone()));
+            blockHeader.getBlockHash(), new PathBasedCachedWorldStateView(blockHeader, layer));
+        forWorldState.rebaseOnSharedLayer(createLayeredKeyValueStorage(layer));
       }
       // add stateroot -> blockHeader cache entry
       stateRootToBlockHeaderCache.put(blockHeader.getStateRoot(), blockHeader);
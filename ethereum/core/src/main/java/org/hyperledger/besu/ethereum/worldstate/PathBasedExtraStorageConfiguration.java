@@ -90,6 +90,12 @@ public interface PathBasedExtraStorageConfiguration {
     boolean DEFAULT_BONSAI_CROSS_BLOCK_CACHE_ENABLED = false;
     long DEFAULT_BONSAI_CROSS_BLOCK_CACHE_ACCOUNT_SIZE = 100_000L;
     long DEFAULT_BONSAI_CROSS_BLOCK_CACHE_STORAGE_SIZE = 500_000L;
+    long DEFAULT_BONSAI_CROSS_BLOCK_CACHE_OFF_HEAP_BYTES = 0L;
+    boolean DEFAULT_INCREMENTAL_STATE_ROOT_COMPUTATION_ENABLED = false;
+    boolean DEFAULT_TRIE_LOG_COMPACTION_ENABLED = false;
+    boolean DEFAULT_COMPACT_TRIE_LOG_ENCODING_ENABLED = false;
+    long DEFAULT_BONSAI_TRIE_NODE_CACHE_BYTES = 128L * 1024 * 1024;
+    int DEFAULT_BONSAI_TRIE_NODE_CACHE_PINNED_DEPTH = 4;
 
     @Value.Default
     default boolean getFullFlatDbEnabled() {
@@ -115,5 +121,54 @@ public interface PathBasedExtraStorageConfiguration {
     default long getBonsaiCrossBlockCacheStorageSize() {
       return DEFAULT_BONSAI_CROSS_BLOCK_CACHE_STORAGE_SIZE;
     }
+
+    /**
+     * Off-heap memory budget of the cross-block cache, in bytes. When positive, accounts and
+     * storage slots are cached outside of the Java heap and the account and storage sizes only set
+     * how the budget is split between the two segments.
+     *
+     * @return the off-heap budget in bytes, or 0 to keep the cache on the heap
+     */
+    @Value.Default
+    default long getBonsaiCrossBlockCacheOffHeapBytes() {
+      return DEFAULT_BONSAI_CROSS_BLOCK_CACHE_OFF_HEAP_BYTES;
+    }
+
+    @Value.Default
+    default boolean getIncrementalStateRootComputationEnabled() {
+      return DEFAULT_INCREMENTAL_STATE_ROOT_COMPUTATION_ENABLED;
+    }
+
+    @Value.Default
+    default boolean getTrieLogCompactionEnabled() {
+      return DEFAULT_TRIE_LOG_COMPACTION_ENABLED;
+    }
+
+    @Value.Default
+    default boolean getCompactTrieLogEncodingEnabled() {
+      return DEFAULT_COMPACT_TRIE_LOG_ENCODING_ENABLED;
+    }
+
+    /**
+     * Memory budget, in bytes, of the trie nodes cached while preloading accounts and storage
+     * slots.
+     *
+     * @return the trie node cache budget in bytes
+     */
+    @Value.Default
+    default long getBonsaiTrieNodeCacheBytes() {
+      return DEFAULT_BONSAI_TRIE_NODE_CACHE_BYTES;
+    }
+
+    /**
+     * Depth above which cached trie nodes are kept in their own share of the budget, so the churn
+     * of lower nodes does not evict the nodes every lookup goes through.
+     *
+     * @return the pinned depth of the trie node cache
+     */
+    @Value.Default
+    default int getBonsaiTrieNodeCachePinnedDepth() {
+      return DEFAULT_BONSAI_TRIE_NODE_CACHE_PINNED_DEPTH;
+    }
   }
 }
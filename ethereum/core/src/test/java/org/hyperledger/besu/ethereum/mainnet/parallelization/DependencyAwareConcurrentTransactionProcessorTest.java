@@ -0,0 +1,155 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.DependencyAwareConcurrentTransactionProcessor.DependencyGraph;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.accumulator.BonsaiWorldStateUpdateAccumulator;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.code.PathBasedCodeCache;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.preload.StorageConsumingMap;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DependencyAwareConcurrentTransactionProcessorTest {
+
+  private static final Address CONTRACT = Address.fromHexString("0x1");
+  private static final StorageSlotKey SLOT_A = new StorageSlotKey(UInt256.ONE);
+  private static final StorageSlotKey SLOT_B = new StorageSlotKey(UInt256.valueOf(2));
+  private static final StorageSlotKey SLOT_C = new StorageSlotKey(UInt256.valueOf(3));
+
+  @Mock BonsaiWorldState worldState;
+
+  @Test
+  void dependsTransitivelyOnLastWriters() {
+    final SpeculativeWorldStateUpdateAccumulator tx0 = speculative(List.of());
+    write(tx0, SLOT_A, UInt256.ONE);
+    final SpeculativeWorldStateUpdateAccumulator tx1 = speculative(List.of());
+    read(tx1, SLOT_A);
+    write(tx1, SLOT_B, UInt256.ONE);
+    final SpeculativeWorldStateUpdateAccumulator tx2 = speculative(List.of());
+    read(tx2, SLOT_B);
+    final SpeculativeWorldStateUpdateAccumulator tx3 = speculative(List.of());
+    read(tx3, SLOT_C);
+
+    final DependencyGraph graph = new DependencyGraph(4);
+
+    assertThat(graph.add(0, tx0).stream()).isEmpty();
+    assertThat(graph.add(1, tx1).stream()).containsExactly(0);
+    assertThat(graph.add(2, tx2).stream()).containsExactly(0, 1);
+    assertThat(graph.add(3, tx3).stream()).isEmpty();
+  }
+
+  @Test
+  void readingAnUnchangedValueIsNotAWrite() {
+    final SpeculativeWorldStateUpdateAccumulator tx0 = speculative(List.of());
+    read(tx0, SLOT_A);
+    write(tx0, SLOT_A, UInt256.ZERO);
+    final SpeculativeWorldStateUpdateAccumulator tx1 = speculative(List.of());
+    read(tx1, SLOT_A);
+
+    final DependencyGraph graph = new DependencyGraph(2);
+    graph.add(0, tx0);
+
+    assertThat(tx0.getSlotsWritten()).isEmpty();
+    assertThat(graph.add(1, tx1).stream()).isEmpty();
+  }
+
+  @Test
+  void readsTheLatestDependencyWrite() {
+    final SpeculativeWorldStateUpdateAccumulator tx0 = speculative(List.of());
+    write(tx0, SLOT_A, UInt256.ONE);
+    final SpeculativeWorldStateUpdateAccumulator tx1 = speculative(List.of());
+    write(tx1, SLOT_A, UInt256.valueOf(2));
+    final SpeculativeWorldStateUpdateAccumulator tx2 = speculative(List.of(tx0, tx1));
+
+    final PathBasedValue<UInt256> value = read(tx2, SLOT_A);
+
+    assertThat(value.getPrior()).isEqualTo(UInt256.ZERO);
+    assertThat(value.getUpdated()).isEqualTo(UInt256.valueOf(2));
+  }
+
+  @Test
+  void isConsistentOnlyIfReadValuesMatchTheBlockState() {
+    final SpeculativeWorldStateUpdateAccumulator tx0 = speculative(List.of());
+    write(tx0, SLOT_A, UInt256.ONE);
+    final SpeculativeWorldStateUpdateAccumulator tx1 = speculative(List.of(tx0));
+    read(tx1, SLOT_A);
+
+    final BonsaiWorldStateUpdateAccumulator blockAccumulator = accumulator();
+    assertThat(tx1.isConsistentWith(blockAccumulator)).isFalse();
+
+    write(blockAccumulator, SLOT_A, UInt256.ONE);
+    assertThat(tx1.isConsistentWith(blockAccumulator)).isTrue();
+
+    write(blockAccumulator, SLOT_A, UInt256.valueOf(2));
+    assertThat(tx1.isConsistentWith(blockAccumulator)).isFalse();
+  }
+
+  private SpeculativeWorldStateUpdateAccumulator speculative(
+      final List<SpeculativeWorldStateUpdateAccumulator> dependencies) {
+    return new SpeculativeWorldStateUpdateAccumulator(
+        worldState, EvmConfiguration.DEFAULT, new PathBasedCodeCache(), dependencies);
+  }
+
+  private BonsaiWorldStateUpdateAccumulator accumulator() {
+    return new BonsaiWorldStateUpdateAccumulator(
+        worldState,
+        (__, ___) -> {},
+        (__, ___) -> {},
+        EvmConfiguration.DEFAULT,
+        new PathBasedCodeCache());
+  }
+
+  private static PathBasedValue<UInt256> read(
+      final SpeculativeWorldStateUpdateAccumulator accumulator, final StorageSlotKey slot) {
+    final PathBasedValue<UInt256> value = new PathBasedValue<>(UInt256.ZERO, UInt256.ZERO);
+    accumulator.onStorageValueLoaded(CONTRACT, slot, value);
+    slots(accumulator).put(slot, value);
+    return value;
+  }
+
+  private static void write(
+      final BonsaiWorldStateUpdateAccumulator accumulator,
+      final StorageSlotKey slot,
+      final UInt256 updated) {
+    slots(accumulator)
+        .computeIfAbsent(slot, __ -> new PathBasedValue<>(UInt256.ZERO, UInt256.ZERO))
+        .setUpdated(updated);
+  }
+
+  private static StorageConsumingMap<StorageSlotKey, PathBasedValue<UInt256>> slots(
+      final BonsaiWorldStateUpdateAccumulator accumulator) {
+    return accumulator
+        .getStorageToUpdate()
+        .computeIfAbsent(
+            CONTRACT,
+            __ ->
+                new StorageConsumingMap<>(CONTRACT, new ConcurrentHashMap<>(), (___, ____) -> {}));
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization.prefetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.accumulator.preload.BonsaiCachedMerkleTrieLoader;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+class BalTrieNodePrefetcherTest {
+
+  private static final Address CHANGED = Address.fromHexString("0x01");
+  private static final Address READ_ONLY = Address.fromHexString("0x02");
+  private static final StorageSlotKey WRITTEN_SLOT = new StorageSlotKey(UInt256.ONE);
+  private static final StorageSlotKey READ_SLOT = new StorageSlotKey(UInt256.valueOf(2));
+  private static final Hash ROOT = Hash.fromHexStringLenient("0x1234");
+
+  private final BonsaiCachedMerkleTrieLoader loader = mock(BonsaiCachedMerkleTrieLoader.class);
+  private final BonsaiWorldStateKeyValueStorage storage =
+      mock(BonsaiWorldStateKeyValueStorage.class);
+  private final BalTrieNodePrefetcher prefetcher = new BalTrieNodePrefetcher(loader);
+
+  private final BlockAccessList blockAccessList =
+      new BlockAccessList(
+          List.of(
+              new BlockAccessList.AccountChanges(
+                  CHANGED,
+                  List.of(
+                      new BlockAccessList.SlotChanges(
+                          WRITTEN_SLOT,
+                          List.of(new BlockAccessList.StorageChange(0, UInt256.ONE)))),
+                  List.of(new BlockAccessList.SlotRead(READ_SLOT)),
+                  List.of(new BlockAccessList.BalanceChange(0, Wei.ONE)),
+                  List.of(),
+                  List.of()),
+              new BlockAccessList.AccountChanges(
+                  READ_ONLY,
+                  List.of(),
+                  List.of(new BlockAccessList.SlotRead(READ_SLOT)),
+                  List.of(),
+                  List.of(),
+                  List.of())));
+
+  @Test
+  void loadsPathsOfChangedAccountsAndSlotsOnly() {
+    prefetcher.prefetch(storage, ROOT, blockAccessList, Runnable::run).join();
+
+    verify(loader).cacheAccountNodes(storage, ROOT, CHANGED);
+    verify(loader).cacheStorageNodes(storage, CHANGED, WRITTEN_SLOT);
+    verify(loader, never()).cacheAccountNodes(any(), any(), eq(READ_ONLY));
+    verify(loader, never()).cacheStorageNodes(any(), any(), eq(READ_SLOT));
+  }
+
+  @Test
+  void failedLoadDoesNotFailThePrefetch() {
+    doThrow(new IllegalStateException("boom"))
+        .when(loader)
+        .cacheAccountNodes(storage, ROOT, CHANGED);
+
+    assertThat(prefetcher.prefetch(storage, ROOT, blockAccessList, Runnable::run))
+        .succeedsWithin(Duration.ofSeconds(1));
+  }
+}
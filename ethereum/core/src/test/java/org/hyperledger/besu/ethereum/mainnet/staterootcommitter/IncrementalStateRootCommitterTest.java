@@ -0,0 +1,158 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.staterootcommitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.provider.BonsaiWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.plugin.services.worldstate.StateRootCommitter;
+
+import java.util.function.Consumer;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncrementalStateRootCommitterTest {
+
+  private static final Address CONTRACT =
+      Address.fromHexString("0xdeadbeefdeadbeefdeadbeefdeadbeefdeadbeef");
+  private static final Address OTHER_CONTRACT =
+      Address.fromHexString("0xfeedfacefeedfacefeedfacefeedfacefeedface");
+
+  private BonsaiWorldStateProvider expectedArchive;
+  private BonsaiWorldStateProvider incrementalArchive;
+
+  @BeforeEach
+  void setUp() {
+    expectedArchive = createPopulatedArchive();
+    incrementalArchive = createPopulatedArchive();
+  }
+
+  @Test
+  void rootMatchesSynchronousComputation() {
+    assertSameRoot(
+        tx(account -> account.setStorageValue(UInt256.ONE, UInt256.valueOf(100))),
+        tx(account -> account.setStorageValue(UInt256.valueOf(50), UInt256.valueOf(7))),
+        tx(account -> account.setStorageValue(UInt256.valueOf(2), UInt256.ZERO)));
+  }
+
+  @Test
+  void rootMatchesWhenSlotIsRestoredToItsPriorValue() {
+    assertSameRoot(
+        tx(account -> account.setStorageValue(UInt256.ONE, UInt256.valueOf(100))),
+        tx(account -> account.setStorageValue(UInt256.ONE, UInt256.valueOf(2))));
+  }
+
+  @Test
+  void rootMatchesWhenStorageIsWrittenAfterTheLastTransaction() {
+    final BonsaiWorldState incremental = (BonsaiWorldState) incrementalArchive.getWorldState();
+    final StateRootCommitter committer = new IncrementalStateRootCommitter(Runnable::run);
+    final Consumer<MutableAccount> tx =
+        account -> account.setStorageValue(UInt256.ONE, UInt256.valueOf(100));
+    final Consumer<MutableAccount> postExecution =
+        account -> account.setStorageValue(UInt256.valueOf(3), UInt256.valueOf(9));
+
+    applyTransaction(expectedArchive.getWorldState().updater(), tx);
+    applyTransaction(expectedArchive.getWorldState().updater(), postExecution);
+    expectedArchive.getWorldState().persist(null);
+
+    applyTransaction(incremental.updater(), tx);
+    committer.onTransactionCommitted(incremental);
+    applyTransaction(incremental.updater(), postExecution);
+    incremental.persist(null, committer);
+
+    assertThat(incremental.rootHash()).isEqualTo(expectedArchive.getWorldState().rootHash());
+  }
+
+  @Test
+  void rootMatchesWhenStorageIsClearedDuringTheBlock() {
+    assertSameRoot(
+        tx(account -> account.setStorageValue(UInt256.ONE, UInt256.valueOf(100))),
+        updater -> {
+          updater.deleteAccount(CONTRACT);
+          final MutableAccount recreated = updater.createAccount(CONTRACT);
+          recreated.setBalance(Wei.ONE);
+          recreated.setStorageValue(UInt256.valueOf(4), UInt256.valueOf(4));
+        });
+  }
+
+  @SafeVarargs
+  private void assertSameRoot(final Consumer<WorldUpdater>... transactions) {
+    final BonsaiWorldState incremental = (BonsaiWorldState) incrementalArchive.getWorldState();
+    final StateRootCommitter committer = new IncrementalStateRootCommitter(Runnable::run);
+    for (final Consumer<WorldUpdater> transaction : transactions) {
+      final WorldUpdater expectedUpdater = expectedArchive.getWorldState().updater();
+      commitTransaction(expectedUpdater, transaction);
+      expectedUpdater.markTransactionBoundary();
+
+      final WorldUpdater incrementalUpdater = incremental.updater();
+      commitTransaction(incrementalUpdater, transaction);
+      committer.onTransactionCommitted(incremental);
+      incrementalUpdater.markTransactionBoundary();
+    }
+    expectedArchive.getWorldState().persist(null);
+    incremental.persist(null, committer);
+
+    assertThat(incremental.rootHash()).isEqualTo(expectedArchive.getWorldState().rootHash());
+  }
+
+  private static Consumer<WorldUpdater> tx(final Consumer<MutableAccount> change) {
+    return updater -> {
+      change.accept(updater.getAccount(CONTRACT));
+      final MutableAccount other = updater.getAccount(OTHER_CONTRACT);
+      other.setStorageValue(UInt256.valueOf(8), other.getStorageValue(UInt256.valueOf(8)).add(1));
+    };
+  }
+
+  private static void applyTransaction(
+      final WorldUpdater blockUpdater, final Consumer<MutableAccount> change) {
+    commitTransaction(blockUpdater, updater -> change.accept(updater.getAccount(CONTRACT)));
+    blockUpdater.markTransactionBoundary();
+  }
+
+  private static void commitTransaction(
+      final WorldUpdater blockUpdater, final Consumer<WorldUpdater> transaction) {
+    final WorldUpdater transactionUpdater = blockUpdater.updater();
+    transaction.accept(transactionUpdater);
+    transactionUpdater.commit();
+    blockUpdater.commit();
+  }
+
+  private static BonsaiWorldStateProvider createPopulatedArchive() {
+    final BonsaiWorldStateProvider archive =
+        InMemoryKeyValueStorageProvider.createBonsaiInMemoryWorldStateArchive(
+            mock(Blockchain.class));
+    final WorldUpdater setup = archive.getWorldState().updater();
+    for (final Address address : new Address[] {CONTRACT, OTHER_CONTRACT}) {
+      final MutableAccount account = setup.createAccount(address);
+      account.setBalance(Wei.ONE);
+      for (int i = 0; i < 64; i++) {
+        account.setStorageValue(UInt256.valueOf(i), UInt256.valueOf(i + 1));
+      }
+    }
+    setup.commit();
+    archive.getWorldState().persist(null);
+    return archive;
+  }
+}
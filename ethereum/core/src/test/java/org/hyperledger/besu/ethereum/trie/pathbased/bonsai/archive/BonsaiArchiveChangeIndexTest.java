@@ -0,0 +1,156 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.archive.BonsaiArchiveChangeIndex.BUCKET_BITS;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.archive.BonsaiArchiveChangeIndex.NOT_CHANGED;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.archive.BonsaiArchiveChangeIndex.UNRESOLVED;
+
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.services.kvstore.SegmentedInMemoryKeyValueStorage;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BonsaiArchiveChangeIndexTest {
+
+  private static final long BUCKET = 1L << BUCKET_BITS;
+  private static final byte[] KEY = Bytes32.fromHexString("0x01").toArrayUnsafe();
+  private static final byte[] OTHER_KEY = Bytes32.fromHexString("0x02").toArrayUnsafe();
+
+  private SegmentedKeyValueStorage storage;
+
+  @BeforeEach
+  public void setup() {
+    storage = new SegmentedInMemoryKeyValueStorage();
+  }
+
+  @Test
+  public void resolvesLatestChangeAtOrAfterIt() {
+    record(KEY, 5L, 9L);
+
+    assertThat(lookup(KEY, 9L)).isEqualTo(9L);
+    assertThat(lookup(KEY, 1_000_000L)).isEqualTo(9L);
+    assertThat(lookup(KEY, Long.MAX_VALUE)).isEqualTo(9L);
+  }
+
+  @Test
+  public void resolvesChangesInsideTheRequestedBucket() {
+    record(KEY, 5L, BUCKET + 3, BUCKET + 10, 3 * BUCKET);
+
+    assertThat(lookup(KEY, BUCKET + 3)).isEqualTo(BUCKET + 3);
+    assertThat(lookup(KEY, BUCKET + 9)).isEqualTo(BUCKET + 3);
+    assertThat(lookup(KEY, BUCKET + 100)).isEqualTo(BUCKET + 10);
+    // before the first change of the bucket, the bucket's previous change answers
+    assertThat(lookup(KEY, BUCKET + 1)).isEqualTo(5L);
+  }
+
+  @Test
+  public void reportsUnresolvedWhenLastChangeIsInAnEarlierBucket() {
+    record(KEY, 5L, 3 * BUCKET);
+
+    assertThat(lookup(KEY, 2 * BUCKET)).isEqualTo(UNRESOLVED);
+  }
+
+  @Test
+  public void reportsNotChangedOnlyWhenIndexIsCompleteFromGenesis() {
+    record(KEY, BUCKET + 5);
+
+    assertThat(lookup(OTHER_KEY, 10L)).isEqualTo(UNRESOLVED);
+    assertThat(lookup(KEY, BUCKET + 1)).isEqualTo(UNRESOLVED);
+
+    final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    BonsaiArchiveChangeIndex.markCompleteFromGenesis(tx);
+    tx.commit();
+
+    assertThat(BonsaiArchiveChangeIndex.isCompleteFromGenesis(storage)).isTrue();
+    assertThat(BonsaiArchiveChangeIndex.lookup(storage, OTHER_KEY, 10L, true))
+        .isEqualTo(NOT_CHANGED);
+    assertThat(BonsaiArchiveChangeIndex.lookup(storage, KEY, BUCKET + 1, true))
+        .isEqualTo(NOT_CHANGED);
+  }
+
+  @Test
+  public void batchedLookupMatchesSingleLookups() {
+    record(KEY, 5L, BUCKET + 3, BUCKET + 10);
+    record(OTHER_KEY, 2 * BUCKET);
+    final byte[] missing = Bytes32.fromHexString("0x03").toArrayUnsafe();
+
+    final long block = BUCKET + 7;
+    assertThat(
+            BonsaiArchiveChangeIndex.lookupAll(
+                storage, List.of(KEY, OTHER_KEY, missing), block, false))
+        .containsExactly(lookup(KEY, block), lookup(OTHER_KEY, block), lookup(missing, block))
+        .containsExactly(BUCKET + 3, UNRESOLVED, UNRESOLVED);
+  }
+
+  @Test
+  public void updaterSeesChangesPendingInTheSameTransaction() {
+    final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    final BonsaiArchiveChangeIndex.Updater updater = BonsaiArchiveChangeIndex.updater(storage, tx);
+    updater.recordChange(KEY, 1L);
+    updater.recordChange(KEY, 2L);
+    updater.recordChange(KEY, BUCKET + 1);
+    tx.commit();
+
+    assertThat(lookup(KEY, 1L)).isEqualTo(1L);
+    assertThat(lookup(KEY, 3L)).isEqualTo(2L);
+    assertThat(lookup(KEY, BUCKET)).isEqualTo(2L);
+  }
+
+  @Test
+  public void outOfOrderChangeRepairsFollowingBucket() {
+    record(KEY, 5L, 3 * BUCKET + 1);
+    record(KEY, BUCKET + 2);
+
+    assertThat(lookup(KEY, 3 * BUCKET)).isEqualTo(BUCKET + 2);
+    assertThat(lookup(KEY, BUCKET + 2)).isEqualTo(BUCKET + 2);
+    assertThat(lookup(KEY, Long.MAX_VALUE)).isEqualTo(3 * BUCKET + 1);
+  }
+
+  @Test
+  public void outOfOrderChangeInNewBucketLeavesEarlierBlocksUnresolved() {
+    final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    BonsaiArchiveChangeIndex.markCompleteFromGenesis(tx);
+    tx.commit();
+    record(KEY, 5L, 3 * BUCKET + 1);
+    record(KEY, BUCKET + 2);
+
+    // the change at block 5 is not known to the new bucket, so it must not read as never changed
+    assertThat(BonsaiArchiveChangeIndex.lookup(storage, KEY, BUCKET + 1, true))
+        .isEqualTo(UNRESOLVED);
+    assertThat(BonsaiArchiveChangeIndex.lookup(storage, KEY, BUCKET + 2, true))
+        .isEqualTo(BUCKET + 2);
+    assertThat(BonsaiArchiveChangeIndex.lookup(storage, KEY, 3 * BUCKET, true))
+        .isEqualTo(BUCKET + 2);
+  }
+
+  private void record(final byte[] key, final long... blockNumbers) {
+    for (final long blockNumber : blockNumbers) {
+      final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+      BonsaiArchiveChangeIndex.updater(storage, tx).recordChange(key, blockNumber);
+      tx.commit();
+    }
+  }
+
+  private long lookup(final byte[] key, final long blockNumber) {
+    return BonsaiArchiveChangeIndex.lookup(storage, key, blockNumber, false);
+  }
+}
@@ -27,6 +27,7 @@ import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 import org.hyperledger.besu.services.kvstore.SegmentedInMemoryKeyValueStorage;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -182,6 +183,41 @@ public class BonsaiArchiveFlatDbStrategyTest {
     }
   }
 
+  @Test
+  public void readsHistoricalValuesThroughChangeIndex() {
+    final Hash accountHash =
+        Address.fromHexString("0x0000000000000000000000000000000000000006").addressHash();
+    final Hash unchangedHash =
+        Address.fromHexString("0x0000000000000000000000000000000000000007").addressHash();
+
+    // account written at blocks 1 and 3, read back at blocks 1 to 4
+    setWorldBlockNumber(0);
+    SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    archiveFlatDbStrategy.putFlatAccount(storage, tx, accountHash, Bytes.fromHexString("0x01"));
+    tx.commit();
+    setWorldBlockNumber(2);
+    tx = storage.startTransaction();
+    archiveFlatDbStrategy.putFlatAccount(storage, tx, accountHash, Bytes.fromHexString("0x03"));
+    tx.commit();
+
+    assertThat(BonsaiArchiveChangeIndex.lookup(storage, naturalKey(accountHash), 2L, false))
+        .isEqualTo(1L);
+    assertThat(BonsaiArchiveChangeIndex.lookup(storage, naturalKey(unchangedHash), 2L, false))
+        .isEqualTo(BonsaiArchiveChangeIndex.UNRESOLVED);
+
+    setWorldBlockNumber(2);
+    assertThat(
+            archiveFlatDbStrategy.getFlatAccounts(List.of(accountHash, unchangedHash), storage))
+        .containsExactly(Optional.of(Bytes.fromHexString("0x01")), Optional.empty());
+    setWorldBlockNumber(4);
+    assertThat(archiveFlatDbStrategy.getFlatAccount(Optional::empty, null, accountHash, storage))
+        .contains(Bytes.fromHexString("0x03"));
+  }
+
+  private static byte[] naturalKey(final Hash accountHash) {
+    return accountHash.getBytes().toArrayUnsafe();
+  }
+
   private void setWorldBlockNumber(final long blockNumber) {
     final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
     tx.put(
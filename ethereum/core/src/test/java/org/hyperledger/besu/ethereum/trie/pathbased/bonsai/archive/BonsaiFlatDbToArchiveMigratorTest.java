@@ -268,6 +268,49 @@ public class BonsaiFlatDbToArchiveMigratorTest {
     verify(trieLogManager, times(1)).getTrieLogLayer(hashAt(4L));
   }
 
+  @Test
+  public void partitionedMigrationWritesAllAccountsAndStorage() throws Exception {
+    appendBlocks(3);
+    final Address otherAddress =
+        Address.fromHexString("0x1000000000000000000000000000000000000001");
+    final StorageSlotKey slotKey = new StorageSlotKey(UInt256.ONE);
+    final TrieLogLayer trieLog = createAccountTrieLog(Wei.ONE);
+    trieLog.addAccountChange(otherAddress, null, accountValue(Wei.of(2)));
+    trieLog.addStorageChange(TEST_ADDRESS, slotKey, UInt256.ZERO, UInt256.valueOf(42));
+    when(trieLogManager.getTrieLogLayer(any())).thenReturn(Optional.of(trieLog));
+
+    final BonsaiFlatDbToArchiveMigrator migrator = createPartitionedMigrator(4, 2);
+    migrator.migrate().get(MIGRATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    for (long blockNumber = 1; blockNumber <= 3; blockNumber++) {
+      assertThat(getArchivedAccountKey(blockNumber)).isPresent();
+      assertThat(getArchivedAccountKey(otherAddress, blockNumber)).isPresent();
+      assertThat(getArchivedStorageKey(blockNumber, slotKey)).isPresent();
+    }
+    assertThat(migrator.getMigrationProgress()).hasValue(3L);
+  }
+
+  @Test
+  public void partitionedMigrationResumesInterruptedBatch() throws Exception {
+    appendBlocks(4);
+    final BonsaiFlatDbToArchiveMigrator firstMigrator = createPartitionedMigrator(2, 4);
+    when(trieLogManager.getTrieLogLayer(hashAt(4L)))
+        .thenThrow(new RuntimeException("Test failure"));
+    assertThat(firstMigrator.migrate()).failsWithin(MIGRATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    assertThat(firstMigrator.getMigrationProgress()).isEmpty();
+    firstMigrator.close();
+
+    when(trieLogManager.getTrieLogLayer(hashAt(4L)))
+        .thenReturn(Optional.of(createAccountTrieLog(Wei.ONE)));
+    final BonsaiFlatDbToArchiveMigrator secondMigrator = createPartitionedMigrator(2, 4);
+    secondMigrator.migrate().get(MIGRATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertThat(secondMigrator.getMigrationProgress()).hasValue(4L);
+    for (long blockNumber = 1; blockNumber <= 4; blockNumber++) {
+      assertThat(getArchivedAccountKey(blockNumber)).isPresent();
+    }
+  }
+
   @Test
   public void usesLowPriorityTransactionsForMigration() throws Exception {
     appendBlocks(1);
@@ -589,6 +632,29 @@ public class BonsaiFlatDbToArchiveMigratorTest {
     return migrator;
   }
 
+  private BonsaiFlatDbToArchiveMigrator createPartitionedMigrator(
+      final int partitionCount, final int blocksPerBatch) {
+    when(trieLogManager.getMaxLayersToLoad()).thenReturn(BOUNDARY_DISABLED);
+    final NoOpMetricsSystem metricsSystem = new NoOpMetricsSystem();
+    final BonsaiFlatDbToArchiveMigrator migrator =
+        new BonsaiFlatDbToArchiveMigrator(
+            worldStateStorage,
+            trieLogManager,
+            blockchain,
+            Executors.newScheduledThreadPool(1),
+            Executors.newFixedThreadPool(partitionCount),
+            partitionCount,
+            blocksPerBatch,
+            metricsSystem,
+            new BonsaiArchiveFlatDbStrategy(metricsSystem, new CodeHashCodeStorageStrategy()));
+    migrators.add(migrator);
+    return migrator;
+  }
+
+  private PmtStateTrieAccountValue accountValue(final Wei balance) {
+    return new PmtStateTrieAccountValue(1, balance, Hash.EMPTY, Hash.EMPTY);
+  }
+
   private TrieLogLayer createAccountTrieLog(final Wei balance) {
     final TrieLogLayer trieLog = new TrieLogLayer();
     final PmtStateTrieAccountValue value =
@@ -598,10 +664,14 @@ public class BonsaiFlatDbToArchiveMigratorTest {
   }
 
   private Optional<byte[]> getArchivedAccountKey(final long blockNumber) {
+    return getArchivedAccountKey(TEST_ADDRESS, blockNumber);
+  }
+
+  private Optional<byte[]> getArchivedAccountKey(final Address address, final long blockNumber) {
     final byte[] key =
         calculateArchiveKeyWithMinSuffix(
             new BonsaiArchiveContext(blockNumber),
-            TEST_ADDRESS.addressHash().getBytes().toArrayUnsafe());
+            address.addressHash().getBytes().toArrayUnsafe());
     return storage.get(ACCOUNT_INFO_STATE_ARCHIVE, key);
   }
 
@@ -22,14 +22,13 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.StorageSlotKey;
 import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.cache.FlatDbCacheManager;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.cache.OffHeapFlatDbCacheManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.cache.VersionedFlatDbCacheManager;
 import org.hyperledger.besu.ethereum.worldstate.ImmutableDataStorageConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.ImmutablePathBasedExtraStorageConfiguration;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
 
-import java.io.Closeable;
-
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.jupiter.api.AfterEach;
@@ -51,9 +50,6 @@ public class BonsaiWorldStateKeyValueStorageCacheTest {
 
   private void disposeHead() throws Exception {
     if (head != null) {
-      if (head.getCacheManager() instanceof final Closeable closeable) {
-        closeable.close();
-      }
       head.close();
       head = null;
     }
@@ -211,6 +207,38 @@ public class BonsaiWorldStateKeyValueStorageCacheTest {
             });
   }
 
+  @Test
+  void closingHeadReleasesOffHeapCacheButClosingSnapshotDoesNot() throws Exception {
+    disposeHead();
+    head =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            ImmutableDataStorageConfiguration.builder()
+                .dataStorageFormat(DataStorageFormat.BONSAI)
+                .pathBasedExtraStorageConfiguration(
+                    ImmutablePathBasedExtraStorageConfiguration.builder()
+                        .unstable(
+                            ImmutablePathBasedExtraStorageConfiguration.PathBasedUnstable.builder()
+                                .bonsaiCrossBlockCacheEnabled(true)
+                                .bonsaiCrossBlockCacheOffHeapBytes(1L << 20)
+                                .build())
+                        .build())
+                .build());
+    assertThat(head.getCacheManager()).isInstanceOf(OffHeapFlatDbCacheManager.class);
+    final Hash account = Hash.hash(Bytes.of(1));
+    commitAccount(account, Bytes.of(1));
+
+    new BonsaiSnapshotWorldStateKeyValueStorage(head).close();
+    assertThat(head.isCached(ACCOUNT_INFO_STATE, account.getBytes())).isTrue();
+
+    final FlatDbCacheManager cacheManager = head.getCacheManager();
+    head.close();
+    head = null;
+    assertThat(cacheManager.isCached(ACCOUNT_INFO_STATE, account.getBytes())).isFalse();
+    assertThat(cacheManager.getCacheSize(ACCOUNT_INFO_STATE)).isZero();
+  }
+
   @Test
   void snapshotPinsCacheEpochWhileHeadKeepsAdvancing() throws Exception {
     newHead(true);
@@ -14,7 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
@@ -71,4 +71,54 @@ public class TrieLogFactoryTests {
     TrieLog layer = factory.deserialize(rlp);
     assertThat(layer).isEqualTo(trieLogFixture);
   }
+
+  @Test
+  public void testCompactEncodingRoundTripsAndIsReadableByDefaultFactory() {
+    byte[] encoded = new BonsaiTrieLogFactory(true).serialize(trieLogFixture);
+    byte[] rlp = new BonsaiTrieLogFactory().serialize(trieLogFixture);
+
+    TrieLog layer = new BonsaiTrieLogFactory().deserialize(encoded);
+    assertThat(layer).isInstanceOf(CompactTrieLog.class);
+    assertThat(layer.getBlockHash()).isEqualTo(trieLogFixture.getBlockHash());
+    assertThat(layer.getAccountChanges()).isEqualTo(trieLogFixture.getAccountChanges());
+    assertThat(layer.getCodeChanges()).isEqualTo(trieLogFixture.getCodeChanges());
+    assertThat(layer.getStorageChanges()).isEqualTo(trieLogFixture.getStorageChanges());
+    assertThat(encoded.length).isLessThan(rlp.length);
+
+    assertThat(new BonsaiTrieLogFactory(true).deserialize(rlp)).isEqualTo(trieLogFixture);
+  }
+
+  @Test
+  public void testCompactEncodingLooksUpSingleEntriesAndStoresAccountDeltas() {
+    final PmtStateTrieAccountValue prior =
+        new PmtStateTrieAccountValue(1, Wei.fromEth(1), Hash.EMPTY_TRIE_HASH, Hash.EMPTY);
+    final PmtStateTrieAccountValue updated =
+        new PmtStateTrieAccountValue(2, Wei.fromEth(1), Hash.EMPTY_TRIE_HASH, Hash.EMPTY);
+    final TrieLogLayer trieLog =
+        new TrieLogLayer()
+            .setBlockHash(headerFixture.getBlockHash())
+            .addAccountChange(accountFixture, prior, updated)
+            .addStorageChange(
+                accountFixture, new StorageSlotKey(UInt256.ONE), UInt256.ONE, UInt256.ZERO);
+
+    final CompactTrieLog compact = CompactTrieLog.wrap(CompactTrieLog.encode(trieLog));
+
+    assertThat(compact.getPriorAccount(accountFixture)).contains(prior);
+    assertThat(compact.getAccount(accountFixture)).contains(updated);
+    assertThat(compact.getStorageByStorageSlotKey(accountFixture, new StorageSlotKey(UInt256.ONE)))
+        .contains(UInt256.ZERO);
+    assertThat(compact.getAccount(Address.ZERO)).isEmpty();
+    // only the fields that differ from the prior account are stored
+    final TrieLogLayer withNewStorageRoot =
+        new TrieLogLayer()
+            .setBlockHash(headerFixture.getBlockHash())
+            .addAccountChange(
+                accountFixture,
+                prior,
+                new PmtStateTrieAccountValue(2, Wei.fromEth(1), Hash.EMPTY, Hash.EMPTY))
+            .addStorageChange(
+                accountFixture, new StorageSlotKey(UInt256.ONE), UInt256.ONE, UInt256.ZERO);
+    assertThat(CompactTrieLog.encode(withNewStorageRoot).size() - compact.getEncoded().size())
+        .isEqualTo(32);
+  }
 }
@@ -15,6 +15,11 @@
 package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
@@ -96,6 +101,28 @@ class BonsaiCachedMerkleTrieLoaderTest {
         .isEqualTo(trie.get(hashAccountZero.getBytes()));
   }
 
+  @Test
+  void shouldReadAccountPathInOneBatchDuringPreload() {
+    merkleTrieLoader.cacheAccountNodes(
+        inMemoryWorldState, Hash.wrap(trie.getRootHash()), accounts.get(0));
+
+    verify(inMemoryWorldState, times(1)).getTrieNodesUnsafe(anyList());
+    verify(inMemoryWorldState, never()).getAccountStateTrieNode(any(), any());
+  }
+
+  @Test
+  void shouldNotReadAccountPathAgainWhenNodesAreCached() {
+    merkleTrieLoader.cacheAccountNodes(
+        inMemoryWorldState, Hash.wrap(trie.getRootHash()), accounts.get(0));
+    Mockito.clearInvocations(inMemoryWorldState);
+
+    merkleTrieLoader.cacheAccountNodes(
+        inMemoryWorldState, Hash.wrap(trie.getRootHash()), accounts.get(0));
+
+    verify(inMemoryWorldState, never()).getTrieNodesUnsafe(anyList());
+    verify(inMemoryWorldState, never()).getAccountStateTrieNode(any(), any());
+  }
+
   @Test
   void shouldAddStorageNodesInCacheDuringPreload() {
     final Hash hashAccountZero = accounts.get(0).addressHash();
@@ -0,0 +1,98 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.accumulator.preload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+class TrieNodeCacheTest {
+
+  private final Map<String, Long> hits = new HashMap<>();
+  private final Map<String, Long> misses = new HashMap<>();
+
+  private final TrieNodeCache cache =
+      new TrieNodeCache(1024 * 1024, 2, recording(hits), recording(misses), "account");
+
+  @Test
+  void countsHitsAndMissesByDepth() {
+    final Bytes node = Bytes.fromHexString("0xc20102");
+    final Bytes32 nodeHash = Bytes32.wrap(Hash.hash(node).getBytes());
+    final Bytes location = Bytes.of(1, 2, 3);
+
+    assertThat(cache.get(location, nodeHash)).isEmpty();
+    cache.put(location, nodeHash, node);
+    assertThat(cache.get(location, nodeHash)).contains(node);
+    assertThat(cache.get(location, nodeHash)).contains(node);
+
+    assertThat(hits).containsEntry("account:3", 2L);
+    assertThat(misses).containsEntry("account:3", 1L);
+    assertThat(hits).containsEntry("account:0", 0L);
+  }
+
+  @Test
+  void capsDepthLabelForDeepNodes() {
+    final Bytes location = Bytes.wrap(new byte[TrieNodeCache.MAX_DEPTH_LABEL + 5]);
+
+    assertThat(cache.get(location, Bytes32.ZERO)).isEmpty();
+
+    assertThat(misses).containsEntry("account:" + TrieNodeCache.MAX_DEPTH_LABEL, 1L);
+  }
+
+  @Test
+  void keepsPinnedAndLowerNodesApartAndCountsTheirBytes() {
+    final Bytes rootNode = Bytes.fromHexString("0xc28080");
+    final Bytes leafNode = Bytes.fromHexString("0xc3820102");
+    final Bytes32 rootHash = Bytes32.wrap(Hash.hash(rootNode).getBytes());
+    final Bytes32 leafHash = Bytes32.wrap(Hash.hash(leafNode).getBytes());
+
+    cache.put(Bytes.EMPTY, rootHash, rootNode);
+    cache.put(Bytes.of(1, 2, 3, 4), leafHash, leafNode);
+
+    assertThat(cache.get(Bytes.EMPTY, rootHash)).contains(rootNode);
+    assertThat(cache.get(Bytes.of(1, 2, 3, 4), leafHash)).contains(leafNode);
+    // a node is only looked up in the tier of its depth
+    assertThat(cache.get(Bytes.of(1, 2, 3, 4), rootHash)).isEmpty();
+    assertThat(cache.weightedSize())
+        .isGreaterThanOrEqualTo(2L * Bytes32.SIZE + rootNode.size() + leafNode.size());
+  }
+
+  private static LabelledMetric<Counter> recording(final Map<String, Long> counts) {
+    return labels -> {
+      final String key = String.join(":", labels);
+      counts.put(key, 0L);
+      return new Counter() {
+        @Override
+        public void inc() {
+          inc(1);
+        }
+
+        @Override
+        public void inc(final long amount) {
+          counts.merge(key, amount, Long::sum);
+        }
+      };
+    };
+  }
+}
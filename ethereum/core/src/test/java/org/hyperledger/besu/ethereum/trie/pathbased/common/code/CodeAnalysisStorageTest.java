@@ -0,0 +1,158 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.code;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CodeAnalysisStorageTest {
+
+  // PUSH1 10, JUMPDEST, PUSH1 1, SWAP1, SUB, DUP1, PUSH1 2, JUMPI, STOP
+  private static final Bytes LOOP = Bytes.fromHexString("0x600a5b600190038060025700");
+  private static final Hash LOOP_HASH = Hash.hash(LOOP);
+
+  private InMemoryKeyValueStorage keyValueStorage;
+  private CodeAnalysisStorage storage;
+
+  @BeforeEach
+  void setUp() {
+    keyValueStorage = new InMemoryKeyValueStorage();
+    storage = new CodeAnalysisStorage(keyValueStorage);
+  }
+
+  @Test
+  void roundTripsAnalysis() {
+    final Code analysed = analysedLoop();
+    assertThat(storage.store(List.of(Map.entry(LOOP_HASH, analysed)))).isEqualTo(1);
+
+    final Code restored = new Code(LOOP);
+    assertThat(storage.loadInto(LOOP_HASH, restored)).isTrue();
+
+    assertThat(restored.getJumpDestBitMask()).isEqualTo(analysed.getJumpDestBitMask());
+  }
+
+  @Test
+  void analysesCodeThatHasNotRunWhenStoring() {
+    final Code notRun = new Code(LOOP);
+    assertThat(storage.store(List.of(Map.entry(LOOP_HASH, notRun)))).isEqualTo(1);
+    assertThat(notRun.getJumpDestBitMask()).isNull();
+
+    final Code restored = new Code(LOOP);
+    assertThat(storage.loadInto(LOOP_HASH, restored)).isTrue();
+    assertThat(restored.getJumpDestBitMask()).isEqualTo(analysedLoop().getJumpDestBitMask());
+  }
+
+  @Test
+  void ignoresBitmaskMarkingNonJumpDest() {
+    final Bytes encoded = CodeAnalysisStorage.encode(analysedLoop());
+    // the first byte of the bitmask sits at the end of the value; also mark pc 0 (PUSH1)
+    final byte[] tampered = encoded.toArray();
+    tampered[tampered.length - 1] |= 1;
+    final KeyValueStorageTransaction transaction = keyValueStorage.startTransaction();
+    transaction.put(LOOP_HASH.getBytes().toArrayUnsafe(), tampered);
+    transaction.commit();
+
+    final Code code = new Code(LOOP);
+    assertThat(storage.loadInto(LOOP_HASH, code)).isFalse();
+    assertThat(code.getJumpDestBitMask()).isNull();
+  }
+
+  @Test
+  void ignoresBitmaskMarkingJumpDestInPushData() {
+    // PUSH1 0x5b, JUMPDEST, STOP: only pc 2 is a jump destination
+    final Bytes pushData = Bytes.fromHexString("0x605b5b00");
+    final Hash pushDataHash = Hash.hash(pushData);
+    storeTampered(pushDataHash, new Code(pushData), 0x02);
+
+    final Code code = new Code(pushData);
+    assertThat(storage.loadInto(pushDataHash, code)).isFalse();
+    assertThat(code.getJumpDestBitMask()).isNull();
+  }
+
+  @Test
+  void ignoresBitmaskMissingJumpDest() {
+    // clears the bit of the JUMPDEST at pc 2
+    storeTampered(LOOP_HASH, analysedLoop(), 0x04);
+
+    final Code code = new Code(LOOP);
+    assertThat(storage.loadInto(LOOP_HASH, code)).isFalse();
+    assertThat(code.getJumpDestBitMask()).isNull();
+  }
+
+  @Test
+  void ignoresAnalysisOfDifferentCode() {
+    storage.store(List.of(Map.entry(LOOP_HASH, analysedLoop())));
+
+    final Code other = new Code(Bytes.fromHexString("0x5b00"));
+    assertThat(storage.loadInto(LOOP_HASH, other)).isFalse();
+    assertThat(other.getJumpDestBitMask()).isNull();
+  }
+
+  @Test
+  void ignoresUnknownFormatVersion() {
+    final Bytes encoded = CodeAnalysisStorage.encode(analysedLoop());
+    final Bytes unknownVersion =
+        Bytes.concatenate(Bytes.of(CodeAnalysisStorage.FORMAT_VERSION + 1), encoded.slice(1));
+    final KeyValueStorageTransaction transaction = keyValueStorage.startTransaction();
+    transaction.put(LOOP_HASH.getBytes().toArrayUnsafe(), unknownVersion.toArrayUnsafe());
+    transaction.commit();
+
+    assertThat(storage.loadInto(LOOP_HASH, new Code(LOOP))).isFalse();
+  }
+
+  @Test
+  void codeCacheReloadsAnalysisAfterRestart() {
+    final PathBasedCodeCache beforeRestart = new PathBasedCodeCache();
+    beforeRestart.setAnalysisStorage(storage, MoreExecutors.newDirectExecutorService());
+    final Code code = new Code(LOOP, LOOP_HASH);
+    beforeRestart.put(LOOP_HASH, code);
+    // shutting down writes the pending analysis, even though the code never ran
+    beforeRestart.close();
+
+    final PathBasedCodeCache afterRestart = new PathBasedCodeCache();
+    afterRestart.setAnalysisStorage(storage, MoreExecutors.newDirectExecutorService());
+    final Code reloaded = new Code(LOOP, LOOP_HASH);
+    afterRestart.put(LOOP_HASH, reloaded);
+
+    assertThat(reloaded.getJumpDestBitMask()).isEqualTo(analysedLoop().getJumpDestBitMask());
+  }
+
+  private void storeTampered(final Hash codeHash, final Code code, final int flippedBits) {
+    // the first byte of the bitmask sits at the end of the value
+    final byte[] tampered = CodeAnalysisStorage.encode(code).toArray();
+    tampered[tampered.length - 1] ^= (byte) flippedBits;
+    final KeyValueStorageTransaction transaction = keyValueStorage.startTransaction();
+    transaction.put(codeHash.getBytes().toArrayUnsafe(), tampered);
+    transaction.commit();
+  }
+
+  private static Code analysedLoop() {
+    final Code code = new Code(LOOP);
+    code.isJumpDestInvalid(2);
+    return code;
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.storage.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_STORAGE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.CODE_STORAGE;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OffHeapFlatDbCacheManagerTest {
+
+  private OffHeapFlatDbCacheManager cacheManager;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager = new OffHeapFlatDbCacheManager(1 << 20, 1, 1, new NoOpMetricsSystem());
+  }
+
+  @AfterEach
+  void tearDown() {
+    cacheManager.close();
+  }
+
+  @Test
+  void readsAreServedFromCacheOnlyForReadersAtOrAfterTheWriterVersion() {
+    final Bytes key = Hash.hash(Bytes.of(1)).getBytes();
+    final long version = cacheManager.incrementAndGetVersion();
+    cacheManager.putInCache(ACCOUNT_INFO_STATE, key, Bytes.of(1, 2, 3), version);
+
+    final AtomicInteger storageReads = new AtomicInteger();
+    assertThat(
+            cacheManager.getFromCacheOrStorage(
+                ACCOUNT_INFO_STATE,
+                key,
+                version,
+                () -> {
+                  storageReads.incrementAndGet();
+                  return Optional.empty();
+                }))
+        .contains(Bytes.of(1, 2, 3));
+    assertThat(storageReads).hasValue(0);
+
+    assertThat(
+            cacheManager.getFromCacheOrStorage(
+                ACCOUNT_INFO_STATE,
+                key,
+                version - 1,
+                () -> {
+                  storageReads.incrementAndGet();
+                  return Optional.of(Bytes.of(9));
+                }))
+        .contains(Bytes.of(9));
+    assertThat(storageReads).hasValue(1);
+  }
+
+  @Test
+  void olderWritesDoNotReplaceNewerEntries() {
+    final Bytes key =
+        Bytes.concatenate(Hash.hash(Bytes.of(1)).getBytes(), Hash.hash(Bytes.of(2)).getBytes());
+    cacheManager.putInCache(ACCOUNT_STORAGE_STORAGE, key, Bytes.of(2), 2);
+    cacheManager.putInCache(ACCOUNT_STORAGE_STORAGE, key, Bytes.of(1), 1);
+    cacheManager.removeFromCache(ACCOUNT_STORAGE_STORAGE, key, 2);
+
+    assertThat(cacheManager.getCachedValue(ACCOUNT_STORAGE_STORAGE, key))
+        .hasValueSatisfying(
+            value -> {
+              assertThat(value.getVersion()).isEqualTo(2);
+              assertThat(value.isRemoval()).isFalse();
+              assertThat(value.getValue()).isEqualTo(Bytes.of(2));
+            });
+
+    cacheManager.removeFromCache(ACCOUNT_STORAGE_STORAGE, key, 3);
+    assertThat(cacheManager.getFromCacheOrStorage(ACCOUNT_STORAGE_STORAGE, key, 3, Optional::empty))
+        .isEmpty();
+    assertThat(cacheManager.getCacheSize(ACCOUNT_STORAGE_STORAGE)).isEqualTo(1);
+  }
+
+  @Test
+  void missesAreCachedOnlyAtTheCurrentVersion() {
+    final Bytes key = Hash.hash(Bytes.of(1)).getBytes();
+    cacheManager.incrementAndGetVersion();
+
+    cacheManager.getFromCacheOrStorage(ACCOUNT_INFO_STATE, key, 0, () -> Optional.of(Bytes.of(1)));
+    assertThat(cacheManager.isCached(ACCOUNT_INFO_STATE, key)).isFalse();
+
+    cacheManager.getFromCacheOrStorage(ACCOUNT_INFO_STATE, key, 1, () -> Optional.of(Bytes.of(1)));
+    assertThat(cacheManager.isCached(ACCOUNT_INFO_STATE, key)).isTrue();
+  }
+
+  @Test
+  void valuesLargerThanASlotInvalidateOlderEntries() {
+    final Bytes key = Hash.hash(Bytes.of(1)).getBytes();
+    cacheManager.putInCache(ACCOUNT_INFO_STATE, key, Bytes.of(1), 1);
+    cacheManager.putInCache(
+        ACCOUNT_INFO_STATE,
+        key,
+        Bytes.wrap(new byte[OffHeapFlatDbCacheManager.ACCOUNT_VALUE_CAPACITY + 1]),
+        2);
+
+    assertThat(cacheManager.isCached(ACCOUNT_INFO_STATE, key)).isFalse();
+    assertThat(cacheManager.getCacheSize(ACCOUNT_INFO_STATE)).isZero();
+  }
+
+  @Test
+  void fullBucketsEvictInsteadOfGrowing() {
+    for (int i = 0; i < 100_000; i++) {
+      cacheManager.putInCache(
+          ACCOUNT_INFO_STATE, Hash.hash(Bytes.ofUnsignedInt(i)).getBytes(), Bytes.of(1), 1);
+    }
+
+    final long maxSlots =
+        (1 << 20)
+            / OffHeapFlatDbCacheManager.OffHeapTable.slotSize(
+                OffHeapFlatDbCacheManager.ACCOUNT_KEY_CAPACITY,
+                OffHeapFlatDbCacheManager.ACCOUNT_VALUE_CAPACITY);
+    assertThat(cacheManager.getCacheSize(ACCOUNT_INFO_STATE)).isPositive();
+    assertThat(cacheManager.getCacheSize(ACCOUNT_INFO_STATE)).isLessThan(maxSlots);
+  }
+
+  @Test
+  void clearAndUnsupportedSegments() {
+    final Bytes key = Hash.hash(Bytes.of(1)).getBytes();
+    cacheManager.putInCache(ACCOUNT_INFO_STATE, key, Bytes.of(1), 1);
+    cacheManager.putInCache(CODE_STORAGE, key, Bytes.of(1), 1);
+
+    assertThat(cacheManager.isCached(CODE_STORAGE, key)).isFalse();
+    assertThat(cacheManager.isCached(ACCOUNT_INFO_STATE, key)).isTrue();
+
+    cacheManager.clear(ACCOUNT_INFO_STATE);
+    assertThat(cacheManager.isCached(ACCOUNT_INFO_STATE, key)).isFalse();
+    assertThat(cacheManager.getCacheSize(ACCOUNT_INFO_STATE)).isZero();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.trielog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.BonsaiTrieLogFactory;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+class TrieLogCompactorTest {
+
+  private static final Address ADDRESS = Address.fromHexString("0x01");
+  private static final StorageSlotKey SLOT = new StorageSlotKey(UInt256.ONE);
+
+  private final BonsaiTrieLogFactory trieLogFactory = new BonsaiTrieLogFactory();
+
+  @Test
+  void mergeKeepsEarliestPriorAndLatestUpdatedValue() {
+    final PmtStateTrieAccountValue created =
+        new PmtStateTrieAccountValue(0, Wei.ONE, Hash.EMPTY_TRIE_HASH, Hash.EMPTY);
+    final PmtStateTrieAccountValue updated =
+        new PmtStateTrieAccountValue(1, Wei.ONE, Hash.EMPTY_TRIE_HASH, Hash.EMPTY);
+
+    final TrieLogLayer first = new TrieLogLayer();
+    first.addAccountChange(ADDRESS, null, created);
+    first.addStorageChange(ADDRESS, SLOT, null, UInt256.ONE);
+    final TrieLogLayer second = new TrieLogLayer();
+    second.addAccountChange(ADDRESS, created, updated);
+    second.addStorageChange(ADDRESS, SLOT, UInt256.ONE, UInt256.valueOf(2));
+
+    final TrieLogLayer merged = TrieLogCompactor.merge(List.of(first, second));
+
+    assertThat(merged.getPriorAccount(ADDRESS)).isEmpty();
+    assertThat(merged.getAccount(ADDRESS)).contains(updated);
+    assertThat(merged.getPriorStorageByStorageSlotKey(ADDRESS, SLOT)).isEmpty();
+    assertThat(merged.getStorageByStorageSlotKey(ADDRESS, SLOT)).contains(UInt256.valueOf(2));
+  }
+
+  @Test
+  void compactsSettledRangeFromPerBlockTrieLogs() {
+    final BonsaiWorldStateKeyValueStorage storage =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+    final int span = TrieLogCompactor.RANGE_SPANS[0];
+    final List<BlockHeader> headers = buildChain(span);
+    final var updater = storage.updater();
+    for (int i = 1; i <= span; i++) {
+      final TrieLogLayer layer = new TrieLogLayer();
+      layer.addStorageChange(ADDRESS, SLOT, UInt256.valueOf(i - 1), UInt256.valueOf(i));
+      layer.setBlockHash(headers.get(i).getBlockHash()).setBlockNumber(i);
+      updater
+          .getTrieLogStorageTransaction()
+          .put(
+              headers.get(i).getBlockHash().getBytes().toArrayUnsafe(),
+              trieLogFactory.serialize(layer));
+    }
+    updater.commitTrieLogOnly();
+
+    final Blockchain blockchain = blockchainOf(headers);
+    new TrieLogCompactor(storage, blockchain, trieLogFactory, Runnable::run).compact(span);
+
+    final Hash endHash = headers.get(span).getBlockHash();
+    final Optional<TrieLog> range =
+        storage.getTrieLogRange(endHash, span).map(trieLogFactory::deserialize);
+    assertThat(range).isPresent();
+    assertThat(range.get().getBlockHash()).isEqualTo(endHash);
+    assertThat(range.get().getPriorStorageByStorageSlotKey(ADDRESS, SLOT)).contains(UInt256.ZERO);
+    assertThat(range.get().getStorageByStorageSlotKey(ADDRESS, SLOT))
+        .contains(UInt256.valueOf(span));
+
+    // range trie logs are not reported as per-block trie logs
+    assertThat(storage.streamTrieLogKeys(span + 1)).hasSize(span);
+  }
+
+  private static List<BlockHeader> buildChain(final int length) {
+    final List<BlockHeader> headers = new ArrayList<>();
+    Hash parentHash = Hash.ZERO;
+    for (int i = 0; i <= length; i++) {
+      final BlockHeader header =
+          new BlockHeaderTestFixture().number(i).parentHash(parentHash).buildHeader();
+      headers.add(header);
+      parentHash = header.getBlockHash();
+    }
+    return headers;
+  }
+
+  private static Blockchain blockchainOf(final List<BlockHeader> headers) {
+    final Map<Hash, BlockHeader> byHash = new HashMap<>();
+    headers.forEach(header -> byHash.put(header.getBlockHash(), header));
+    final Blockchain blockchain = mock(Blockchain.class);
+    when(blockchain.getBlockHeader(anyLong()))
+        .thenAnswer(invocation -> Optional.of(headers.get((int) (long) invocation.getArgument(0))));
+    when(blockchain.getBlockHeader(any(Hash.class)))
+        .thenAnswer(invocation -> Optional.ofNullable(byHash.get(invocation.getArgument(0))));
+    return blockchain;
+  }
+}
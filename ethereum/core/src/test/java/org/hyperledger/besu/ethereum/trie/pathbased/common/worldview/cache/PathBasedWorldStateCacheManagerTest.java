@@ -15,15 +15,21 @@
 package org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.cache;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateLayerStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.PathBasedWorldStateProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -113,6 +119,47 @@ class PathBasedWorldStateCacheManagerTest {
                     .isPresent());
   }
 
+  @Test
+  void nonHeadLayerIsSharedAndClosesOnlyWithItsLastOverlay() {
+    final BonsaiWorldStateKeyValueStorage head =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+    final BonsaiWorldStateLayerStorage layer = new BonsaiWorldStateLayerStorage(head);
+    final PathBasedWorldStateKeyValueStorage[] current = {layer};
+    final PathBasedWorldState ws = Mockito.mock(PathBasedWorldState.class);
+    Mockito.when(ws.isModifyingHeadWorldState()).thenReturn(false);
+    Mockito.when(ws.getWorldStateStorage()).thenAnswer(invocation -> current[0]);
+    Mockito.doAnswer(invocation -> current[0] = invocation.getArgument(0))
+        .when(ws)
+        .rebaseOnSharedLayer(Mockito.any());
+
+    final Hash account = Hash.hash(Bytes.of(1));
+    layer.updater().putAccountInfoState(account, Bytes.of(1)).commit();
+    cacheManager.addCachedLayer(headers[1], headers[1].getStateRoot(), ws);
+
+    // the cached block is the sealed layer itself, and the world state goes on above it
+    assertThat(cacheManager.getStorageByRootHash(headers[1].getStateRoot())).containsSame(layer);
+    assertThatThrownBy(layer::updater).isInstanceOf(IllegalStateException.class);
+    final BonsaiWorldStateLayerStorage overlay = (BonsaiWorldStateLayerStorage) current[0];
+    assertThat(overlay).isNotSameAs(layer);
+    overlay.updater().putAccountInfoState(account, Bytes.of(2)).commit();
+    assertThat(layer.getAccount(account)).contains(Bytes.of(1));
+    assertThat(overlay.getAccount(account)).contains(Bytes.of(2));
+
+    for (int i = 2; i <= BLOCK_COUNT; i++) {
+      cacheManager.addCachedLayer(headers[i], headers[i].getStateRoot(), worldStates[i]);
+    }
+
+    // evicted, but the overlay still reads through the layer
+    assertThat(cacheManager.getStorageByRootHash(headers[1].getStateRoot())).isEmpty();
+    assertThat(layer.getAccount(account)).contains(Bytes.of(1));
+
+    overlay.close();
+    assertThat(layer.getAccount(account)).isEmpty();
+  }
+
   private static Hash uniqueStateRoot(final long blockNumber) {
     return Hash.wrap(Bytes32.leftPad(Bytes.ofUnsignedLong(blockNumber)));
   }
@@ -141,7 +188,8 @@ class PathBasedWorldStateCacheManagerTest {
     @Override
     public PathBasedWorldStateKeyValueStorage createLayeredKeyValueStorage(
         final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage) {
-      throw new UnsupportedOperationException();
+      return new BonsaiWorldStateLayerStorage(
+          (BonsaiWorldStateKeyValueStorage) worldStateKeyValueStorage);
     }
 
     @Override
@@ -18,6 +18,7 @@ import static org.hyperledger.besu.ethereum.eth.sync.StorageExceptionManager.can
 import static org.hyperledger.besu.ethereum.eth.sync.StorageExceptionManager.errorCountAtThreshold;
 import static org.hyperledger.besu.ethereum.eth.sync.StorageExceptionManager.getRetryableErrorCounter;
 
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.SnapDataRequest;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.SnapRequestContext;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.heal.TrieNodeHealingRequest;
@@ -28,6 +29,8 @@ import org.hyperledger.besu.plugin.services.storage.WorldStateKeyValueStorage;
 import org.hyperledger.besu.services.tasks.Task;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -42,19 +45,41 @@ public class PersistDataStep {
 
   private final SnapSyncConfiguration snapSyncConfiguration;
 
+  private final Optional<EthScheduler> maybeScheduler;
+
   public PersistDataStep(
       final SnapSyncProcessState snapSyncState,
       final WorldStateStorageCoordinator worldStateStorageCoordinator,
       final SnapRequestContext downloadState,
       final SnapSyncConfiguration snapSyncConfiguration) {
+    this(
+        snapSyncState,
+        worldStateStorageCoordinator,
+        downloadState,
+        snapSyncConfiguration,
+        Optional.empty());
+  }
+
+  /**
+   * @param maybeScheduler when present, the tries of the ranges in a batch are built in parallel on
+   *     its computation workers before being written in order on the pipeline thread
+   */
+  public PersistDataStep(
+      final SnapSyncProcessState snapSyncState,
+      final WorldStateStorageCoordinator worldStateStorageCoordinator,
+      final SnapRequestContext downloadState,
+      final SnapSyncConfiguration snapSyncConfiguration,
+      final Optional<EthScheduler> maybeScheduler) {
     this.snapSyncState = snapSyncState;
     this.worldStateStorageCoordinator = worldStateStorageCoordinator;
     this.downloadState = downloadState;
     this.snapSyncConfiguration = snapSyncConfiguration;
+    this.maybeScheduler = maybeScheduler;
   }
 
   public List<Task<SnapDataRequest>> persist(final List<Task<SnapDataRequest>> tasks) {
     try {
+      prepareForPersist(tasks);
       final WorldStateKeyValueStorage.Updater updater = worldStateStorageCoordinator.updater();
       for (Task<SnapDataRequest> task : tasks) {
         if (task.getData().isResponseReceived()) {
@@ -138,6 +163,46 @@ public class PersistDataStep {
     return tasks;
   }
 
+  /**
+   * Builds the tries of the received ranges of a batch ahead of persisting them. Each request owns
+   * its own stack trie, so storage ranges of different accounts and disjoint account ranges are
+   * built independently; the writes themselves still go through the single batch updater in order.
+   * A request whose preparation fails is simply built again, and fails, while being persisted.
+   */
+  private void prepareForPersist(final List<Task<SnapDataRequest>> tasks) {
+    final List<SnapDataRequest> requests =
+        tasks.stream().map(Task::getData).filter(SnapDataRequest::isResponseReceived).toList();
+    if (maybeScheduler.isEmpty() || requests.size() < 2) {
+      requests.forEach(this::prepareForPersist);
+      return;
+    }
+    CompletableFuture.allOf(
+            requests.stream()
+                .map(
+                    request ->
+                        maybeScheduler
+                            .get()
+                            .scheduleComputationTask(
+                                () -> {
+                                  prepareForPersist(request);
+                                  return null;
+                                }))
+                .toArray(CompletableFuture[]::new))
+        .join();
+  }
+
+  private void prepareForPersist(final SnapDataRequest request) {
+    try {
+      request.prepareForPersist(downloadState);
+    } catch (final RuntimeException e) {
+      LOG.atDebug()
+          .setMessage("unable to prepare {} for persist, it will be built while persisting: {}")
+          .addArgument(request::getRequestType)
+          .addArgument(e::getMessage)
+          .log();
+    }
+  }
+
   public Task<SnapDataRequest> persist(final Task<SnapDataRequest> task) {
     return persist(List.of(task)).get(0);
   }
@@ -21,6 +21,8 @@ import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.trie.RangeManager;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -74,6 +76,9 @@ public class SnapSyncMetricsManager {
   /** Represents the number of trie nodes healed during the healing process. */
   private final AtomicLong nbTrieNodesHealed;
 
+  /** Time spent rebuilding the trie of a downloaded range, labelled by request type. */
+  private final LabelledMetric<OperationTimer> rangeBuildTimer;
+
   private long startSyncTime;
 
   private final Map<Bytes32, BigInteger> lastRangeIndex = new HashMap<>();
@@ -126,6 +131,12 @@ public class SnapSyncMetricsManager {
         "snap_world_state_codes_total",
         "Total number of codes downloaded as part of snap sync world state",
         nbCodes::get);
+    rangeBuildTimer =
+        metricsSystem.createLabelledTimer(
+            BesuMetricCategory.SYNCHRONIZER,
+            "snap_world_state_range_build_time",
+            "Time spent rebuilding the trie of a downloaded account or storage range",
+            "type");
   }
 
   public void initRange(final Map<Bytes32, Bytes32> ranges) {
@@ -154,6 +165,10 @@ public class SnapSyncMetricsManager {
     }
   }
 
+  public OperationTimer.TimingContext startRangeBuildTimer(final RequestType requestType) {
+    return rangeBuildTimer.labels(requestType.name()).startTimer();
+  }
+
   public void notifyAccountsDownloaded(final long nbAccounts) {
     this.nbAccountsDownloaded.getAndAdd(nbAccounts);
   }
@@ -275,8 +275,11 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
                   "batchDownloadAccountData",
                   requestTask -> requestDataStep.requestAccount(requestTask),
                   maxOutstandingRequests)
-              .thenProcess("batchPersistAccountData", task -> persistDataStep.persist(task))
-              .andFinishWith("batchAccountDataDownloaded", requestsToComplete::put);
+              // group the ranges already downloaded so that their tries are built in parallel
+              .inBatches(maxOutstandingRequests)
+              .thenProcess("batchPersistAccountData", tasks -> persistDataStep.persist(tasks))
+              .andFinishWith(
+                  "batchAccountDataDownloaded", tasks -> tasks.forEach(requestsToComplete::put));
 
       final Pipeline<Task<SnapDataRequest>> fetchStorageDataPipeline =
           createPipelineFrom(
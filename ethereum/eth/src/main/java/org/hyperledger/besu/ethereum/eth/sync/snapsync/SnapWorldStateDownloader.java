@@ -247,7 +247,8 @@ public class SnapWorldStateDownloader implements WorldStateDownloader {
                       snapSyncState,
                       worldStateStorageCoordinator,
                       newDownloadState,
-                      snapSyncConfiguration))
+                      snapSyncConfiguration,
+                      Optional.of(ethContext.getScheduler())))
               .completeTaskStep(maybeCompleteTask.get())
               .downloadState(newDownloadState)
               .fastSyncState(snapSyncState)
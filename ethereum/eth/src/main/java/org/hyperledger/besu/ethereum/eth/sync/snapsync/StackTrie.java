@@ -54,6 +54,7 @@ public class StackTrie {
   private final Bytes32 startKeyHash;
   private Map<Bytes32, TaskElement> elements;
   private AtomicLong elementsCount;
+  private PreparedCommit preparedCommit;
 
   public StackTrie(final Hash rootHash, final Bytes32 startKeyHash) {
     this(rootHash, 1, 1, startKeyHash);
@@ -77,12 +78,14 @@ public class StackTrie {
       final List<Bytes> proofs,
       final NavigableMap<Bytes32, Bytes> keys) {
     this.elementsCount.addAndGet(keys.size());
+    this.preparedCommit = null;
     this.elements.put(
         taskIdentifier, ImmutableTaskElement.builder().proofs(proofs).keys(keys).build());
   }
 
   public void removeElement(final Bytes32 taskIdentifier) {
     if (this.elements.containsKey(taskIdentifier)) {
+      this.preparedCommit = null;
       this.elementsCount.addAndGet(-this.elements.remove(taskIdentifier).keys().size());
     }
   }
@@ -105,66 +108,100 @@ public class StackTrie {
       final boolean includeHealNeededNodes) {
 
     if (nbSegments.decrementAndGet() <= 0 && !elements.isEmpty()) {
+      final PreparedCommit prepared = preparedCommit;
+      preparedCommit = null;
+      if (prepared != null && prepared.includeHealNeededNodes() == includeHealNeededNodes) {
+        prepared.replay(flatDatabaseUpdater, nodeUpdater);
+      } else {
+        build(flatDatabaseUpdater, nodeUpdater, includeHealNeededNodes);
+      }
+    }
+  }
 
-      final List<Bytes> proofs = new ArrayList<>();
-      final TreeMap<Bytes32, Bytes> keys = new TreeMap<>();
+  /**
+   * Builds the trie of the next commit ahead of time, without touching any storage. The resulting
+   * flat entries and nodes are buffered and written by {@link #commit} on the persisting thread, so
+   * the tries of independent ranges can be built concurrently while writes stay in order. Does
+   * nothing if the next commit is not the one that will build the trie.
+   *
+   * @param includeHealNeededNodes whether the commit will include the nodes that need healing
+   */
+  public void prepareCommit(final boolean includeHealNeededNodes) {
+    if (nbSegments.get() > 1 || elements.isEmpty()) {
+      return;
+    }
+    final PreparedCommit prepared = new PreparedCommit(includeHealNeededNodes);
+    build(prepared.flatEntries()::put, prepared::addNode, includeHealNeededNodes);
+    preparedCommit = prepared;
+  }
 
-      elements
-          .values()
-          .forEach(
-              taskElement -> {
-                proofs.addAll(taskElement.proofs());
-                keys.putAll(taskElement.keys());
-              });
+  public boolean isCommitPrepared() {
+    return preparedCommit != null;
+  }
 
-      if (keys.isEmpty()) {
-        return; // empty range we can ignore it
-      }
+  private void build(
+      final FlatDatabaseUpdater flatDatabaseUpdater,
+      final NodeUpdater nodeUpdater,
+      final boolean includeHealNeededNodes) {
+    final List<Bytes> proofs = new ArrayList<>();
+    final TreeMap<Bytes32, Bytes> keys = new TreeMap<>();
+
+    elements
+        .values()
+        .forEach(
+            taskElement -> {
+              proofs.addAll(taskElement.proofs());
+              keys.putAll(taskElement.keys());
+            });
+
+    if (keys.isEmpty()) {
+      return; // empty range we can ignore it
+    }
+
+    final Map<Bytes32, Bytes> proofsEntries = new HashMap<>();
+    for (Bytes proof : proofs) {
+      proofsEntries.put(Bytes32.wrap(Hash.hash(proof).getBytes()), proof);
+    }
+
+    if (!keys.isEmpty()) {
+      final InnerNodeDiscoveryManager<Bytes> snapStoredNodeFactory =
+          new InnerNodeDiscoveryManager<>(
+              (location, hash) -> Optional.ofNullable(proofsEntries.get(hash)),
+              Function.identity(),
+              Function.identity(),
+              startKeyHash,
+              proofs.isEmpty() ? RangeManager.MAX_RANGE : keys.lastKey(),
+              true);
 
-      final Map<Bytes32, Bytes> proofsEntries = new HashMap<>();
-      for (Bytes proof : proofs) {
-        proofsEntries.put(Bytes32.wrap(Hash.hash(proof).getBytes()), proof);
+      final MerkleTrie<Bytes, Bytes> trie =
+          new StoredMerklePatriciaTrie<>(
+              snapStoredNodeFactory,
+              proofs.isEmpty() ? MerkleTrie.EMPTY_TRIE_NODE_HASH : rootHash);
+
+      for (Map.Entry<Bytes32, Bytes> entry : keys.entrySet()) {
+        trie.put(entry.getKey(), entry.getValue());
       }
 
-      if (!keys.isEmpty()) {
-        final InnerNodeDiscoveryManager<Bytes> snapStoredNodeFactory =
-            new InnerNodeDiscoveryManager<>(
-                (location, hash) -> Optional.ofNullable(proofsEntries.get(hash)),
-                Function.identity(),
-                Function.identity(),
-                startKeyHash,
-                proofs.isEmpty() ? RangeManager.MAX_RANGE : keys.lastKey(),
-                true);
-
-        final MerkleTrie<Bytes, Bytes> trie =
-            new StoredMerklePatriciaTrie<>(
-                snapStoredNodeFactory,
-                proofs.isEmpty() ? MerkleTrie.EMPTY_TRIE_NODE_HASH : rootHash);
-
-        for (Map.Entry<Bytes32, Bytes> entry : keys.entrySet()) {
-          trie.put(entry.getKey(), entry.getValue());
-        }
-
-        keys.forEach(flatDatabaseUpdater::update);
-
-        trie.commit(
-            nodeUpdater,
-            (new SnapCommitVisitor<>(
-                nodeUpdater,
-                startKeyHash,
-                proofs.isEmpty() ? RangeManager.MAX_RANGE : keys.lastKey()) {
-              @Override
-              public void maybeStoreNode(final Bytes location, final Node<Bytes> node) {
-                if (!node.isHealNeeded() || includeHealNeededNodes) {
-                  super.maybeStoreNode(location, node);
-                }
+      keys.forEach(flatDatabaseUpdater::update);
+
+      trie.commit(
+          nodeUpdater,
+          (new SnapCommitVisitor<>(
+              nodeUpdater,
+              startKeyHash,
+              proofs.isEmpty() ? RangeManager.MAX_RANGE : keys.lastKey()) {
+            @Override
+            public void maybeStoreNode(final Bytes location, final Node<Bytes> node) {
+              if (!node.isHealNeeded() || includeHealNeededNodes) {
+                super.maybeStoreNode(location, node);
               }
-            }));
-      }
+            }
+          }));
     }
   }
 
   public void clear() {
+    this.preparedCommit = null;
     this.elements = new LinkedHashMap<>();
     this.elementsCount = new AtomicLong();
   }
@@ -187,6 +224,25 @@ public class StackTrie {
     void update(final Bytes32 key, final Bytes value);
   }
 
+  private record PreparedCommit(
+      boolean includeHealNeededNodes, Map<Bytes32, Bytes> flatEntries, List<StoredNode> nodes) {
+
+    PreparedCommit(final boolean includeHealNeededNodes) {
+      this(includeHealNeededNodes, new LinkedHashMap<>(), new ArrayList<>());
+    }
+
+    void addNode(final Bytes location, final Bytes32 hash, final Bytes value) {
+      nodes.add(new StoredNode(location, hash, value));
+    }
+
+    void replay(final FlatDatabaseUpdater flatDatabaseUpdater, final NodeUpdater nodeUpdater) {
+      flatEntries.forEach(flatDatabaseUpdater::update);
+      nodes.forEach(node -> nodeUpdater.store(node.location(), node.hash(), node.value()));
+    }
+  }
+
+  private record StoredNode(Bytes location, Bytes32 hash, Bytes value) {}
+
   @Value.Immutable
   public abstract static class TaskElement {
 
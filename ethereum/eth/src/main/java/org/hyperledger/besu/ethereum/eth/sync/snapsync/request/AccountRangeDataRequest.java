@@ -34,6 +34,7 @@ import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.worldstate.FlatDbMode;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorageCoordinator;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.plugin.services.storage.WorldStateKeyValueStorage;
 
 import java.util.ArrayList;
@@ -103,6 +104,17 @@ public class AccountRangeDataRequest extends SnapDataRequest {
         Optional.of(endStorageRange));
   }
 
+  @Override
+  public void prepareForPersist(final SnapRequestContext downloadState) {
+    if (startStorageRange.isPresent() && endStorageRange.isPresent()) {
+      return; // nothing is committed for this request, see doPersist
+    }
+    try (final OperationTimer.TimingContext ignored =
+        downloadState.getMetricsManager().startRangeBuildTimer(ACCOUNT_RANGE)) {
+      stackTrie.prepareCommit(false);
+    }
+  }
+
   @Override
   protected int doPersist(
       final WorldStateStorageCoordinator worldStateStorageCoordinator,
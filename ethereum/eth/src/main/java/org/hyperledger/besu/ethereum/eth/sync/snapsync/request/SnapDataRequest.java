@@ -126,6 +126,14 @@ public abstract class SnapDataRequest implements TasksPriorityProvider {
         worldStateStorageCoordinator, updater, downloadState, snapSyncState, snapSyncConfiguration);
   }
 
+  /**
+   * Performs the CPU-bound part of {@link #persist} that does not write to storage, so that it can
+   * run concurrently for independent requests before they are persisted in order.
+   *
+   * @param downloadState the download state
+   */
+  public void prepareForPersist(final SnapRequestContext downloadState) {}
+
   protected abstract int doPersist(
       final WorldStateStorageCoordinator worldStateStorageCoordinator,
       final WorldStateKeyValueStorage.Updater updater,
@@ -32,6 +32,7 @@ import org.hyperledger.besu.ethereum.trie.RangeManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.worldstate.FlatDbMode;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorageCoordinator;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.plugin.services.storage.WorldStateKeyValueStorage;
 
 import java.util.ArrayList;
@@ -84,6 +85,14 @@ public class StorageRangeDataRequest extends SnapDataRequest {
         endKeyHash);
   }
 
+  @Override
+  public void prepareForPersist(final SnapRequestContext downloadState) {
+    try (final OperationTimer.TimingContext ignored =
+        downloadState.getMetricsManager().startRangeBuildTimer(STORAGE_RANGE)) {
+      stackTrie.prepareCommit(false);
+    }
+  }
+
   @Override
   protected int doPersist(
       final WorldStateStorageCoordinator worldStateStorageCoordinator,
@@ -34,6 +34,7 @@ import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
 import org.hyperledger.besu.ethereum.chain.BlockAddedObserver;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.encoding.EncodingContext;
 import org.hyperledger.besu.ethereum.core.kzg.BlobProofBundle;
@@ -79,6 +80,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -105,6 +107,10 @@ import org.slf4j.LoggerFactory;
  */
 public class TransactionPool implements BlockAddedObserver {
   private static final Logger LOG = LoggerFactory.getLogger(TransactionPool.class);
+  private static final int PARALLEL_ADMISSION_MIN_BATCH_SIZE = 32;
+  private static final Comparator<Transaction> BY_SENDER_AND_NONCE =
+      Comparator.comparing((Transaction tx) -> tx.getSender().getBytes())
+          .thenComparing(Transaction::getNonce);
   private final Supplier<PendingTransactions> pendingTransactionsSupplier;
   private final BlobCache cacheForBlobsOfTransactionsAddedToABlock;
   private volatile PendingTransactions pendingTransactions = new DisabledPendingTransactions();
@@ -119,6 +125,8 @@ public class TransactionPool implements BlockAddedObserver {
       new PendingTransactionsListenersProxy();
   private volatile OptionalLong subscribeConnectId = OptionalLong.empty();
   private final SaveRestoreManager saveRestoreManager = new SaveRestoreManager();
+  private final Optional<TransactionPoolJournal> maybeJournal;
+  private volatile Optional<ScheduledFuture<?>> maybeJournalFlushTask = Optional.empty();
   private final Set<Address> localSenders = ConcurrentHashMap.newKeySet();
   private final EthScheduler.OrderedProcessor<BlockAddedEvent> blockAddedEventOrderedProcessor;
   private final ListMultimap<VersionedHash, BlobProofBundle> mapOfBlobsInTransactionPool =
@@ -149,6 +157,21 @@ public class TransactionPool implements BlockAddedObserver {
     subscribeDroppedTransactions(
         (transaction, reason) -> unmapBlobsOnTransactionDropped(transaction));
     subscribeDroppedTransactions(transactionBroadcaster);
+    this.maybeJournal = createJournal();
+  }
+
+  private Optional<TransactionPoolJournal> createJournal() {
+    if (!configuration.getEnableSaveRestore()
+        || !configuration.getUnstable().getSaveRestoreJournalEnabled()) {
+      return Optional.empty();
+    }
+    final TransactionPoolJournal journal =
+        new TransactionPoolJournal(
+            new File(configuration.getSaveFile().getPath() + ".journal"), this::isLocalSender);
+    subscribePendingTransactions(journal::onTransactionAdded);
+    subscribeDroppedTransactions(
+        (transaction, reason) -> journal.onTransactionDropped(transaction));
+    return Optional.of(journal);
   }
 
   @VisibleForTesting
@@ -178,35 +201,41 @@ public class TransactionPool implements BlockAddedObserver {
     final List<Transaction> addedTransactions = new ArrayList<>(initialCount);
     LOG.trace("Adding {} remote transactions", initialCount);
 
-    // recover and cache tx sender:
-    var txStream =
-        transactions.stream()
-            .filter(
-                tx -> {
-                  try {
-                    tx.getSender();
-                    return true;
-                  } catch (IllegalArgumentException | IllegalStateException ex) {
-                    return false;
-                  }
-                });
-
-    final var validationResults =
-        sortedBySenderAndNonce(txStream)
-            .collect(
-                Collectors.toMap(
-                    Transaction::getHash,
-                    transaction -> {
-                      final boolean hasPriority = isPriorityTransaction(transaction, false);
-                      final var result = addTransaction(transaction, false, hasPriority, MAX_SCORE);
-                      if (result.isValid()) {
-                        addedTransactions.add(transaction);
-                      } else {
-                        logInvalid(transaction, result, false, hasPriority);
-                      }
-                      return result;
-                    },
-                    (transaction1, transaction2) -> transaction1));
+    // recover and cache tx sender and hash, the costliest part of the admission
+    final List<Transaction> recoveredTransactions =
+        admissionStream(transactions).filter(TransactionPool::recoverSenderAndHash).toList();
+
+    final Map<Hash, Transaction> distinctTransactions =
+        HashMap.newHashMap(recoveredTransactions.size());
+    recoveredTransactions.forEach(tx -> distinctTransactions.putIfAbsent(tx.getHash(), tx));
+
+    final List<RemoteAdmission> admissions =
+        validateRemoteTransactions(distinctTransactions.values());
+
+    final Map<Hash, ValidationResult<TransactionInvalidReason>> validationResults =
+        HashMap.newHashMap(admissions.size());
+    admissions.stream()
+        .sorted(Comparator.comparing(RemoteAdmission::baseTransaction, BY_SENDER_AND_NONCE))
+        .forEach(
+            admission -> {
+              final Transaction transaction = admission.baseTransaction();
+              final var result =
+                  admission.alreadyKnown()
+                      ? ValidationResult.<TransactionInvalidReason>invalid(
+                          TRANSACTION_ALREADY_KNOWN)
+                      : addValidatedTransaction(
+                          admission.transaction(),
+                          admission.validation(),
+                          false,
+                          admission.hasPriority(),
+                          MAX_SCORE);
+              if (result.isValid()) {
+                addedTransactions.add(transaction);
+              } else {
+                logInvalid(transaction, result, false, admission.hasPriority());
+              }
+              validationResults.put(transaction.getHash(), result);
+            });
 
     if (isEnabled()) {
       TransactionPoolStructuredLogUtils.logStats(pendingTransactions);
@@ -226,30 +255,142 @@ public class TransactionPool implements BlockAddedObserver {
     return validationResults;
   }
 
+  private static boolean recoverSenderAndHash(final Transaction transaction) {
+    try {
+      transaction.getSender();
+      transaction.getHash();
+      return true;
+    } catch (IllegalArgumentException | IllegalStateException ex) {
+      return false;
+    }
+  }
+
+  /**
+   * Validates a batch of remote transactions before any of them is added to the pool. The checks
+   * that do not need the world state run in parallel for large batches, then the sender accounts
+   * are read once per sender from a single world state opened for the whole batch.
+   *
+   * @param transactions the remote transactions, with their sender already recovered
+   * @return the admission of each transaction, in no particular order
+   */
+  private List<RemoteAdmission> validateRemoteTransactions(
+      final Collection<Transaction> transactions) {
+    final Optional<BlockHeader> maybeChainHeadBlockHeader = getChainHeadBlockHeader();
+    final List<RemoteAdmission> statelessAdmissions =
+        admissionStream(transactions)
+            .map(
+                baseTransaction -> {
+                  final boolean hasPriority = isPriorityTransaction(baseTransaction, false);
+                  if (isAlreadyKnown(baseTransaction, false, hasPriority)) {
+                    return RemoteAdmission.alreadyKnown(baseTransaction, hasPriority);
+                  }
+                  final Transaction transaction = preProcess(baseTransaction, false);
+                  final ValidationResultAndAccount statelessResult =
+                      maybeChainHeadBlockHeader.isPresent()
+                          ? validateStateless(
+                              transaction, false, hasPriority, maybeChainHeadBlockHeader.get())
+                          : chainHeadNotAvailable(transaction);
+                  return new RemoteAdmission(
+                      baseTransaction, transaction, hasPriority, false, statelessResult);
+                })
+            .toList();
+
+    final boolean anyNeedsSenderAccount =
+        statelessAdmissions.stream().anyMatch(RemoteAdmission::needsSenderAccount);
+    if (!anyNeedsSenderAccount) {
+      return statelessAdmissions;
+    }
+
+    final List<RemoteAdmission> admissions = new ArrayList<>(statelessAdmissions.size());
+    try (final var worldState = openChainHeadWorldState(maybeChainHeadBlockHeader.get())) {
+      final Map<Address, Optional<Account>> senderAccounts = new HashMap<>();
+      for (final RemoteAdmission admission : statelessAdmissions) {
+        if (admission.needsSenderAccount()) {
+          final Transaction transaction = admission.transaction();
+          final Account senderAccount =
+              senderAccounts
+                  .computeIfAbsent(
+                      transaction.getSender(),
+                      sender -> Optional.ofNullable(worldState.get(sender)))
+                  .orElse(null);
+          admissions.add(admission.withValidation(validateForSender(transaction, senderAccount)));
+        } else {
+          admissions.add(admission);
+        }
+      }
+    } catch (MerkleTrieException ex) {
+      LOG.debug("MerkleTrieException while validating a batch of remote transactions");
+      return worldStateNotAvailable(statelessAdmissions);
+    } catch (Exception ex) {
+      return worldStateNotAvailable(statelessAdmissions);
+    }
+    return admissions;
+  }
+
+  private static List<RemoteAdmission> worldStateNotAvailable(
+      final List<RemoteAdmission> statelessAdmissions) {
+    return statelessAdmissions.stream()
+        .map(
+            admission ->
+                admission.needsSenderAccount()
+                    ? admission.withValidation(
+                        ValidationResultAndAccount.invalid(CHAIN_HEAD_WORLD_STATE_NOT_AVAILABLE))
+                    : admission)
+        .toList();
+  }
+
+  private static <T> Stream<T> admissionStream(final Collection<T> items) {
+    // spreading small batches over the common pool costs more than it saves
+    return items.size() >= PARALLEL_ADMISSION_MIN_BATCH_SIZE
+        ? items.parallelStream()
+        : items.stream();
+  }
+
   private ValidationResult<TransactionInvalidReason> addTransaction(
       final Transaction baseTransaction,
       final boolean isLocal,
       final boolean hasPriority,
       final byte score) {
 
-    if (pendingTransactions.containsTransaction(baseTransaction)) {
+    if (isAlreadyKnown(baseTransaction, isLocal, hasPriority)) {
+      return ValidationResult.invalid(TRANSACTION_ALREADY_KNOWN);
+    }
+
+    final Transaction transaction = preProcess(baseTransaction, isLocal);
+
+    final ValidationResultAndAccount validationResult =
+        validateTransaction(transaction, isLocal, hasPriority);
+
+    return addValidatedTransaction(transaction, validationResult, isLocal, hasPriority, score);
+  }
+
+  private boolean isAlreadyKnown(
+      final Transaction transaction, final boolean isLocal, final boolean hasPriority) {
+    if (pendingTransactions.containsTransaction(transaction)) {
       LOG.atTrace()
           .setMessage("Discard already present transaction {}")
-          .addArgument(baseTransaction::toTraceLog)
+          .addArgument(transaction::toTraceLog)
           .log();
       // We already have this transaction, don't even validate it.
       metrics.incrementRejected(isLocal, hasPriority, TRANSACTION_ALREADY_KNOWN, "txpool");
-      return ValidationResult.invalid(TRANSACTION_ALREADY_KNOWN);
+      return true;
     }
+    return false;
+  }
 
+  private Transaction preProcess(final Transaction baseTransaction, final boolean isLocal) {
     // Apply any necessary fork related pre-processing before submitting the transaction to the pool
-    Transaction transaction =
-        getTransactionPoolPreProcessor()
-            .map(preProcessor -> preProcessor.prepareTransaction(baseTransaction, isLocal))
-            .orElse(baseTransaction);
+    return getTransactionPoolPreProcessor()
+        .map(preProcessor -> preProcessor.prepareTransaction(baseTransaction, isLocal))
+        .orElse(baseTransaction);
+  }
 
-    final ValidationResultAndAccount validationResult =
-        validateTransaction(transaction, isLocal, hasPriority);
+  private ValidationResult<TransactionInvalidReason> addValidatedTransaction(
+      final Transaction transaction,
+      final ValidationResultAndAccount validationResult,
+      final boolean isLocal,
+      final boolean hasPriority,
+      final byte score) {
 
     if (validationResult.result.isValid()) {
       final TransactionAddedResult status =
@@ -304,9 +445,7 @@ public class TransactionPool implements BlockAddedObserver {
   }
 
   private Stream<Transaction> sortedBySenderAndNonce(final Stream<Transaction> transactions) {
-    return transactions.sorted(
-        Comparator.comparing((Transaction tx) -> tx.getSender().getBytes())
-            .thenComparing(Transaction::getNonce));
+    return transactions.sorted(BY_SENDER_AND_NONCE);
   }
 
   private boolean isPriorityTransaction(final Transaction transaction, final boolean isLocal) {
@@ -411,13 +550,47 @@ public class TransactionPool implements BlockAddedObserver {
 
     final BlockHeader chainHeadBlockHeader = getChainHeadBlockHeader().orElse(null);
     if (chainHeadBlockHeader == null) {
-      LOG.atWarn()
-          .setMessage("rejecting transaction {} due to chain head not available yet")
-          .addArgument(transaction::getHash)
-          .log();
-      return ValidationResultAndAccount.invalid(CHAIN_HEAD_NOT_AVAILABLE);
+      return chainHeadNotAvailable(transaction);
+    }
+
+    final ValidationResultAndAccount statelessResult =
+        validateStateless(transaction, isLocal, hasPriority, chainHeadBlockHeader);
+    if (statelessResult != null) {
+      return statelessResult;
     }
 
+    try (final var worldState = openChainHeadWorldState(chainHeadBlockHeader)) {
+      return validateForSender(transaction, worldState.get(transaction.getSender()));
+    } catch (MerkleTrieException ex) {
+      LOG.debug(
+          "MerkleTrieException while validating transaction for sender {}",
+          transaction.getSender());
+      return ValidationResultAndAccount.invalid(CHAIN_HEAD_WORLD_STATE_NOT_AVAILABLE);
+    } catch (Exception ex) {
+      return ValidationResultAndAccount.invalid(CHAIN_HEAD_WORLD_STATE_NOT_AVAILABLE);
+    }
+  }
+
+  private static ValidationResultAndAccount chainHeadNotAvailable(final Transaction transaction) {
+    LOG.atWarn()
+        .setMessage("rejecting transaction {} due to chain head not available yet")
+        .addArgument(transaction::getHash)
+        .log();
+    return ValidationResultAndAccount.invalid(CHAIN_HEAD_NOT_AVAILABLE);
+  }
+
+  /**
+   * Runs the checks that do not need the world state.
+   *
+   * @return the invalid result, or null if the transaction still has to be validated against its
+   *     sender account
+   */
+  private ValidationResultAndAccount validateStateless(
+      final Transaction transaction,
+      final boolean isLocal,
+      final boolean hasPriority,
+      final BlockHeader chainHeadBlockHeader) {
+
     final FeeMarket feeMarket =
         protocolSchedule.getByBlockHeader(chainHeadBlockHeader).getFeeMarket();
     final TransactionInvalidReason priceInvalidReason =
@@ -474,28 +647,28 @@ public class TransactionPool implements BlockAddedObserver {
           TransactionInvalidReason.PLUGIN_TX_POOL_VALIDATOR, maybePluginInvalid.get());
     }
 
-    try (final var worldState =
+    return null;
+  }
+
+  private MutableWorldState openChainHeadWorldState(final BlockHeader chainHeadBlockHeader) {
+    final MutableWorldState worldState =
         protocolContext
             .getWorldStateArchive()
             .getWorldState(withBlockHeaderAndNoUpdateNodeHead(chainHeadBlockHeader))
-            .orElseThrow()) {
-      if (worldState instanceof BonsaiWorldState bonsaiWorldState) {
-        bonsaiWorldState.disableCacheMerkleTrieLoader();
-      }
-      final Account senderAccount = worldState.get(transaction.getSender());
-      return new ValidationResultAndAccount(
-          senderAccount,
-          getTransactionValidator()
-              .validateForSender(
-                  transaction, senderAccount, TransactionValidationParams.transactionPool()));
-    } catch (MerkleTrieException ex) {
-      LOG.debug(
-          "MerkleTrieException while validating transaction for sender {}",
-          transaction.getSender());
-      return ValidationResultAndAccount.invalid(CHAIN_HEAD_WORLD_STATE_NOT_AVAILABLE);
-    } catch (Exception ex) {
-      return ValidationResultAndAccount.invalid(CHAIN_HEAD_WORLD_STATE_NOT_AVAILABLE);
+            .orElseThrow();
+    if (worldState instanceof BonsaiWorldState bonsaiWorldState) {
+      bonsaiWorldState.disableCacheMerkleTrieLoader();
     }
+    return worldState;
+  }
+
+  private ValidationResultAndAccount validateForSender(
+      final Transaction transaction, final Account senderAccount) {
+    return new ValidationResultAndAccount(
+        senderAccount,
+        getTransactionValidator()
+            .validateForSender(
+                transaction, senderAccount, TransactionValidationParams.transactionPool()));
   }
 
   private TransactionInvalidReason validatePrice(
@@ -617,6 +790,36 @@ public class TransactionPool implements BlockAddedObserver {
     void onTransactionsAdded(Collection<Transaction> transactions);
   }
 
+  /**
+   * The progress of a remote transaction through the admission stages.
+   *
+   * @param baseTransaction the transaction as received
+   * @param transaction the transaction after the fork related pre-processing
+   * @param hasPriority whether the sender has priority
+   * @param alreadyKnown whether the transaction was already in the pool
+   * @param validation the invalid result, or null while the sender account check is pending
+   */
+  private record RemoteAdmission(
+      Transaction baseTransaction,
+      Transaction transaction,
+      boolean hasPriority,
+      boolean alreadyKnown,
+      ValidationResultAndAccount validation) {
+
+    static RemoteAdmission alreadyKnown(
+        final Transaction baseTransaction, final boolean hasPriority) {
+      return new RemoteAdmission(baseTransaction, baseTransaction, hasPriority, true, null);
+    }
+
+    boolean needsSenderAccount() {
+      return !alreadyKnown && validation == null;
+    }
+
+    RemoteAdmission withValidation(final ValidationResultAndAccount validation) {
+      return new RemoteAdmission(baseTransaction, transaction, hasPriority, false, validation);
+    }
+  }
+
   private static class ValidationResultAndAccount {
     final ValidationResult<TransactionInvalidReason> result;
     final Optional<Account> maybeAccount;
@@ -653,6 +856,18 @@ public class TransactionPool implements BlockAddedObserver {
       isPoolEnabled.set(true);
       subscribeConnectId =
           OptionalLong.of(ethContext.getEthPeers().subscribeConnect(this::handleConnect));
+      maybeJournalFlushTask =
+          maybeJournal.map(
+              journal -> {
+                final Duration flushInterval =
+                    configuration.getUnstable().getSaveRestoreJournalFlushInterval();
+                return ethContext
+                    .getScheduler()
+                    .scheduleFutureTaskWithFixedDelay(
+                        () -> ethContext.getScheduler().executeServiceTask(journal::flush),
+                        flushInterval,
+                        flushInterval);
+              });
       return saveRestoreManager
           .loadFromDisk()
           .whenComplete(
@@ -684,6 +899,7 @@ public class TransactionPool implements BlockAddedObserver {
     if (isEnabled()) {
       isPoolEnabled.set(false);
       subscribeConnectId.ifPresent(ethContext.getEthPeers()::unsubscribeConnect);
+      maybeJournalFlushTask.ifPresent(flushTask -> flushTask.cancel(false));
       pendingTransactionsListenersProxy.unsubscribe();
       mapOfBlobsInTransactionPool.clear();
       final CompletableFuture<Void> saveOperation =
@@ -795,11 +1011,21 @@ public class TransactionPool implements BlockAddedObserver {
           .thenCompose(
               _ ->
                   serializeAndDedupOperation(
-                      () -> executeSaveToDisk(pendingTransactionsToSave), writeInProgress));
+                      () ->
+                          maybeJournal.ifPresentOrElse(
+                              // the journal already holds the pool content
+                              TransactionPoolJournal::close,
+                              () -> executeSaveToDisk(pendingTransactionsToSave)),
+                      writeInProgress));
     }
 
     synchronized CompletableFuture<Void> loadFromDisk() {
-      return serializeAndDedupOperation(this::executeLoadFromDisk, readInProgress);
+      return serializeAndDedupOperation(
+          () -> {
+            executeLoadFromDisk();
+            maybeJournal.ifPresent(this::executeRestoreJournal);
+          },
+          readInProgress);
     }
 
     private CompletableFuture<Void> cancelInProgressReadOperation() {
@@ -991,6 +1217,44 @@ public class TransactionPool implements BlockAddedObserver {
       }
     }
 
+    private void executeRestoreJournal(final TransactionPoolJournal journal) {
+      try {
+        final List<TransactionPoolJournal.JournaledTransaction> journaledTxs = journal.restore();
+        if (journaledTxs.isEmpty()) {
+          return;
+        }
+        LOG.info("Restoring {} transactions from the txpool journal", journaledTxs.size());
+        long added = 0;
+        long processed = 0;
+        for (final var journaledTx : journaledTxs) {
+          if (isCancelled.get()) {
+            break;
+          }
+          final Transaction tx = journaledTx.transaction();
+          final boolean isLocal = journaledTx.isLocal();
+          final ValidationResult<TransactionInvalidReason> result =
+              addTransaction(tx, isLocal, isPriorityTransaction(tx, isLocal), MAX_SCORE);
+          ++processed;
+          if (result.isValid()) {
+            ++added;
+            if (isLocal) {
+              localSenders.add(tx.getSender());
+            }
+          } else if (result.getInvalidReason() != TRANSACTION_ALREADY_KNOWN) {
+            // forget it, otherwise it stays in the journal until the next compaction
+            journal.onTransactionDropped(tx);
+          }
+        }
+        LOG.info(
+            "Added {} transactions of {} restored from the txpool journal{}",
+            added,
+            processed,
+            isCancelled.get() ? ", before operation was cancelled" : "");
+      } catch (IOException e) {
+        LOG.error("Error while restoring txpool content from the journal", e);
+      }
+    }
+
     private String parseScore(final String line) {
       int i = 0;
       final var sbScore = new StringBuilder();
@@ -44,6 +44,8 @@ public interface TransactionPoolConfiguration {
     int DEFAULT_MAX_SEND_QUEUE_SIZE_PER_PEER = 100_000;
     boolean DEFAULT_PEER_TRACKER_FORGET_EVICTED_TXS = false;
     Duration DEFAULT_SAVE_RESTORE_TIMEOUT = Duration.ofMinutes(1);
+    boolean DEFAULT_SAVE_RESTORE_JOURNAL_ENABLED = false;
+    Duration DEFAULT_SAVE_RESTORE_JOURNAL_FLUSH_INTERVAL = Duration.ofMillis(200);
 
     TransactionPoolConfiguration.Unstable DEFAULT =
         ImmutableTransactionPoolConfiguration.Unstable.builder().build();
@@ -77,6 +79,16 @@ public interface TransactionPoolConfiguration {
     default Duration getSaveRestoreTimeout() {
       return DEFAULT_SAVE_RESTORE_TIMEOUT;
     }
+
+    @Value.Default
+    default boolean getSaveRestoreJournalEnabled() {
+      return DEFAULT_SAVE_RESTORE_JOURNAL_ENABLED;
+    }
+
+    @Value.Default
+    default Duration getSaveRestoreJournalFlushInterval() {
+      return DEFAULT_SAVE_RESTORE_JOURNAL_FLUSH_INTERVAL;
+    }
   }
 
   enum Implementation {
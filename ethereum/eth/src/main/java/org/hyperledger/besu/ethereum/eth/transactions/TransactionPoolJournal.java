@@ -0,0 +1,284 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.transactions;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.encoding.EncodingContext;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only binary journal of the transactions added to and dropped from the pool, so the pool
+ * content survives a crash and is restored quickly on the next start.
+ *
+ * <p>Pool events are only queued in memory, the encoding and the writes happen when the journal is
+ * flushed, so a crash loses at most the events since the last flush. Each record is a type byte,
+ * the length of its payload and the payload: the hash, the local flag and the pooled encoding of an
+ * added transaction, or the hash of a dropped one. Once dropped transactions make up most of the
+ * file, it is compacted down to the transactions still in the pool.
+ *
+ * <p>Events are written in the order they were queued, so a transaction dropped and added again
+ * between two flushes stays in the journal. An added transaction already in the journal, such as
+ * one restored from it, is not written again.
+ *
+ * <p>Added events are notified asynchronously by the pool, so a transaction dropped right after it
+ * is added may still be in the journal. It does not matter since every restored transaction is
+ * validated again before being added back to the pool.
+ */
+class TransactionPoolJournal {
+  private static final Logger LOG = LoggerFactory.getLogger(TransactionPoolJournal.class);
+
+  private static final byte ADDED = 1;
+  private static final byte DROPPED = 2;
+  private static final int RECORD_HEADER_SIZE = Byte.BYTES + Integer.BYTES;
+  private static final int MIN_RECORDS_TO_COMPACT = 10_000;
+
+  private final Path journalPath;
+  private final Predicate<Address> isLocalSender;
+  private final Queue<PoolEvent> events = new ConcurrentLinkedQueue<>();
+  // hashes of the transactions the journal holds an added record for, and no dropped record since
+  private final Set<Bytes> liveHashes = new HashSet<>();
+  private FileChannel channel;
+  private long recordCount;
+
+  private record PoolEvent(Transaction transaction, boolean added) {}
+
+  /**
+   * A transaction read back from the journal.
+   *
+   * @param transaction the transaction
+   * @param isLocal whether the transaction was sent to this node via the API
+   */
+  record JournaledTransaction(Transaction transaction, boolean isLocal) {}
+
+  TransactionPoolJournal(final File journalFile, final Predicate<Address> isLocalSender) {
+    this.journalPath = journalFile.toPath();
+    this.isLocalSender = isLocalSender;
+  }
+
+  void onTransactionAdded(final Transaction transaction) {
+    events.add(new PoolEvent(transaction, true));
+  }
+
+  void onTransactionDropped(final Transaction transaction) {
+    events.add(new PoolEvent(transaction, false));
+  }
+
+  /**
+   * Writes the queued events to the journal, and compacts it when dropped transactions make up
+   * most of it.
+   */
+  synchronized void flush() {
+    if (events.isEmpty()) {
+      return;
+    }
+    try {
+      final FileChannel journal = openForAppend();
+      PoolEvent event;
+      while ((event = events.poll()) != null) {
+        final Transaction transaction = event.transaction();
+        final Bytes hash = transaction.getHash().getBytes();
+        if (event.added()) {
+          if (liveHashes.add(hash)) {
+            write(journal, addedRecord(transaction, isLocalSender.test(transaction.getSender())));
+          }
+        } else if (liveHashes.remove(hash)) {
+          write(journal, record(DROPPED, hash));
+        }
+      }
+      if (recordCount >= MIN_RECORDS_TO_COMPACT && recordCount > 2L * liveHashes.size()) {
+        compact();
+      }
+    } catch (IOException e) {
+      LOG.error("Error while writing the txpool journal {}", journalPath, e);
+    }
+  }
+
+  /**
+   * Reads the transactions still in the pool according to the journal, and rewrites the journal
+   * with only them.
+   *
+   * @return the journaled transactions, in the order they were added
+   * @throws IOException if the journal cannot be read or rewritten
+   */
+  synchronized List<JournaledTransaction> restore() throws IOException {
+    closeChannel();
+    if (!Files.exists(journalPath)) {
+      return List.of();
+    }
+    final Map<Bytes, ByteBuffer> live = readLiveRecords();
+    rewrite(live);
+    final List<JournaledTransaction> restored = new ArrayList<>(live.size());
+    for (final ByteBuffer addedRecord : live.values()) {
+      final ByteBuffer payload = addedRecord.duplicate().position(RECORD_HEADER_SIZE);
+      payload.position(payload.position() + Bytes32.SIZE);
+      final boolean isLocal = payload.get() != 0;
+      final byte[] encoded = new byte[payload.remaining()];
+      payload.get(encoded);
+      restored.add(
+          new JournaledTransaction(
+              Transaction.readFrom(
+                  RLP.input(Bytes.wrap(encoded)), EncodingContext.POOLED_TRANSACTION),
+              isLocal));
+    }
+    return restored;
+  }
+
+  /** Writes the queued events and closes the journal, forcing its content to the storage. */
+  synchronized void close() {
+    flush();
+    try {
+      if (channel != null) {
+        channel.force(false);
+      }
+    } catch (IOException e) {
+      LOG.error("Error while closing the txpool journal {}", journalPath, e);
+    }
+    closeChannel();
+  }
+
+  private FileChannel openForAppend() throws IOException {
+    if (channel == null) {
+      channel =
+          FileChannel.open(
+              journalPath,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.APPEND);
+    }
+    return channel;
+  }
+
+  private void closeChannel() {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOG.debug("Error while closing the txpool journal {}", journalPath, e);
+      }
+      channel = null;
+    }
+  }
+
+  private void write(final FileChannel journal, final ByteBuffer record) throws IOException {
+    while (record.hasRemaining()) {
+      journal.write(record);
+    }
+    ++recordCount;
+  }
+
+  private void compact() throws IOException {
+    closeChannel();
+    final Map<Bytes, ByteBuffer> live = readLiveRecords();
+    LOG.debug("Compacting txpool journal from {} to {} records", recordCount, live.size());
+    rewrite(live);
+  }
+
+  /**
+   * Folds the memory-mapped journal into the added records of the transactions not dropped since.
+   * A record cut short by a crash ends the read.
+   */
+  private Map<Bytes, ByteBuffer> readLiveRecords() throws IOException {
+    final Map<Bytes, ByteBuffer> live = new LinkedHashMap<>();
+    try (final FileChannel journal = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+      final MappedByteBuffer mapped = journal.map(FileChannel.MapMode.READ_ONLY, 0, journal.size());
+      while (mapped.remaining() >= RECORD_HEADER_SIZE) {
+        final int start = mapped.position();
+        final byte type = mapped.get();
+        final int length = mapped.getInt();
+        if (length < Bytes32.SIZE || length > mapped.remaining()) {
+          LOG.warn("Ignoring incomplete record at offset {} of txpool journal", start);
+          break;
+        }
+        final byte[] hash = new byte[Bytes32.SIZE];
+        mapped.get(hash);
+        mapped.position(start + RECORD_HEADER_SIZE + length);
+        if (type == ADDED) {
+          live.put(Bytes.wrap(hash), mapped.slice(start, RECORD_HEADER_SIZE + length));
+        } else {
+          live.remove(Bytes.wrap(hash));
+        }
+      }
+    }
+    // copy the live records out of the mapping, so the file can be replaced while they are used
+    live.replaceAll(
+        (hash, mappedRecord) ->
+            ByteBuffer.allocate(mappedRecord.remaining()).put(mappedRecord).flip());
+    return live;
+  }
+
+  private void rewrite(final Map<Bytes, ByteBuffer> live) throws IOException {
+    final Path tmp =
+        Files.createTempFile(
+            journalPath.toAbsolutePath().getParent(), journalPath.getFileName().toString(), ".tmp");
+    long written = 0;
+    try (final FileChannel compacted = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+      for (final ByteBuffer addedRecord : live.values()) {
+        final ByteBuffer record = addedRecord.duplicate().rewind();
+        while (record.hasRemaining()) {
+          compacted.write(record);
+        }
+        ++written;
+      }
+      compacted.force(false);
+    }
+    Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING);
+    recordCount = written;
+    liveHashes.clear();
+    liveHashes.addAll(live.keySet());
+  }
+
+  private static ByteBuffer addedRecord(final Transaction transaction, final boolean isLocal) {
+    final BytesValueRLPOutput rlp = new BytesValueRLPOutput();
+    transaction.writeTo(rlp, EncodingContext.POOLED_TRANSACTION);
+    return record(
+        ADDED,
+        Bytes.concatenate(
+            transaction.getHash().getBytes(), Bytes.of(isLocal ? 1 : 0), rlp.encoded()));
+  }
+
+  private static ByteBuffer record(final byte type, final Bytes payload) {
+    return ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.size())
+        .put(type)
+        .putInt(payload.size())
+        .put(payload.toArrayUnsafe())
+        .flip();
+  }
+}
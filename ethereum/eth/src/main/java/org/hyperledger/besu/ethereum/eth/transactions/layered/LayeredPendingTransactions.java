@@ -45,11 +45,15 @@ import org.hyperledger.besu.evm.account.AccountState;
 import org.hyperledger.besu.plugin.data.TransactionSelectionResult;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -64,6 +68,26 @@ public class LayeredPendingTransactions implements PendingTransactions {
   private final AbstractPrioritizedTransactions prioritizedTransactions;
   private final EthScheduler ethScheduler;
 
+  /**
+   * Guards the layers, which share space accounting and move transactions of any sender between
+   * them, so every change takes the write lock. Reads only take the read lock and run alongside
+   * each other, and the whole pool listings are served from the snapshots below without locking
+   * while the pool does not change. The lock is fair, so a block builder that has to rebuild its
+   * snapshot waits for the changes already queued and is not overtaken by a gossip flood.
+   */
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+
+  /**
+   * Immutable views for the readers that copy the whole pool, RPC listings and the candidates of
+   * block selection. The first reader after a change builds the view under the read lock and
+   * publishes it, every write drops it, so the readers between two writes share it without taking
+   * the lock.
+   */
+  private final AtomicReference<List<PendingTransaction>> allSnapshot = new AtomicReference<>();
+
+  private final AtomicReference<List<PendingTransaction>> byScoreSnapshot =
+      new AtomicReference<>();
+
   public LayeredPendingTransactions(
       final TransactionPoolConfiguration poolConfig,
       final AbstractPrioritizedTransactions prioritizedTransactions,
@@ -74,12 +98,21 @@ public class LayeredPendingTransactions implements PendingTransactions {
   }
 
   @Override
-  public synchronized void reset() {
-    prioritizedTransactions.reset();
+  public void reset() {
+    write(
+        () -> {
+          prioritizedTransactions.reset();
+          return null;
+        });
   }
 
   @Override
-  public synchronized TransactionAddedResult addTransaction(
+  public TransactionAddedResult addTransaction(
+      final PendingTransaction pendingTransaction, final Optional<Account> maybeSenderAccount) {
+    return write(() -> internalAddTransaction(pendingTransaction, maybeSenderAccount));
+  }
+
+  private TransactionAddedResult internalAddTransaction(
       final PendingTransaction pendingTransaction, final Optional<Account> maybeSenderAccount) {
 
     final long stateSenderNonce = maybeSenderAccount.map(AccountState::getNonce).orElse(0L);
@@ -262,28 +295,26 @@ public class LayeredPendingTransactions implements PendingTransactions {
   public void evictOldTransactions() {}
 
   @Override
-  public synchronized List<Transaction> getLocalTransactions() {
-    return prioritizedTransactions.getAllLocal();
+  public List<Transaction> getLocalTransactions() {
+    return read(prioritizedTransactions::getAllLocal);
   }
 
   @Override
-  public synchronized List<Transaction> getPriorityTransactions() {
-    return prioritizedTransactions.getAllPriority();
+  public List<Transaction> getPriorityTransactions() {
+    return read(prioritizedTransactions::getAllPriority);
   }
 
   @Override
   public void selectTransactions(final PendingTransactionsSelector selector) {
-    final List<PendingTransaction> candidateTxsByScore;
-    synchronized (this) {
-      // since selecting transactions for block creation is a potential long operation
-      // we want to avoid to keep the lock for all the process, but we just lock to get
-      // the candidate transactions
-      candidateTxsByScore = prioritizedTransactions.getByScore();
-    }
+    // since selecting transactions for block creation is a potential long operation
+    // we want to avoid to keep the lock for all the process, but we just lock to get
+    // the candidate transactions
+    final List<PendingTransaction> candidateTxsByScore =
+        snapshot(byScoreSnapshot, prioritizedTransactions::getByScore);
 
-    final var evaluationResults =
-        selector.evaluatePendingTransactions(Collections.unmodifiableList(candidateTxsByScore));
+    final var evaluationResults = selector.evaluatePendingTransactions(candidateTxsByScore);
 
+    final List<Runnable> selectionOutcomes = new ArrayList<>();
     for (final var evaluationResult : evaluationResults.entrySet()) {
       final var evaluatedPendingTx = evaluationResult.getKey();
       final var result = evaluationResult.getValue();
@@ -295,30 +326,37 @@ public class LayeredPendingTransactions implements PendingTransactions {
           .log();
 
       if (result.discard()) {
-        ethScheduler.scheduleServiceTask(
+        selectionOutcomes.add(
             () -> {
-              synchronized (this) {
-                prioritizedTransactions.remove(evaluatedPendingTx, INVALIDATED);
-                logInvalidTransaction(evaluatedPendingTx, result);
-                LOG.atTrace()
-                    .setMessage("Transaction {} removed by block selection")
-                    .addArgument(evaluatedPendingTx::toTraceLog)
-                    .log();
-              }
+              prioritizedTransactions.remove(evaluatedPendingTx, INVALIDATED);
+              logInvalidTransaction(evaluatedPendingTx, result);
+              LOG.atTrace()
+                  .setMessage("Transaction {} removed by block selection")
+                  .addArgument(evaluatedPendingTx::toTraceLog)
+                  .log();
             });
       } else if (result.penalize()) {
-        ethScheduler.scheduleServiceTask(
+        selectionOutcomes.add(
             () -> {
-              synchronized (this) {
-                prioritizedTransactions.penalize(evaluatedPendingTx, result);
-                LOG.atTrace()
-                    .setMessage("Transaction {} penalized by block selection")
-                    .addArgument(evaluatedPendingTx::toTraceLog)
-                    .log();
-              }
+              prioritizedTransactions.penalize(evaluatedPendingTx, result);
+              LOG.atTrace()
+                  .setMessage("Transaction {} penalized by block selection")
+                  .addArgument(evaluatedPendingTx::toTraceLog)
+                  .log();
             });
       }
     }
+
+    if (!selectionOutcomes.isEmpty()) {
+      // apply all the outcomes with a single acquisition of the write lock
+      ethScheduler.scheduleServiceTask(
+          () ->
+              write(
+                  () -> {
+                    selectionOutcomes.forEach(Runnable::run);
+                    return null;
+                  }));
+    }
   }
 
   @Override
@@ -327,47 +365,52 @@ public class LayeredPendingTransactions implements PendingTransactions {
   }
 
   @Override
-  public synchronized int size() {
-    return prioritizedTransactions.count();
+  public int size() {
+    return read(prioritizedTransactions::count);
   }
 
   @Override
-  public synchronized boolean containsTransaction(final Transaction transaction) {
-    return prioritizedTransactions.contains(transaction);
+  public boolean containsTransaction(final Transaction transaction) {
+    return read(() -> prioritizedTransactions.contains(transaction));
   }
 
   @Override
-  public synchronized Optional<Transaction> getTransactionByHash(final Hash transactionHash) {
-    return prioritizedTransactions
-        .getByHash(transactionHash)
-        .map(PendingTransaction::getTransaction);
+  public Optional<Transaction> getTransactionByHash(final Hash transactionHash) {
+    return read(
+        () ->
+            prioritizedTransactions
+                .getByHash(transactionHash)
+                .map(PendingTransaction::getTransaction));
   }
 
   @Override
-  public synchronized List<PendingTransaction> getPendingTransactions() {
-    return prioritizedTransactions.getAll();
+  public List<PendingTransaction> getPendingTransactions() {
+    return snapshot(allSnapshot, prioritizedTransactions::getAll);
   }
 
   @Override
-  public synchronized SenderPendingTransactionsData getPendingTransactionsFor(
-      final Address sender) {
-    return new SenderPendingTransactionsData(
-        sender,
-        prioritizedTransactions.getCurrentNonceFor(sender).orElse(0),
-        prioritizedTransactions.getAllFor(sender));
+  public SenderPendingTransactionsData getPendingTransactionsFor(final Address sender) {
+    return read(
+        () ->
+            new SenderPendingTransactionsData(
+                sender,
+                prioritizedTransactions.getCurrentNonceFor(sender).orElse(0),
+                prioritizedTransactions.getAllFor(sender)));
   }
 
   @Override
-  public synchronized Map<Address, SenderPendingTransactionsData> getPendingTransactionsBySender() {
-    return prioritizedTransactions.getAllBySender().entrySet().stream()
-        .collect(
-            Collectors.toMap(
-                Map.Entry::getKey,
-                e ->
-                    new SenderPendingTransactionsData(
-                        e.getKey(),
-                        prioritizedTransactions.getCurrentNonceFor(e.getKey()).orElse(0),
-                        e.getValue())));
+  public Map<Address, SenderPendingTransactionsData> getPendingTransactionsBySender() {
+    return read(
+        () ->
+            prioritizedTransactions.getAllBySender().entrySet().stream()
+                .collect(
+                    Collectors.toMap(
+                        Map.Entry::getKey,
+                        e ->
+                            new SenderPendingTransactionsData(
+                                e.getKey(),
+                                prioritizedTransactions.getCurrentNonceFor(e.getKey()).orElse(0),
+                                e.getValue()))));
   }
 
   @Override
@@ -391,8 +434,8 @@ public class LayeredPendingTransactions implements PendingTransactions {
   }
 
   @Override
-  public synchronized OptionalLong getNextNonceForSender(final Address sender) {
-    return prioritizedTransactions.getNextNonceFor(sender);
+  public OptionalLong getNextNonceForSender(final Address sender) {
+    return read(() -> prioritizedTransactions.getNextNonceFor(sender));
   }
 
   @Override
@@ -408,21 +451,23 @@ public class LayeredPendingTransactions implements PendingTransactions {
 
     final var maxConfirmedNonceBySender = maxNonceBySender(confirmedTransactions);
 
-    synchronized (this) {
-      try {
-        prioritizedTransactions.blockAdded(feeMarket, blockHeader, maxConfirmedNonceBySender);
-      } catch (final Throwable throwable) {
-        LOG.warn(
-            "Unexpected error {} when managing added block {}, maxNonceBySender {}, reorgNonceRangeBySender {}",
-            throwable,
-            blockHeader.toLogString(),
-            maxConfirmedNonceBySender,
-            reorgTransactions);
-        LOG.warn("Stack trace", throwable);
-      }
-
-      logConfirmed(blockHeader, maxConfirmedNonceBySender, reorgTransactions);
-    }
+    write(
+        () -> {
+          try {
+            prioritizedTransactions.blockAdded(feeMarket, blockHeader, maxConfirmedNonceBySender);
+          } catch (final Throwable throwable) {
+            LOG.warn(
+                "Unexpected error {} when managing added block {}, maxNonceBySender {}, reorgNonceRangeBySender {}",
+                throwable,
+                blockHeader.toLogString(),
+                maxConfirmedNonceBySender,
+                reorgTransactions);
+            LOG.warn("Stack trace", throwable);
+          }
+
+          logConfirmed(blockHeader, maxConfirmedNonceBySender, reorgTransactions);
+          return null;
+        });
   }
 
   private Map<Address, Long> maxNonceBySender(final List<Transaction> confirmedTransactions) {
@@ -448,18 +493,54 @@ public class LayeredPendingTransactions implements PendingTransactions {
   }
 
   @Override
-  public synchronized String toTraceLog() {
+  public String toTraceLog() {
     return "";
   }
 
   @Override
-  public synchronized String logStats() {
-    return prioritizedTransactions.logStats();
+  public String logStats() {
+    return read(prioritizedTransactions::logStats);
   }
 
   @Override
-  public synchronized Status getStatus() {
-    return prioritizedTransactions.getStatus();
+  public Status getStatus() {
+    return read(prioritizedTransactions::getStatus);
+  }
+
+  private <T> T read(final Supplier<T> reader) {
+    lock.readLock().lock();
+    try {
+      return reader.get();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private <T> T write(final Supplier<T> writer) {
+    lock.writeLock().lock();
+    try {
+      return writer.get();
+    } finally {
+      allSnapshot.set(null);
+      byScoreSnapshot.set(null);
+      lock.writeLock().unlock();
+    }
+  }
+
+  private List<PendingTransaction> snapshot(
+      final AtomicReference<List<PendingTransaction>> published,
+      final Supplier<List<PendingTransaction>> reader) {
+    final List<PendingTransaction> current = published.get();
+    if (current != null) {
+      return current;
+    }
+    return read(
+        () -> {
+          // published while holding the read lock, so no write can run before it is visible
+          final List<PendingTransaction> built = Collections.unmodifiableList(reader.get());
+          published.set(built);
+          return built;
+        });
   }
 
   @Override
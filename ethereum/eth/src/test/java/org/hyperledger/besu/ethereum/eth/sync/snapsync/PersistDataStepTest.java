@@ -35,9 +35,11 @@ import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorageCoordinator;
 import org.hyperledger.besu.plugin.services.storage.WorldStateKeyValueStorage;
 import org.hyperledger.besu.services.tasks.Task;
+import org.hyperledger.besu.testutil.DeterministicEthScheduler;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -77,6 +79,23 @@ public class PersistDataStepTest {
     assertDataPersisted(tasks);
   }
 
+  @Test
+  public void shouldPersistDataWhenRangesArePreparedOnScheduler() {
+    final PersistDataStep parallelPersistDataStep =
+        new PersistDataStep(
+            snapSyncState,
+            worldStateStorageCoordinator,
+            downloadState,
+            snapSyncConfiguration,
+            Optional.of(new DeterministicEthScheduler()));
+    final List<Task<SnapDataRequest>> tasks = TaskGenerator.createAccountRequest(true, false);
+    final List<Task<SnapDataRequest>> result = parallelPersistDataStep.persist(tasks);
+
+    assertThat(result).isSameAs(tasks);
+
+    assertDataPersisted(tasks);
+  }
+
   @Test
   public void shouldPersistTrieNodeHealDataOnlyOnce() {
 
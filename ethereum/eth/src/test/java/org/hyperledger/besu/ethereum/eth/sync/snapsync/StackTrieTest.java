@@ -147,6 +147,59 @@ public class StackTrieTest {
         .isPresent();
   }
 
+  @Test
+  public void preparedCommitWritesSameDataAsInlineCommit() {
+    final int nbAccounts = 15;
+
+    final ForestWorldStateKeyValueStorage worldStateKeyValueStorage =
+        new ForestWorldStateKeyValueStorage(new InMemoryKeyValueStorage());
+    final WorldStateStorageCoordinator worldStateStorageCoordinator =
+        new WorldStateStorageCoordinator(worldStateKeyValueStorage);
+
+    final MerkleTrie<Bytes, Bytes> accountStateTrie =
+        TrieGenerator.generateTrie(worldStateStorageCoordinator, nbAccounts);
+    final Hash rootHash = Hash.wrap(accountStateTrie.getRootHash());
+
+    final RangeStorageEntriesCollector collector =
+        RangeStorageEntriesCollector.createCollector(
+            lastAccount, RangeManager.MAX_RANGE, 5, Integer.MAX_VALUE);
+    final TrieIterator<Bytes> visitor = RangeStorageEntriesCollector.createVisitor(collector);
+    final TreeMap<Bytes32, Bytes> accounts =
+        (TreeMap<Bytes32, Bytes>)
+            accountStateTrie.entriesFrom(
+                root ->
+                    RangeStorageEntriesCollector.collectEntries(
+                        collector, visitor, root, lastAccount));
+
+    final WorldStateProofProvider worldStateProofProvider =
+        new WorldStateProofProvider(worldStateStorageCoordinator);
+    final List<Bytes> proofs =
+        worldStateProofProvider.getAccountProofRelatedNodes(rootHash, lastAccount);
+    proofs.addAll(
+        worldStateProofProvider.getAccountProofRelatedNodes(rootHash, accounts.lastKey()));
+
+    final StackTrie inlineStackTrie = new StackTrie(rootHash, lastAccount);
+    inlineStackTrie.addElement(Bytes32.ZERO, proofs, accounts);
+    final List<Bytes> inlineWrites = new ArrayList<>();
+    inlineStackTrie.commit(
+        (key, value) -> inlineWrites.add(key),
+        (location, hash, value) -> inlineWrites.add(hash),
+        false);
+
+    final StackTrie preparedStackTrie = new StackTrie(rootHash, lastAccount);
+    preparedStackTrie.addElement(Bytes32.ZERO, proofs, accounts);
+    preparedStackTrie.prepareCommit(false);
+    Assertions.assertThat(preparedStackTrie.isCommitPrepared()).isTrue();
+    final List<Bytes> preparedWrites = new ArrayList<>();
+    preparedStackTrie.commit(
+        (key, value) -> preparedWrites.add(key),
+        (location, hash, value) -> preparedWrites.add(hash),
+        false);
+
+    Assertions.assertThat(preparedStackTrie.isCommitPrepared()).isFalse();
+    Assertions.assertThat(preparedWrites).isNotEmpty().isEqualTo(inlineWrites);
+  }
+
   @Test
   public void shouldNotSaveNodeWithChildNotInTheRange() {
     final ForestWorldStateKeyValueStorage worldStateStorage =
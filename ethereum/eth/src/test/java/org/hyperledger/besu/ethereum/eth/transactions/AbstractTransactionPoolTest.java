@@ -39,6 +39,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.quality.Strictness.LENIENT;
 
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.datatypes.Wei;
@@ -62,6 +63,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -137,6 +139,22 @@ public abstract class AbstractTransactionPoolTest extends AbstractTransactionPoo
     assertThat(transactionPool.count()).isZero();
   }
 
+  @Test
+  public void shouldAddLargeBatchOfRemoteTransactionsFromManySenders() {
+    givenAllTransactionsAreValid();
+    final Transaction[] txs =
+        IntStream.range(0, 40)
+            .mapToObj(
+                i ->
+                    createTransaction(
+                        0, SignatureAlgorithmFactory.getInstance().generateKeyPair()))
+            .toArray(Transaction[]::new);
+
+    addAndAssertRemoteTransactionsValid(txs);
+
+    assertThat(transactionPool.count()).isEqualTo(txs.length);
+  }
+
   @Test
   public void shouldIgnoreUnknownTransactionsThatAreAddedInABlock() {
     givenTransactionIsValid(transaction0);
@@ -0,0 +1,145 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.transactions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TransactionPoolJournalTest {
+  private static final KeyPair KEY_PAIR = SignatureAlgorithmFactory.getInstance().generateKeyPair();
+  private static final KeyPair LOCAL_KEY_PAIR =
+      SignatureAlgorithmFactory.getInstance().generateKeyPair();
+
+  @TempDir Path tempDir;
+
+  private final Transaction transaction0 = createTransaction(0, KEY_PAIR);
+  private final Transaction transaction1 = createTransaction(1, KEY_PAIR);
+  private final Transaction localTransaction = createTransaction(0, LOCAL_KEY_PAIR);
+
+  @Test
+  void restoresTransactionsNotDropped() throws IOException {
+    final TransactionPoolJournal journal = createJournal();
+    journal.onTransactionAdded(transaction0);
+    journal.onTransactionAdded(transaction1);
+    journal.onTransactionAdded(localTransaction);
+    journal.onTransactionDropped(transaction0);
+    journal.close();
+
+    final List<TransactionPoolJournal.JournaledTransaction> restored = createJournal().restore();
+
+    assertThat(restored)
+        .containsExactly(
+            new TransactionPoolJournal.JournaledTransaction(transaction1, false),
+            new TransactionPoolJournal.JournaledTransaction(localTransaction, true));
+  }
+
+  @Test
+  void restoreIgnoresRecordCutShortByACrash() throws IOException {
+    final TransactionPoolJournal journal = createJournal();
+    journal.onTransactionAdded(transaction0);
+    journal.onTransactionAdded(transaction1);
+    journal.close();
+    final Path journalPath = journalFile().toPath();
+    final long fullSize = Files.size(journalPath);
+    try (var channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+      channel.truncate(fullSize - 10);
+    }
+
+    assertThat(createJournal().restore())
+        .containsExactly(new TransactionPoolJournal.JournaledTransaction(transaction0, false));
+  }
+
+  @Test
+  void restoreRewritesJournalWithOnlyTheRestoredTransactions() throws IOException {
+    final TransactionPoolJournal journal = createJournal();
+    journal.onTransactionAdded(transaction0);
+    journal.onTransactionAdded(transaction1);
+    journal.onTransactionDropped(transaction0);
+    journal.onTransactionDropped(transaction1);
+    journal.onTransactionAdded(localTransaction);
+    journal.close();
+
+    final TransactionPoolJournal restoredJournal = createJournal();
+    assertThat(restoredJournal.restore()).hasSize(1);
+    final long compactedSize = Files.size(journalFile().toPath());
+    assertThat(restoredJournal.restore()).hasSize(1);
+
+    assertThat(Files.size(journalFile().toPath())).isEqualTo(compactedSize);
+  }
+
+  @Test
+  void transactionDroppedAndAddedAgainBetweenFlushesIsRestored() throws IOException {
+    final TransactionPoolJournal journal = createJournal();
+    journal.onTransactionAdded(transaction0);
+    journal.flush();
+    journal.onTransactionDropped(transaction0);
+    journal.onTransactionAdded(transaction0);
+    journal.close();
+
+    assertThat(createJournal().restore())
+        .containsExactly(new TransactionPoolJournal.JournaledTransaction(transaction0, false));
+  }
+
+  @Test
+  void restoredTransactionsAddedBackAreNotJournaledAgain() throws IOException {
+    final TransactionPoolJournal journal = createJournal();
+    journal.onTransactionAdded(transaction0);
+    journal.onTransactionAdded(transaction1);
+    journal.close();
+
+    final TransactionPoolJournal restarted = createJournal();
+    restarted.restore();
+    final long restoredSize = Files.size(journalFile().toPath());
+    // the pool notifies the restored transactions as added
+    restarted.onTransactionAdded(transaction0);
+    restarted.onTransactionAdded(transaction1);
+    restarted.close();
+
+    assertThat(Files.size(journalFile().toPath())).isEqualTo(restoredSize);
+  }
+
+  @Test
+  void nothingToRestoreWithoutJournal() throws IOException {
+    assertThat(createJournal().restore()).isEmpty();
+  }
+
+  private TransactionPoolJournal createJournal() {
+    return new TransactionPoolJournal(
+        journalFile(), sender -> sender.equals(localTransaction.getSender()));
+  }
+
+  private File journalFile() {
+    return tempDir.resolve("txpool.dump.journal").toFile();
+  }
+
+  private static Transaction createTransaction(final long nonce, final KeyPair keyPair) {
+    return new TransactionTestFixture().nonce(nonce).createTransaction(keyPair);
+  }
+}
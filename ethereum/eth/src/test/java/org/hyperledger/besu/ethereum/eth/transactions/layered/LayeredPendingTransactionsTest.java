@@ -15,6 +15,7 @@
 package org.hyperledger.besu.ethereum.eth.transactions.layered;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 import static org.hyperledger.besu.datatypes.TransactionType.BLOB;
 import static org.hyperledger.besu.ethereum.eth.transactions.TransactionAddedResult.ADDED;
@@ -62,6 +63,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.SequencedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -221,6 +226,55 @@ public class LayeredPendingTransactionsTest extends BaseTransactionPoolTest {
         .isEqualTo(2);
   }
 
+  @Test
+  public void concurrentAddsAndReadsFromManySenders() {
+    final int senderCount = 4;
+    final int txsBySender = MAX_TRANSACTIONS - 1;
+    final List<List<Transaction>> txsOfSenders = new ArrayList<>(senderCount);
+    for (int i = 0; i < senderCount; i++) {
+      final KeyPair keyPair = SIGNATURE_ALGORITHM.generateKeyPair();
+      final List<Transaction> senderTxs = new ArrayList<>(txsBySender);
+      for (int nonce = 0; nonce < txsBySender; nonce++) {
+        senderTxs.add(createTransaction(nonce, keyPair));
+      }
+      txsOfSenders.add(senderTxs);
+    }
+    final AtomicBoolean adding = new AtomicBoolean(true);
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(senderCount + 1)) {
+      final CompletableFuture<Void> reads =
+          CompletableFuture.runAsync(
+              () -> {
+                while (adding.get()) {
+                  pendingTransactions.getPendingTransactionsBySender();
+                  pendingTransactions.getNextNonceForSender(txsOfSenders.get(0).get(0).getSender());
+                }
+              },
+              executor);
+      final CompletableFuture<?>[] adds =
+          txsOfSenders.stream()
+              .map(
+                  senderTxs ->
+                      CompletableFuture.runAsync(
+                          () ->
+                              senderTxs.forEach(
+                                  tx ->
+                                      pendingTransactions.addTransaction(
+                                          createRemotePendingTransaction(tx), Optional.empty())),
+                          executor))
+              .toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(adds).join();
+      adding.set(false);
+      reads.join();
+    }
+
+    assertThat(pendingTransactions.size()).isEqualTo(senderCount * txsBySender);
+    txsOfSenders.forEach(
+        senderTxs ->
+            assertThat(pendingTransactions.getNextNonceForSender(senderTxs.get(0).getSender()))
+                .hasValue(txsBySender));
+  }
+
   @Test
   public void getNotPresentTransaction() {
     assertThat(pendingTransactions.getTransactionByHash(Hash.EMPTY_TRIE_HASH)).isEmpty();
@@ -498,6 +552,25 @@ public class LayeredPendingTransactionsTest extends BaseTransactionPoolTest {
         .containsExactly(transaction0);
   }
 
+  @Test
+  public void pendingTransactionsSnapshotIsSharedUntilTheNextChange() {
+    pendingTransactions.addTransaction(
+        createRemotePendingTransaction(transaction0), Optional.empty());
+
+    final List<PendingTransaction> snapshot = pendingTransactions.getPendingTransactions();
+    assertThat(pendingTransactions.getPendingTransactions()).isSameAs(snapshot);
+    assertThatThrownBy(snapshot::clear).isInstanceOf(UnsupportedOperationException.class);
+
+    pendingTransactions.addTransaction(
+        createRemotePendingTransaction(transaction1), Optional.empty());
+
+    assertThat(snapshot).map(PendingTransaction::getTransaction).containsExactly(transaction0);
+    assertThat(pendingTransactions.getPendingTransactions())
+        .isNotSameAs(snapshot)
+        .map(PendingTransaction::getTransaction)
+        .containsExactlyInAnyOrder(transaction0, transaction1);
+  }
+
   @Test
   public void returnEmptyOptionalAsMaximumNonceWhenNoTransactionsPresent() {
     assertThat(pendingTransactions.getNextNonceForSender(SENDER1)).isEmpty();
@@ -78,8 +78,7 @@ public class InnerNodeDiscoveryManager<V> extends StoredNodeFactory<V> {
   protected BranchNode<V> decodeBranch(
       final Bytes location, final RLPInput nodeRLPs, final Supplier<String> errMessage) {
     final BranchNode<V> vBranchNode = super.decodeBranch(location, nodeRLPs, errMessage);
-    final List<Node<V>> children = vBranchNode.getChildren();
-    for (int i = 0; i < children.size(); i++) {
+    for (int i = 0; i < vBranchNode.maxChild(); i++) {
       if (isInRange(Bytes.concatenate(location, Bytes.of(i)), startKeyPath, endKeyPath)) {
         innerNodes.add(
             ImmutableInnerNode.builder()
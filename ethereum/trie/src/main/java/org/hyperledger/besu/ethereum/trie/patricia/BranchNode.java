@@ -14,8 +14,6 @@
  */
 package org.hyperledger.besu.ethereum.trie.patricia;
 
-import static org.hyperledger.besu.crypto.Hash.keccak256;
-
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.LocationNodeVisitor;
@@ -24,13 +22,12 @@ import org.hyperledger.besu.ethereum.trie.NodeFactory;
 import org.hyperledger.besu.ethereum.trie.NodeVisitor;
 import org.hyperledger.besu.ethereum.trie.NullNode;
 import org.hyperledger.besu.ethereum.trie.PathNodeVisitor;
+import org.hyperledger.besu.ethereum.trie.StoredNode;
 
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -38,18 +35,30 @@ import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.bytes.MutableBytes;
 
+/**
+ * Branch node of a Merkle-Patricia trie.
+ *
+ * <p>Children are kept in an array together with a 16-bit mask of the non-empty ones. A branch
+ * decoded from storage keeps the hashes of its hash-referenced children inline in a single byte
+ * array and only materializes a {@link StoredNode} for a child when it is visited. The encoding and
+ * hash are cached in plain fields, so they are not recomputed after a garbage collection.
+ */
 public class BranchNode<V> implements Node<V> {
 
   @SuppressWarnings("rawtypes")
   protected static final Node NULL_NODE = NullNode.instance();
 
   private final Optional<Bytes> location;
-  private final List<Node<V>> children;
+  // null entries are hash-referenced children not materialized yet
+  private final Node<V>[] children;
+  private final short childMask;
+  private final short hashMask;
+  private final byte[] childHashes;
   private final Optional<V> value;
   protected final NodeFactory<V> nodeFactory;
   private final Function<V, Bytes> valueSerializer;
-  protected WeakReference<Bytes> encodedBytes;
-  private SoftReference<Bytes32> hash;
+  protected Bytes encodedBytes;
+  private Bytes32 hash;
   private boolean dirty = false;
   private boolean needHeal = false;
 
@@ -59,12 +68,14 @@ public class BranchNode<V> implements Node<V> {
       final Optional<V> value,
       final NodeFactory<V> nodeFactory,
       final Function<V, Bytes> valueSerializer) {
-    assert (children.size() == maxChild());
-    this.location = Optional.ofNullable(location);
-    this.children = children;
-    this.value = value;
-    this.nodeFactory = nodeFactory;
-    this.valueSerializer = valueSerializer;
+    this(
+        Optional.ofNullable(location),
+        toArray(children),
+        (short) 0,
+        null,
+        value,
+        nodeFactory,
+        valueSerializer);
   }
 
   public BranchNode(
@@ -72,14 +83,70 @@ public class BranchNode<V> implements Node<V> {
       final Optional<V> value,
       final NodeFactory<V> nodeFactory,
       final Function<V, Bytes> valueSerializer) {
-    assert (children.size() == maxChild());
-    this.location = Optional.empty();
+    this(Optional.empty(), toArray(children), (short) 0, null, value, nodeFactory, valueSerializer);
+  }
+
+  /**
+   * Creates a branch whose hash-referenced children are only known by their hash.
+   *
+   * @param location the location of the branch, or null
+   * @param children the children, with null for each child referenced by hash
+   * @param hashMask the mask of the children referenced by hash
+   * @param childHashes the hashes of the children referenced by hash, in index order
+   * @param value the value of the branch
+   * @param nodeFactory the node factory
+   * @param valueSerializer the value serializer
+   */
+  BranchNode(
+      final Bytes location,
+      final Node<V>[] children,
+      final short hashMask,
+      final byte[] childHashes,
+      final Optional<V> value,
+      final NodeFactory<V> nodeFactory,
+      final Function<V, Bytes> valueSerializer) {
+    this(
+        Optional.ofNullable(location),
+        children,
+        hashMask,
+        childHashes,
+        value,
+        nodeFactory,
+        valueSerializer);
+  }
+
+  private BranchNode(
+      final Optional<Bytes> location,
+      final Node<V>[] children,
+      final short hashMask,
+      final byte[] childHashes,
+      final Optional<V> value,
+      final NodeFactory<V> nodeFactory,
+      final Function<V, Bytes> valueSerializer) {
+    assert (children.length == maxChild());
+    assert (Integer.bitCount(hashMask & 0xFFFF) * Bytes32.SIZE
+        == (childHashes == null ? 0 : childHashes.length));
+    this.location = location;
     this.children = children;
+    int mask = hashMask & 0xFFFF;
+    for (int i = 0; i < children.length; i++) {
+      if (children[i] != null && children[i] != NULL_NODE) {
+        mask |= 1 << i;
+      }
+    }
+    this.childMask = (short) mask;
+    this.hashMask = hashMask;
+    this.childHashes = childHashes;
     this.value = value;
     this.nodeFactory = nodeFactory;
     this.valueSerializer = valueSerializer;
   }
 
+  @SuppressWarnings("unchecked")
+  private static <V> Node<V>[] toArray(final List<Node<V>> children) {
+    return children.toArray(new Node[0]);
+  }
+
   @Override
   public Node<V> accept(final PathNodeVisitor<V> visitor, final Bytes path) {
     return visitor.visit(this, path);
@@ -112,25 +179,65 @@ public class BranchNode<V> implements Node<V> {
 
   @Override
   public List<Node<V>> getChildren() {
-    return Collections.unmodifiableList(children);
+    return Collections.unmodifiableList(Arrays.asList(materializedChildren()));
   }
 
   public Node<V> child(final byte index) {
-    return children.get(index);
+    final Node<V> child = children[index];
+    if (child != null) {
+      return child;
+    }
+    final Node<V> storedChild =
+        new StoredNode<>(
+            nodeFactory,
+            location.map(l -> Bytes.concatenate(l, Bytes.of(index))).orElse(null),
+            childHash(index));
+    children[index] = storedChild;
+    return storedChild;
+  }
+
+  /**
+   * Whether the child at the index is only known by its hash, i.e. no node has been created for it
+   * yet. Such a child comes from storage and is never dirty.
+   *
+   * @param index the child index
+   * @return true if {@link #child(byte)} would have to create a stored node for the child
+   */
+  public boolean isChildReferencedByHashOnly(final byte index) {
+    return children[index] == null;
+  }
+
+  private Node<V>[] materializedChildren() {
+    if (hashMask != 0) {
+      for (int i = 0; i < children.length; i++) {
+        child((byte) i);
+      }
+    }
+    return children;
+  }
+
+  private boolean isReferencedByInlineHash(final int index) {
+    return (hashMask & (1 << index)) != 0;
+  }
+
+  private Bytes32 childHash(final int index) {
+    final int rank = Integer.bitCount(hashMask & 0xFFFF & ((1 << index) - 1));
+    return Bytes32.wrap(childHashes, rank * Bytes32.SIZE);
   }
 
   @Override
   public Bytes getEncodedBytes() {
     if (encodedBytes != null) {
-      final Bytes encoded = encodedBytes.get();
-      if (encoded != null) {
-        return encoded;
-      }
+      return encodedBytes;
     }
     final BytesValueRLPOutput out = new BytesValueRLPOutput();
     out.startList();
     for (int i = 0; i < maxChild(); ++i) {
-      out.writeRaw(children.get(i).getEncodedBytesRef());
+      if (isReferencedByInlineHash(i)) {
+        out.writeBytes(childHash(i));
+      } else {
+        out.writeRaw(children[i].getEncodedBytesRef());
+      }
     }
     if (value.isPresent()) {
       out.writeBytes(valueSerializer.apply(value.get()));
@@ -139,7 +246,7 @@ public class BranchNode<V> implements Node<V> {
     }
     out.endList();
     final Bytes encoded = out.encoded();
-    encodedBytes = new WeakReference<>(encoded);
+    encodedBytes = encoded;
     return encoded;
   }
 
@@ -155,13 +262,10 @@ public class BranchNode<V> implements Node<V> {
   @Override
   public Bytes32 getHash() {
     if (hash != null) {
-      final Bytes32 hashed = hash.get();
-      if (hashed != null) {
-        return hashed;
-      }
+      return hash;
     }
-    final Bytes32 hashed = keccak256(getEncodedBytes());
-    hash = new SoftReference<>(hashed);
+    final Bytes32 hashed = TrieNodeHasher.keccak256(getEncodedBytes());
+    hash = hashed;
     return hashed;
   }
 
@@ -176,7 +280,7 @@ public class BranchNode<V> implements Node<V> {
 
   public Node<V> replaceChild(
       final byte index, final Node<V> updatedChild, final boolean allowFlatten) {
-    final ArrayList<Node<V>> newChildren = new ArrayList<>(children);
+    final List<Node<V>> newChildren = new ArrayList<>(Arrays.asList(materializedChildren()));
     newChildren.set(index, updatedChild);
 
     if (updatedChild == NULL_NODE) {
@@ -216,20 +320,17 @@ public class BranchNode<V> implements Node<V> {
   }
 
   public Node<V> replaceValue(final V value) {
-    return nodeFactory.createBranch(children, Optional.of(value));
+    return nodeFactory.createBranch(Arrays.asList(materializedChildren()), Optional.of(value));
   }
 
   public Node<V> removeValue() {
-    return maybeFlatten(children).orElse(nodeFactory.createBranch(children, Optional.empty()));
+    final List<Node<V>> currentChildren = Arrays.asList(materializedChildren());
+    return maybeFlatten(currentChildren)
+        .orElse(nodeFactory.createBranch(currentChildren, Optional.empty()));
   }
 
   protected boolean hasChildren() {
-    for (final Node<V> child : children) {
-      if (child != NULL_NODE) {
-        return true;
-      }
-    }
-    return false;
+    return childMask != 0;
   }
 
   protected Optional<Node<V>> maybeFlatten(final List<Node<V>> children) {
@@ -266,8 +367,8 @@ public class BranchNode<V> implements Node<V> {
     builder.append("Branch:");
     builder.append("\n\tRef: ").append(getEncodedBytesRef());
     for (int i = 0; i < maxChild(); i++) {
-      final Node<V> child = child((byte) i);
-      if (!Objects.equals(child, NullNode.instance())) {
+      if ((childMask & (1 << i)) != 0) {
+        final Node<V> child = child((byte) i);
         final String branchLabel = "[" + Integer.toHexString(i) + "] ";
         final String childRep = child.print().replaceAll("\n\t", "\n\t\t");
         builder.append("\n\t").append(branchLabel).append(childRep);
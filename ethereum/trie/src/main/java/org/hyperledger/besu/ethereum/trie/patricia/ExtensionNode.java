@@ -14,8 +14,6 @@
  */
 package org.hyperledger.besu.ethereum.trie.patricia;
 
-import static org.hyperledger.besu.crypto.Hash.keccak256;
-
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.CompactEncoding;
@@ -25,8 +23,6 @@ import org.hyperledger.besu.ethereum.trie.NodeFactory;
 import org.hyperledger.besu.ethereum.trie.NodeVisitor;
 import org.hyperledger.besu.ethereum.trie.PathNodeVisitor;
 
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -40,8 +36,8 @@ public class ExtensionNode<V> implements Node<V> {
   private final Bytes path;
   private final Node<V> child;
   private final NodeFactory<V> nodeFactory;
-  private WeakReference<Bytes> rlp;
-  private SoftReference<Bytes32> hash;
+  private Bytes rlp;
+  private Bytes32 hash;
   private boolean dirty = false;
   private boolean needHeal = false;
 
@@ -111,10 +107,7 @@ public class ExtensionNode<V> implements Node<V> {
   @Override
   public Bytes getEncodedBytes() {
     if (rlp != null) {
-      final Bytes encoded = rlp.get();
-      if (encoded != null) {
-        return encoded;
-      }
+      return rlp;
     }
     final BytesValueRLPOutput out = new BytesValueRLPOutput();
     out.startList();
@@ -122,7 +115,7 @@ public class ExtensionNode<V> implements Node<V> {
     out.writeRaw(child.getEncodedBytesRef());
     out.endList();
     final Bytes encoded = out.encoded();
-    rlp = new WeakReference<>(encoded);
+    rlp = encoded;
     return encoded;
   }
 
@@ -138,14 +131,11 @@ public class ExtensionNode<V> implements Node<V> {
   @Override
   public Bytes32 getHash() {
     if (hash != null) {
-      final Bytes32 hashed = hash.get();
-      if (hashed != null) {
-        return hashed;
-      }
+      return hash;
     }
     final Bytes rlp = getEncodedBytes();
-    final Bytes32 hashed = keccak256(rlp);
-    hash = new SoftReference<>(hashed);
+    final Bytes32 hashed = TrieNodeHasher.keccak256(rlp);
+    hash = hashed;
     return hashed;
   }
 
@@ -14,8 +14,6 @@
  */
 package org.hyperledger.besu.ethereum.trie.patricia;
 
-import static org.hyperledger.besu.crypto.Hash.keccak256;
-
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.CompactEncoding;
@@ -25,8 +23,6 @@ import org.hyperledger.besu.ethereum.trie.NodeFactory;
 import org.hyperledger.besu.ethereum.trie.NodeVisitor;
 import org.hyperledger.besu.ethereum.trie.PathNodeVisitor;
 
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -41,8 +37,8 @@ public class LeafNode<V> implements Node<V> {
   protected final V value;
   private final NodeFactory<V> nodeFactory;
   protected final Function<V, Bytes> valueSerializer;
-  protected WeakReference<Bytes> encodedBytes;
-  private SoftReference<Bytes32> hash;
+  protected Bytes encodedBytes;
+  private Bytes32 hash;
   private boolean dirty = false;
 
   public LeafNode(
@@ -108,10 +104,7 @@ public class LeafNode<V> implements Node<V> {
   @Override
   public Bytes getEncodedBytes() {
     if (encodedBytes != null) {
-      final Bytes encoded = encodedBytes.get();
-      if (encoded != null) {
-        return encoded;
-      }
+      return encodedBytes;
     }
 
     final BytesValueRLPOutput out = new BytesValueRLPOutput();
@@ -120,7 +113,7 @@ public class LeafNode<V> implements Node<V> {
     out.writeBytes(valueSerializer.apply(value));
     out.endList();
     final Bytes encoded = out.encoded();
-    encodedBytes = new WeakReference<>(encoded);
+    encodedBytes = encoded;
     return encoded;
   }
 
@@ -136,13 +129,10 @@ public class LeafNode<V> implements Node<V> {
   @Override
   public Bytes32 getHash() {
     if (hash != null) {
-      final Bytes32 hashed = hash.get();
-      if (hashed != null) {
-        return hashed;
-      }
+      return hash;
     }
-    final Bytes32 hashed = keccak256(getEncodedBytes());
-    hash = new SoftReference<>(hashed);
+    final Bytes32 hashed = TrieNodeHasher.keccak256(getEncodedBytes());
+    hash = hashed;
     return hashed;
   }
 
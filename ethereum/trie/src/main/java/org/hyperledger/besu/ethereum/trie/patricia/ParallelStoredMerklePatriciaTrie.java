@@ -63,9 +63,21 @@ public class ParallelStoredMerklePatriciaTrie<K extends Bytes, V>
    */
   private static final ForkJoinPool FORK_JOIN_POOL = new ForkJoinPool(NCPU * 2);
 
+  /**
+   * Number of pending updates from which dirty nodes are hashed level by level once the trie is
+   * updated, instead of while the updates are applied.
+   */
+  private static final int BATCHED_HASHING_THRESHOLD = 1024;
+
+  /** Number of nodes of a level hashed by a single task. */
+  private static final int HASHING_BATCH_SIZE = 256;
+
   /** Pending updates accumulated between commits */
   private final Map<K, Optional<V>> pendingUpdates = new ConcurrentHashMap<>();
 
+  /** Whether hashing is deferred to a level-by-level pass for the updates being processed. */
+  private boolean isHashingDeferred = false;
+
   /**
    * Creates a new parallel trie with an empty root.
    *
@@ -197,6 +209,7 @@ public class ParallelStoredMerklePatriciaTrie<K extends Bytes, V>
 
       final CommitCache commitCache = new CommitCache();
       final boolean shouldCommit = maybeNodeUpdater.isPresent();
+      isHashingDeferred = entries.size() >= BATCHED_HASHING_THRESHOLD;
 
       this.root =
           FORK_JOIN_POOL.invoke(
@@ -209,6 +222,10 @@ public class ParallelStoredMerklePatriciaTrie<K extends Bytes, V>
                           entries,
                           shouldCommit ? Optional.of(commitCache) : Optional.empty())));
 
+      if (isHashingDeferred) {
+        hashDirtyNodesByLevel(shouldCommit ? Optional.of(commitCache) : Optional.empty());
+      }
+
       // Persist all nodes to storage if committing
       if (maybeNodeUpdater.isPresent()) {
         commitCache.flushTo(maybeNodeUpdater.get());
@@ -218,6 +235,7 @@ public class ParallelStoredMerklePatriciaTrie<K extends Bytes, V>
     } finally {
       // Always clear pending updates after processing
       pendingUpdates.clear();
+      isHashingDeferred = false;
     }
   }
 
@@ -580,6 +598,9 @@ public class ParallelStoredMerklePatriciaTrie<K extends Bytes, V>
    */
   private void commitOrHashNode(
       final Node<V> node, final Bytes location, final Optional<CommitCache> maybeCommitCache) {
+    if (isHashingDeferred) {
+      return;
+    }
     if (maybeCommitCache.isPresent()) {
       node.accept(
           location,
@@ -590,6 +611,54 @@ public class ParallelStoredMerklePatriciaTrie<K extends Bytes, V>
     }
   }
 
+  /**
+   * Hashes the dirty nodes of the updated trie bottom-up, one level at a time. The nodes of a level
+   * only depend on the hashes of the level below, so each level is split into batches hashed
+   * concurrently on the pool. When committing, the nodes are stored as they are hashed.
+   *
+   * @param maybeCommitCache optional commit cache for storing nodes
+   */
+  private void hashDirtyNodesByLevel(final Optional<CommitCache> maybeCommitCache) {
+    final List<List<NodeAtLocation<V>>> levels = new ArrayList<>();
+    List<NodeAtLocation<V>> level =
+        root.isDirty() ? List.of(new NodeAtLocation<>(Bytes.EMPTY, root)) : List.of();
+    while (!level.isEmpty()) {
+      levels.add(level);
+      final List<NodeAtLocation<V>> nextLevel = new ArrayList<>();
+      for (final NodeAtLocation<V> parent : level) {
+        parent.addDirtyChildren(nextLevel);
+      }
+      level = nextLevel;
+    }
+
+    for (int depth = levels.size() - 1; depth >= 0; depth--) {
+      final List<NodeAtLocation<V>> nodes = levels.get(depth);
+      if (nodes.size() <= HASHING_BATCH_SIZE) {
+        hashNodes(nodes, maybeCommitCache);
+        continue;
+      }
+      final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (int from = 0; from < nodes.size(); from += HASHING_BATCH_SIZE) {
+        final List<NodeAtLocation<V>> batch =
+            nodes.subList(from, Math.min(from + HASHING_BATCH_SIZE, nodes.size()));
+        tasks.add(FORK_JOIN_POOL.submit(() -> hashNodes(batch, maybeCommitCache)));
+      }
+      tasks.forEach(ForkJoinTask::join);
+    }
+  }
+
+  private void hashNodes(
+      final List<NodeAtLocation<V>> nodes, final Optional<CommitCache> maybeCommitCache) {
+    for (final NodeAtLocation<V> nodeAtLocation : nodes) {
+      final Node<V> node = nodeAtLocation.node();
+      final Bytes encoded = node.getEncodedBytes();
+      final Bytes32 hash = node.getHash();
+      if (maybeCommitCache.isPresent() && encoded.size() >= Bytes32.SIZE) {
+        maybeCommitCache.get().store(nodeAtLocation.location(), hash, encoded);
+      }
+    }
+  }
+
   /**
    * Applies updates sequentially using the visitor pattern.
    *
@@ -681,6 +750,40 @@ public class ParallelStoredMerklePatriciaTrie<K extends Bytes, V>
     }
   }
 
+  /**
+   * A dirty node of the updated trie with its location.
+   *
+   * @param location the location of the node
+   * @param node the node
+   */
+  private record NodeAtLocation<V>(Bytes location, Node<V> node) {
+    void addDirtyChildren(final List<NodeAtLocation<V>> dirtyChildren) {
+      switch (node) {
+        case BranchNode<V> branch -> {
+          for (int i = 0; i < branch.maxChild(); i++) {
+            // a child only known by its hash is clean, do not create a stored node for it
+            if (branch.isChildReferencedByHashOnly((byte) i)) {
+              continue;
+            }
+            final Node<V> child = branch.child((byte) i);
+            if (child.isDirty()) {
+              dirtyChildren.add(
+                  new NodeAtLocation<>(Bytes.concatenate(location, Bytes.of(i)), child));
+            }
+          }
+        }
+        case ExtensionNode<V> extension -> {
+          if (extension.getChild().isDirty()) {
+            dirtyChildren.add(
+                new NodeAtLocation<>(
+                    Bytes.concatenate(location, extension.getPath()), extension.getChild()));
+          }
+        }
+        default -> {}
+      }
+    }
+  }
+
   private class BranchWrapper {
     private final BranchNode<V> originalBranch;
     private final List<Node<V>> pendingChildren;
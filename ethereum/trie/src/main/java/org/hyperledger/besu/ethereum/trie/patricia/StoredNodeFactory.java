@@ -28,6 +28,7 @@ import org.hyperledger.besu.ethereum.trie.NullNode;
 import org.hyperledger.besu.ethereum.trie.StoredNode;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -36,6 +37,7 @@ import java.util.function.Supplier;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.MutableBytes;
 
 public class StoredNodeFactory<V> implements NodeFactory<V> {
   @SuppressWarnings("rawtypes")
@@ -191,25 +193,25 @@ public class StoredNodeFactory<V> implements NodeFactory<V> {
   @SuppressWarnings("unchecked")
   protected BranchNode<V> decodeBranch(
       final Bytes location, final RLPInput nodeRLPs, final Supplier<String> errMessage) {
-    final ArrayList<Node<V>> children = new ArrayList<>(RADIX);
+    final Node<V>[] children = new Node[RADIX];
+    final byte[] hashes = new byte[RADIX * Bytes32.SIZE];
+    int hashMask = 0;
+    int hashCount = 0;
     for (int i = 0; i < RADIX; ++i) {
       if (nodeRLPs.nextIsNull()) {
         nodeRLPs.skipNext();
-        children.add(NULL_NODE);
+        children[i] = NULL_NODE;
       } else if (nodeRLPs.nextIsList()) {
-        final Node<V> child =
+        children[i] =
             decode(
                 location == null ? null : Bytes.concatenate(location, Bytes.of((byte) i)),
                 nodeRLPs,
                 errMessage);
-        children.add(child);
       } else {
-        final Bytes32 childHash = nodeRLPs.readBytes32();
-        children.add(
-            new StoredNode<>(
-                this,
-                location == null ? null : Bytes.concatenate(location, Bytes.of((byte) i)),
-                childHash));
+        // children referenced by hash are only materialized when visited
+        nodeRLPs.readBytes32().copyTo(MutableBytes.wrap(hashes), hashCount * Bytes32.SIZE);
+        hashMask |= 1 << i;
+        hashCount++;
       }
     }
 
@@ -221,7 +223,14 @@ public class StoredNodeFactory<V> implements NodeFactory<V> {
       value = Optional.of(decodeValue(nodeRLPs, errMessage));
     }
 
-    return new BranchNode<>(location, children, value, this, valueSerializer);
+    return new BranchNode<>(
+        location,
+        children,
+        (short) hashMask,
+        Arrays.copyOf(hashes, hashCount * Bytes32.SIZE),
+        value,
+        this,
+        valueSerializer);
   }
 
   protected LeafNode<V> decodeLeaf(
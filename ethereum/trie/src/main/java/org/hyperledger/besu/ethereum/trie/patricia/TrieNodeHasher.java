@@ -0,0 +1,50 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.patricia;
+
+import static org.hyperledger.besu.crypto.MessageDigestFactory.KECCAK256_ALG;
+
+import org.hyperledger.besu.crypto.MessageDigestFactory;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Keccak-256 of encoded trie nodes using one digest per thread, instead of cloning a shared digest
+ * for every node.
+ */
+final class TrieNodeHasher {
+
+  private static final ThreadLocal<MessageDigest> KECCAK256_DIGEST =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return MessageDigestFactory.create(KECCAK256_ALG);
+            } catch (final NoSuchAlgorithmException e) {
+              throw new RuntimeException(e);
+            }
+          });
+
+  private TrieNodeHasher() {}
+
+  static Bytes32 keccak256(final Bytes encodedNode) {
+    final MessageDigest digest = KECCAK256_DIGEST.get();
+    encodedNode.update(digest);
+    return Bytes32.wrap(digest.digest());
+  }
+}
@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.trie.patricia;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import org.hyperledger.besu.crypto.Hash;
 import org.hyperledger.besu.ethereum.trie.KeyValueMerkleStorage;
 import org.hyperledger.besu.ethereum.trie.MerkleStorage;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
@@ -406,6 +407,49 @@ class ParallelStoredMerklePatriciaTrieTest {
     assertThat(parallelTrie.getRootHash()).isEqualTo(sequentialTrie.getRootHash());
   }
 
+  @Test
+  void shouldHashLargeBatchesLevelByLevel() {
+    final int numKeys = 5000;
+    for (int i = 0; i < numKeys; i++) {
+      final Bytes key = Hash.keccak256(createKey(i));
+      parallelTrie.put(key, createValue(i));
+      sequentialTrie.put(key, createValue(i));
+    }
+    parallelTrie.commit(parallelStorage::put);
+    sequentialTrie.commit(sequentialStorage::put);
+    assertThat(parallelTrie.getRootHash()).isEqualTo(sequentialTrie.getRootHash());
+
+    // update, remove and add keys on top of the stored trie
+    for (int i = 0; i < numKeys; i += 2) {
+      final Bytes key = Hash.keccak256(createKey(i));
+      parallelTrie.put(key, createValue(i + 1));
+      sequentialTrie.put(key, createValue(i + 1));
+      final Bytes removedKey = Hash.keccak256(createKey(i + 1));
+      parallelTrie.remove(removedKey);
+      sequentialTrie.remove(removedKey);
+      final Bytes newKey = Hash.keccak256(createKey(numKeys + i));
+      parallelTrie.put(newKey, createValue(i));
+      sequentialTrie.put(newKey, createValue(i));
+    }
+    assertThat(parallelTrie.getRootHash()).isEqualTo(sequentialTrie.getRootHash());
+    parallelTrie.commit(parallelStorage::put);
+    sequentialTrie.commit(sequentialStorage::put);
+
+    final ParallelStoredMerklePatriciaTrie<Bytes, Bytes> reloadedTrie =
+        new ParallelStoredMerklePatriciaTrie<>(
+            parallelStorage::get,
+            sequentialTrie.getRootHash(),
+            Function.identity(),
+            Function.identity());
+    for (int i = 0; i < numKeys; i += 2) {
+      assertThat(reloadedTrie.get(Hash.keccak256(createKey(i))))
+          .isEqualTo(Optional.of(createValue(i + 1)));
+      assertThat(reloadedTrie.get(Hash.keccak256(createKey(i + 1)))).isEmpty();
+      assertThat(reloadedTrie.get(Hash.keccak256(createKey(numKeys + i))))
+          .isEqualTo(Optional.of(createValue(i)));
+    }
+  }
+
   @Test
   void shouldLoadStoredKeys() {
     final int numKeys = 10;
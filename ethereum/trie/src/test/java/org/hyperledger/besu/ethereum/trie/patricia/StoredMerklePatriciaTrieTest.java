@@ -19,10 +19,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.hyperledger.besu.ethereum.trie.KeyValueMerkleStorage;
 import org.hyperledger.besu.ethereum.trie.MerkleStorage;
 import org.hyperledger.besu.ethereum.trie.MerkleTrie;
+import org.hyperledger.besu.ethereum.trie.Node;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -123,4 +126,53 @@ public class StoredMerklePatriciaTrieTest extends AbstractMerklePatriciaTrieTest
     assertThat(trie.get(key2)).isEqualTo(Optional.of("value2"));
     assertThat(trie.get(key3)).isEqualTo(Optional.of("value3"));
   }
+
+  @Test
+  public void decodedBranchIsHashedWithoutLoadingItsChildren() {
+    final String longValue = "value".repeat(10);
+    for (int i = 0; i < 256; i++) {
+      trie.put(Bytes.of(i), longValue + i);
+    }
+    trie.commit(merkleStorage::put);
+    final Bytes32 rootHash = trie.getRootHash();
+
+    final List<Bytes32> loadedHashes = new ArrayList<>();
+    final StoredNodeFactory<String> nodeFactory =
+        new StoredNodeFactory<>(
+            (location, hash) -> {
+              loadedHashes.add(hash);
+              return merkleStorage.get(location, hash);
+            },
+            valueSerializer,
+            valueDeserializer);
+    final Node<String> root = nodeFactory.retrieve(Bytes.EMPTY, rootHash).orElseThrow();
+
+    assertThat(root.getHash()).isEqualTo(rootHash);
+    assertThat(loadedHashes).containsExactly(rootHash);
+
+    final StoredMerklePatriciaTrie<Bytes, String> reloaded =
+        new StoredMerklePatriciaTrie<>(nodeFactory, rootHash);
+    assertThat(reloaded.get(Bytes.of(42))).contains(longValue + 42);
+    assertThat(loadedHashes).hasSize(4);
+  }
+
+  @Test
+  public void decodedBranchCreatesChildNodesOnlyWhenVisited() {
+    final String longValue = "value".repeat(10);
+    for (int i = 0; i < 256; i++) {
+      trie.put(Bytes.of(i), longValue + i);
+    }
+    trie.commit(merkleStorage::put);
+
+    final BranchNode<String> root =
+        (BranchNode<String>)
+            new StoredNodeFactory<>(merkleStorage::get, valueSerializer, valueDeserializer)
+                .retrieve(Bytes.EMPTY, trie.getRootHash())
+                .orElseThrow();
+
+    assertThat(root.isChildReferencedByHashOnly((byte) 3)).isTrue();
+    root.child((byte) 3);
+    assertThat(root.isChildReferencedByHashOnly((byte) 3)).isFalse();
+    assertThat(root.isChildReferencedByHashOnly((byte) 4)).isTrue();
+  }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.collections.undo;
+
+import org.hyperledger.besu.datatypes.Address;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * An add-only undoable set of addresses, keyed on the address bytes as three {@code long} limbs
+ * rather than on boxed {@link Address} hashes. It tracks EIP-2929 warm addresses, where every
+ * account touching opcode does a lookup and most of them an insertion.
+ *
+ * <p>Marks are shared with the other undoable collections, see {@link Undoable}.
+ */
+public class UndoAddressSet extends UndoLongKeySet {
+
+  private Address[] addresses;
+
+  /** Create an empty set. */
+  public UndoAddressSet() {
+    this(16);
+  }
+
+  /**
+   * Create an empty set sized for a number of addresses.
+   *
+   * @param initialCapacity the number of addresses to size for
+   */
+  public UndoAddressSet(final int initialCapacity) {
+    super(3, initialCapacity);
+    addresses = new Address[capacity()];
+  }
+
+  /**
+   * Adds an address.
+   *
+   * @param address the address
+   * @return true if the address was not already in the set
+   */
+  public boolean add(final Address address) {
+    encode(address);
+    final int index = addProbe();
+    if (index < 0) {
+      return false;
+    }
+    addresses[index] = address;
+    return true;
+  }
+
+  /**
+   * Whether the set holds an address.
+   *
+   * @param address the address
+   * @return true if the address is in the set
+   */
+  public boolean contains(final Address address) {
+    encode(address);
+    return findProbe() >= 0;
+  }
+
+  /**
+   * Visit the addresses in the order they were added.
+   *
+   * @param action the action to run for each address
+   */
+  public void forEach(final Consumer<Address> action) {
+    for (int i = 0; i < size(); i++) {
+      action.accept(addresses[i]);
+    }
+  }
+
+  private void encode(final Address address) {
+    probe[0] = address.getLong(0);
+    probe[1] = address.getLong(8);
+    probe[2] = address.getInt(16);
+  }
+
+  @Override
+  void growValues(final int capacity) {
+    addresses = Arrays.copyOf(addresses, capacity);
+  }
+
+  @Override
+  void clearValue(final int index) {
+    addresses[index] = null;
+  }
+}
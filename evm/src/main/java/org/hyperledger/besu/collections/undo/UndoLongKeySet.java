@@ -0,0 +1,195 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.collections.undo;
+
+import java.util.Arrays;
+
+/**
+ * An add-only, undoable open-addressing set over fixed-width keys made of {@code long} limbs.
+ *
+ * <p>Keys are kept densely in insertion order, each with the mark it was added at, and a linear
+ * probing table maps key hashes to dense positions. Because entries are only ever removed by {@link
+ * #undo(long)}, and always the most recent first, a removed entry never sits in the probe path of
+ * an entry that is still present, so its table slot can simply be cleared. Lookups and additions do
+ * not allocate once the arrays have grown to the working size.
+ *
+ * <p>Subclasses encode their keys into {@link #probe} before calling {@link #findProbe()} or {@link
+ * #addProbe()}. Like the other undo collections this is not thread safe.
+ */
+abstract class UndoLongKeySet implements Undoable {
+
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  private final int stride;
+
+  /** The limbs of the key being looked up or added. */
+  final long[] probe;
+
+  private long[] keys;
+  private long[] levels;
+  // dense position + 1 of the entry hashed to each slot, 0 for an empty slot
+  private int[] table;
+  private int shift;
+  private int size;
+
+  UndoLongKeySet(final int stride, final int initialCapacity) {
+    this.stride = stride;
+    this.probe = new long[stride];
+    final int capacity = Math.max(initialCapacity, 4);
+    this.keys = new long[capacity * stride];
+    this.levels = new long[capacity];
+    resizeTable(Integer.highestOneBit(capacity - 1) << 2);
+  }
+
+  /**
+   * Grow the key objects kept alongside the dense entries.
+   *
+   * @param capacity the new number of entries
+   */
+  abstract void growValues(int capacity);
+
+  /**
+   * Drop the key objects of an entry that has been undone.
+   *
+   * @param index the dense position of the entry
+   */
+  abstract void clearValue(int index);
+
+  /**
+   * Finds the key in {@link #probe}.
+   *
+   * @return the dense position of the key, or -1 if it is not present
+   */
+  final int findProbe() {
+    final int mask = table.length - 1;
+    for (int slot = hash(probe, 0); ; slot = (slot + 1) & mask) {
+      final int entry = table[slot];
+      if (entry == 0) {
+        return -1;
+      }
+      if (keyEquals(entry - 1)) {
+        return entry - 1;
+      }
+    }
+  }
+
+  /**
+   * Adds the key in {@link #probe}.
+   *
+   * @return the dense position of the new entry, or -1 if the key was already present
+   */
+  final int addProbe() {
+    if ((size + 1) * 2 > table.length) {
+      resizeTable(table.length * 2);
+    }
+    final int mask = table.length - 1;
+    int slot = hash(probe, 0);
+    for (int entry = table[slot]; entry != 0; entry = table[slot]) {
+      if (keyEquals(entry - 1)) {
+        return -1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if (size == levels.length) {
+      final int capacity = size * 2;
+      keys = Arrays.copyOf(keys, capacity * stride);
+      levels = Arrays.copyOf(levels, capacity);
+      growValues(capacity);
+    }
+    final int index = size++;
+    System.arraycopy(probe, 0, keys, index * stride, stride);
+    levels[index] = Undoable.incrementMarkStatic();
+    table[slot] = index + 1;
+    return index;
+  }
+
+  /**
+   * The number of entries the dense arrays can hold before they grow.
+   *
+   * @return the current capacity
+   */
+  final int capacity() {
+    return levels.length;
+  }
+
+  /**
+   * The number of keys in the set.
+   *
+   * @return the number of keys
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Whether the set is empty.
+   *
+   * @return true if there are no keys
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public long lastUpdate() {
+    return size == 0 ? 0L : levels[size - 1];
+  }
+
+  @Override
+  public void undo(final long mark) {
+    final int mask = table.length - 1;
+    while (size > 0 && levels[size - 1] > mark) {
+      final int last = size - 1;
+      int slot = hash(keys, last * stride);
+      while (table[slot] != size) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = 0;
+      clearValue(last);
+      size = last;
+    }
+  }
+
+  private boolean keyEquals(final int index) {
+    final int offset = index * stride;
+    for (int i = 0; i < stride; i++) {
+      if (keys[offset + i] != probe[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int hash(final long[] limbs, final int offset) {
+    long h = 0;
+    for (int i = 0; i < stride; i++) {
+      h = (h ^ limbs[offset + i]) * HASH_MULTIPLIER;
+    }
+    return (int) (h >>> shift);
+  }
+
+  private void resizeTable(final int tableSize) {
+    table = new int[tableSize];
+    shift = Long.numberOfLeadingZeros(tableSize) + 1;
+    final int mask = tableSize - 1;
+    for (int index = 0; index < size; index++) {
+      int slot = hash(keys, index * stride);
+      while (table[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = index + 1;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.collections.undo;
+
+import org.hyperledger.besu.datatypes.Address;
+
+import java.util.Arrays;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * An add-only undoable set of storage slots, keyed on the address and slot bytes as seven {@code
+ * long} limbs rather than on a table of boxed {@link Address} and {@link Bytes32} keys. It tracks
+ * EIP-2929 warm storage slots, which SLOAD and SSTORE consult on every execution.
+ *
+ * <p>Marks are shared with the other undoable collections, see {@link Undoable}.
+ */
+public class UndoStorageSlotSet extends UndoLongKeySet {
+
+  private Address[] addresses;
+  private Bytes32[] slots;
+
+  /** Create an empty set. */
+  public UndoStorageSlotSet() {
+    this(32);
+  }
+
+  /**
+   * Create an empty set sized for a number of slots.
+   *
+   * @param initialCapacity the number of slots to size for
+   */
+  public UndoStorageSlotSet(final int initialCapacity) {
+    super(7, initialCapacity);
+    addresses = new Address[capacity()];
+    slots = new Bytes32[capacity()];
+  }
+
+  /**
+   * Adds a storage slot.
+   *
+   * @param address the account holding the slot
+   * @param slot the slot key
+   * @return true if the slot was not already in the set
+   */
+  public boolean add(final Address address, final Bytes32 slot) {
+    encode(address, slot);
+    final int index = addProbe();
+    if (index < 0) {
+      return false;
+    }
+    addresses[index] = address;
+    slots[index] = slot;
+    return true;
+  }
+
+  /**
+   * Whether the set holds a storage slot.
+   *
+   * @param address the account holding the slot
+   * @param slot the slot key
+   * @return true if the slot is in the set
+   */
+  public boolean contains(final Address address, final Bytes32 slot) {
+    encode(address, slot);
+    return findProbe() >= 0;
+  }
+
+  /**
+   * Copy the slots into a table, with accounts and their slots in the order they were added.
+   *
+   * @return a new table mapping each account and slot to {@code true}
+   */
+  public Table<Address, Bytes32, Boolean> toTable() {
+    final Table<Address, Bytes32, Boolean> table = HashBasedTable.create();
+    for (int i = 0; i < size(); i++) {
+      table.put(addresses[i], slots[i], Boolean.TRUE);
+    }
+    return table;
+  }
+
+  private void encode(final Address address, final Bytes32 slot) {
+    probe[0] = address.getLong(0);
+    probe[1] = address.getLong(8);
+    probe[2] = address.getInt(16);
+    probe[3] = slot.getLong(0);
+    probe[4] = slot.getLong(8);
+    probe[5] = slot.getLong(16);
+    probe[6] = slot.getLong(24);
+  }
+
+  @Override
+  void growValues(final int capacity) {
+    addresses = Arrays.copyOf(addresses, capacity);
+    slots = Arrays.copyOf(slots, capacity);
+  }
+
+  @Override
+  void clearValue(final int index) {
+    addresses[index] = null;
+    slots[index] = null;
+  }
+}
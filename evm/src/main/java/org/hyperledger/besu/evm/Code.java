@@ -15,7 +15,9 @@
 package org.hyperledger.besu.evm;
 
 import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.code.BasicBlocks;
 import org.hyperledger.besu.evm.code.OpcodeInfo;
+import org.hyperledger.besu.evm.code.Superinstructions;
 import org.hyperledger.besu.evm.operation.JumpDestOperation;
 
 import java.io.ByteArrayOutputStream;
@@ -39,8 +41,20 @@ public class Code {
 
   private Integer size;
 
-  /** Bit mask for jump destinations, used to optimize JUMP/JUMPI operations */
-  private long[] jumpDestBitMask = null;
+  /**
+   * Bit mask for jump destinations, used to optimize JUMP/JUMPI operations. Volatile as it can be
+   * set from a thread that does not run the code.
+   */
+  private volatile long[] jumpDestBitMask = null;
+
+  /** Basic blocks whose gas can be charged on block entry, computed lazily */
+  private BasicBlocks basicBlocks = null;
+
+  /** Fused opcode sequences, computed lazily */
+  private Superinstructions superinstructions = null;
+
+  /** Set of the opcodes found in the code, computed lazily by any thread running the code */
+  private volatile long[] opcodeSet = null;
 
   /**
    * Public constructor.
@@ -134,14 +148,16 @@ public class Code {
       return true;
     }
 
-    if (jumpDestBitMask == null) {
-      jumpDestBitMask = calculateJumpDestBitMask();
+    long[] bitMask = jumpDestBitMask;
+    if (bitMask == null) {
+      bitMask = calculateJumpDestBitMask();
+      jumpDestBitMask = bitMask;
     }
 
     // This selects which long in the array holds the bit for the given offset:
     //	1)	>>> 6 is equivalent to jumpDestination / 64
     //	2)	Each long holds 64 bits, so this finds the correct chunk
-    final long targetLong = jumpDestBitMask[jumpDestination >>> 6];
+    final long targetLong = bitMask[jumpDestination >>> 6];
 
     // 1) & 0x3F is jumpDestination % 64
     // 2)	1L << ... gives a mask for the specific bit in that long
@@ -188,6 +204,73 @@ public class Code {
     this.jumpDestBitMask = jumpDestBitMask;
   }
 
+  /**
+   * Returns the jump destination bitmask, calculating it when it is not known yet. A calculated
+   * bitmask is not stored on the code, so this can be called from threads that do not run it.
+   *
+   * @return an array of long values representing the jump destinations
+   */
+  public long[] getOrCalculateJumpDestBitMask() {
+    final long[] bitMask = jumpDestBitMask;
+    return bitMask != null ? bitMask : calculateJumpDestBitMask();
+  }
+
+  /**
+   * Returns the basic blocks of this code, computing them on first use. Like the jump destination
+   * bitmask the result is cached on the code object, so it is shared by every frame running code
+   * that comes out of the EVM code cache. The blocks are computed again when they are requested
+   * with the static gas of another fork.
+   *
+   * @param staticGas the static gas of the batchable opcodes of the executing fork
+   * @return the basic blocks of the code
+   */
+  public BasicBlocks getBasicBlocks(final BasicBlocks.StaticGas staticGas) {
+    BasicBlocks blocks = basicBlocks;
+    if (blocks == null || !blocks.isAnalyzedWith(staticGas)) {
+      blocks = BasicBlocks.analyze(bytes.toArrayUnsafe(), staticGas);
+      basicBlocks = blocks;
+    }
+    return blocks;
+  }
+
+  /**
+   * Returns the fused opcode sequences of this code, computing them on first use and caching them
+   * on the code object.
+   *
+   * @return the superinstructions of the code
+   */
+  public Superinstructions getSuperinstructions() {
+    Superinstructions fused = superinstructions;
+    if (fused == null) {
+      fused = Superinstructions.analyze(bytes.toArrayUnsafe());
+      superinstructions = fused;
+    }
+    return fused;
+  }
+
+  /**
+   * Returns the set of opcodes the code contains, computing it on first use and caching it on the
+   * code object. Immediates of PUSH1-PUSH32 are skipped. Opcode {@code op} is present when bit
+   * {@code op & 63} of element {@code op >>> 6} is set.
+   *
+   * @return a four element bit set of the opcodes found in the code
+   */
+  public long[] getOpcodeSet() {
+    long[] set = opcodeSet;
+    if (set == null) {
+      set = new long[4];
+      final byte[] rawCode = bytes.toArrayUnsafe();
+      int pc = 0;
+      while (pc < rawCode.length) {
+        final int opcode = rawCode[pc] & 0xff;
+        set[opcode >>> 6] |= 1L << (opcode & 0x3f);
+        pc += opcode >= 0x60 && opcode <= 0x7f ? opcode - 0x5e : 1;
+      }
+      opcodeSet = set;
+    }
+    return set;
+  }
+
   /**
    * Computes a bitmask where each bit set to 1 indicates a valid `JUMPDEST` opcode in the EVM
    * bytecode. The bitmap is organized in 64-byte chunks, each represented as a `long` (64 bits).
@@ -19,6 +19,8 @@ import static org.hyperledger.besu.evm.operation.PushOperation.PUSH_BASE;
 import static org.hyperledger.besu.evm.operation.SwapOperation.SWAP_BASE;
 
 import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.code.BasicBlocks;
+import org.hyperledger.besu.evm.code.Superinstructions;
 import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.frame.MessageFrame.State;
@@ -40,8 +42,10 @@ import org.hyperledger.besu.evm.operation.DivOperation;
 import org.hyperledger.besu.evm.operation.DivOperationOptimized;
 import org.hyperledger.besu.evm.operation.DupNOperation;
 import org.hyperledger.besu.evm.operation.DupOperation;
+import org.hyperledger.besu.evm.operation.EqOperation;
 import org.hyperledger.besu.evm.operation.ExchangeOperation;
 import org.hyperledger.besu.evm.operation.ExpOperation;
+import org.hyperledger.besu.evm.operation.FusedOperations;
 import org.hyperledger.besu.evm.operation.GtOperation;
 import org.hyperledger.besu.evm.operation.InvalidOperation;
 import org.hyperledger.besu.evm.operation.IsZeroOperation;
@@ -88,16 +92,38 @@ import org.hyperledger.besu.evm.operation.XorOperation;
 import org.hyperledger.besu.evm.operation.XorOperationOptimized;
 import org.hyperledger.besu.evm.tracing.OperationTracer;
 import org.hyperledger.besu.evm.v2.operation.AddOperationV2;
+import org.hyperledger.besu.evm.v2.operation.AndOperationV2;
+import org.hyperledger.besu.evm.v2.operation.ByteOperationV2;
+import org.hyperledger.besu.evm.v2.operation.CountLeadingZerosOperationV2;
 import org.hyperledger.besu.evm.v2.operation.DivOperationV2;
+import org.hyperledger.besu.evm.v2.operation.DupOperationV2;
+import org.hyperledger.besu.evm.v2.operation.EqOperationV2;
+import org.hyperledger.besu.evm.v2.operation.GtOperationV2;
+import org.hyperledger.besu.evm.v2.operation.IsZeroOperationV2;
+import org.hyperledger.besu.evm.v2.operation.JumpOperationV2;
+import org.hyperledger.besu.evm.v2.operation.JumpiOperationV2;
+import org.hyperledger.besu.evm.v2.operation.LtOperationV2;
+import org.hyperledger.besu.evm.v2.operation.MSizeOperationV2;
 import org.hyperledger.besu.evm.v2.operation.ModOperationV2;
 import org.hyperledger.besu.evm.v2.operation.MulModOperationV2;
 import org.hyperledger.besu.evm.v2.operation.MulOperationV2;
+import org.hyperledger.besu.evm.v2.operation.NotOperationV2;
+import org.hyperledger.besu.evm.v2.operation.OperationsV2;
+import org.hyperledger.besu.evm.v2.operation.OrOperationV2;
+import org.hyperledger.besu.evm.v2.operation.PcOperationV2;
+import org.hyperledger.besu.evm.v2.operation.PopOperationV2;
+import org.hyperledger.besu.evm.v2.operation.Push0OperationV2;
+import org.hyperledger.besu.evm.v2.operation.PushOperationV2;
 import org.hyperledger.besu.evm.v2.operation.SDivOperationV2;
+import org.hyperledger.besu.evm.v2.operation.SGtOperationV2;
+import org.hyperledger.besu.evm.v2.operation.SLtOperationV2;
 import org.hyperledger.besu.evm.v2.operation.SModOperationV2;
 import org.hyperledger.besu.evm.v2.operation.SarOperationV2;
 import org.hyperledger.besu.evm.v2.operation.ShlOperationV2;
 import org.hyperledger.besu.evm.v2.operation.ShrOperationV2;
 import org.hyperledger.besu.evm.v2.operation.SubOperationV2;
+import org.hyperledger.besu.evm.v2.operation.SwapOperationV2;
+import org.hyperledger.besu.evm.v2.operation.XorOperationV2;
 
 import java.util.Optional;
 import java.util.function.Function;
@@ -119,6 +145,9 @@ public class EVM {
   protected static final OperationResult UNDERFLOW_RESPONSE =
       new OperationResult(0L, ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS);
 
+  // opcode switch selector for an instruction already run by a fused sequence handler
+  private static final int FUSED = -1;
+
   private final OperationRegistry operations;
   private final GasCalculator gasCalculator;
   private final Operation endOfScriptStop;
@@ -133,6 +162,16 @@ public class EVM {
 
   private final JumpDestOnlyCodeCache jumpDestOnlyCodeCache;
 
+  // gas of the opcodes that can be charged per basic block, derived from the operation registry
+  private final BasicBlocks.StaticGas blockStaticGas;
+  private final FusedOperations fusedOperations;
+
+  // non-static v2 operations, indexed by opcode; null where the v1 operation is used
+  private final Operation[] operationsV2;
+
+  // opcodes runToHaltV2 can run without touching the v1 operand stack, as a 256 bit set
+  private final long[] opcodesV2;
+
   /**
    * Instantiates a new Evm.
    *
@@ -152,6 +191,12 @@ public class EVM {
     this.evmConfiguration = evmConfiguration;
     this.evmSpecVersion = evmSpecVersion;
     this.jumpDestOnlyCodeCache = new JumpDestOnlyCodeCache(evmConfiguration);
+    this.blockStaticGas = BasicBlocks.StaticGas.of(operations);
+    this.fusedOperations = new FusedOperations(blockStaticGas);
+    this.operationsV2 =
+        evmConfiguration.enableEvmV2() ? OperationsV2.forRegistry(operations, gasCalculator) : null;
+    this.opcodesV2 =
+        evmConfiguration.enableEvmV2() ? opcodesV2(operations.getOperations(), operationsV2) : null;
 
     enableConstantinople = EvmSpecVersion.CONSTANTINOPLE.ordinal() <= evmSpecVersion.ordinal();
     enableShanghai = EvmSpecVersion.SHANGHAI.ordinal() <= evmSpecVersion.ordinal();
@@ -168,6 +213,15 @@ public class EVM {
     return gasCalculator;
   }
 
+  /**
+   * Gets the static gas of the opcodes whose gas can be charged once per basic block.
+   *
+   * @return the static gas derived from the operations of this EVM
+   */
+  public BasicBlocks.StaticGas getBlockStaticGas() {
+    return blockStaticGas;
+  }
+
   /**
    * Gets the max code size, taking configuration and version into account
    *
@@ -235,7 +289,7 @@ public class EVM {
     // optimization purposes
     assert operationTracer.isEnabled() || operationTracer == OperationTracer.NO_TRACING;
 
-    if (evmConfiguration.enableEvmV2()) {
+    if (evmConfiguration.enableEvmV2() && runsOnV2(frame)) {
       runToHaltV2(frame, operationTracer);
       return;
     }
@@ -243,6 +297,21 @@ public class EVM {
 
     byte[] code = frame.getCode().getBytes().toArrayUnsafe();
     Operation[] operationArray = operations.getOperations();
+    // When not tracing, gas of straight-line blocks is charged once on block entry; tracers need
+    // to observe the remaining gas before every operation so they always use per-op accounting.
+    final BasicBlocks blocks =
+        operationTracer.isEnabled()
+            ? BasicBlocks.EMPTY
+            : frame.getCode().getBasicBlocks(blockStaticGas);
+    final boolean useBlocks = blocks.size() > 0;
+    // Fused handlers skip the per-op tracer callbacks, so they are also limited to untraced runs.
+    final Superinstructions fused =
+        operationTracer.isEnabled() || !evmConfiguration.enableOptimizedOpcodes()
+            ? Superinstructions.EMPTY
+            : frame.getCode().getSuperinstructions();
+    final boolean useFusion = fused.size() > 0;
+    int prepaidFrom = -1;
+    int prepaidUntil = -1;
     while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
       Operation currentOperation;
       int opcode;
@@ -254,13 +323,37 @@ public class EVM {
         opcode = 0;
         currentOperation = endOfScriptStop;
       }
+      boolean prepaid = false;
+      if (useBlocks) {
+        if (pc > prepaidFrom && pc < prepaidUntil) {
+          prepaid = true;
+        } else {
+          prepaidUntil = -1;
+          if (blockStaticGas.isBatchable(opcode)) {
+            prepaid = prepayBlock(frame, blocks, pc);
+            if (prepaid) {
+              prepaidFrom = pc;
+              prepaidUntil = blocks.end(blocks.blockAt(pc));
+            }
+          }
+        }
+      }
       frame.setCurrentOperation(currentOperation);
       operationTracer.tracePreExecution(frame);
 
       OperationResult result;
       try {
+        final int fusion = useFusion ? fused.kindAt(pc) : Superinstructions.NONE;
+        final OperationResult fusedResult =
+            fusion == Superinstructions.NONE
+                ? null
+                : fusedOperations.execute(fusion, frame, code, pc, !prepaid, operationArray, this);
+        if (fusedResult != null) {
+          prepaid &= Superinstructions.endsBatchable(fusion);
+        }
         result =
-            switch (opcode) {
+            switch (fusedResult != null ? FUSED : opcode) {
+              case FUSED -> fusedResult;
               case 0x00 -> StopOperation.staticOperation(frame);
               case 0x01 ->
                   evmConfiguration.enableOptimizedOpcodes()
@@ -305,6 +398,7 @@ public class EVM {
               case 0x11 -> GtOperation.staticOperation(frame);
               case 0x12 -> SLtOperation.staticOperation(frame);
               case 0x13 -> SGtOperation.staticOperation(frame);
+              case 0x14 -> EqOperation.staticOperation(frame);
               case 0x15 -> IsZeroOperation.staticOperation(frame);
               case 0x16 ->
                   evmConfiguration.enableOptimizedOpcodes()
@@ -450,7 +544,7 @@ public class EVM {
         LOG.trace("MessageFrame evaluation halted because of {}", haltReason);
         frame.setExceptionalHaltReason(Optional.of(haltReason));
         frame.setState(State.EXCEPTIONAL_HALT);
-      } else if (frame.decrementRemainingGas(result.getGasCost()) < 0) {
+      } else if (!prepaid && frame.decrementRemainingGas(result.getGasCost()) < 0) {
         frame.setExceptionalHaltReason(Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
         frame.setState(State.EXCEPTIONAL_HALT);
       }
@@ -464,9 +558,79 @@ public class EVM {
   }
 
   /**
-   * EVM v2 execution loop using long[] stack representation. Only opcodes explicitly listed in the
-   * switch are handled via the v2 path; all others fall through to the v1 operation registry. This
-   * skeleton stub establishes the dispatch structure for incremental v2 operation rollout.
+   * Charge the gas of the basic block starting at {@code pc} up front, if there is one and it is
+   * guaranteed to run to its end. The block is only prepaid when the frame has enough gas for all
+   * of it and no operation in it can underflow or overflow the stack; otherwise the caller keeps
+   * charging per operation so the halting point stays exact.
+   *
+   * @param frame the executing frame
+   * @param blocks the basic blocks of the executing code
+   * @param pc the current program counter
+   * @return true if the block gas was charged
+   */
+  private static boolean prepayBlock(
+      final MessageFrame frame, final BasicBlocks blocks, final int pc) {
+    final int block = blocks.blockAt(pc);
+    if (block < 0) {
+      return false;
+    }
+    final long gasCost = blocks.gasCost(block);
+    final int stackSize = frame.stackSize();
+    if (frame.getRemainingGas() < gasCost
+        || stackSize < blocks.stackRequired(block)
+        || stackSize + blocks.stackGrowth(block) > frame.getMaxStackSize()) {
+      return false;
+    }
+    frame.decrementRemainingGas(gasCost);
+    return true;
+  }
+
+  /**
+   * Whether the frame can run on the v2 loop. The v1 operations work on the operand stack, not on
+   * the long[] stack, so a frame only runs on v2 when it has a v2 stack and every opcode of its
+   * code has a v2 implementation or does not touch the stack. Code using any other opcode (LOG,
+   * CALL/CREATE families, copy, hashing, RETURN/REVERT, ...) runs on the v1 loop from start to end.
+   *
+   * @param frame the frame about to run
+   * @return true if the frame must run on runToHaltV2
+   */
+  private boolean runsOnV2(final MessageFrame frame) {
+    if (frame.stackDataV2() == null) {
+      return false;
+    }
+    final long[] used = frame.getCode().getOpcodeSet();
+    return (used[0] & ~opcodesV2[0]) == 0
+        && (used[1] & ~opcodesV2[1]) == 0
+        && (used[2] & ~opcodesV2[2]) == 0
+        && (used[3] & ~opcodesV2[3]) == 0;
+  }
+
+  private static long[] opcodesV2(final Operation[] operations, final Operation[] operationsV2) {
+    final long[] set = new long[4];
+    for (int opcode = 0; opcode < 256; opcode++) {
+      if (isStaticV2(opcode)
+          || operationsV2[opcode] != null
+          || operations[opcode] instanceof InvalidOperation) {
+        set[opcode >>> 6] |= 1L << (opcode & 0x3f);
+      }
+    }
+    return set;
+  }
+
+  // the opcodes of the static switch of runToHaltV2, keep both in sync
+  private static boolean isStaticV2(final int opcode) {
+    return (opcode <= 0x1e && opcode != 0x08 && opcode != 0x0a && opcode != 0x0b)
+        || opcode == 0x50
+        || (opcode >= 0x56 && opcode <= 0x59)
+        || opcode == 0x5b
+        || (opcode >= 0x5f && opcode <= 0x9f);
+  }
+
+  /**
+   * EVM v2 execution loop using long[] stack representation. Hot opcodes with a fork-independent
+   * cost are dispatched statically from the switch; other opcodes with a v2 implementation are
+   * looked up in {@code operationsV2}. Only frames accepted by {@link #runsOnV2(MessageFrame)} get
+   * here, so the v1 operations reached from the default branch never touch the stack.
    */
   // Note: like runToHalt, this is performance-critical code. Benchmark before refactoring.
   private void runToHaltV2(final MessageFrame frame, final OperationTracer operationTracer) {
@@ -492,6 +656,7 @@ public class EVM {
       try {
         result =
             switch (opcode) {
+              case 0x00 -> StopOperation.staticOperation(frame);
               case 0x01 -> AddOperationV2.staticOperation(frame);
               case 0x02 -> MulOperationV2.staticOperation(frame);
               case 0x03 -> SubOperationV2.staticOperation(frame);
@@ -500,6 +665,18 @@ public class EVM {
               case 0x06 -> ModOperationV2.staticOperation(frame);
               case 0x07 -> SModOperationV2.staticOperation(frame);
               case 0x09 -> MulModOperationV2.staticOperation(frame);
+              case 0x0c, 0x0d, 0x0e, 0x0f -> InvalidOperation.invalidOperationResult(opcode);
+              case 0x10 -> LtOperationV2.staticOperation(frame);
+              case 0x11 -> GtOperationV2.staticOperation(frame);
+              case 0x12 -> SLtOperationV2.staticOperation(frame);
+              case 0x13 -> SGtOperationV2.staticOperation(frame);
+              case 0x14 -> EqOperationV2.staticOperation(frame);
+              case 0x15 -> IsZeroOperationV2.staticOperation(frame);
+              case 0x16 -> AndOperationV2.staticOperation(frame);
+              case 0x17 -> OrOperationV2.staticOperation(frame);
+              case 0x18 -> XorOperationV2.staticOperation(frame);
+              case 0x19 -> NotOperationV2.staticOperation(frame);
+              case 0x1a -> ByteOperationV2.staticOperation(frame);
               case 0x1b ->
                   enableConstantinople
                       ? ShlOperationV2.staticOperation(frame)
@@ -512,8 +689,94 @@ public class EVM {
                   enableConstantinople
                       ? SarOperationV2.staticOperation(frame)
                       : InvalidOperation.invalidOperationResult(opcode);
-              // TODO EVMv2: implement remaining opcodes in v2; until then fall through to v1
+              case 0x1e ->
+                  enableOsaka
+                      ? CountLeadingZerosOperationV2.staticOperation(frame)
+                      : InvalidOperation.invalidOperationResult(opcode);
+              case 0x50 -> PopOperationV2.staticOperation(frame);
+              case 0x56 -> JumpOperationV2.staticOperation(frame);
+              case 0x57 -> JumpiOperationV2.staticOperation(frame);
+              case 0x58 -> PcOperationV2.staticOperation(frame);
+              case 0x59 -> MSizeOperationV2.staticOperation(frame);
+              case 0x5b -> JumpDestOperation.JUMPDEST_SUCCESS;
+              case 0x5f ->
+                  enableShanghai
+                      ? Push0OperationV2.staticOperation(frame)
+                      : InvalidOperation.invalidOperationResult(opcode);
+              case 0x60, // PUSH1-32
+                  0x61,
+                  0x62,
+                  0x63,
+                  0x64,
+                  0x65,
+                  0x66,
+                  0x67,
+                  0x68,
+                  0x69,
+                  0x6a,
+                  0x6b,
+                  0x6c,
+                  0x6d,
+                  0x6e,
+                  0x6f,
+                  0x70,
+                  0x71,
+                  0x72,
+                  0x73,
+                  0x74,
+                  0x75,
+                  0x76,
+                  0x77,
+                  0x78,
+                  0x79,
+                  0x7a,
+                  0x7b,
+                  0x7c,
+                  0x7d,
+                  0x7e,
+                  0x7f ->
+                  PushOperationV2.staticOperation(
+                      frame, code, pc, opcode - PushOperationV2.PUSH_BASE);
+              case 0x80, // DUP1-16
+                  0x81,
+                  0x82,
+                  0x83,
+                  0x84,
+                  0x85,
+                  0x86,
+                  0x87,
+                  0x88,
+                  0x89,
+                  0x8a,
+                  0x8b,
+                  0x8c,
+                  0x8d,
+                  0x8e,
+                  0x8f ->
+                  DupOperationV2.staticOperation(frame, opcode - DupOperationV2.DUP_BASE);
+              case 0x90, // SWAP1-16
+                  0x91,
+                  0x92,
+                  0x93,
+                  0x94,
+                  0x95,
+                  0x96,
+                  0x97,
+                  0x98,
+                  0x99,
+                  0x9a,
+                  0x9b,
+                  0x9c,
+                  0x9d,
+                  0x9e,
+                  0x9f ->
+                  SwapOperationV2.staticOperation(frame, opcode - SwapOperationV2.SWAP_BASE);
               default -> {
+                final Operation operationV2 = operationsV2[opcode];
+                if (operationV2 != null) {
+                  yield operationV2.execute(frame, this);
+                }
+                // only invalid opcodes get here, they halt without touching the stack
                 frame.setCurrentOperation(currentOperation);
                 yield currentOperation.execute(frame, this);
               }
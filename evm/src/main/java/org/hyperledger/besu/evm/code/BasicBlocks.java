@@ -0,0 +1,333 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.code;
+
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.operation.OperationRegistry;
+
+import java.util.Arrays;
+
+/**
+ * Straight-line basic blocks of legacy bytecode whose gas can be charged once, on block entry.
+ *
+ * <p>A block is a maximal run of operations that have a fixed gas cost, never read the remaining
+ * gas and are dispatched without a gas check of their own. A block starts at the first such
+ * operation, at every JUMPDEST and after every operation that is not batchable; it ends after JUMP,
+ * JUMPI or STOP. Because control can only enter a block at its first instruction (jump targets are
+ * JUMPDESTs, which always start a block), paying for the whole block up front is equivalent to
+ * paying per instruction whenever there is enough gas for the whole block and the stack can satisfy
+ * every instruction in it. When either check fails the interpreter falls back to per-instruction
+ * accounting, so the exact halting point and reason are preserved.
+ *
+ * <p>Instructions are decoded the same way as the jump destination analysis in {@code Code}: only
+ * PUSH1-PUSH32 carry immediates. Only blocks with at least two instructions are recorded. The
+ * static gas and stack effect of each instruction come from the operation registry of the fork,
+ * see {@link StaticGas}.
+ */
+public final class BasicBlocks {
+
+  /** Blocks of code that has no batchable run of instructions. */
+  public static final BasicBlocks EMPTY =
+      new BasicBlocks(new int[0], new int[0], new long[0], new int[0], new int[0], null);
+
+  private static final int JUMP = 0x56;
+  private static final int JUMPI = 0x57;
+  private static final int JUMPDEST = 0x5b;
+  private static final int PUSH1 = 0x60;
+  private static final int PUSH32 = 0x7f;
+  private static final int STOP = 0x00;
+  private static final int EXP = 0x0a;
+  private static final int CLZ = 0x1e;
+  private static final int POP = 0x50;
+  private static final int PUSH0 = 0x5f;
+  private static final int SWAP16 = 0x9f;
+
+  private final int[] starts;
+  private final int[] ends;
+  private final long[] gasCosts;
+  private final int[] stackRequired;
+  private final int[] stackGrowth;
+  private final StaticGas staticGas;
+
+  private BasicBlocks(
+      final int[] starts,
+      final int[] ends,
+      final long[] gasCosts,
+      final int[] stackRequired,
+      final int[] stackGrowth,
+      final StaticGas staticGas) {
+    this.starts = starts;
+    this.ends = ends;
+    this.gasCosts = gasCosts;
+    this.stackRequired = stackRequired;
+    this.stackGrowth = stackGrowth;
+    this.staticGas = staticGas;
+  }
+
+  /**
+   * Split the code into basic blocks.
+   *
+   * @param code the raw bytecode
+   * @param staticGas the static gas of the batchable opcodes of the fork
+   * @return the blocks of the code, never null
+   */
+  public static BasicBlocks analyze(final byte[] code, final StaticGas staticGas) {
+    final Builder builder = new Builder(code.length, staticGas);
+    int pc = 0;
+    while (pc < code.length) {
+      final int opcode = code[pc] & 0xff;
+      final int gas = staticGas.costs[opcode];
+      final int advance = opcode >= PUSH1 && opcode <= PUSH32 ? opcode - PUSH1 + 2 : 1;
+      if (gas < 0) {
+        builder.close(pc);
+      } else {
+        if (opcode == JUMPDEST) {
+          builder.close(pc);
+        }
+        builder.add(pc, gas, staticGas.inputs[opcode], staticGas.outputs[opcode]);
+        if (opcode == JUMP || opcode == JUMPI || opcode == STOP) {
+          builder.close(pc + advance);
+        }
+      }
+      pc += advance;
+    }
+    builder.close(Math.min(pc, code.length));
+    return builder.build();
+  }
+
+  /**
+   * Were these blocks computed with the given static gas, i.e. can they be used by a fork that
+   * charges it.
+   *
+   * @param staticGas the static gas of the batchable opcodes of the fork
+   * @return true if the blocks were analyzed with {@code staticGas}
+   */
+  public boolean isAnalyzedWith(final StaticGas staticGas) {
+    return this.staticGas == staticGas;
+  }
+
+  /**
+   * Find the block that starts at the given program counter.
+   *
+   * @param pc the program counter
+   * @return the block index, or -1 if no recorded block starts at {@code pc}
+   */
+  public int blockAt(final int pc) {
+    final int index = Arrays.binarySearch(starts, pc);
+    return index < 0 ? -1 : index;
+  }
+
+  /**
+   * Number of recorded blocks.
+   *
+   * @return the number of blocks
+   */
+  public int size() {
+    return starts.length;
+  }
+
+  /**
+   * The program counter of the first instruction of the block.
+   *
+   * @param block the block index
+   * @return the start pc
+   */
+  public int start(final int block) {
+    return starts[block];
+  }
+
+  /**
+   * The program counter just past the last instruction of the block.
+   *
+   * @param block the block index
+   * @return the exclusive end pc
+   */
+  public int end(final int block) {
+    return ends[block];
+  }
+
+  /**
+   * The sum of the static gas of every instruction of the block.
+   *
+   * @param block the block index
+   * @return the gas cost of the block
+   */
+  public long gasCost(final int block) {
+    return gasCosts[block];
+  }
+
+  /**
+   * The number of stack items that must be present on block entry for no instruction to underflow.
+   *
+   * @param block the block index
+   * @return the minimum stack height on entry
+   */
+  public int stackRequired(final int block) {
+    return stackRequired[block];
+  }
+
+  /**
+   * The largest stack height increase, relative to block entry, reached inside the block.
+   *
+   * @param block the block index
+   * @return the maximum stack growth
+   */
+  public int stackGrowth(final int block) {
+    return stackGrowth[block];
+  }
+
+  /**
+   * The static gas and stack effect of the opcodes whose gas may be charged as part of a block for
+   * one fork. An opcode is batchable when the interpreter dispatches it to a static handler that
+   * has no gas check of its own and the fork registers it as a fixed cost operation; opcodes that
+   * are not active in the fork, like CLZ before Osaka, are not batchable.
+   */
+  public static final class StaticGas {
+    private final int[] costs = new int[256];
+    private final int[] inputs = new int[256];
+    private final int[] outputs = new int[256];
+
+    private StaticGas(final OperationRegistry operations) {
+      Arrays.fill(costs, -1);
+      for (int opcode = 0; opcode < costs.length; opcode++) {
+        final Operation operation = operations.get(opcode);
+        if (!isStaticallyDispatched(opcode)
+            || operation == null
+            || operation.getOpcode() != opcode
+            || operation.getFixedGasCost() < 0) {
+          continue;
+        }
+        costs[opcode] = Math.toIntExact(operation.getFixedGasCost());
+        inputs[opcode] = operation.getStackItemsConsumed();
+        outputs[opcode] = operation.getStackItemsProduced();
+      }
+    }
+
+    /**
+     * Derive the static gas of the batchable opcodes from the operations of a fork.
+     *
+     * @param operations the operation registry of the fork
+     * @return the static gas of the fork
+     */
+    public static StaticGas of(final OperationRegistry operations) {
+      return new StaticGas(operations);
+    }
+
+    /**
+     * Is the opcode part of the batchable set, i.e. can its gas be charged as part of a block.
+     *
+     * @param opcode the opcode
+     * @return true if the opcode has a fixed cost that may be paid on block entry
+     */
+    public boolean isBatchable(final int opcode) {
+      return costs[opcode & 0xff] >= 0;
+    }
+
+    /**
+     * The static gas cost of a batchable opcode.
+     *
+     * @param opcode the opcode
+     * @return the gas cost registered by the fork, or -1 if the opcode is not batchable
+     */
+    public int cost(final int opcode) {
+      return costs[opcode & 0xff];
+    }
+
+    // the opcodes runToHalt executes with a static handler: arithmetic (but EXP), comparison and
+    // bitwise operations, POP, JUMP, JUMPI, JUMPDEST, PUSH0-32, DUP and SWAP
+    private static boolean isStaticallyDispatched(final int opcode) {
+      return (opcode <= CLZ && opcode != EXP && (opcode < 0x0c || opcode > 0x0f))
+          || opcode == POP
+          || opcode == JUMP
+          || opcode == JUMPI
+          || opcode == JUMPDEST
+          || (opcode >= PUSH0 && opcode <= SWAP16);
+    }
+  }
+
+  private static final class Builder {
+    private final StaticGas staticGas;
+    private int count;
+    private int[] starts;
+    private int[] ends;
+    private long[] gasCosts;
+    private int[] stackRequired;
+    private int[] stackGrowth;
+
+    private int blockStart = -1;
+    private int instructions;
+    private long gas;
+    private int height;
+    private int minHeight;
+    private int maxHeight;
+
+    Builder(final int codeSize, final StaticGas staticGas) {
+      this.staticGas = staticGas;
+      // a block has at least two instructions of at least one byte each
+      final int capacity = Math.max(1, Math.min(codeSize / 2, 1024));
+      starts = new int[capacity];
+      ends = new int[capacity];
+      gasCosts = new long[capacity];
+      stackRequired = new int[capacity];
+      stackGrowth = new int[capacity];
+    }
+
+    void add(final int pc, final int opGas, final int inputs, final int outputs) {
+      if (blockStart < 0) {
+        blockStart = pc;
+      }
+      instructions++;
+      gas += opGas;
+      minHeight = Math.min(minHeight, height - inputs);
+      height += outputs - inputs;
+      maxHeight = Math.max(maxHeight, height);
+    }
+
+    void close(final int end) {
+      if (blockStart >= 0 && instructions > 1) {
+        if (count == starts.length) {
+          final int capacity = count * 2;
+          starts = Arrays.copyOf(starts, capacity);
+          ends = Arrays.copyOf(ends, capacity);
+          gasCosts = Arrays.copyOf(gasCosts, capacity);
+          stackRequired = Arrays.copyOf(stackRequired, capacity);
+          stackGrowth = Arrays.copyOf(stackGrowth, capacity);
+        }
+        starts[count] = blockStart;
+        ends[count] = end;
+        gasCosts[count] = gas;
+        stackRequired[count] = -minHeight;
+        stackGrowth[count] = maxHeight;
+        count++;
+      }
+      blockStart = -1;
+      instructions = 0;
+      gas = 0;
+      height = 0;
+      minHeight = 0;
+      maxHeight = 0;
+    }
+
+    BasicBlocks build() {
+      return new BasicBlocks(
+          Arrays.copyOf(starts, count),
+          Arrays.copyOf(ends, count),
+          Arrays.copyOf(gasCosts, count),
+          Arrays.copyOf(stackRequired, count),
+          Arrays.copyOf(stackGrowth, count),
+          staticGas);
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.code;
+
+/**
+ * Locations of frequent legacy opcode sequences that the interpreter can run as a single fused
+ * handler.
+ *
+ * <p>Each instruction boundary that starts a recognised sequence is tagged with the kind of the
+ * sequence. The sequences never contain a JUMPDEST, so a jump can only land on their first
+ * instruction or on an instruction that is tagged (or not) on its own. Instructions are decoded the
+ * same way as the jump destination analysis in {@code Code}: only PUSH1-PUSH32 carry immediates.
+ */
+public final class Superinstructions {
+
+  /** No fused sequence starts at the instruction. */
+  public static final int NONE = 0;
+
+  /** PUSH1 followed by JUMPI. */
+  public static final int PUSH1_JUMPI = 1;
+
+  /** PUSH1-PUSH32 followed by ADD. */
+  public static final int PUSH_ADD = 2;
+
+  /** DUP1-DUP16 followed by MSTORE. */
+  public static final int DUP_MSTORE = 3;
+
+  /** ISZERO followed by PUSH1 and JUMPI. */
+  public static final int ISZERO_PUSH1_JUMPI = 4;
+
+  /** SWAP1-SWAP16 followed by POP. */
+  public static final int SWAP_POP = 5;
+
+  /** Code without any fused sequence. */
+  public static final Superinstructions EMPTY = new Superinstructions(new byte[0], 0);
+
+  private static final int ADD = 0x01;
+  private static final int ISZERO = 0x15;
+  private static final int POP = 0x50;
+  private static final int MSTORE = 0x52;
+  private static final int JUMPI = 0x57;
+  private static final int PUSH1 = 0x60;
+  private static final int PUSH32 = 0x7f;
+  private static final int DUP1 = 0x80;
+  private static final int DUP16 = 0x8f;
+  private static final int SWAP1 = 0x90;
+  private static final int SWAP16 = 0x9f;
+
+  private final byte[] kinds;
+  private final int count;
+
+  private Superinstructions(final byte[] kinds, final int count) {
+    this.kinds = kinds;
+    this.count = count;
+  }
+
+  /**
+   * Tag every instruction of the code that starts a fused sequence.
+   *
+   * @param code the raw bytecode
+   * @return the fused sequences of the code, never null
+   */
+  public static Superinstructions analyze(final byte[] code) {
+    final int length = code.length;
+    byte[] kinds = null;
+    int count = 0;
+    int pc = 0;
+    while (pc < length) {
+      final int opcode = code[pc] & 0xff;
+      final int kind = kindAt(code, pc, opcode);
+      if (kind != NONE) {
+        if (kinds == null) {
+          kinds = new byte[length];
+        }
+        kinds[pc] = (byte) kind;
+        count++;
+      }
+      pc += opcode >= PUSH1 && opcode <= PUSH32 ? opcode - PUSH1 + 2 : 1;
+    }
+    return count == 0 ? EMPTY : new Superinstructions(kinds, count);
+  }
+
+  private static int kindAt(final byte[] code, final int pc, final int opcode) {
+    if (opcode == PUSH1) {
+      final int next = opAt(code, pc + 2);
+      return next == JUMPI ? PUSH1_JUMPI : next == ADD ? PUSH_ADD : NONE;
+    } else if (opcode > PUSH1 && opcode <= PUSH32) {
+      return opAt(code, pc + opcode - PUSH1 + 2) == ADD ? PUSH_ADD : NONE;
+    } else if (opcode >= DUP1 && opcode <= DUP16) {
+      return opAt(code, pc + 1) == MSTORE ? DUP_MSTORE : NONE;
+    } else if (opcode >= SWAP1 && opcode <= SWAP16) {
+      return opAt(code, pc + 1) == POP ? SWAP_POP : NONE;
+    } else if (opcode == ISZERO) {
+      return opAt(code, pc + 1) == PUSH1 && opAt(code, pc + 3) == JUMPI
+          ? ISZERO_PUSH1_JUMPI
+          : NONE;
+    }
+    return NONE;
+  }
+
+  private static int opAt(final byte[] code, final int pc) {
+    return pc < code.length ? code[pc] & 0xff : -1;
+  }
+
+  /**
+   * The kind of fused sequence starting at the program counter.
+   *
+   * @param pc the program counter
+   * @return the sequence kind, or {@link #NONE}
+   */
+  public int kindAt(final int pc) {
+    return pc < kinds.length ? kinds[pc] : NONE;
+  }
+
+  /**
+   * Number of tagged instructions.
+   *
+   * @return the number of fused sequences found in the code
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Whether the last instruction of a fused sequence belongs to the set whose gas may be prepaid
+   * as part of a {@link BasicBlocks basic block}. When it does not, the interpreter must charge the
+   * gas reported by the fused handler even if the sequence started inside a prepaid block.
+   *
+   * @param kind the sequence kind
+   * @return true if the last instruction of the sequence is batchable
+   */
+  public static boolean endsBatchable(final int kind) {
+    return kind != DUP_MSTORE;
+  }
+}
@@ -44,9 +44,11 @@ public class Memory {
 
   private int activeWords;
 
+  private static final byte[] NO_BYTES = new byte[0];
+
   /** Instantiates a new Memory. */
   public Memory() {
-    memBytes = new byte[0];
+    memBytes = NO_BYTES;
   }
 
   private static RuntimeException overflow(final long v) {
@@ -137,14 +139,28 @@ public class Memory {
 
     int neededSize = newActiveWords * Bytes32.SIZE;
     if (neededSize > memBytes.length) {
-      int newSize = Math.max(neededSize, memBytes.length * 2);
-      byte[] newMem = new byte[newSize];
-      System.arraycopy(memBytes, 0, newMem, 0, memBytes.length);
+      // bytes past the active words are always zero, so only the active part needs copying
+      final int activeBytes = getActiveBytes();
+      final MemoryPool pool = MemoryPool.current();
+      byte[] newMem = pool.acquire(Math.max(neededSize, memBytes.length * 2));
+      System.arraycopy(memBytes, 0, newMem, 0, activeBytes);
+      pool.release(memBytes, activeBytes);
       memBytes = newMem;
     }
     activeWords = newActiveWords;
   }
 
+  /**
+   * Hands the backing buffer back to the memory pool of the current thread and resets this memory
+   * to empty. Called when the owning frame completes; any view previously returned by {@link
+   * #getMutableBytes(long, long)} must not be used afterwards.
+   */
+  void release() {
+    MemoryPool.current().release(memBytes, getActiveBytes());
+    memBytes = NO_BYTES;
+    activeWords = 0;
+  }
+
   /**
    * Returns true if the object is equal to this memory instance; otherwise false.
    *
@@ -157,12 +173,19 @@ public class Memory {
     if (other == this) return true;
     if (!(other instanceof Memory that)) return false;
 
-    return Arrays.equals(memBytes, that.memBytes);
+    // buffers are sized by the memory pool, so only the active bytes are meaningful
+    final int activeBytes = getActiveBytes();
+    return activeWords == that.activeWords
+        && Arrays.equals(memBytes, 0, activeBytes, that.memBytes, 0, activeBytes);
   }
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(memBytes);
+    int result = 1;
+    for (int i = 0; i < getActiveBytes(); i++) {
+      result = 31 * result + memBytes[i];
+    }
+    return result;
   }
 
   /**
@@ -455,6 +478,6 @@ public class Memory {
 
   @Override
   public String toString() {
-    return Bytes.wrap(memBytes).toHexString();
+    return Bytes.wrap(memBytes, 0, getActiveBytes()).toHexString();
   }
 }
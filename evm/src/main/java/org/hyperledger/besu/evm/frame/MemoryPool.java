@@ -0,0 +1,147 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.frame;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A per-thread pool of zeroed buffers backing EVM {@link Memory}.
+ *
+ * <p>Buffers come in tiers of 1 KiB, 4 KiB, 16 KiB, 64 KiB and 256 KiB. A frame's memory takes a
+ * buffer of the smallest tier that fits when it grows, and hands its buffers back when it grows
+ * past them or when the frame completes, so deep call trees and repeated calls reuse the same few
+ * arrays instead of allocating new ones. Larger memories are allocated directly and left to the
+ * garbage collector.
+ *
+ * <p>Every pooled buffer is all zeros: a buffer is cleared up to the highest byte its memory ever
+ * used before it is put back, and only buffers of an exact tier size are accepted. At most {@value
+ * #BUFFERS_PER_TIER} buffers per tier are retained per thread.
+ */
+public final class MemoryPool {
+
+  /** Number of free buffers retained per tier and thread. */
+  static final int BUFFERS_PER_TIER = 4;
+
+  private static final int MIN_TIER_SHIFT = 10;
+  private static final int TIER_COUNT = 5;
+
+  private static final ThreadLocal<MemoryPool> POOL = ThreadLocal.withInitial(MemoryPool::new);
+
+  private static final LongAdder ALLOCATIONS = new LongAdder();
+  private static final LongAdder ALLOCATED_BYTES = new LongAdder();
+  private static final LongAdder REUSES = new LongAdder();
+
+  private final byte[][][] free = new byte[TIER_COUNT][BUFFERS_PER_TIER][];
+  private final int[] freeCount = new int[TIER_COUNT];
+
+  private MemoryPool() {}
+
+  /**
+   * The pool of the current thread.
+   *
+   * @return the memory pool of the current thread
+   */
+  static MemoryPool current() {
+    return POOL.get();
+  }
+
+  /**
+   * Take a zeroed buffer of at least {@code minSize} bytes.
+   *
+   * @param minSize the minimum size of the buffer
+   * @return a zeroed buffer
+   */
+  byte[] acquire(final int minSize) {
+    final int tier = tierFor(minSize);
+    if (tier < 0) {
+      return allocate(minSize);
+    }
+    final int count = freeCount[tier];
+    if (count > 0) {
+      final byte[] buffer = free[tier][count - 1];
+      free[tier][count - 1] = null;
+      freeCount[tier] = count - 1;
+      REUSES.increment();
+      return buffer;
+    }
+    return allocate(tierSize(tier));
+  }
+
+  /**
+   * Give a buffer back to the pool. Buffers that are not of a tier size, or whose tier is full,
+   * are dropped.
+   *
+   * @param buffer the buffer
+   * @param usedBytes the number of leading bytes that may be non zero
+   */
+  void release(final byte[] buffer, final int usedBytes) {
+    final int tier = tierFor(buffer.length);
+    if (tier < 0 || tierSize(tier) != buffer.length || freeCount[tier] == BUFFERS_PER_TIER) {
+      return;
+    }
+    Arrays.fill(buffer, 0, Math.min(usedBytes, buffer.length), (byte) 0);
+    free[tier][freeCount[tier]++] = buffer;
+  }
+
+  private static byte[] allocate(final int size) {
+    ALLOCATIONS.increment();
+    ALLOCATED_BYTES.add(size);
+    return new byte[size];
+  }
+
+  private static int tierFor(final int size) {
+    if (size <= 0) {
+      return -1;
+    }
+    for (int tier = 0; tier < TIER_COUNT; tier++) {
+      if (size <= tierSize(tier)) {
+        return tier;
+      }
+    }
+    return -1;
+  }
+
+  private static int tierSize(final int tier) {
+    return 1 << (MIN_TIER_SHIFT + 2 * tier);
+  }
+
+  /**
+   * Total number of memory buffers allocated, on all threads.
+   *
+   * @return the number of allocations
+   */
+  public static long allocations() {
+    return ALLOCATIONS.sum();
+  }
+
+  /**
+   * Total number of bytes of memory buffers allocated, on all threads.
+   *
+   * @return the number of allocated bytes
+   */
+  public static long allocatedBytes() {
+    return ALLOCATED_BYTES.sum();
+  }
+
+  /**
+   * Total number of memory buffers taken from a pool instead of being allocated, on all threads.
+   *
+   * @return the number of reused buffers
+   */
+  public static long reuses() {
+    return REUSES.sum();
+  }
+}
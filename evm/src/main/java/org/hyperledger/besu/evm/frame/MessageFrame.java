@@ -18,7 +18,8 @@ import static com.google.common.base.Preconditions.checkState;
 import static java.util.Collections.emptySet;
 import static org.hyperledger.besu.evm.internal.Words.clampedAdd;
 
-import org.hyperledger.besu.collections.undo.UndoSet;
+import org.hyperledger.besu.collections.undo.UndoAddressSet;
+import org.hyperledger.besu.collections.undo.UndoStorageSlotSet;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Log;
 import org.hyperledger.besu.datatypes.VersionedHash;
@@ -35,7 +36,6 @@ import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -44,7 +44,6 @@ import java.util.function.Consumer;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Table;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.bytes.MutableBytes;
@@ -240,6 +239,10 @@ public class MessageFrame {
   private Operation currentOperation;
   private final Consumer<MessageFrame> completer;
   private Optional<MemoryEntry> maybeUpdatedMemory = Optional.empty();
+  // explicit memory read not copied into maybeUpdatedMemory yet, only done if a tracer asks for it
+  private boolean pendingMemoryRead;
+  private long pendingMemoryReadOffset;
+  private long pendingMemoryReadLength;
   private Optional<StorageEntry> maybeUpdatedStorage = Optional.empty();
 
   private final TxValues txValues;
@@ -568,6 +571,15 @@ public class MessageFrame {
     memory.ensureCapacityForBytes(offset, length);
   }
 
+  /**
+   * Returns this frame's memory buffer to the memory pool of the current thread. Called once the
+   * frame has completed; its memory reads as empty afterwards.
+   */
+  public void releaseMemory() {
+    copyPendingMemoryRead();
+    memory.release();
+  }
+
   /**
    * Returns the number of bytes in memory.
    *
@@ -651,7 +663,12 @@ public class MessageFrame {
       final long offset, final long length, final boolean explicitMemoryRead) {
     final MutableBytes memBytes = memory.getMutableBytes(offset, length);
     if (explicitMemoryRead) {
-      setUpdatedMemory(offset, memBytes);
+      // tracers keep the entry, so it must not be a view into a pooled buffer; the copy is only
+      // made if a tracer reads it, see getMaybeUpdatedMemory
+      maybeUpdatedMemory = Optional.empty();
+      pendingMemoryRead = true;
+      pendingMemoryReadOffset = offset;
+      pendingMemoryReadLength = length;
     }
     return memBytes;
   }
@@ -803,9 +820,17 @@ public class MessageFrame {
   }
 
   private void setUpdatedMemory(final long offset, final Bytes value) {
+    pendingMemoryRead = false;
     maybeUpdatedMemory = Optional.of(new MemoryEntry(offset, value));
   }
 
+  private void copyPendingMemoryRead() {
+    if (pendingMemoryRead) {
+      final Bytes value = memory.getBytes(pendingMemoryReadOffset, pendingMemoryReadLength);
+      setUpdatedMemory(pendingMemoryReadOffset, value);
+    }
+  }
+
   /**
    * Storage was updated.
    *
@@ -1118,7 +1143,7 @@ public class MessageFrame {
    * @return true if the storage slot was already warmed up
    */
   public boolean warmUpStorage(final Address address, final Bytes32 slot) {
-    return txValues.warmedUpStorage().put(address, slot, Boolean.TRUE) != null;
+    return !txValues.warmedUpStorage().add(address, slot);
   }
 
   /**
@@ -1392,7 +1417,7 @@ public class MessageFrame {
    *
    * @return the warmed up storage
    */
-  public Table<Address, Bytes32, Boolean> getWarmedUpStorage() {
+  public UndoStorageSlotSet getWarmedUpStorage() {
     return txValues.warmedUpStorage();
   }
 
@@ -1402,6 +1427,7 @@ public class MessageFrame {
    * @return the maybe updated memory
    */
   public Optional<MemoryEntry> getMaybeUpdatedMemory() {
+    copyPendingMemoryRead();
     return maybeUpdatedMemory;
   }
 
@@ -1463,6 +1489,7 @@ public class MessageFrame {
 
   /** Reset. */
   public void reset() {
+    pendingMemoryRead = false;
     maybeUpdatedMemory = Optional.empty();
     maybeUpdatedStorage = Optional.empty();
   }
@@ -1867,13 +1894,13 @@ public class MessageFrame {
       TxValues newTxValues;
 
       if (parentMessageFrame == null) {
-        HashSet<Address> warmedUpAddresses = new HashSet<>();
+        final UndoAddressSet warmedUpAddresses = new UndoAddressSet();
         warmedUpAddresses.add(contract);
         newTxValues =
             TxValues.forTransaction(
                 blockHashLookup,
                 maxStackSize,
-                UndoSet.of(warmedUpAddresses),
+                warmedUpAddresses,
                 originator,
                 gasPrice,
                 blobGasPrice,
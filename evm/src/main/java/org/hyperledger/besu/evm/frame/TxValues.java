@@ -14,8 +14,10 @@
  */
 package org.hyperledger.besu.evm.frame;
 
+import org.hyperledger.besu.collections.undo.UndoAddressSet;
 import org.hyperledger.besu.collections.undo.UndoScalar;
 import org.hyperledger.besu.collections.undo.UndoSet;
+import org.hyperledger.besu.collections.undo.UndoStorageSlotSet;
 import org.hyperledger.besu.collections.undo.UndoTable;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.VersionedHash;
@@ -36,14 +38,15 @@ import org.apache.tuweni.bytes.Bytes32;
  *
  * <p>Holds the immutable per-transaction inputs (originator, gas price, block values, …) and the
  * mutable counters whose state must persist across frame boundaries: the {@link UndoScalar} /
- * {@link UndoSet} / {@link UndoTable} fields are rolled back on revert via {@link #undoChanges}.
+ * {@link UndoSet} / {@link UndoTable} fields and the {@link UndoAddressSet} / {@link
+ * UndoStorageSlotSet} warm access sets are rolled back on revert via {@link #undoChanges}.
  */
 public class TxValues {
 
   private final BlockHashLookup blockHashLookup;
   private final int maxStackSize;
-  private final UndoSet<Address> warmedUpAddresses;
-  private final UndoTable<Address, Bytes32, Boolean> warmedUpStorage;
+  private final UndoAddressSet warmedUpAddresses;
+  private final UndoStorageSlotSet warmedUpStorage;
   private final Address originator;
   private final Wei gasPrice;
   private final Wei blobGasPrice;
@@ -61,8 +64,8 @@ public class TxValues {
   TxValues(
       final BlockHashLookup blockHashLookup,
       final int maxStackSize,
-      final UndoSet<Address> warmedUpAddresses,
-      final UndoTable<Address, Bytes32, Boolean> warmedUpStorage,
+      final UndoAddressSet warmedUpAddresses,
+      final UndoStorageSlotSet warmedUpStorage,
       final Address originator,
       final Wei gasPrice,
       final Wei blobGasPrice,
@@ -117,7 +120,7 @@ public class TxValues {
   public static TxValues forTransaction(
       final BlockHashLookup blockHashLookup,
       final int maxStackSize,
-      final UndoSet<Address> warmedUpAddresses,
+      final UndoAddressSet warmedUpAddresses,
       final Address originator,
       final Wei gasPrice,
       final Wei blobGasPrice,
@@ -130,7 +133,7 @@ public class TxValues {
         blockHashLookup,
         maxStackSize,
         warmedUpAddresses,
-        UndoTable.of(HashBasedTable.create()),
+        new UndoStorageSlotSet(),
         originator,
         gasPrice,
         blobGasPrice,
@@ -185,7 +188,7 @@ public class TxValues {
    *
    * @return the warmed-up addresses
    */
-  public UndoSet<Address> warmedUpAddresses() {
+  public UndoAddressSet warmedUpAddresses() {
     return warmedUpAddresses;
   }
 
@@ -194,7 +197,7 @@ public class TxValues {
    *
    * @return the warmed-up storage slots
    */
-  public UndoTable<Address, Bytes32, Boolean> warmedUpStorage() {
+  public UndoStorageSlotSet warmedUpStorage() {
     return warmedUpStorage;
   }
 
@@ -286,7 +286,9 @@ public abstract class AbstractCallOperation extends AbstractOperation {
       return new OperationResult(cost, 1, softFailureReason, gasAvailableForChildCall);
     }
 
-    final Bytes inputData = frame.readMutableMemory(inputDataOffset(frame), inputDataLength(frame));
+    // copied: the child frame and tracers keep the input after this frame's memory buffer has gone
+    // back to the memory pool
+    final Bytes inputData = frame.readMemory(inputDataOffset(frame), inputDataLength(frame));
 
     final Code code = getCode(evm, frame, contract);
 
@@ -0,0 +1,200 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.UInt256;
+import org.hyperledger.besu.evm.code.BasicBlocks;
+import org.hyperledger.besu.evm.code.Superinstructions;
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Fused handlers for the opcode sequences tagged by {@link Superinstructions}.
+ *
+ * <p>Each handler has the same effect as running the sequence one instruction at a time through
+ * the interpreter loop. The gas of every instruction but the last is charged by the handler (unless
+ * the caller already prepaid it), the frame PC is left on the last instruction and the result of
+ * the last instruction is returned, so the loop charges and advances past it as usual. A handler
+ * returns {@code null} when the stack could underflow or overflow part way through the sequence;
+ * the caller then runs the first instruction on its own, which reports the exact halt.
+ *
+ * <p>Gas costs are taken from the static gas of the fork, the same table basic blocks are prepaid
+ * from, so a fused sequence always costs what its instructions cost one by one.
+ */
+public final class FusedOperations {
+
+  private static final OperationResult OUT_OF_GAS =
+      new OperationResult(0L, ExceptionalHaltReason.INSUFFICIENT_GAS);
+
+  private static final int ADD_OPCODE = 0x01;
+  private static final int POP_OPCODE = 0x50;
+  private static final int MSTORE = 0x52;
+  private static final int JUMPI = 0x57;
+
+  private final BasicBlocks.StaticGas staticGas;
+  private final OperationResult invalidJump;
+  private final OperationResult jump;
+  private final OperationResult noJump;
+  private final OperationResult add;
+  private final OperationResult pop;
+
+  /**
+   * Instantiates the fused handlers of a fork.
+   *
+   * @param staticGas the static gas of the fork, see {@link BasicBlocks.StaticGas}
+   */
+  public FusedOperations(final BasicBlocks.StaticGas staticGas) {
+    this.staticGas = staticGas;
+    final long jumpiCost = staticGas.cost(JUMPI);
+    invalidJump = new OperationResult(jumpiCost, ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
+    jump = new OperationResult(jumpiCost, null, 0);
+    noJump = new OperationResult(jumpiCost, null);
+    add = new OperationResult(staticGas.cost(ADD_OPCODE), null);
+    pop = new OperationResult(staticGas.cost(POP_OPCODE), null);
+  }
+
+  /**
+   * Run the fused sequence starting at {@code pc}.
+   *
+   * @param kind the sequence kind, as reported by {@link Superinstructions#kindAt(int)}
+   * @param frame the executing frame
+   * @param code the raw bytecode
+   * @param pc the program counter of the first instruction of the sequence
+   * @param chargeLeading whether the gas of the leading instructions still has to be charged
+   * @param operations the operations of the EVM, indexed by opcode
+   * @param evm the executing EVM
+   * @return the result of the last instruction, or null if the sequence must not be fused here
+   */
+  public OperationResult execute(
+      final int kind,
+      final MessageFrame frame,
+      final byte[] code,
+      final int pc,
+      final boolean chargeLeading,
+      final Operation[] operations,
+      final EVM evm) {
+    return switch (kind) {
+      case Superinstructions.PUSH1_JUMPI -> push1Jumpi(frame, code, pc, chargeLeading);
+      case Superinstructions.PUSH_ADD -> pushAdd(frame, code, pc, chargeLeading);
+      case Superinstructions.DUP_MSTORE ->
+          dupMStore(frame, code, pc, chargeLeading, operations[MSTORE], evm);
+      case Superinstructions.ISZERO_PUSH1_JUMPI -> isZeroPush1Jumpi(frame, code, pc, chargeLeading);
+      case Superinstructions.SWAP_POP -> swapPop(frame, code, pc, chargeLeading);
+      default -> null;
+    };
+  }
+
+  private OperationResult push1Jumpi(
+      final MessageFrame frame, final byte[] code, final int pc, final boolean chargeLeading) {
+    final int stackSize = frame.stackSize();
+    if (stackSize < 1 || stackSize >= frame.getMaxStackSize()) {
+      return null;
+    }
+    if (chargeLeading && frame.decrementRemainingGas(staticGas.cost(code[pc])) < 0) {
+      return OUT_OF_GAS;
+    }
+    frame.setPC(pc + 2);
+    return jumpi(frame, code[pc + 1] & 0xff, !isZero(frame.popStackItem()));
+  }
+
+  private OperationResult isZeroPush1Jumpi(
+      final MessageFrame frame, final byte[] code, final int pc, final boolean chargeLeading) {
+    final int stackSize = frame.stackSize();
+    if (stackSize < 1 || stackSize >= frame.getMaxStackSize()) {
+      return null;
+    }
+    // ISZERO and PUSH1
+    final long leadingCost = staticGas.cost(code[pc]) + staticGas.cost(code[pc + 1]);
+    if (chargeLeading && frame.decrementRemainingGas(leadingCost) < 0) {
+      return OUT_OF_GAS;
+    }
+    frame.setPC(pc + 3);
+    return jumpi(frame, code[pc + 2] & 0xff, isZero(frame.popStackItem()));
+  }
+
+  private OperationResult jumpi(
+      final MessageFrame frame, final int destination, final boolean condition) {
+    if (!condition) {
+      return noJump;
+    }
+    if (frame.getCode().isJumpDestInvalid(destination)) {
+      return invalidJump;
+    }
+    frame.setPC(destination);
+    return jump;
+  }
+
+  private OperationResult pushAdd(
+      final MessageFrame frame, final byte[] code, final int pc, final boolean chargeLeading) {
+    final int stackSize = frame.stackSize();
+    if (stackSize < 1 || stackSize >= frame.getMaxStackSize()) {
+      return null;
+    }
+    if (chargeLeading && frame.decrementRemainingGas(staticGas.cost(code[pc])) < 0) {
+      return OUT_OF_GAS;
+    }
+    final int pushSize = (code[pc] & 0xff) - PushOperation.PUSH_BASE;
+    final byte[] pushed = new byte[pushSize];
+    System.arraycopy(code, pc + 1, pushed, 0, pushSize);
+    final Bytes value = frame.popStackItem();
+    frame.pushStackItem(Bytes.wrap(UInt256.add(pushed, value.toArrayUnsafe())));
+    frame.setPC(pc + pushSize + 1);
+    return add;
+  }
+
+  private OperationResult dupMStore(
+      final MessageFrame frame,
+      final byte[] code,
+      final int pc,
+      final boolean chargeLeading,
+      final Operation mStore,
+      final EVM evm) {
+    final int index = (code[pc] & 0xff) - DupOperation.DUP_BASE;
+    final int stackSize = frame.stackSize();
+    if (stackSize < index || stackSize >= frame.getMaxStackSize()) {
+      return null;
+    }
+    if (chargeLeading && frame.decrementRemainingGas(staticGas.cost(code[pc])) < 0) {
+      return OUT_OF_GAS;
+    }
+    frame.pushStackItem(frame.getStackItem(index - 1));
+    frame.setPC(pc + 1);
+    frame.setCurrentOperation(mStore);
+    return mStore.execute(frame, evm);
+  }
+
+  private OperationResult swapPop(
+      final MessageFrame frame, final byte[] code, final int pc, final boolean chargeLeading) {
+    final int index = (code[pc] & 0xff) - SwapOperation.SWAP_BASE;
+    if (frame.stackSize() <= index) {
+      return null;
+    }
+    if (chargeLeading && frame.decrementRemainingGas(staticGas.cost(code[pc])) < 0) {
+      return OUT_OF_GAS;
+    }
+    // SWAPn moves the top to depth n and POP drops the old item n, which now sits on top
+    final Bytes top = frame.popStackItem();
+    frame.setStackItem(index - 1, top);
+    frame.setPC(pc + 1);
+    return pop;
+  }
+
+  private static boolean isZero(final Bytes value) {
+    return value.trimLeadingZeros().size() == 0;
+  }
+}
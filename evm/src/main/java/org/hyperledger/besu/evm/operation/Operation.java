@@ -194,6 +194,15 @@ public interface Operation {
    */
   int getStackItemsProduced();
 
+  /**
+   * Gets the gas cost of the operation when it does not depend on the operands or the frame.
+   *
+   * @return the fixed gas cost, or -1 if the gas cost is computed on execution
+   */
+  default long getFixedGasCost() {
+    return -1L;
+  }
+
   /**
    * Determines whether this operation has been virtually added to the contract code. For instance
    * if the contract is not ended by a STOP opcode the {@link EVM} adds an explicit end of script
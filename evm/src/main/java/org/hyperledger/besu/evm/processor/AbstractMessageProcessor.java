@@ -187,6 +187,7 @@ public abstract class AbstractMessageProcessor {
     traceFrameExit(frame, "SUCCESS");
     frame.getMessageFrameStack().removeFirst();
     frame.notifyCompletion();
+    frame.releaseMemory();
   }
 
   private static void traceFrameExit(final MessageFrame frame, final String status) {
@@ -209,6 +210,7 @@ public abstract class AbstractMessageProcessor {
   private void completedFailed(final MessageFrame frame) {
     frame.getMessageFrameStack().removeFirst();
     frame.notifyCompletion();
+    frame.releaseMemory();
   }
 
   /**
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.evm.tracing;
 
+import org.hyperledger.besu.collections.undo.UndoStorageSlotSet;
 import org.hyperledger.besu.datatypes.AccessListEntry;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.evm.frame.MessageFrame;
@@ -28,7 +29,7 @@ import org.apache.tuweni.bytes.Bytes32;
 /** The Access List Operation Tracer. */
 public class AccessListOperationTracer implements OperationTracer {
 
-  private Table<Address, Bytes32, Boolean> warmedUpStorage;
+  private UndoStorageSlotSet warmedUpStorage;
 
   /** Default constructor. */
   private AccessListOperationTracer() {
@@ -47,8 +48,9 @@ public class AccessListOperationTracer implements OperationTracer {
    */
   public List<AccessListEntry> getAccessList() {
     if (warmedUpStorage != null && !warmedUpStorage.isEmpty()) {
-      final List<AccessListEntry> list = new ArrayList<>(warmedUpStorage.size());
-      warmedUpStorage
+      final Table<Address, Bytes32, Boolean> slotsByAddress = warmedUpStorage.toTable();
+      final List<AccessListEntry> list = new ArrayList<>(slotsByAddress.rowKeySet().size());
+      slotsByAddress
           .rowMap()
           .forEach(
               (address, storageKeys) ->
@@ -0,0 +1,73 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 BYTE operation using long[] stack representation. */
+public class ByteOperationV2 extends AbstractFixedCostOperationV2 {
+
+  /** The Byte operation success result. */
+  static final OperationResult byteSuccess = new OperationResult(3, null);
+
+  /**
+   * Instantiates a new Byte operation.
+   *
+   * @param gasCalculator the gas calculator
+   */
+  public ByteOperationV2(final GasCalculator gasCalculator) {
+    super(0x1a, "BYTE", 2, 1, gasCalculator, gasCalculator.getVeryLowTierGasCost());
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame);
+  }
+
+  /**
+   * Execute the BYTE opcode on the v2 long[] stack.
+   *
+   * <p>BYTE: stack[top-2] = byte number stack[top-1] of stack[top-2], counting from the most
+   * significant byte, or 0 if the index is 32 or more. Returns top-1.
+   *
+   * @param frame the message frame
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame) {
+    if (!frame.stackHasItemsV2(2)) return UNDERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int top = frame.stackTopV2();
+    final int indexOffset = (top - 1) << 2;
+    final int valueOffset = (top - 2) << 2;
+    final long result;
+    if ((stack[indexOffset] | stack[indexOffset + 1] | stack[indexOffset + 2]) != 0
+        || Long.compareUnsigned(stack[indexOffset + 3], 32) >= 0) {
+      result = 0L;
+    } else {
+      final int index = (int) stack[indexOffset + 3];
+      // limb 0 holds bytes 0..7, limb 3 holds bytes 24..31
+      final long limb = stack[valueOffset + (index >>> 3)];
+      result = (limb >>> ((7 - (index & 7)) << 3)) & 0xFFL;
+    }
+    stack[valueOffset] = 0L;
+    stack[valueOffset + 1] = 0L;
+    stack[valueOffset + 2] = 0L;
+    stack[valueOffset + 3] = result;
+    frame.setTopV2(top - 1);
+    return byteSuccess;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 CLZ (EIP-7939) operation using long[] stack representation. */
+public class CountLeadingZerosOperationV2 extends AbstractFixedCostOperationV2 {
+
+  /** The CLZ operation success result. */
+  static final OperationResult clzSuccess = new OperationResult(5, null);
+
+  /**
+   * Instantiates a new Count Leading Zeros operation.
+   *
+   * @param gasCalculator the gas calculator
+   */
+  public CountLeadingZerosOperationV2(final GasCalculator gasCalculator) {
+    super(0x1e, "CLZ", 1, 1, gasCalculator, gasCalculator.getLowTierGasCost());
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame);
+  }
+
+  /**
+   * Execute the CLZ opcode on the v2 long[] stack.
+   *
+   * <p>CLZ: stack[top-1] = number of leading zero bits of stack[top-1], 256 for zero.
+   *
+   * @param frame the message frame
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame) {
+    if (!frame.stackHasItemsV2(1)) return UNDERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int offset = (frame.stackTopV2() - 1) << 2;
+    final long result;
+    if (stack[offset] != 0) {
+      result = Long.numberOfLeadingZeros(stack[offset]);
+    } else if (stack[offset + 1] != 0) {
+      result = 64L + Long.numberOfLeadingZeros(stack[offset + 1]);
+    } else if (stack[offset + 2] != 0) {
+      result = 128L + Long.numberOfLeadingZeros(stack[offset + 2]);
+    } else {
+      // numberOfLeadingZeros(0) is 64, which yields 256 for an all-zero word
+      result = 192L + Long.numberOfLeadingZeros(stack[offset + 3]);
+    }
+    stack[offset] = 0L;
+    stack[offset + 1] = 0L;
+    stack[offset + 2] = 0L;
+    stack[offset + 3] = result;
+    return clzSuccess;
+  }
+}
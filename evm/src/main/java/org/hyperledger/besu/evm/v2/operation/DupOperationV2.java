@@ -0,0 +1,70 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 DUP1-DUP16 operation using long[] stack representation. */
+public class DupOperationV2 extends AbstractFixedCostOperationV2 {
+
+  /** The constant DUP_BASE. */
+  public static final int DUP_BASE = 0x7F;
+
+  /** The Dup success operation result. */
+  static final OperationResult dupSuccess = new OperationResult(3, null);
+
+  private final int index;
+
+  /**
+   * Instantiates a new Dup operation.
+   *
+   * @param index the index
+   * @param gasCalculator the gas calculator
+   */
+  public DupOperationV2(final int index, final GasCalculator gasCalculator) {
+    super(
+        0x80 + index - 1,
+        "DUP" + index,
+        index,
+        index + 1,
+        gasCalculator,
+        gasCalculator.getVeryLowTierGasCost());
+    this.index = index;
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame, index);
+  }
+
+  /**
+   * Performs Dup operation by copying the four limbs of the n-th item to the new top slot.
+   *
+   * @param frame the frame
+   * @param index the index, 1 for DUP1
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame, final int index) {
+    if (!frame.stackHasItemsV2(index)) return UNDERFLOW_RESPONSE;
+    if (!frame.stackHasSpaceV2(1)) return OVERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int top = frame.stackTopV2();
+    System.arraycopy(stack, (top - index) << 2, stack, top << 2, 4);
+    frame.setTopV2(top + 1);
+    return dupSuccess;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 JUMP operation using long[] stack representation. */
+public class JumpOperationV2 extends AbstractFixedCostOperationV2 {
+
+  private static final OperationResult invalidJumpResponse =
+      new OperationResult(8L, ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
+  private static final OperationResult jumpResponse = new OperationResult(8L, null, 0);
+
+  /**
+   * Instantiates a new Jump operation.
+   *
+   * @param gasCalculator the gas calculator
+   */
+  public JumpOperationV2(final GasCalculator gasCalculator) {
+    super(0x56, "JUMP", 1, 0, gasCalculator, gasCalculator.getMidTierGasCost());
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame);
+  }
+
+  /**
+   * Performs Jump operation.
+   *
+   * @param frame the frame
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame) {
+    if (!frame.stackHasItemsV2(1)) return UNDERFLOW_RESPONSE;
+    final int top = frame.stackTopV2();
+    final int dest = jumpDestination(frame.stackDataV2(), (top - 1) << 2);
+    frame.setTopV2(top - 1);
+    return performJump(frame, dest, jumpResponse, invalidJumpResponse);
+  }
+
+  /**
+   * Reads a jump destination from the stack word at the given limb offset.
+   *
+   * @param stack the flat limb array
+   * @param offset the limb offset of the word
+   * @return the destination, or -1 if it does not fit in a non-negative int
+   */
+  static int jumpDestination(final long[] stack, final int offset) {
+    if ((stack[offset] | stack[offset + 1] | stack[offset + 2]) != 0
+        || Long.compareUnsigned(stack[offset + 3], Integer.MAX_VALUE) > 0) {
+      return -1;
+    }
+    return (int) stack[offset + 3];
+  }
+
+  /**
+   * Validates the destination against the code's jump destination bitmask and moves the PC.
+   *
+   * @param frame the frame
+   * @param dest the destination, negative values are always invalid
+   * @param validJumpResponse the response to return in case the jump is successful
+   * @param invalidJumpResponse the response to return in case the jump failed
+   * @return either validJumpResponse or invalidJumpResponse
+   */
+  static OperationResult performJump(
+      final MessageFrame frame,
+      final int dest,
+      final OperationResult validJumpResponse,
+      final OperationResult invalidJumpResponse) {
+    if (frame.getCode().isJumpDestInvalid(dest)) {
+      return invalidJumpResponse;
+    }
+    frame.setPC(dest);
+    return validJumpResponse;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.hyperledger.besu.evm.v2.operation.JumpOperationV2.jumpDestination;
+import static org.hyperledger.besu.evm.v2.operation.JumpOperationV2.performJump;
+
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 JUMPI operation using long[] stack representation. */
+public class JumpiOperationV2 extends AbstractFixedCostOperationV2 {
+
+  private static final OperationResult invalidJumpResponse =
+      new OperationResult(10L, ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
+  private static final OperationResult jumpiResponse = new OperationResult(10L, null, 0);
+  private static final OperationResult nojumpResponse = new OperationResult(10L, null);
+
+  /**
+   * Instantiates a new JUMPI operation.
+   *
+   * @param gasCalculator the gas calculator
+   */
+  public JumpiOperationV2(final GasCalculator gasCalculator) {
+    super(0x57, "JUMPI", 2, 0, gasCalculator, gasCalculator.getHighTierGasCost());
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame);
+  }
+
+  /**
+   * Performs JUMPI operation.
+   *
+   * @param frame the frame
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame) {
+    if (!frame.stackHasItemsV2(2)) return UNDERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int top = frame.stackTopV2();
+    final int destOffset = (top - 1) << 2;
+    final int condOffset = (top - 2) << 2;
+    frame.setTopV2(top - 2);
+    // If condition is zero (false), no jump is will be performed. Therefore, skip the test.
+    if ((stack[condOffset] | stack[condOffset + 1] | stack[condOffset + 2] | stack[condOffset + 3])
+        == 0) {
+      return nojumpResponse;
+    }
+    return performJump(
+        frame, jumpDestination(stack, destOffset), jumpiResponse, invalidJumpResponse);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.hyperledger.besu.evm.v2.operation.StackUtil.clampedToLongAt;
+import static org.hyperledger.besu.evm.v2.operation.StackUtil.copyWordTo;
+
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/** EVM v2 MSTORE operation using long[] stack representation. */
+public class MStoreOperationV2 extends AbstractOperationV2 {
+
+  /**
+   * Instantiates a new MStore operation.
+   *
+   * @param gasCalculator the gas calculator
+   */
+  public MStoreOperationV2(final GasCalculator gasCalculator) {
+    super(0x52, "MSTORE", 2, 0, gasCalculator);
+  }
+
+  @Override
+  public OperationResult execute(final MessageFrame frame, final EVM evm) {
+    if (!frame.stackHasItemsV2(2)) return UNDERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int top = frame.stackTopV2();
+    final long location = clampedToLongAt(stack, top, 0);
+    final long cost = gasCalculator().mStoreOperationGasCost(frame, location);
+    if (frame.getRemainingGas() < cost) {
+      return new OperationResult(cost, ExceptionalHaltReason.INSUFFICIENT_GAS);
+    }
+    final byte[] word = new byte[32];
+    copyWordTo(stack, top, 1, word, 0);
+    frame.writeMemory(location, 32, Bytes.wrap(word), true);
+    frame.setTopV2(top - 2);
+    return new OperationResult(cost, null);
+  }
+}
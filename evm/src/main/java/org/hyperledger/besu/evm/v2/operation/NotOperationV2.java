@@ -0,0 +1,59 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 NOT operation using long[] stack representation. */
+public class NotOperationV2 extends AbstractFixedCostOperationV2 {
+
+  /** The Not operation success result. */
+  static final OperationResult notSuccess = new OperationResult(3, null);
+
+  /**
+   * Instantiates a new Not operation.
+   *
+   * @param gasCalculator the gas calculator
+   */
+  public NotOperationV2(final GasCalculator gasCalculator) {
+    super(0x19, "NOT", 1, 1, gasCalculator, gasCalculator.getVeryLowTierGasCost());
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame);
+  }
+
+  /**
+   * Execute the NOT opcode on the v2 long[] stack.
+   *
+   * <p>NOT: stack[top-1] = ~stack[top-1], top is unchanged.
+   *
+   * @param frame the message frame
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame) {
+    if (!frame.stackHasItemsV2(1)) return UNDERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int offset = (frame.stackTopV2() - 1) << 2;
+    stack[offset] = ~stack[offset];
+    stack[offset + 1] = ~stack[offset + 1];
+    stack[offset + 2] = ~stack[offset + 2];
+    stack[offset + 3] = ~stack[offset + 3];
+    return notSuccess;
+  }
+}
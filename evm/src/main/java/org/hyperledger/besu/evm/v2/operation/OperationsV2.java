@@ -0,0 +1,90 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.BalanceOperation;
+import org.hyperledger.besu.evm.operation.BaseFeeOperation;
+import org.hyperledger.besu.evm.operation.BlobBaseFeeOperation;
+import org.hyperledger.besu.evm.operation.CallValueOperation;
+import org.hyperledger.besu.evm.operation.ChainIdOperation;
+import org.hyperledger.besu.evm.operation.CoinbaseOperation;
+import org.hyperledger.besu.evm.operation.GasLimitOperation;
+import org.hyperledger.besu.evm.operation.GasOperation;
+import org.hyperledger.besu.evm.operation.GasPriceOperation;
+import org.hyperledger.besu.evm.operation.MLoadOperation;
+import org.hyperledger.besu.evm.operation.MStore8Operation;
+import org.hyperledger.besu.evm.operation.MStoreOperation;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.operation.OperationRegistry;
+import org.hyperledger.besu.evm.operation.PrevRanDaoOperation;
+import org.hyperledger.besu.evm.operation.SLoadOperation;
+import org.hyperledger.besu.evm.operation.SStoreOperation;
+import org.hyperledger.besu.evm.operation.SelfBalanceOperation;
+
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Builds the table of non-static v2 operations for a fork. The v1 {@link OperationRegistry} stays
+ * the source of truth for which opcodes a fork enables: a v2 operation is only installed where the
+ * registry holds the matching v1 operation, so fork activation and fork-specific constructor
+ * arguments (chain id, SSTORE stipend) are taken from it.
+ */
+public final class OperationsV2 {
+
+  private OperationsV2() {}
+
+  /**
+   * Create the v2 operation table mirroring the given registry.
+   *
+   * @param registry the v1 operation registry of the fork
+   * @param gasCalculator the gas calculator of the fork
+   * @return a 256 entry array indexed by opcode, with {@code null} for opcodes without a v2
+   *     implementation
+   */
+  public static Operation[] forRegistry(
+      final OperationRegistry registry, final GasCalculator gasCalculator) {
+    final Operation[] table = new Operation[256];
+    final Operation[] v1 = registry.getOperations();
+    for (int opcode = 0; opcode < 256; opcode++) {
+      table[opcode] = toV2(v1[opcode], gasCalculator);
+    }
+    return table;
+  }
+
+  private static Operation toV2(final Operation v1, final GasCalculator gasCalculator) {
+    return switch (v1) {
+      case BalanceOperation ignored -> new BalanceOperationV2(gasCalculator);
+      case CallValueOperation ignored -> new CallValueOperationV2(gasCalculator);
+      case GasPriceOperation ignored -> new GasPriceOperationV2(gasCalculator);
+      case CoinbaseOperation ignored -> new CoinbaseOperationV2(gasCalculator);
+      case PrevRanDaoOperation ignored -> new PrevRanDaoOperationV2(gasCalculator);
+      case GasLimitOperation ignored -> new GasLimitOperationV2(gasCalculator);
+      case ChainIdOperation chainId ->
+          new ChainIdOperationV2(gasCalculator, Bytes32.leftPad(chainId.getChainId()));
+      case SelfBalanceOperation ignored -> new SelfBalanceOperationV2(gasCalculator);
+      case BaseFeeOperation ignored -> new BaseFeeOperationV2(gasCalculator);
+      case BlobBaseFeeOperation ignored -> new BlobBaseFeeOperationV2(gasCalculator);
+      case MLoadOperation ignored -> new MLoadOperationV2(gasCalculator);
+      case MStoreOperation ignored -> new MStoreOperationV2(gasCalculator);
+      case MStore8Operation ignored -> new MStore8OperationV2(gasCalculator);
+      case SLoadOperation ignored -> new SLoadOperationV2(gasCalculator);
+      case SStoreOperation sstore ->
+          new SStoreOperationV2(gasCalculator, sstore.getMinimumGasRemaining());
+      case GasOperation ignored -> new GasOperationV2(gasCalculator);
+      case null, default -> null;
+    };
+  }
+}
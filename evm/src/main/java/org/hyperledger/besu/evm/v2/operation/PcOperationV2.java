@@ -0,0 +1,56 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.hyperledger.besu.evm.v2.operation.StackUtil.pushLong;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 PC operation using long[] stack representation. */
+public class PcOperationV2 extends AbstractFixedCostOperationV2 {
+
+  /** The PC operation success result. */
+  static final OperationResult pcSuccess = new OperationResult(2, null);
+
+  /**
+   * Instantiates a new PC operation.
+   *
+   * @param gasCalculator the gas calculator
+   */
+  public PcOperationV2(final GasCalculator gasCalculator) {
+    super(0x58, "PC", 0, 1, gasCalculator, gasCalculator.getBaseTierGasCost());
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame);
+  }
+
+  /**
+   * Performs PC operation.
+   *
+   * @param frame the frame
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame) {
+    if (!frame.stackHasSpaceV2(1)) return OVERFLOW_RESPONSE;
+    final int top = frame.stackTopV2();
+    pushLong(frame.getPC(), frame.stackDataV2(), top);
+    frame.setTopV2(top + 1);
+    return pcSuccess;
+  }
+}
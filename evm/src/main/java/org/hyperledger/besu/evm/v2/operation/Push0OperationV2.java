@@ -0,0 +1,56 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.hyperledger.besu.evm.v2.operation.StackUtil.pushZero;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 PUSH0 operation using long[] stack representation. */
+public class Push0OperationV2 extends AbstractFixedCostOperationV2 {
+
+  /** The Push0 operation success result. */
+  static final OperationResult push0Success = new OperationResult(2, null);
+
+  /**
+   * Instantiates a new Push0 operation.
+   *
+   * @param gasCalculator the gas calculator
+   */
+  public Push0OperationV2(final GasCalculator gasCalculator) {
+    super(0x5f, "PUSH0", 0, 1, gasCalculator, gasCalculator.getBaseTierGasCost());
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame);
+  }
+
+  /**
+   * Performs Push0 operation.
+   *
+   * @param frame the frame
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame) {
+    if (!frame.stackHasSpaceV2(1)) return OVERFLOW_RESPONSE;
+    final int top = frame.stackTopV2();
+    pushZero(frame.stackDataV2(), top);
+    frame.setTopV2(top + 1);
+    return push0Success;
+  }
+}
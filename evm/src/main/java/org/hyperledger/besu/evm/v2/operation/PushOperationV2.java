@@ -0,0 +1,83 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.hyperledger.besu.evm.v2.operation.StackUtil.pushLong;
+import static org.hyperledger.besu.evm.v2.operation.StackUtil.pushRightAligned;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 PUSH1-PUSH32 operation using long[] stack representation. */
+public class PushOperationV2 extends AbstractFixedCostOperationV2 {
+
+  /** The constant PUSH_BASE. */
+  public static final int PUSH_BASE = 0x5F;
+
+  /** The Push operation success result. */
+  static final OperationResult pushSuccess = new OperationResult(3, null);
+
+  private final int length;
+
+  /**
+   * Instantiates a new Push operation.
+   *
+   * @param length the length
+   * @param gasCalculator the gas calculator
+   */
+  public PushOperationV2(final int length, final GasCalculator gasCalculator) {
+    super(
+        PUSH_BASE + length,
+        "PUSH" + length,
+        0,
+        1,
+        gasCalculator,
+        gasCalculator.getVeryLowTierGasCost());
+    this.length = length;
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    final byte[] code = frame.getCode().getBytes().toArrayUnsafe();
+    return staticOperation(frame, code, frame.getPC(), length);
+  }
+
+  /**
+   * Performs Push operation. The immediate bytes are decoded straight from the code into limbs, so
+   * no intermediate {@code Bytes} is allocated. Immediates truncated by the end of the code are
+   * right-padded with zeros.
+   *
+   * @param frame the frame
+   * @param code the code
+   * @param pc the pc
+   * @param pushSize the push size
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(
+      final MessageFrame frame, final byte[] code, final int pc, final int pushSize) {
+    if (!frame.stackHasSpaceV2(1)) return OVERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int top = frame.stackTopV2();
+    if (pushSize == 1 && pc + 1 < code.length) {
+      pushLong(code[pc + 1] & 0xFFL, stack, top);
+    } else {
+      pushRightAligned(code, pc + 1, pushSize, stack, top);
+    }
+    frame.setTopV2(top + 1);
+    frame.setPC(pc + pushSize);
+    return pushSuccess;
+  }
+}
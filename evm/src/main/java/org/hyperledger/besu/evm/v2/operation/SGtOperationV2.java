@@ -0,0 +1,71 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 SGT operation using long[] stack representation. */
+public class SGtOperationV2 extends AbstractFixedCostOperationV2 {
+
+  /** The Signed greater than operation success result. */
+  static final OperationResult sGtSuccess = new OperationResult(3, null);
+
+  /**
+   * Instantiates a new Signed greater than operation.
+   *
+   * @param gasCalculator the gas calculator
+   */
+  public SGtOperationV2(final GasCalculator gasCalculator) {
+    super(0x13, "SGT", 2, 1, gasCalculator, gasCalculator.getVeryLowTierGasCost());
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame);
+  }
+
+  /**
+   * Execute the SGT opcode on the v2 long[] stack.
+   *
+   * <p>SGT: stack[top-2] = signed(stack[top-1]) &gt; signed(stack[top-2]) ? 1 : 0, return top-1.
+   *
+   * @param frame the message frame
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame) {
+    if (!frame.stackHasItemsV2(2)) return UNDERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int top = frame.stackTopV2();
+    final int aOffset = (top - 1) << 2;
+    final int bOffset = (top - 2) << 2;
+    final long r = lessThanSigned(stack, bOffset, aOffset) ? 1L : 0L;
+    stack[bOffset] = 0L;
+    stack[bOffset + 1] = 0L;
+    stack[bOffset + 2] = 0L;
+    stack[bOffset + 3] = r;
+    frame.setTopV2(top - 1);
+    return sGtSuccess;
+  }
+
+  private static boolean lessThanSigned(final long[] stack, final int x, final int y) {
+    // the most significant limb carries the sign, so it is compared as a signed long
+    if (stack[x] != stack[y]) return stack[x] < stack[y];
+    if (stack[x + 1] != stack[y + 1]) return Long.compareUnsigned(stack[x + 1], stack[y + 1]) < 0;
+    if (stack[x + 2] != stack[y + 2]) return Long.compareUnsigned(stack[x + 2], stack[y + 2]) < 0;
+    return Long.compareUnsigned(stack[x + 3], stack[y + 3]) < 0;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.hyperledger.besu.evm.v2.operation.StackUtil.readBytes32At;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.gascalculator.StateGasCostCalculator;
+import org.hyperledger.besu.evm.gascalculator.StorageTransition;
+
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * EVM v2 SSTORE operation using long[] stack representation. Gas, refund and EIP-8037 state gas
+ * accounting are identical to {@link org.hyperledger.besu.evm.operation.SStoreOperation}.
+ */
+public class SStoreOperationV2 extends AbstractOperationV2 {
+
+  /** The Illegal state change response. */
+  protected static final OperationResult ILLEGAL_STATE_CHANGE =
+      new OperationResult(0L, ExceptionalHaltReason.ILLEGAL_STATE_CHANGE);
+
+  private final long minimumGasRemaining;
+
+  /**
+   * Instantiates a new SStore operation.
+   *
+   * @param gasCalculator the gas calculator
+   * @param minimumGasRemaining the minimum gas remaining
+   */
+  public SStoreOperationV2(final GasCalculator gasCalculator, final long minimumGasRemaining) {
+    super(0x55, "SSTORE", 2, 0, gasCalculator);
+    this.minimumGasRemaining = minimumGasRemaining;
+  }
+
+  @Override
+  public OperationResult execute(final MessageFrame frame, final EVM evm) {
+    final long remainingGas = frame.getRemainingGas();
+    if (frame.isStatic()) {
+      return new OperationResult(remainingGas, ExceptionalHaltReason.ILLEGAL_STATE_CHANGE);
+    }
+    if (remainingGas <= minimumGasRemaining) {
+      return new OperationResult(minimumGasRemaining, ExceptionalHaltReason.INSUFFICIENT_GAS);
+    }
+    if (!frame.stackHasItemsV2(2)) return UNDERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int top = frame.stackTopV2();
+    final UInt256 key = UInt256.fromBytes(readBytes32At(stack, top, 0));
+    final UInt256 newValue = UInt256.fromBytes(readBytes32At(stack, top, 1));
+    frame.setTopV2(top - 2);
+
+    final Address address = frame.getRecipientAddress();
+    final long sloadCost =
+        frame.warmUpStorage(address, key) ? 0L : gasCalculator().getColdSloadCost();
+    if (remainingGas < sloadCost) {
+      return new OperationResult(sloadCost, ExceptionalHaltReason.INSUFFICIENT_GAS);
+    }
+
+    final MutableAccount account = getMutableAccount(address, frame);
+    if (account == null) {
+      return ILLEGAL_STATE_CHANGE;
+    }
+
+    final Supplier<UInt256> currentValueSupplier =
+        Suppliers.memoize(() -> getStorageValue(account, key, frame));
+    final Supplier<UInt256> originalValueSupplier =
+        Suppliers.memoize(() -> account.getOriginalStorageValue(key));
+
+    final long cost =
+        gasCalculator().calculateStorageCost(newValue, currentValueSupplier, originalValueSupplier)
+            + sloadCost;
+    if (remainingGas < cost) {
+      return new OperationResult(cost, ExceptionalHaltReason.INSUFFICIENT_GAS);
+    }
+
+    // EIP-8037: deduct regular gas before charging state gas, see SStoreOperation
+    frame.decrementRemainingGas(cost);
+    frame.incrementGasRefund(
+        gasCalculator()
+            .calculateStorageRefundAmount(newValue, currentValueSupplier, originalValueSupplier));
+
+    final StateGasCostCalculator stateGasCalc = gasCalculator().stateGasCostCalculator();
+    final StorageTransition transition =
+        StorageTransition.of(newValue, currentValueSupplier, originalValueSupplier);
+    final long storageSetStateGas = stateGasCalc.storageSetStateGas();
+    if (transition.isUnwoundSet()) {
+      frame.refillStateGasReservoir(storageSetStateGas);
+    } else if (transition.isStorageSet() && !frame.consumeStateGas(storageSetStateGas)) {
+      return new OperationResult(cost, ExceptionalHaltReason.INSUFFICIENT_GAS);
+    }
+    // Add regular gas back — the EVM loop will deduct it via the OperationResult.
+    frame.incrementRemainingGas(cost);
+
+    account.setStorageValue(key, newValue);
+    frame.storageWasUpdated(key, newValue);
+    frame.getEip7928AccessList().ifPresent(t -> t.addSlotAccessForAccount(address, key));
+    return new OperationResult(cost, null);
+  }
+}
@@ -148,4 +148,99 @@ final class StackUtil {
     LONG_BE.set(bytes, 12, stack[off + 3]);
     return Address.wrap(Bytes.wrap(bytes));
   }
+
+  /**
+   * Reads a 256-bit stack word at the given depth below the top of stack as a {@link Bytes32}.
+   *
+   * @param stack the flat limb array
+   * @param top current stack-top (item count)
+   * @param depth 0 for the topmost item, 1 for the item below, etc.
+   * @return a newly allocated 32-byte big-endian copy of the stack word
+   */
+  static Bytes32 readBytes32At(final long[] stack, final int top, final int depth) {
+    final int off = (top - 1 - depth) << 2;
+    final byte[] bytes = new byte[32];
+    LONG_BE.set(bytes, 0, stack[off]);
+    LONG_BE.set(bytes, 8, stack[off + 1]);
+    LONG_BE.set(bytes, 16, stack[off + 2]);
+    LONG_BE.set(bytes, 24, stack[off + 3]);
+    return Bytes32.wrap(bytes);
+  }
+
+  /**
+   * Reads a 256-bit stack word as a non-negative {@code long}, clamping to {@link Long#MAX_VALUE}
+   * when the value does not fit. This mirrors the v1 {@code clampedToLong} used for memory offsets.
+   *
+   * @param stack the flat limb array
+   * @param top current stack-top (item count)
+   * @param depth 0 for the topmost item, 1 for the item below, etc.
+   * @return the value as a long, or {@link Long#MAX_VALUE} if it exceeds 63 bits
+   */
+  static long clampedToLongAt(final long[] stack, final int top, final int depth) {
+    final int off = (top - 1 - depth) << 2;
+    if ((stack[off] | stack[off + 1] | stack[off + 2]) != 0 || stack[off + 3] < 0) {
+      return Long.MAX_VALUE;
+    }
+    return stack[off + 3];
+  }
+
+  /**
+   * Writes {@code length} bytes of {@code src}, starting at {@code srcOffset}, as a right-aligned
+   * 256-bit word at the given stack slot. Bytes past the end of {@code src} are read as zero, which
+   * matches the right-padding of truncated PUSH immediates at the end of the code.
+   *
+   * @param src the source bytes (typically the contract code)
+   * @param srcOffset the offset of the first byte to read
+   * @param length the number of bytes in the word, between 1 and 32
+   * @param stack the flat limb array
+   * @param top the slot index to write to
+   */
+  static void pushRightAligned(
+      final byte[] src, final int srcOffset, final int length, final long[] stack, final int top) {
+    final int offset = top << 2;
+    stack[offset] = 0L;
+    stack[offset + 1] = 0L;
+    stack[offset + 2] = 0L;
+    stack[offset + 3] = 0L;
+    final int available = Math.max(0, Math.min(length, src.length - srcOffset));
+    // position of the first byte within the 32-byte big-endian word
+    final int start = 32 - length;
+    for (int i = 0; i < available; i++) {
+      final int pos = start + i;
+      stack[offset + (pos >>> 3)] |= (src[srcOffset + i] & 0xFFL) << ((7 - (pos & 7)) << 3);
+    }
+  }
+
+  /**
+   * Writes the 256-bit stack word at the given depth as 32 big-endian bytes into {@code dest}.
+   *
+   * @param stack the flat limb array
+   * @param top current stack-top (item count)
+   * @param depth 0 for the topmost item, 1 for the item below, etc.
+   * @param dest the destination array, at least {@code destOffset + 32} bytes long
+   * @param destOffset the offset to start writing at
+   */
+  static void copyWordTo(
+      final long[] stack, final int top, final int depth, final byte[] dest, final int destOffset) {
+    final int off = (top - 1 - depth) << 2;
+    LONG_BE.set(dest, destOffset, stack[off]);
+    LONG_BE.set(dest, destOffset + 8, stack[off + 1]);
+    LONG_BE.set(dest, destOffset + 16, stack[off + 2]);
+    LONG_BE.set(dest, destOffset + 24, stack[off + 3]);
+  }
+
+  /**
+   * Reads 32 big-endian bytes from {@code src} into the given stack slot.
+   *
+   * @param src the source bytes
+   * @param stack the flat limb array
+   * @param top the slot index to write to
+   */
+  static void pushBytes(final Bytes src, final long[] stack, final int top) {
+    final int offset = top << 2;
+    stack[offset] = src.getLong(0);
+    stack[offset + 1] = src.getLong(8);
+    stack[offset + 2] = src.getLong(16);
+    stack[offset + 3] = src.getLong(24);
+  }
 }
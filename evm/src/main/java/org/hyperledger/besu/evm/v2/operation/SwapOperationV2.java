@@ -0,0 +1,81 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 SWAP1-SWAP16 operation using long[] stack representation. */
+public class SwapOperationV2 extends AbstractFixedCostOperationV2 {
+
+  /** The constant SWAP_BASE. */
+  public static final int SWAP_BASE = 0x8F;
+
+  /** The Swap operation success result. */
+  static final OperationResult swapSuccess = new OperationResult(3, null);
+
+  private final int index;
+
+  /**
+   * Instantiates a new Swap operation.
+   *
+   * @param index the index
+   * @param gasCalculator the gas calculator
+   */
+  public SwapOperationV2(final int index, final GasCalculator gasCalculator) {
+    super(
+        0x90 + index - 1,
+        "SWAP" + index,
+        index + 1,
+        index + 1,
+        gasCalculator,
+        gasCalculator.getVeryLowTierGasCost());
+    this.index = index;
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame, index);
+  }
+
+  /**
+   * Performs Swap operation by exchanging the limbs of the top item and the (index+1)-th item.
+   *
+   * @param frame the frame
+   * @param index the index, 1 for SWAP1
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame, final int index) {
+    if (!frame.stackHasItemsV2(index + 1)) return UNDERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int top = frame.stackTopV2();
+    final int a = (top - 1) << 2;
+    final int b = (top - 1 - index) << 2;
+    long tmp = stack[a];
+    stack[a] = stack[b];
+    stack[b] = tmp;
+    tmp = stack[a + 1];
+    stack[a + 1] = stack[b + 1];
+    stack[b + 1] = tmp;
+    tmp = stack[a + 2];
+    stack[a + 2] = stack[b + 2];
+    stack[b + 2] = tmp;
+    tmp = stack[a + 3];
+    stack[a + 3] = stack[b + 3];
+    stack[b + 3] = tmp;
+    return swapSuccess;
+  }
+}
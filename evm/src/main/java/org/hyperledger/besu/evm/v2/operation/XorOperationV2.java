@@ -0,0 +1,62 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+
+/** EVM v2 XOR operation using long[] stack representation. */
+public class XorOperationV2 extends AbstractFixedCostOperationV2 {
+
+  /** The Bitwise XOR operation success result. */
+  static final OperationResult xorSuccess = new OperationResult(3, null);
+
+  /**
+   * Instantiates a new Bitwise XOR operation.
+   *
+   * @param gasCalculator the gas calculator
+   */
+  public XorOperationV2(final GasCalculator gasCalculator) {
+    super(0x18, "XOR", 2, 1, gasCalculator, gasCalculator.getVeryLowTierGasCost());
+  }
+
+  @Override
+  public Operation.OperationResult executeFixedCostOperation(final MessageFrame frame) {
+    return staticOperation(frame);
+  }
+
+  /**
+   * Execute the XOR opcode on the v2 long[] stack.
+   *
+   * <p>XOR: stack[top-2] = stack[top-1] ^ stack[top-2], return top-1.
+   *
+   * @param frame the message frame
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final MessageFrame frame) {
+    if (!frame.stackHasItemsV2(2)) return UNDERFLOW_RESPONSE;
+    final long[] stack = frame.stackDataV2();
+    final int top = frame.stackTopV2();
+    final int aOffset = (top - 1) << 2;
+    final int bOffset = (top - 2) << 2;
+    stack[bOffset] = stack[aOffset] ^ stack[bOffset];
+    stack[bOffset + 1] = stack[aOffset + 1] ^ stack[bOffset + 1];
+    stack[bOffset + 2] = stack[aOffset + 2] ^ stack[bOffset + 2];
+    stack[bOffset + 3] = stack[aOffset + 3] ^ stack[bOffset + 3];
+    frame.setTopV2(top - 1);
+    return xorSuccess;
+  }
+}
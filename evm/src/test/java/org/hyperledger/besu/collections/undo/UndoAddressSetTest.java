@@ -0,0 +1,101 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.collections.undo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Address;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class UndoAddressSetTest {
+
+  private final UndoAddressSet subject = new UndoAddressSet(4);
+
+  @Test
+  void addReportsWhetherAddressIsNew() {
+    assertThat(subject.add(Address.fromHexString("0x01"))).isTrue();
+    assertThat(subject.add(Address.fromHexString("0x01"))).isFalse();
+    assertThat(subject.contains(Address.fromHexString("0x01"))).isTrue();
+    assertThat(subject.contains(Address.fromHexString("0x02"))).isFalse();
+    assertThat(subject.size()).isEqualTo(1);
+  }
+
+  @Test
+  void addressesDifferingOnlyInLastBytesAreDistinct() {
+    final Address first = Address.fromHexString("0x1000000000000000000000000000000000000001");
+    final Address second = Address.fromHexString("0x1000000000000000000000000000000000000002");
+    subject.add(first);
+
+    assertThat(subject.contains(second)).isFalse();
+    assertThat(subject.contains(first)).isTrue();
+  }
+
+  @Test
+  void markOnlyMovesOnNewAddress() {
+    subject.add(Address.ZERO);
+    final long mark = subject.mark();
+
+    subject.add(Address.ZERO);
+    assertThat(subject.mark()).isEqualTo(mark);
+    assertThat(subject.lastUpdate()).isLessThanOrEqualTo(mark);
+
+    subject.add(Address.ECREC);
+    assertThat(subject.mark()).isGreaterThan(mark);
+    assertThat(subject.lastUpdate()).isGreaterThan(mark);
+  }
+
+  @Test
+  void undoRemovesAddressesAddedAfterMarkAcrossGrowth() {
+    final List<Address> before = addresses(0, 10);
+    before.forEach(subject::add);
+    final long mark = subject.mark();
+    final List<Address> after = addresses(10, 1000);
+    after.forEach(subject::add);
+    assertThat(subject.size()).isEqualTo(1000);
+
+    subject.undo(mark);
+
+    assertThat(subject.size()).isEqualTo(10);
+    before.forEach(a -> assertThat(subject.contains(a)).isTrue());
+    after.forEach(a -> assertThat(subject.contains(a)).isFalse());
+
+    final List<Address> visited = new ArrayList<>();
+    subject.forEach(visited::add);
+    assertThat(visited).containsExactlyElementsOf(before);
+
+    after.forEach(a -> assertThat(subject.add(a)).isTrue());
+    assertThat(subject.size()).isEqualTo(1000);
+  }
+
+  @Test
+  void undoToLaterMarkIsNoop() {
+    subject.add(Address.ZERO);
+    subject.undo(subject.mark());
+
+    assertThat(subject.contains(Address.ZERO)).isTrue();
+  }
+
+  private static List<Address> addresses(final int from, final int to) {
+    final List<Address> addresses = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      addresses.add(Address.fromHexString(String.format("0x%040x", i * 7919L)));
+    }
+    return addresses;
+  }
+}
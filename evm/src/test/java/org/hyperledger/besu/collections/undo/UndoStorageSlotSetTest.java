@@ -0,0 +1,72 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.collections.undo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Address;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+class UndoStorageSlotSetTest {
+
+  private static final Address ACCOUNT_A = Address.fromHexString("0xaa");
+  private static final Address ACCOUNT_B = Address.fromHexString("0xbb");
+
+  private final UndoStorageSlotSet subject = new UndoStorageSlotSet(4);
+
+  @Test
+  void slotsAreKeyedByAccountAndSlot() {
+    assertThat(subject.add(ACCOUNT_A, Bytes32.ZERO)).isTrue();
+    assertThat(subject.add(ACCOUNT_A, Bytes32.ZERO)).isFalse();
+
+    assertThat(subject.contains(ACCOUNT_A, Bytes32.ZERO)).isTrue();
+    assertThat(subject.contains(ACCOUNT_B, Bytes32.ZERO)).isFalse();
+    assertThat(subject.contains(ACCOUNT_A, slot(1))).isFalse();
+  }
+
+  @Test
+  void undoRemovesSlotsAddedAfterMarkAcrossGrowth() {
+    subject.add(ACCOUNT_A, slot(1));
+    final long mark = subject.mark();
+    for (int i = 0; i < 500; i++) {
+      subject.add(ACCOUNT_B, slot(i));
+      subject.add(ACCOUNT_A, slot(i << 20));
+    }
+
+    subject.undo(mark);
+
+    assertThat(subject.size()).isEqualTo(1);
+    assertThat(subject.contains(ACCOUNT_A, slot(1))).isTrue();
+    assertThat(subject.contains(ACCOUNT_B, slot(1))).isFalse();
+    assertThat(subject.add(ACCOUNT_B, slot(1))).isTrue();
+  }
+
+  @Test
+  void toTableGroupsSlotsByAccountInInsertionOrder() {
+    subject.add(ACCOUNT_B, slot(2));
+    subject.add(ACCOUNT_A, slot(1));
+    subject.add(ACCOUNT_B, slot(3));
+
+    assertThat(subject.toTable().rowKeySet()).containsExactly(ACCOUNT_B, ACCOUNT_A);
+    assertThat(subject.toTable().row(ACCOUNT_B).keySet()).containsExactly(slot(2), slot(3));
+  }
+
+  private static Bytes32 slot(final long value) {
+    return Bytes32.leftPad(Bytes.ofUnsignedLong(value));
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.code;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.evm.frame.MessageFrame.Type.MESSAGE_CALL;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.MainnetEVMs;
+import org.hyperledger.besu.evm.frame.BlockValues;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.math.BigInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class BasicBlocksTest {
+
+  // PUSH1 10, JUMPDEST, PUSH1 1, SWAP1, SUB, DUP1, PUSH1 2, JUMPI, STOP
+  private static final String COUNTDOWN_LOOP = "0x600a5b600190038060025700";
+
+  private static final BasicBlocks.StaticGas CANCUN =
+      MainnetEVMs.cancun(EvmConfiguration.DEFAULT).getBlockStaticGas();
+
+  @Test
+  void splitsAtJumpDestAndJumps() {
+    // PUSH1 1, PUSH1 2, ADD, PUSH1 0, JUMPI, STOP, JUMPDEST, STOP
+    final BasicBlocks blocks = analyze("0x6001600201600057005b00");
+
+    assertThat(blocks.size()).isEqualTo(2);
+    assertThat(blocks.start(0)).isZero();
+    assertThat(blocks.end(0)).isEqualTo(8);
+    assertThat(blocks.gasCost(0)).isEqualTo(22);
+    assertThat(blocks.stackRequired(0)).isZero();
+    assertThat(blocks.stackGrowth(0)).isEqualTo(2);
+
+    // the lone STOP after JUMPI is not worth a block
+    assertThat(blocks.blockAt(8)).isEqualTo(-1);
+    assertThat(blocks.blockAt(9)).isEqualTo(1);
+    assertThat(blocks.end(1)).isEqualTo(11);
+    assertThat(blocks.gasCost(1)).isEqualTo(1);
+  }
+
+  @Test
+  void nonBatchableOperationEndsBlock() {
+    // PUSH1 1, CALLDATALOAD, PUSH1 1, ADD
+    final BasicBlocks blocks = analyze("0x600135600101");
+
+    assertThat(blocks.size()).isEqualTo(1);
+    assertThat(blocks.start(0)).isEqualTo(3);
+    assertThat(blocks.end(0)).isEqualTo(6);
+    assertThat(blocks.gasCost(0)).isEqualTo(6);
+    assertThat(blocks.stackRequired(0)).isEqualTo(1);
+    assertThat(blocks.stackGrowth(0)).isEqualTo(1);
+  }
+
+  @Test
+  void pushDataIsNotDecoded() {
+    // PUSH2 0x5b5b, ADD
+    final BasicBlocks blocks = analyze("0x615b5b01");
+
+    assertThat(blocks.size()).isEqualTo(1);
+    assertThat(blocks.blockAt(0)).isZero();
+    assertThat(blocks.blockAt(1)).isEqualTo(-1);
+    assertThat(blocks.end(0)).isEqualTo(4);
+  }
+
+  @Test
+  void codeWithoutBatchableRunsHasNoBlocks() {
+    assertThat(analyze("0x").size()).isZero();
+    assertThat(analyze("0x3031").size()).isZero();
+  }
+
+  @Test
+  void staticGasFollowsTheForkOperations() {
+    final BasicBlocks.StaticGas osaka =
+        MainnetEVMs.osaka(BigInteger.ONE, EvmConfiguration.DEFAULT).getBlockStaticGas();
+    // PUSH1 1, PUSH1 1, EQ, CLZ
+    final byte[] code = Bytes.fromHexString("0x60016001141e").toArrayUnsafe();
+
+    final BasicBlocks osakaBlocks = BasicBlocks.analyze(code, osaka);
+    assertThat(osakaBlocks.size()).isEqualTo(1);
+    assertThat(osakaBlocks.end(0)).isEqualTo(6);
+    assertThat(osakaBlocks.gasCost(0)).isEqualTo(14);
+
+    // CLZ is not an operation before Osaka
+    final BasicBlocks cancunBlocks = BasicBlocks.analyze(code, CANCUN);
+    assertThat(cancunBlocks.size()).isEqualTo(1);
+    assertThat(cancunBlocks.end(0)).isEqualTo(5);
+    assertThat(cancunBlocks.gasCost(0)).isEqualTo(9);
+  }
+
+  @Test
+  void blocksAreCachedOnCode() {
+    final Code code = new Code(Bytes.fromHexString(COUNTDOWN_LOOP));
+    final BasicBlocks blocks = code.getBasicBlocks(CANCUN);
+    assertThat(code.getBasicBlocks(CANCUN)).isSameAs(blocks);
+
+    final BasicBlocks.StaticGas osaka =
+        MainnetEVMs.osaka(BigInteger.ONE, EvmConfiguration.DEFAULT).getBlockStaticGas();
+    assertThat(code.getBasicBlocks(osaka)).isNotSameAs(blocks);
+    assertThat(code.getBasicBlocks(osaka).isAnalyzedWith(osaka)).isTrue();
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {0, 3, 10, 28, 29, 100, 262, 263, 264, 10_000})
+  void blockGasMatchesPerOperationGas(final long gasLimit) {
+    final EVM evm = MainnetEVMs.cancun(EvmConfiguration.DEFAULT);
+    final Code code = new Code(Bytes.fromHexString(COUNTDOWN_LOOP));
+
+    final MessageFrame untraced = frame(code, gasLimit);
+    evm.runToHalt(untraced, OperationTracer.NO_TRACING);
+    final MessageFrame traced = frame(code, gasLimit);
+    evm.runToHalt(traced, new OperationTracer() {});
+
+    assertThat(untraced.getState()).isEqualTo(traced.getState());
+    assertThat(untraced.getExceptionalHaltReason()).isEqualTo(traced.getExceptionalHaltReason());
+    assertThat(untraced.getRemainingGas()).isEqualTo(traced.getRemainingGas());
+    assertThat(untraced.getPC()).isEqualTo(traced.getPC());
+  }
+
+  private static BasicBlocks analyze(final String hex) {
+    return BasicBlocks.analyze(Bytes.fromHexString(hex).toArrayUnsafe(), CANCUN);
+  }
+
+  /** A frame running {@code code} from its first instruction, shared with the fusion tests. */
+  static MessageFrame frame(final Code code, final long gasLimit) {
+    final MessageFrame frame =
+        MessageFrame.builder()
+            .type(MESSAGE_CALL)
+            .worldUpdater(mock(WorldUpdater.class))
+            .initialGas(gasLimit)
+            .address(Address.ZERO)
+            .originator(Address.ZERO)
+            .contract(Address.ZERO)
+            .gasPrice(Wei.ZERO)
+            .inputData(Bytes.EMPTY)
+            .sender(Address.ZERO)
+            .value(Wei.ZERO)
+            .apparentValue(Wei.ZERO)
+            .code(code)
+            .blockValues(mock(BlockValues.class))
+            .completer(f -> {})
+            .miningBeneficiary(Address.ZERO)
+            .blockHashLookup((__, ___) -> Hash.EMPTY)
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    return frame;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.code;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.MainnetEVMs;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.CancunGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.operation.FusedOperations;
+import org.hyperledger.besu.evm.operation.Operation.OperationResult;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+
+import java.math.BigInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SuperinstructionsTest {
+
+  // countdown loop exiting through ISZERO PUSH1 JUMPI, then PUSH1 ADD, SWAP1 POP, DUP1 MSTORE and
+  // a taken PUSH1 JUMPI; runs to completion with less than 300 gas
+  private static final String ALL_SEQUENCES =
+      "0x60055b600190038015600f576002565b6020016007905060408052601e575b00";
+
+  @Test
+  void tagsEverySequence() {
+    final Superinstructions fused = analyze(ALL_SEQUENCES);
+
+    assertThat(fused.kindAt(8)).isEqualTo(Superinstructions.ISZERO_PUSH1_JUMPI);
+    assertThat(fused.kindAt(9)).isEqualTo(Superinstructions.PUSH1_JUMPI);
+    assertThat(fused.kindAt(16)).isEqualTo(Superinstructions.PUSH_ADD);
+    assertThat(fused.kindAt(21)).isEqualTo(Superinstructions.SWAP_POP);
+    assertThat(fused.kindAt(25)).isEqualTo(Superinstructions.DUP_MSTORE);
+    assertThat(fused.kindAt(27)).isEqualTo(Superinstructions.PUSH1_JUMPI);
+    assertThat(fused.size()).isEqualTo(6);
+  }
+
+  @Test
+  void widePushBeforeAddIsTagged() {
+    // PUSH3 0x000001, ADD
+    assertThat(analyze("0x6200000101").kindAt(0)).isEqualTo(Superinstructions.PUSH_ADD);
+  }
+
+  @Test
+  void pushDataIsNotDecoded() {
+    // PUSH2 0x9050, STOP: the immediate looks like SWAP1 POP
+    final Superinstructions fused = analyze("0x61905000");
+    assertThat(fused).isSameAs(Superinstructions.EMPTY);
+    assertThat(fused.kindAt(1)).isEqualTo(Superinstructions.NONE);
+  }
+
+  @Test
+  void truncatedSequenceIsNotTagged() {
+    assertThat(analyze("0x6001")).isSameAs(Superinstructions.EMPTY);
+    assertThat(analyze("0x1560")).isSameAs(Superinstructions.EMPTY);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        ALL_SEQUENCES,
+        // PUSH1 0, JUMPI with an empty stack underflows in JUMPI
+        "0x600057",
+        // ISZERO with an empty stack
+        "0x1560045700",
+        // taken jump to a non JUMPDEST
+        "0x6001600357",
+        // SWAP1 POP with too few items
+        "0x600190500000"
+      })
+  void fusedExecutionMatchesTracedExecution(final String hex) {
+    final EVM evm = MainnetEVMs.cancun(EvmConfiguration.DEFAULT);
+    final Code code = new Code(Bytes.fromHexString(hex));
+
+    for (long gasLimit = 0; gasLimit <= 300; gasLimit++) {
+      final MessageFrame untraced = BasicBlocksTest.frame(code, gasLimit);
+      evm.runToHalt(untraced, OperationTracer.NO_TRACING);
+      final MessageFrame traced = BasicBlocksTest.frame(code, gasLimit);
+      evm.runToHalt(traced, new OperationTracer() {});
+
+      assertThat(untraced.getState()).isEqualTo(traced.getState());
+      assertThat(untraced.getExceptionalHaltReason())
+          .isEqualTo(traced.getExceptionalHaltReason());
+      assertThat(untraced.getRemainingGas()).isEqualTo(traced.getRemainingGas());
+      if (traced.getState() != MessageFrame.State.EXCEPTIONAL_HALT) {
+        assertThat(untraced.getPC()).isEqualTo(traced.getPC());
+        assertThat(untraced.stackSize()).isEqualTo(traced.stackSize());
+        for (int i = 0; i < traced.stackSize(); i++) {
+          assertThat(untraced.getStackItem(i)).isEqualTo(traced.getStackItem(i));
+        }
+        assertThat(untraced.memoryByteSize()).isEqualTo(traced.memoryByteSize());
+        assertThat(untraced.readMemory(0, traced.memoryByteSize()))
+            .isEqualTo(traced.readMemory(0, traced.memoryByteSize()));
+      }
+    }
+  }
+
+  @Test
+  void fusedSequenceChargesTheGasOfTheFork() {
+    // a fork repricing the very low tier from 3 to 5 and the high tier from 10 to 12
+    final GasCalculator repriced =
+        new CancunGasCalculator() {
+          @Override
+          public long getVeryLowTierGasCost() {
+            return 5;
+          }
+
+          @Override
+          public long getHighTierGasCost() {
+            return 12;
+          }
+        };
+    final EVM evm = MainnetEVMs.cancun(repriced, BigInteger.ONE, EvmConfiguration.DEFAULT);
+    final FusedOperations fusedOperations = new FusedOperations(evm.getBlockStaticGas());
+    // PUSH1 0, ISZERO, PUSH1 7, JUMPI, STOP, JUMPDEST, STOP
+    final Code code = new Code(Bytes.fromHexString("0x600015600757005b00"));
+    final MessageFrame frame = BasicBlocksTest.frame(code, 100);
+    frame.pushStackItem(Bytes32.ZERO);
+    frame.setPC(2);
+
+    final OperationResult result =
+        fusedOperations.execute(
+            Superinstructions.ISZERO_PUSH1_JUMPI,
+            frame,
+            code.getBytes().toArrayUnsafe(),
+            2,
+            true,
+            evm.getOperationsUnsafe(),
+            evm);
+
+    assertThat(result.getHaltReason()).isNull();
+    assertThat(result.getGasCost()).isEqualTo(12);
+    assertThat(frame.getRemainingGas()).isEqualTo(90);
+    assertThat(frame.getPC()).isEqualTo(7);
+  }
+
+  private static Superinstructions analyze(final String hex) {
+    return Superinstructions.analyze(Bytes.fromHexString(hex).toArrayUnsafe());
+  }
+}
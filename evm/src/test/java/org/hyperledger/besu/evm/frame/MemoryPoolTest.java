@@ -0,0 +1,86 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.frame;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+class MemoryPoolTest {
+
+  private static final Bytes32 WORD = Bytes32.fromHexString("0x" + "ab".repeat(32));
+
+  @Test
+  void acquiredBuffersAreRoundedUpToTierSize() {
+    final MemoryPool pool = MemoryPool.current();
+    assertThat(pool.acquire(1)).hasSize(1024);
+    assertThat(pool.acquire(1025)).hasSize(4096);
+    assertThat(pool.acquire(256 * 1024)).hasSize(256 * 1024);
+    assertThat(pool.acquire(256 * 1024 + 1)).hasSize(256 * 1024 + 1);
+  }
+
+  @Test
+  void releasedBufferIsReusedZeroed() {
+    final MemoryPool pool = MemoryPool.current();
+    final byte[] buffer = pool.acquire(16 * 1024);
+    buffer[0] = 1;
+    buffer[100] = 2;
+    pool.release(buffer, 101);
+
+    final byte[] reused = pool.acquire(16 * 1024);
+    assertThat(reused).isSameAs(buffer);
+    assertThat(reused).containsOnly((byte) 0);
+  }
+
+  @Test
+  void buffersOfOtherSizesAreNotPooled() {
+    final MemoryPool pool = MemoryPool.current();
+    final byte[] odd = new byte[3000];
+    pool.release(odd, 0);
+
+    assertThat(pool.acquire(3000)).isNotSameAs(odd);
+  }
+
+  @Test
+  void releasedMemoryIsEmptyAndGrowsBackZeroed() {
+    final Memory memory = new Memory();
+    memory.setWord(0, WORD);
+    memory.setWord(2000, WORD);
+    memory.release();
+
+    assertThat(memory.getActiveWords()).isZero();
+    final Memory other = new Memory();
+    assertThat(other.getWord(2000)).isEqualTo(Bytes32.ZERO);
+    assertThat(other.getWord(0)).isEqualTo(Bytes32.ZERO);
+  }
+
+  @Test
+  void equalityComparesActiveBytes() {
+    final Memory grown = new Memory();
+    grown.setWord(0, WORD);
+    grown.setWord(4000, WORD);
+    grown.setWord(0, Bytes32.ZERO);
+    grown.setWord(4000, Bytes32.ZERO);
+    final Memory direct = new Memory();
+    direct.setWord(4000, Bytes32.ZERO);
+
+    assertThat(grown).isEqualTo(direct);
+    assertThat(grown.hashCode()).isEqualTo(direct.hashCode());
+
+    grown.release();
+    assertThat(grown).isEqualTo(new Memory()).isNotEqualTo(direct);
+  }
+}
@@ -88,4 +88,43 @@ class MessageFrameTest {
     assertThat(messageFrame.shadowReadMemory(32, Bytes32.SIZE)).isEqualTo(WORD2);
     assertThat(messageFrame.memoryWordSize()).isEqualTo(initialActiveWords);
   }
+
+  @Test
+  void readsKeptAfterOperationSurviveMemoryRelease() {
+    final MessageFrame messageFrame = messageFrameBuilder.build();
+    messageFrame.writeMemory(0, WORD1.size(), WORD1);
+
+    final Bytes input = messageFrame.readMemory(0, Bytes32.SIZE);
+    messageFrame.readMutableMemory(0, Bytes32.SIZE, true);
+    messageFrame.releaseMemory();
+    // the released buffer is zeroed and handed to the next memory that grows
+    new Memory().setWord(0, WORD2);
+
+    assertThat(input).isEqualTo(WORD1);
+    assertThat(messageFrame.getMaybeUpdatedMemory())
+        .hasValueSatisfying(entry -> assertThat(entry.getValue()).isEqualTo(WORD1));
+  }
+
+  @Test
+  void latestExplicitMemoryAccessIsReported() {
+    final MessageFrame messageFrame = messageFrameBuilder.build();
+    messageFrame.writeMemory(0, WORD1.size(), WORD1);
+
+    messageFrame.readMutableMemory(0, Bytes32.SIZE, true);
+    assertThat(messageFrame.getMaybeUpdatedMemory())
+        .hasValueSatisfying(entry -> assertThat(entry.getValue()).isEqualTo(WORD1));
+
+    messageFrame.writeMemory(32, WORD2.size(), WORD2, true);
+    assertThat(messageFrame.getMaybeUpdatedMemory())
+        .hasValueSatisfying(
+            entry -> {
+              assertThat(entry.getOffset()).isEqualTo(32);
+              assertThat(entry.getValue()).isEqualTo(WORD2);
+            });
+
+    messageFrame.reset();
+    messageFrame.readMutableMemory(32, Bytes32.SIZE, true);
+    messageFrame.reset();
+    assertThat(messageFrame.getMaybeUpdatedMemory()).isEmpty();
+  }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.MainnetEVMs;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class EvmV2DifferentialTest {
+
+  private static final EVM V1 = MainnetEVMs.prague(configuration(false));
+  private static final EVM V2 = MainnetEVMs.prague(configuration(true));
+
+  private static final Bytes INPUT =
+      Bytes.fromHexString("0x0102030405060708091011121314151617181920212223242526272829303132");
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        // PUSH1 2 PUSH1 3 MUL PUSH1 0 MSTORE STOP, fully ported
+        "0x600260030260005200",
+        // ADDMOD then ADD, RETURN
+        "0x6007600560030860010160005260206000f3",
+        // EXP and SIGNEXTEND mixed with ADD, RETURN
+        "0x600360020a60ff60000b0160005260206000f3",
+        // CALLDATALOAD, KECCAK256 of it XOR CALLER, RETURN
+        "0x6000356000526020600020331860005260206000f3",
+        // CALLDATACOPY then MLOAD, RETURN
+        "0x6004600060003760005160205260406000f3",
+        // LOG1, then CALLDATASIZE and ADDRESS stored and REVERT
+        "0x602a60005260aa60206000a1366000523060205260406000fd",
+        // ADDMOD with two items underflows
+        "0x6001600108",
+        // out of gas in a KECCAK256 over a large region
+        "0x63ffffffff60002000"
+      })
+  void unportedOpcodesRunLikeV1(final String hex) {
+    final Code code = new Code(Bytes.fromHexString(hex));
+
+    final MessageFrame v1 = frame(code);
+    V1.runToHalt(v1, OperationTracer.NO_TRACING);
+    final MessageFrame v2 = frame(code);
+    V2.runToHalt(v2, OperationTracer.NO_TRACING);
+
+    assertThat(v2.getState()).isEqualTo(v1.getState());
+    assertThat(v2.getExceptionalHaltReason()).isEqualTo(v1.getExceptionalHaltReason());
+    assertThat(v2.getRemainingGas()).isEqualTo(v1.getRemainingGas());
+    assertThat(v2.getOutputData()).isEqualTo(v1.getOutputData());
+    assertThat(v2.getLogs()).isEqualTo(v1.getLogs());
+    assertThat(v2.memoryByteSize()).isEqualTo(v1.memoryByteSize());
+    assertThat(v2.readMemory(0, v2.memoryByteSize()))
+        .isEqualTo(v1.readMemory(0, v1.memoryByteSize()));
+  }
+
+  private static EvmConfiguration configuration(final boolean enableEvmV2) {
+    return new EvmConfiguration(
+        32_000L, EvmConfiguration.WorldUpdaterMode.STACKED, false, enableEvmV2);
+  }
+
+  private static MessageFrame frame(final Code code) {
+    return new TestMessageFrameBuilderV2().code(code).inputData(INPUT).initialGas(100_000).build();
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2.getV2StackItem;
+
+import org.hyperledger.besu.evm.UInt256;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.FrontierGasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ByteOperationV2Test extends BinaryOperationV2Test {
+
+  private static final String VALUE =
+      "0x000102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f";
+
+  public ByteOperationV2Test() {
+    super(new ByteOperationV2(new FrontierGasCalculator()));
+  }
+
+  static Iterable<Arguments> data() {
+    return List.of(
+        // (index, value, expected): byte i of VALUE is i
+        Arguments.of("0x00", VALUE, "0x00"),
+        Arguments.of("0x07", VALUE, "0x07"),
+        Arguments.of("0x08", VALUE, "0x08"),
+        Arguments.of("0x11", VALUE, "0x11"),
+        Arguments.of("0x1f", VALUE, "0x1f"),
+        Arguments.of("0x20", VALUE, "0x00"),
+        Arguments.of("0x0100000000000000000000000000000000", VALUE, "0x00"),
+        Arguments.of("0x00", "0xff" + "00".repeat(31), "0xff"));
+  }
+
+  @ParameterizedTest(name = "{index}: byte({0}, {1}) = {2}")
+  @MethodSource("data")
+  void byteOperation(final String index, final String value, final String expectedResult) {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2()
+            .pushStackItem(Bytes32.fromHexString(value))
+            .pushStackItem(Bytes32.fromHexString(index))
+            .build();
+
+    final Operation.OperationResult result = operation.execute(frame, null);
+
+    assertThat(result.getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isEqualTo(1);
+    assertThat(getV2StackItem(frame, 0))
+        .isEqualTo(UInt256.fromBytesBE(Bytes32.fromHexString(expectedResult).toArrayUnsafe()));
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+class JumpiOperationV2Test {
+
+  // PUSH1 0x04 PUSH1 0x01 JUMPI JUMPDEST STOP
+  private static final Code CODE = new Code(Bytes.fromHexString("0x60046001575b00"));
+
+  private static MessageFrame frame(final String condition, final String dest) {
+    return new TestMessageFrameBuilderV2()
+        .code(CODE)
+        .pc(4)
+        .pushStackItem(Bytes32.fromHexString(condition))
+        .pushStackItem(Bytes32.fromHexString(dest))
+        .build();
+  }
+
+  @Test
+  void jumpsWhenConditionIsNonZero() {
+    final MessageFrame frame = frame("0x01", "0x05");
+
+    final Operation.OperationResult result = JumpiOperationV2.staticOperation(frame);
+
+    assertThat(result.getHaltReason()).isNull();
+    assertThat(result.getPcIncrement()).isZero();
+    assertThat(frame.getPC()).isEqualTo(5);
+    assertThat(frame.stackTopV2()).isZero();
+  }
+
+  @Test
+  void conditionInHighLimbIsNonZero() {
+    final MessageFrame frame = frame("0x01" + "00".repeat(24), "0x05");
+
+    JumpiOperationV2.staticOperation(frame);
+
+    assertThat(frame.getPC()).isEqualTo(5);
+  }
+
+  @Test
+  void fallsThroughWhenConditionIsZero() {
+    // destination is invalid, but it must not be checked when the condition is false
+    final MessageFrame frame = frame("0x00", "0x02");
+
+    final Operation.OperationResult result = JumpiOperationV2.staticOperation(frame);
+
+    assertThat(result.getHaltReason()).isNull();
+    assertThat(result.getPcIncrement()).isEqualTo(1);
+    assertThat(frame.getPC()).isEqualTo(4);
+  }
+
+  @Test
+  void haltsOnInvalidDestination() {
+    assertThat(JumpiOperationV2.staticOperation(frame("0x01", "0x02")).getHaltReason())
+        .isEqualTo(ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
+    // does not fit in an int
+    assertThat(JumpiOperationV2.staticOperation(frame("0x01", "0x0100000005")).getHaltReason())
+        .isEqualTo(ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
+    assertThat(JumpOperationV2.staticOperation(frame("0x00", "0x80000005")).getHaltReason())
+        .isEqualTo(ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2.getV2StackItem;
+
+import org.hyperledger.besu.evm.UInt256;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.FrontierGasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class LtOperationV2Test extends BinaryOperationV2Test {
+
+  public LtOperationV2Test() {
+    super(new LtOperationV2(new FrontierGasCalculator()));
+  }
+
+  /**
+   * Test data for lt(a, b) = expected. Each case differs in a single limb so that the limb order of
+   * the comparison is exercised.
+   */
+  static Iterable<Arguments> data() {
+    return List.of(
+        // (a, b, expected)
+        Arguments.of("0x02", "0x03", "0x01"),
+        Arguments.of("0x03", "0x02", "0x00"),
+        Arguments.of("0x03", "0x03", "0x00"),
+        // high bit in the least significant limb must compare unsigned
+        Arguments.of("0x01", "0x8000000000000000", "0x01"),
+        // a higher limb dominates lower limbs
+        Arguments.of(
+            "0x0000000000000001000000000000000000000000000000000000000000000000",
+            "0x0000000000000000ffffffffffffffffffffffffffffffffffffffffffffffff",
+            "0x00"),
+        // the top bit is not a sign bit for LT
+        Arguments.of(
+            "0x01", "0x8000000000000000000000000000000000000000000000000000000000000000", "0x01"));
+  }
+
+  @ParameterizedTest(name = "{index}: lt({0}, {1}) = {2}")
+  @MethodSource("data")
+  void ltOperation(final String a, final String b, final String expectedResult) {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2()
+            .pushStackItem(Bytes32.fromHexString(b))
+            .pushStackItem(Bytes32.fromHexString(a))
+            .build();
+
+    final Operation.OperationResult result = operation.execute(frame, null);
+
+    assertThat(result.getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isEqualTo(1);
+    assertThat(getV2StackItem(frame, 0))
+        .isEqualTo(UInt256.fromBytesBE(Bytes32.fromHexString(expectedResult).toArrayUnsafe()));
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2.getV2StackItem;
+
+import org.hyperledger.besu.evm.UInt256;
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.CancunGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+class MStoreOperationV2Test {
+
+  private static final String VALUE =
+      "0x0102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f20";
+
+  private final GasCalculator gasCalculator = new CancunGasCalculator();
+  private final MStoreOperationV2 mstore = new MStoreOperationV2(gasCalculator);
+  private final MStore8OperationV2 mstore8 = new MStore8OperationV2(gasCalculator);
+  private final MLoadOperationV2 mload = new MLoadOperationV2(gasCalculator);
+
+  @Test
+  void mstoreThenMloadRoundTrips() {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2()
+            .pushStackItem(Bytes32.fromHexString(VALUE))
+            .pushStackItem(Bytes32.fromHexString("0x03"))
+            .build();
+
+    final Operation.OperationResult store = mstore.execute(frame, null);
+
+    assertThat(store.getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isZero();
+    assertThat(frame.readMemory(3, 32)).isEqualTo(Bytes.fromHexString(VALUE));
+    assertThat(frame.memoryByteSize()).isEqualTo(64);
+
+    StackUtil.pushLong(3, frame.stackDataV2(), 0);
+    frame.setTopV2(1);
+
+    final Operation.OperationResult load = mload.execute(frame, null);
+
+    assertThat(load.getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isEqualTo(1);
+    assertThat(getV2StackItem(frame, 0))
+        .isEqualTo(UInt256.fromBytesBE(Bytes32.fromHexString(VALUE).toArrayUnsafe()));
+  }
+
+  @Test
+  void mstore8WritesLeastSignificantByte() {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2()
+            .pushStackItem(Bytes32.fromHexString(VALUE))
+            .pushStackItem(Bytes32.fromHexString("0x01"))
+            .build();
+
+    final Operation.OperationResult result = mstore8.execute(frame, null);
+
+    assertThat(result.getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isZero();
+    assertThat(frame.readMemory(0, 3)).isEqualTo(Bytes.fromHexString("0x002000"));
+  }
+
+  @Test
+  void hugeOffsetRunsOutOfGas() {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2()
+            .pushStackItem(Bytes32.fromHexString(VALUE))
+            .pushStackItem(Bytes32.fromHexString("0x010000000000000000"))
+            .build();
+
+    final Operation.OperationResult result = mstore.execute(frame, null);
+
+    assertThat(result.getHaltReason()).isEqualTo(ExceptionalHaltReason.INSUFFICIENT_GAS);
+    assertThat(frame.stackTopV2()).isEqualTo(2);
+  }
+}
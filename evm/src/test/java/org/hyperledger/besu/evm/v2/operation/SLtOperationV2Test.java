@@ -0,0 +1,74 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2.getV2StackItem;
+
+import org.hyperledger.besu.evm.UInt256;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.FrontierGasCalculator;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SLtOperationV2Test extends BinaryOperationV2Test {
+
+  private static final String MINUS_ONE =
+      "0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff";
+  private static final String MINUS_TWO =
+      "0xfffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffe";
+  private static final String MIN_NEGATIVE =
+      "0x8000000000000000000000000000000000000000000000000000000000000000";
+
+  public SLtOperationV2Test() {
+    super(new SLtOperationV2(new FrontierGasCalculator()));
+  }
+
+  static Iterable<Arguments> data() {
+    return List.of(
+        // (a, b, expected)
+        Arguments.of("0x02", "0x03", "0x01"),
+        Arguments.of(MINUS_ONE, "0x00", "0x01"),
+        Arguments.of("0x00", MINUS_ONE, "0x00"),
+        Arguments.of(MIN_NEGATIVE, MINUS_ONE, "0x01"),
+        Arguments.of(MINUS_ONE, MINUS_ONE, "0x00"),
+        // lower limbs of negative numbers still compare unsigned
+        Arguments.of(MINUS_TWO, MINUS_ONE, "0x01"));
+  }
+
+  @ParameterizedTest(name = "{index}: slt({0}, {1}) = {2}")
+  @MethodSource("data")
+  void sltOperation(final String a, final String b, final String expectedResult) {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2()
+            .pushStackItem(Bytes32.fromHexString(b))
+            .pushStackItem(Bytes32.fromHexString(a))
+            .build();
+
+    final Operation.OperationResult result = operation.execute(frame, null);
+
+    assertThat(result.getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isEqualTo(1);
+    assertThat(getV2StackItem(frame, 0))
+        .isEqualTo(UInt256.fromBytesBE(Bytes32.fromHexString(expectedResult).toArrayUnsafe()));
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.v2.operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2.getV2StackItem;
+
+import org.hyperledger.besu.evm.UInt256;
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.v2.testutils.TestMessageFrameBuilderV2;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Covers the v2 PUSH, DUP, SWAP and POP operations, which only move limbs around. */
+class StackOperationsV2Test {
+
+  private static UInt256 word(final String hex) {
+    return UInt256.fromBytesBE(Bytes32.fromHexString(hex).toArrayUnsafe());
+  }
+
+  @ParameterizedTest(name = "PUSH{0}")
+  @ValueSource(ints = {1, 2, 7, 8, 9, 16, 17, 31, 32})
+  void pushDecodesImmediateIntoLimbs(final int pushSize) {
+    final byte[] immediate = new byte[pushSize];
+    for (int i = 0; i < pushSize; i++) {
+      immediate[i] = (byte) (0xa0 + i);
+    }
+    final byte[] code =
+        Bytes.concatenate(Bytes.of(0x5f + pushSize), Bytes.wrap(immediate)).toArrayUnsafe();
+    final MessageFrame frame = new TestMessageFrameBuilderV2().build();
+
+    final Operation.OperationResult result =
+        PushOperationV2.staticOperation(frame, code, 0, pushSize);
+
+    assertThat(result.getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isEqualTo(1);
+    assertThat(frame.getPC()).isEqualTo(pushSize);
+    assertThat(getV2StackItem(frame, 0))
+        .isEqualTo(UInt256.fromBytesBE(Bytes32.leftPad(Bytes.wrap(immediate)).toArrayUnsafe()));
+  }
+
+  @Test
+  void pushRightPadsTruncatedImmediate() {
+    // PUSH4 with only two immediate bytes left in the code
+    final byte[] code = Bytes.fromHexString("0x63aabb").toArrayUnsafe();
+    final MessageFrame frame = new TestMessageFrameBuilderV2().build();
+
+    PushOperationV2.staticOperation(frame, code, 0, 4);
+
+    assertThat(getV2StackItem(frame, 0)).isEqualTo(word("0xaabb0000"));
+  }
+
+  @Test
+  void pushAtEndOfCodePushesZero() {
+    final byte[] code = Bytes.fromHexString("0x60").toArrayUnsafe();
+    final MessageFrame frame = new TestMessageFrameBuilderV2().build();
+
+    PushOperationV2.staticOperation(frame, code, 0, 1);
+
+    assertThat(getV2StackItem(frame, 0)).isEqualTo(UInt256.ZERO);
+  }
+
+  @Test
+  void dupCopiesNthItem() {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2()
+            .pushStackItem(Bytes32.fromHexString("0x0102030405060708090a0b0c0d0e0f10"))
+            .pushStackItem(Bytes32.fromHexString("0x02"))
+            .pushStackItem(Bytes32.fromHexString("0x03"))
+            .build();
+
+    final Operation.OperationResult result = DupOperationV2.staticOperation(frame, 3);
+
+    assertThat(result.getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isEqualTo(4);
+    assertThat(getV2StackItem(frame, 0)).isEqualTo(word("0x0102030405060708090a0b0c0d0e0f10"));
+    assertThat(getV2StackItem(frame, 1)).isEqualTo(word("0x03"));
+  }
+
+  @Test
+  void dupUnderflows() {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2().pushStackItem(Bytes32.fromHexString("0x01")).build();
+
+    final Operation.OperationResult result = DupOperationV2.staticOperation(frame, 2);
+
+    assertThat(result.getHaltReason()).isEqualTo(ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS);
+    assertThat(frame.stackTopV2()).isEqualTo(1);
+  }
+
+  @Test
+  void swapExchangesTopWithNthItem() {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2()
+            .pushStackItem(Bytes32.fromHexString("0xaa00000000000000bb00000000000000cc"))
+            .pushStackItem(Bytes32.fromHexString("0x02"))
+            .pushStackItem(Bytes32.fromHexString("0x03"))
+            .build();
+
+    final Operation.OperationResult result = SwapOperationV2.staticOperation(frame, 2);
+
+    assertThat(result.getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isEqualTo(3);
+    assertThat(getV2StackItem(frame, 0)).isEqualTo(word("0xaa00000000000000bb00000000000000cc"));
+    assertThat(getV2StackItem(frame, 1)).isEqualTo(word("0x02"));
+    assertThat(getV2StackItem(frame, 2)).isEqualTo(word("0x03"));
+  }
+
+  @Test
+  void swapUnderflows() {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2().pushStackItem(Bytes32.fromHexString("0x01")).build();
+
+    final Operation.OperationResult result = SwapOperationV2.staticOperation(frame, 1);
+
+    assertThat(result.getHaltReason()).isEqualTo(ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS);
+  }
+
+  @Test
+  void popAndPush0() {
+    final MessageFrame frame =
+        new TestMessageFrameBuilderV2().pushStackItem(Bytes32.fromHexString("0x01")).build();
+
+    assertThat(PopOperationV2.staticOperation(frame).getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isZero();
+    assertThat(PopOperationV2.staticOperation(frame).getHaltReason())
+        .isEqualTo(ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS);
+
+    // PUSH0 must clear the limbs left behind by the popped item
+    assertThat(Push0OperationV2.staticOperation(frame).getHaltReason()).isNull();
+    assertThat(frame.stackTopV2()).isEqualTo(1);
+    assertThat(getV2StackItem(frame, 0)).isEqualTo(UInt256.ZERO);
+  }
+}
@@ -54,6 +54,14 @@ public interface StateRootCommitter {
       WorldStateKeyValueStorage.Updater stateUpdater,
       BlockHeader blockHeader);
 
+  /**
+   * Notifies the committer that a transaction has been committed to the world state, so that its
+   * changes can be folded into the state root ahead of {@link #computeRoot}.
+   *
+   * @param worldState the world state the transaction was committed to
+   */
+  default void onTransactionCommitted(final MutableWorldState worldState) {}
+
   /** Cancels any ongoing state root computation. */
   default void cancel() {}
 
@@ -77,6 +85,11 @@ public interface StateRootCommitter {
         }
       }
 
+      @Override
+      public void onTransactionCommitted(final MutableWorldState worldState) {
+        delegate.onTransactionCommitted(worldState);
+      }
+
       @Override
       public void cancel() {
         delegate.cancel();
@@ -26,6 +26,8 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbIterator;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -115,6 +117,54 @@ public class RocksDBColumnarKeyValueSnapshot
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+    if (keys.isEmpty()) {
+      return List.of();
+    }
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      final ColumnFamilyHandle handle = columnFamilyMapper.apply(segment);
+      if (isReadCacheEnabledForSnapshots && segment.isEligibleToHighSpecFlag()) {
+        return multiGetFromCacheOrRead(segment.getId(), keys, handle, maybeCache.get());
+      } else {
+        return RocksDBColumnarKeyValueStorage.toOptionals(
+            snapshot.multiGet(handle, readOptions, keys));
+      }
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  private List<Optional<byte[]>> multiGetFromCacheOrRead(
+      final byte[] segmentId,
+      final List<byte[]> keys,
+      final ColumnFamilyHandle handle,
+      final Cache<Bytes, Optional<byte[]>> cache)
+      throws RocksDBException {
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    final List<Integer> missingPositions = new ArrayList<>();
+    final List<byte[]> missingKeys = new ArrayList<>();
+    for (final byte[] key : keys) {
+      final Optional<byte[]> cached = cache.getIfPresent(makeCacheKey(segmentId, key));
+      if (cached == null) {
+        missingPositions.add(values.size());
+        missingKeys.add(key);
+      }
+      values.add(cached);
+    }
+    if (!missingKeys.isEmpty()) {
+      final List<byte[]> read = snapshot.multiGet(handle, readOptions, missingKeys);
+      for (int i = 0; i < missingKeys.size(); i++) {
+        final Optional<byte[]> value = Optional.ofNullable(read.get(i));
+        cache.put(makeCacheKey(segmentId, missingKeys.get(i)), value);
+        values.set(missingPositions.get(i), value);
+      }
+    }
+    return values;
+  }
+
   private Optional<byte[]> getFromCacheOrRead(
       final byte[] segmentId,
       final byte[] key,
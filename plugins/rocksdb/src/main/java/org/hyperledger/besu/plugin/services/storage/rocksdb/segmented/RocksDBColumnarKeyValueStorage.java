@@ -32,6 +32,7 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksD
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -430,6 +431,37 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+    if (keys.isEmpty()) {
+      return List.of();
+    }
+
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      final List<ColumnFamilyHandle> handles =
+          Collections.nCopies(keys.size(), safeColumnHandle(segment));
+      return toOptionals(getDB().multiGetAsList(readOptions, handles, keys));
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  /**
+   * Wrap the values returned by a RocksDB multi get, where absent keys are null.
+   *
+   * @param values the values returned by RocksDB
+   * @return the values as optionals
+   */
+  static List<Optional<byte[]>> toOptionals(final List<byte[]> values) {
+    final List<Optional<byte[]>> result = new ArrayList<>(values.size());
+    for (final byte[] value : values) {
+      result.add(Optional.ofNullable(value));
+    }
+    return result;
+  }
+
   @Override
   public Optional<NearestKeyValue> getNearestBefore(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
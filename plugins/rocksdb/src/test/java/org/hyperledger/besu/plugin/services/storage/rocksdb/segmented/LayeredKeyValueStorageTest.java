@@ -378,4 +378,29 @@ public class LayeredKeyValueStorageTest {
     assertArrayEquals(key3, resultList.get(2).getKey());
     assertArrayEquals(value3, resultList.get(2).getValue());
   }
+
+  @Test
+  void multiGetShouldReadOnlyKeysMissingFromLayerFromParent() {
+    byte[] layerKey = {1};
+    byte[] removedKey = {2};
+    byte[] parentKey = {3};
+    byte[] layerValue = {10};
+    byte[] parentValue = {30};
+
+    var hashValueStore = createSegmentMap();
+    hashValueStore.get(segmentId).put(Bytes.wrap(layerKey), Optional.of(layerValue));
+    hashValueStore.get(segmentId).put(Bytes.wrap(removedKey), Optional.empty());
+    layeredKeyValueStorage = new LayeredKeyValueStorage(hashValueStore, parentStorage);
+    when(parentStorage.multiGet(segmentId, List.of(parentKey)))
+        .thenReturn(List.of(Optional.of(parentValue)));
+
+    List<Optional<byte[]>> result =
+        layeredKeyValueStorage.multiGet(segmentId, List.of(parentKey, layerKey, removedKey));
+
+    assertEquals(3, result.size());
+    assertArrayEquals(parentValue, result.get(0).orElseThrow());
+    assertArrayEquals(layerValue, result.get(1).orElseThrow());
+    assertFalse(result.get(2).isPresent());
+    verify(parentStorage, atMostOnce()).multiGet(segmentId, List.of(parentKey));
+  }
 }
@@ -112,6 +112,28 @@ public abstract class RocksDBColumnarKeyValueStorageTest extends AbstractKeyValu
     store.close();
   }
 
+  @Test
+  public void multiGetReturnsValuesInKeyOrder() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(TestSegment.FOO, bytesOf(1), bytesOf(11));
+    tx.put(TestSegment.FOO, bytesOf(3), bytesOf(13));
+    tx.put(TestSegment.BAR, bytesOf(2), bytesOf(12));
+    tx.commit();
+
+    final List<Optional<byte[]>> result =
+        store.multiGet(TestSegment.FOO, List.of(bytesOf(3), bytesOf(2), bytesOf(1)));
+
+    assertThat(result).hasSize(3);
+    assertThat(result.get(0)).contains(bytesOf(13));
+    assertThat(result.get(1)).isEmpty();
+    assertThat(result.get(2)).contains(bytesOf(11));
+    assertThat(store.multiGet(TestSegment.FOO, List.of())).isEmpty();
+
+    store.close();
+  }
+
   @Test
   public void canRemoveThroughSegmentIteration() throws Exception {
     // we're looping this in order to catch intermittent failures when rocksdb objects are not close
@@ -24,8 +24,10 @@ import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
@@ -95,15 +97,46 @@ public class LayeredKeyValueStorage extends SegmentedInMemoryKeyValueStorage
     final Lock lock = rwLock.readLock();
     lock.lock();
     try {
-      final Bytes wrapKey = Bytes.wrap(key);
-      final Optional<byte[]> foundKey =
-          hashValueStore.computeIfAbsent(segmentId, __ -> newSegmentMap()).get(wrapKey);
+      final Optional<byte[]> foundKey = getFromLayer(segmentId, Bytes.wrap(key));
       return foundKey == null ? parent.get(segmentId, key) : foundKey;
     } finally {
       lock.unlock();
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final SegmentIdentifier segmentId, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    final List<Integer> missingPositions = new ArrayList<>();
+    final List<byte[]> missingKeys = new ArrayList<>();
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      final Map<Bytes, Optional<byte[]>> segment = hashValueStore.get(segmentId);
+      for (final byte[] key : keys) {
+        final Optional<byte[]> foundKey = segment == null ? null : segment.get(Bytes.wrap(key));
+        if (foundKey == null) {
+          missingPositions.add(values.size());
+          missingKeys.add(key);
+        }
+        values.add(foundKey);
+      }
+      if (!missingKeys.isEmpty()) {
+        // keys no layer holds go down the chain as one batch
+        final List<Optional<byte[]>> parentValues = parent.multiGet(segmentId, missingKeys);
+        for (int i = 0; i < missingKeys.size(); i++) {
+          values.set(missingPositions.get(i), parentValues.get(i));
+        }
+      }
+      return values;
+    } finally {
+      lock.unlock();
+    }
+  }
+
   /**
    * Bytes-keyed variant for callers that want to inject a function evaluated at the bottom of the
    * layer chain when no layer has a value for the key. Used by Bonsai to consult the cross-block
@@ -123,8 +156,7 @@ public class LayeredKeyValueStorage extends SegmentedInMemoryKeyValueStorage
     final Lock lock = rwLock.readLock();
     lock.lock();
     try {
-      final Optional<byte[]> foundKey =
-          hashValueStore.computeIfAbsent(segmentId, __ -> newSegmentMap()).get(key);
+      final Optional<byte[]> foundKey = getFromLayer(segmentId, key);
 
       if (foundKey == null) {
         if (parent instanceof LayeredKeyValueStorage layered) {
@@ -141,6 +173,17 @@ public class LayeredKeyValueStorage extends SegmentedInMemoryKeyValueStorage
     }
   }
 
+  /**
+   * Looks a key up in this layer only. Reads never create the segment map, so a layer shared by
+   * many readers is not mutated by them.
+   *
+   * @return the layer value, {@code Optional.empty()} for a deletion, or null if not in this layer
+   */
+  private Optional<byte[]> getFromLayer(final SegmentIdentifier segmentId, final Bytes key) {
+    final Map<Bytes, Optional<byte[]>> segment = hashValueStore.get(segmentId);
+    return segment == null ? null : segment.get(key);
+  }
+
   @Override
   public Optional<NearestKeyValue> getNearestBefore(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {